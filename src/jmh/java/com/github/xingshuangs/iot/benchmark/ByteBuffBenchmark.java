@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.benchmark;
+
+
+import com.github.xingshuangs.iot.common.buff.ByteBufferReadBuff;
+import com.github.xingshuangs.iot.common.buff.ByteBufferWriteBuff;
+import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
+import com.github.xingshuangs.iot.common.buff.ByteWriteBuff;
+import com.github.xingshuangs.iot.common.buff.EByteBuffFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of primitive access of ByteReadBuff and ByteWriteBuff.
+ * (字节读写缓存的基础类型访问基准测试)
+ *
+ * @author xingshuang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ByteBuffBenchmark {
+
+    private byte[] data;
+
+    private ByteBuffer directData;
+
+    @Setup
+    public void setup() {
+        this.data = new byte[64];
+        for (int i = 0; i < this.data.length; i++) {
+            this.data[i] = (byte) (i * 31);
+        }
+        this.directData = ByteBuffer.allocateDirect(this.data.length);
+        this.directData.put(this.data);
+        ((Buffer) this.directData).flip();
+    }
+
+    @Benchmark
+    public long readPrimitives() {
+        ByteReadBuff buff = new ByteReadBuff(this.data);
+        return buff.getInt16(0) + buff.getUInt16(2) + buff.getInt32(4) + buff.getUInt32(8)
+                + buff.getInt64(12) + (long) buff.getFloat32(20) + (long) buff.getFloat64(24);
+    }
+
+    @Benchmark
+    public long readPrimitivesLittleEndian() {
+        ByteReadBuff buff = new ByteReadBuff(this.data, 0, true, EByteBuffFormat.BA_DC);
+        return buff.getInt16(0) + buff.getUInt16(2) + buff.getInt32(4) + buff.getUInt32(8)
+                + buff.getInt64(12) + (long) buff.getFloat32(20) + (long) buff.getFloat64(24);
+    }
+
+    @Benchmark
+    public long readPrimitivesByteBuffer() {
+        ByteBufferReadBuff buff = new ByteBufferReadBuff(this.directData, 0, true, EByteBuffFormat.BA_DC);
+        return buff.getInt16(0) + buff.getUInt16(2) + buff.getInt32(4) + buff.getUInt32(8)
+                + buff.getInt64(12) + (long) buff.getFloat32(20) + (long) buff.getFloat64(24);
+    }
+
+    @Benchmark
+    public byte[] writePrimitives() {
+        return ByteWriteBuff.newInstance(32)
+                .putShort(0x1234)
+                .putShort(0x5678)
+                .putInteger(0x12345678)
+                .putInteger(0x9ABCDEF0L)
+                .putLong(0x123456789ABCDEF0L)
+                .putFloat(3.14f)
+                .putDouble(2.718281828)
+                .getData();
+    }
+
+    @Benchmark
+    public byte[] writePrimitivesLittleEndian() {
+        return ByteWriteBuff.newInstance(32, true, EByteBuffFormat.BA_DC)
+                .putShort(0x1234)
+                .putShort(0x5678)
+                .putInteger(0x12345678)
+                .putInteger(0x9ABCDEF0L)
+                .putLong(0x123456789ABCDEF0L)
+                .putFloat(3.14f)
+                .putDouble(2.718281828)
+                .getData();
+    }
+
+    @Benchmark
+    public ByteBuffer writePrimitivesByteBuffer() {
+        return ByteBufferWriteBuff.newInstance(32, true, EByteBuffFormat.BA_DC)
+                .putShort(0x1234)
+                .putShort(0x5678)
+                .putInteger(0x12345678)
+                .putInteger(0x9ABCDEF0L)
+                .putLong(0x123456789ABCDEF0L)
+                .putFloat(3.14f)
+                .putDouble(2.718281828)
+                .getByteBuffer();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.benchmark;
+
+
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceAddress;
+import com.github.xingshuangs.iot.protocol.melsec.model.McMessageAck;
+import com.github.xingshuangs.iot.protocol.melsec.model.McMessageReq;
+import com.github.xingshuangs.iot.protocol.melsec.model.McReqBuilder;
+import com.github.xingshuangs.iot.protocol.modbus.model.MbReadHoldRegisterRequest;
+import com.github.xingshuangs.iot.protocol.modbus.model.MbTcpRequest;
+import com.github.xingshuangs.iot.protocol.modbus.model.MbTcpResponse;
+import com.github.xingshuangs.iot.protocol.modbus.model.MbapHeader;
+import com.github.xingshuangs.iot.protocol.s7.model.DataItem;
+import com.github.xingshuangs.iot.protocol.s7.model.RequestItem;
+import com.github.xingshuangs.iot.protocol.s7.model.S7Data;
+import com.github.xingshuangs.iot.protocol.s7.utils.AddressUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of protocol message encoding and decoding.
+ * (协议报文编解码基准测试)
+ *
+ * @author xingshuang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    private List<RequestItem> s7RequestItems;
+
+    private byte[] s7ReadRequestBytes;
+
+    private byte[] s7WriteRequestBytes;
+
+    private byte[] mbTcpRequestBytes;
+
+    private byte[] mbTcpResponseBytes;
+
+    private byte[] mcAckBytes;
+
+    @Setup
+    public void setup() {
+        this.s7RequestItems = Arrays.asList(
+                AddressUtil.parseByte("DB1.0", 4),
+                AddressUtil.parseByte("DB1.10", 8),
+                AddressUtil.parseBit("DB1.20.3"),
+                AddressUtil.parseByte("M100", 2));
+        this.s7ReadRequestBytes = S7Data.createReadRequest(this.s7RequestItems).toByteArray();
+        this.s7WriteRequestBytes = S7Data.createWriteRequest(
+                Collections.singletonList(AddressUtil.parseByte("DB1.0", 64)),
+                Collections.singletonList(DataItem.createReqByByte(new byte[64]))).toByteArray();
+        this.mbTcpRequestBytes = this.encodeMbTcpRequest();
+        this.mbTcpResponseBytes = new byte[]{
+                0x00, 0x01, 0x00, 0x00, 0x00, 0x07,
+                0x01, 0x03, 0x04, 0x00, 0x0A, 0x00, 0x0B};
+        this.mcAckBytes = new byte[]{
+                (byte) 0xD0, 0x00, 0x00, (byte) 0xFF, (byte) 0xFF, 0x03, 0x00,
+                0x0C, 0x00, 0x00, 0x00,
+                0x01, 0x04, 0x00, 0x00,
+                0x58, 0x1B, 0x00, (byte) 0xA8, 0x02, 0x00};
+    }
+
+    @Benchmark
+    public byte[] s7EncodeReadRequest() {
+        return S7Data.createReadRequest(this.s7RequestItems).toByteArray();
+    }
+
+    @Benchmark
+    public S7Data s7DecodeReadRequest() {
+        return S7Data.fromBytes(this.s7ReadRequestBytes);
+    }
+
+    @Benchmark
+    public S7Data s7DecodeWriteRequest() {
+        return S7Data.fromBytes(this.s7WriteRequestBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeMbTcpRequest() {
+        MbTcpRequest request = new MbTcpRequest(new MbapHeader(1), new MbReadHoldRegisterRequest(100, 10));
+        request.selfCheck();
+        return request.toByteArray();
+    }
+
+    @Benchmark
+    public MbTcpRequest decodeMbTcpRequest() {
+        return MbTcpRequest.fromBytes(this.mbTcpRequestBytes);
+    }
+
+    @Benchmark
+    public MbTcpResponse decodeMbTcpResponse() {
+        return MbTcpResponse.fromBytes(this.mbTcpResponseBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeMcMessageReq() {
+        McMessageReq req = McReqBuilder.createReadDeviceBatchInWordReq(McDeviceAddress.createBy("D100", 10));
+        return req.toByteArray();
+    }
+
+    @Benchmark
+    public McMessageAck decodeMcMessageAck() {
+        return McMessageAck.fromBytes(this.mcAckBytes, EMcFrameType.FRAME_3E);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.benchmark;
+
+
+import com.github.xingshuangs.iot.protocol.rtp.model.RtpHeader;
+import com.github.xingshuangs.iot.protocol.rtp.model.RtpPackage;
+import com.github.xingshuangs.iot.protocol.rtp.service.H264VideoParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of H264VideoParser.processPackage, one frame is fragmented into FU-A packages.
+ * (H264VideoParser处理RTP包的基准测试，一帧数据拆分成多个FU-A包)
+ *
+ * @author xingshuang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class H264VideoParserBenchmark {
+
+    /**
+     * Number of FU-A packages per frame.
+     * (每帧FU-A包的个数)
+     */
+    @Param({"8"})
+    private int packagesPerFrame;
+
+    private static final int PAYLOAD_SIZE = 1400;
+
+    private H264VideoParser parser;
+
+    private int sequenceNumber;
+
+    private long timestamp;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.parser = new H264VideoParser(96);
+        this.parser.onFrameHandle(blackhole::consume);
+        this.sequenceNumber = 0;
+        this.timestamp = 3600;
+    }
+
+    @Benchmark
+    public void processFrame() {
+        for (int i = 0; i < this.packagesPerFrame; i++) {
+            this.parser.processPackage(this.createFuA(i == 0, i == this.packagesPerFrame - 1));
+        }
+        this.timestamp += 3600;
+    }
+
+    private RtpPackage createFuA(boolean start, boolean end) {
+        RtpHeader header = new RtpHeader();
+        header.setVersion(2);
+        header.setPayloadType(96);
+        header.setMarker(end);
+        // 序列号保持在[0,65535]内，超出后重建解析器避免回绕
+        if (this.sequenceNumber > 0xFFFF - this.packagesPerFrame) {
+            this.sequenceNumber = 0;
+            this.parser = new H264VideoParser(96);
+        }
+        header.setSequenceNumber(this.sequenceNumber++);
+        header.setTimestamp(this.timestamp);
+        header.setSsrc(0x3A64E1BAL);
+        byte[] payload = new byte[PAYLOAD_SIZE];
+        // FU indicator: NRI=3, type=28(FU-A)
+        payload[0] = 0x7C;
+        // FU header: S/E bit + type=5(IDR)
+        payload[1] = (byte) ((start ? 0x80 : 0x00) | (end ? 0x40 : 0x00) | 0x05);
+        // slice header: first_mb_in_slice=0, slice_type=7(I)
+        payload[2] = (byte) 0x88;
+        Arrays.fill(payload, 3, PAYLOAD_SIZE, (byte) 0xA5);
+        RtpPackage rtp = new RtpPackage();
+        rtp.setHeader(header);
+        rtp.setPayload(payload);
+        return rtp;
+    }
+}
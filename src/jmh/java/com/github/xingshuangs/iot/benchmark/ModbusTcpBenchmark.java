@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.benchmark;
+
+
+import com.github.xingshuangs.iot.protocol.modbus.service.ModbusTcp;
+import com.github.xingshuangs.iot.protocol.modbus.service.ModbusTcpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of ModbusTcp round-trips against the ModbusTcpServer on loopback.
+ * (ModbusTcp基于本地ModbusTcpServer的往返基准测试)
+ *
+ * @author xingshuang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ModbusTcpBenchmark {
+
+    private static final int PORT = 18502;
+
+    private ModbusTcpServer server;
+
+    private ModbusTcp modbusTcp;
+
+    @Setup
+    public void setup() {
+        this.server = new ModbusTcpServer();
+        this.server.start(PORT);
+        this.modbusTcp = new ModbusTcp("127.0.0.1", PORT);
+        this.modbusTcp.writeInt32(0, 123456);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.modbusTcp.close();
+        this.server.stop();
+    }
+
+    @Benchmark
+    public byte[] readHoldRegister() {
+        return this.modbusTcp.readHoldRegister(0, 100);
+    }
+
+    @Benchmark
+    public int readInt32() {
+        return this.modbusTcp.readInt32(0);
+    }
+
+    @Benchmark
+    public void writeHoldRegister() {
+        this.modbusTcp.writeHoldRegister(10, 1234);
+    }
+
+    @Benchmark
+    public List<Boolean> readCoil() {
+        return this.modbusTcp.readCoil(0, 16);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.benchmark;
+
+
+import com.github.xingshuangs.iot.protocol.mp4.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of Mp4MoofBox and Mp4MdatBox serialization.
+ * (Mp4MoofBox和Mp4MdatBox序列化基准测试)
+ *
+ * @author xingshuang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class Mp4BoxBenchmark {
+
+    /**
+     * Number of samples per fragment.
+     * (每个分片的样本数)
+     */
+    @Param({"25"})
+    private int sampleCount;
+
+    private Mp4TrackInfo trackInfo;
+
+    private long sequenceNumber;
+
+    @Setup
+    public void setup() {
+        List<Mp4SampleData> samples = new ArrayList<>();
+        for (int i = 0; i < this.sampleCount; i++) {
+            Mp4SampleData data = new Mp4SampleData();
+            data.setData(new byte[i == 0 ? 40000 : 5000]);
+            data.setDuration(3600);
+            data.setCts(0);
+            data.setDts(i * 3600L);
+            Mp4SampleFlag flag = new Mp4SampleFlag();
+            flag.setDependedOn(i == 0 ? 2 : 1);
+            flag.setIsNonSync(i == 0 ? 0 : 1);
+            data.setFlags(flag);
+            samples.add(data);
+        }
+        this.trackInfo = new Mp4TrackInfo();
+        this.trackInfo.setId(1);
+        this.trackInfo.setType("video");
+        this.trackInfo.setTimescale(90000);
+        this.trackInfo.setDuration(90000);
+        this.trackInfo.setWidth(1920);
+        this.trackInfo.setHeight(1080);
+        this.trackInfo.setSps(new byte[]{0x67, 0x64, 0x00, 0x2A, (byte) 0xAC, 0x2B, 0x50, 0x3C, 0x01, 0x13, (byte) 0xF2, (byte) 0xCD, (byte) 0xC0, 0x40, 0x40, 0x40, (byte) 0x80});
+        this.trackInfo.setPps(new byte[]{0x68, (byte) 0xEE, 0x3C, (byte) 0xB0});
+        this.trackInfo.setSampleData(samples);
+    }
+
+    @Benchmark
+    public byte[] moofBox() {
+        return new Mp4MoofBox(++this.sequenceNumber, 0, this.trackInfo).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] mdatBox() {
+        return new Mp4MdatBox(this.trackInfo.totalSampleData()).toByteArray();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.benchmark;
+
+
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.common.serializer.ByteArraySerializer;
+import com.github.xingshuangs.iot.common.serializer.ByteArrayVariable;
+import com.github.xingshuangs.iot.protocol.s7.enums.EPlcType;
+import com.github.xingshuangs.iot.protocol.s7.serializer.S7Serializer;
+import com.github.xingshuangs.iot.protocol.s7.serializer.S7Variable;
+import com.github.xingshuangs.iot.protocol.s7.service.S7PLC;
+import com.github.xingshuangs.iot.protocol.s7.service.S7PLCServer;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of S7Serializer against the S7PLCServer on loopback, and of ByteArraySerializer.
+ * (S7序列化器基于本地S7PLCServer的基准测试，以及字节数组序列化器的基准测试)
+ *
+ * @author xingshuang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+
+    private static final int PORT = 18102;
+
+    private S7PLCServer server;
+
+    private S7PLC s7PLC;
+
+    private S7Serializer s7Serializer;
+
+    private S7Bean s7Bean;
+
+    private ByteArraySerializer byteArraySerializer;
+
+    private byte[] byteArraySource;
+
+    @Setup
+    public void setup() {
+        this.server = new S7PLCServer();
+        this.server.addDBArea(1);
+        this.server.start(PORT);
+        this.s7PLC = new S7PLC(EPlcType.S1200, "127.0.0.1", PORT);
+        this.s7Serializer = S7Serializer.newInstance(this.s7PLC);
+        this.s7Bean = new S7Bean();
+        this.s7Bean.setBoolData(true);
+        this.s7Bean.setInt16Data((short) 123);
+        this.s7Bean.setInt32Data(456789);
+        this.s7Bean.setFloat32Data(3.14f);
+        this.s7Bean.setFloat64Data(2.718281828);
+        this.s7Serializer.write(this.s7Bean);
+
+        this.byteArraySerializer = ByteArraySerializer.newInstance();
+        this.byteArraySource = this.byteArraySerializer.toByteArray(this.s7Bean);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.s7PLC.close();
+        this.server.stop();
+    }
+
+    @Benchmark
+    public S7Bean s7SerializerRead() {
+        return this.s7Serializer.read(S7Bean.class);
+    }
+
+    @Benchmark
+    public void s7SerializerWrite() {
+        this.s7Serializer.write(this.s7Bean);
+    }
+
+    @Benchmark
+    public S7Bean byteArrayToObject() {
+        return this.byteArraySerializer.toObject(S7Bean.class, this.byteArraySource);
+    }
+
+    @Benchmark
+    public byte[] byteArrayToByteArray() {
+        return this.byteArraySerializer.toByteArray(this.s7Bean);
+    }
+
+    @Data
+    public static class S7Bean {
+
+        @S7Variable(address = "DB1.0.0", type = EDataType.BOOL)
+        @ByteArrayVariable(byteOffset = 0, bitOffset = 0, type = EDataType.BOOL)
+        private boolean boolData;
+
+        @S7Variable(address = "DB1.2", type = EDataType.INT16)
+        @ByteArrayVariable(byteOffset = 2, type = EDataType.INT16)
+        private short int16Data;
+
+        @S7Variable(address = "DB1.4", type = EDataType.INT32)
+        @ByteArrayVariable(byteOffset = 4, type = EDataType.INT32)
+        private int int32Data;
+
+        @S7Variable(address = "DB1.8", type = EDataType.FLOAT32)
+        @ByteArrayVariable(byteOffset = 8, type = EDataType.FLOAT32)
+        private float float32Data;
+
+        @S7Variable(address = "DB1.12", type = EDataType.FLOAT64)
+        @ByteArrayVariable(byteOffset = 12, type = EDataType.FLOAT64)
+        private double float64Data;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.buff;
+
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Size-classed byte array pool, the size classes are powers of two, requests larger than the biggest class are
+ * allocated directly and never recycled.
+ * (按大小分级的字节数组池，每一级为2的幂次，超过最大级别的请求直接分配且不回收)
+ *
+ * @author xingshuang
+ */
+public final class ByteArrayPool {
+
+    /**
+     * Shift of the smallest size class, 64 bytes.
+     * (最小级别的位移，64字节)
+     */
+    private static final int MIN_SHIFT = 6;
+
+    /**
+     * Shift of the biggest size class, 64K bytes.
+     * (最大级别的位移，64K字节)
+     */
+    private static final int MAX_SHIFT = 16;
+
+    /**
+     * Default number of cached arrays per size class.
+     * (每个级别默认缓存的数组数量)
+     */
+    private static final int DEFAULT_MAX_PER_CLASS = 16;
+
+    private static final ByteArrayPool DEFAULT = new ByteArrayPool(DEFAULT_MAX_PER_CLASS);
+
+    /**
+     * Cached arrays per size class.
+     * (每个级别缓存的数组)
+     */
+    private final Queue<byte[]>[] classes;
+
+    /**
+     * Number of cached arrays per size class.
+     * (每个级别缓存的数组数量)
+     */
+    private final AtomicInteger[] counts;
+
+    /**
+     * Max number of cached arrays per size class.
+     * (每个级别最多缓存的数组数量)
+     */
+    private final int maxPerClass;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ByteArrayPool(int maxPerClass) {
+        if (maxPerClass < 0) {
+            throw new IllegalArgumentException("maxPerClass < 0");
+        }
+        this.maxPerClass = maxPerClass;
+        int size = MAX_SHIFT - MIN_SHIFT + 1;
+        this.classes = new Queue[size];
+        this.counts = new AtomicInteger[size];
+        for (int i = 0; i < size; i++) {
+            this.classes[i] = new ConcurrentLinkedQueue<>();
+            this.counts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Get the shared pool.
+     * (获取共享的缓存池)
+     *
+     * @return ByteArrayPool
+     */
+    public static ByteArrayPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Lease a byte array which can hold at least the length, release it after use.
+     * (租借一个至少能容纳指定长度的字节数组，使用完后需要释放)
+     *
+     * @param length required length
+     * @return pooled byte array
+     */
+    public PooledByteArray lease(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length < 0");
+        }
+        int index = this.indexOf(length);
+        if (index < 0) {
+            return new PooledByteArray(null, new byte[length], length);
+        }
+        byte[] data = this.classes[index].poll();
+        if (data == null) {
+            data = new byte[1 << (index + MIN_SHIFT)];
+        } else {
+            this.counts[index].decrementAndGet();
+        }
+        return new PooledByteArray(this, data, length);
+    }
+
+    /**
+     * Number of cached arrays of the size class which can hold the length.
+     * (能容纳指定长度的级别中缓存的数组数量)
+     *
+     * @param length length
+     * @return cached number, 0 if the length is out of the size classes
+     */
+    public int cachedCount(int length) {
+        int index = this.indexOf(length);
+        return index < 0 ? 0 : this.counts[index].get();
+    }
+
+    /**
+     * Give the array back to the pool, it is dropped if the size class is full.
+     * (将数组归还到缓存池，对应级别已满时直接丢弃)
+     *
+     * @param data byte array
+     */
+    void recycle(byte[] data) {
+        int index = this.indexOf(data.length);
+        if (index < 0 || data.length != 1 << (index + MIN_SHIFT)) {
+            return;
+        }
+        if (this.counts[index].incrementAndGet() > this.maxPerClass) {
+            this.counts[index].decrementAndGet();
+            return;
+        }
+        this.classes[index].offer(data);
+    }
+
+    /**
+     * Index of the smallest size class which can hold the length.
+     * (能容纳指定长度的最小级别索引)
+     *
+     * @param length length
+     * @return index, -1 if it is larger than the biggest size class
+     */
+    private int indexOf(int length) {
+        if (length > 1 << MAX_SHIFT) {
+            return -1;
+        }
+        if (length <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(length - 1);
+        return shift - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.buff;
+
+
+import com.github.xingshuangs.iot.utils.BooleanUtil;
+import com.github.xingshuangs.iot.utils.ByteUtil;
+import lombok.Getter;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read buffer backed by ByteBuffer (heap or direct), the data is parsed in place without copying.
+ * The index is relative to the position of the source buffer when it is wrapped, the source buffer is not modified.
+ * (基于ByteBuffer的字节读取缓存，支持堆内和直接内存，原地解析不拷贝；索引相对于包装时源缓存的position，不修改源缓存)
+ *
+ * @author xingshuang
+ */
+@Getter
+public class ByteBufferReadBuff {
+
+    /**
+     * 4 - or 8-byte encoding format.
+     * (4字节或8字节的编码格式)
+     */
+    private final EByteBuffFormat format;
+
+    /**
+     * Data source, a big-endian view of the source buffer.
+     * (数据，源缓存的大端视图)
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Current offset.
+     * (偏移量)
+     */
+    private int offset;
+
+    /**
+     * Is little endian. The default is not, big endian mode.
+     * (是否为小端模式，默认不是，为大端模式)
+     */
+    private final boolean littleEndian;
+
+    public ByteBufferReadBuff(ByteBuffer buffer) {
+        this(buffer, 0, false, EByteBuffFormat.DC_BA);
+    }
+
+    public ByteBufferReadBuff(ByteBuffer buffer, boolean littleEndian) {
+        this(buffer, 0, littleEndian, EByteBuffFormat.DC_BA);
+    }
+
+    public ByteBufferReadBuff(ByteBuffer buffer, EByteBuffFormat format) {
+        this(buffer, 0, false, format);
+    }
+
+    public ByteBufferReadBuff(ByteBuffer buffer, int offset, boolean littleEndian, EByteBuffFormat format) {
+        this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        this.offset = offset;
+        this.littleEndian = littleEndian;
+        this.format = format;
+    }
+
+    public static ByteBufferReadBuff newInstance(ByteBuffer buffer) {
+        return new ByteBufferReadBuff(buffer);
+    }
+
+    public static ByteBufferReadBuff newInstance(ByteBuffer buffer, boolean littleEndian) {
+        return new ByteBufferReadBuff(buffer, littleEndian);
+    }
+
+    public static ByteBufferReadBuff newInstance(ByteBuffer buffer, EByteBuffFormat format) {
+        return new ByteBufferReadBuff(buffer, format);
+    }
+
+    public static ByteBufferReadBuff newInstance(ByteBuffer buffer, int offset, boolean littleEndian, EByteBuffFormat format) {
+        return new ByteBufferReadBuff(buffer, offset, littleEndian, format);
+    }
+
+    /**
+     * Wrap part of byte array without copying.
+     * (包装字节数组的一部分，不拷贝)
+     *
+     * @param data   byte array
+     * @param offset start offset
+     * @param length length
+     * @return ByteBufferReadBuff
+     */
+    public static ByteBufferReadBuff wrap(byte[] data, int offset, int length) {
+        return new ByteBufferReadBuff(ByteBuffer.wrap(data, offset, length));
+    }
+
+    /**
+     * Gets the readable length.
+     * (获取可读长度)
+     *
+     * @return length
+     */
+    public int getLength() {
+        return this.buffer.limit();
+    }
+
+    /**
+     * Gets the number of remaining bytes
+     * (获取剩余字节数量)
+     *
+     * @return the number of remaining bytes
+     */
+    public int getRemainSize() {
+        return this.buffer.limit() - this.offset;
+    }
+
+    /**
+     * Check condition.
+     * (校验条件）
+     *
+     * @param index  index number
+     * @param length length
+     */
+    private void checkCondition(int index, int length) {
+        if (index < 0) {
+            // 索引不能小于0
+            throw new IndexOutOfBoundsException("Index less than 0");
+        }
+        if (index + length > this.buffer.limit()) {
+            // 超过字节数组最大容量
+            throw new IndexOutOfBoundsException("Exceeds the maximum capacity of the byte array");
+        }
+    }
+
+    //region 视图
+
+    /**
+     * Create a view of [index, index + length) without copying, which shares the endian and format.
+     * (创建[index, index + length)的视图，不拷贝，共享大小端和格式)
+     *
+     * @param index  byte index
+     * @param length byte length
+     * @return view
+     */
+    public ByteBufferReadBuff slice(int index, int length) {
+        return new ByteBufferReadBuff(this.getByteBuffer(index, length), 0, this.littleEndian, this.format);
+    }
+
+    /**
+     * Create a view of the remaining bytes and move the offset to the end.
+     * (创建剩余字节的视图，偏移量移到末尾)
+     *
+     * @return view
+     */
+    public ByteBufferReadBuff slice() {
+        ByteBufferReadBuff res = this.slice(this.offset, this.getRemainSize());
+        this.offset = this.buffer.limit();
+        return res;
+    }
+
+    /**
+     * Get a read-only ByteBuffer of [index, index + length) without copying.
+     * (获取[index, index + length)的只读ByteBuffer，不拷贝)
+     *
+     * @param index  byte index
+     * @param length byte length
+     * @return ByteBuffer
+     */
+    public ByteBuffer getByteBuffer(int index, int length) {
+        this.checkCondition(index, length);
+        ByteBuffer res = this.buffer.asReadOnlyBuffer();
+        ((Buffer) res).position(index).limit(index + length);
+        return res.slice();
+    }
+
+    /**
+     * Get a read-only ByteBuffer of length from the current offset without copying.
+     * (从当前偏移量获取指定长度的只读ByteBuffer，不拷贝)
+     *
+     * @param length byte length
+     * @return ByteBuffer
+     */
+    public ByteBuffer getByteBuffer(int length) {
+        ByteBuffer res = this.getByteBuffer(this.offset, length);
+        this.offset += length;
+        return res;
+    }
+
+    //endregion
+
+    //region 顺序读取
+
+    public boolean getBoolean(int bit) {
+        boolean res = this.getBoolean(this.offset, bit);
+        this.offset++;
+        return res;
+    }
+
+    public byte getByte() {
+        byte res = this.getByte(this.offset);
+        this.offset++;
+        return res;
+    }
+
+    public byte[] getBytes() {
+        return this.getBytes(this.getRemainSize());
+    }
+
+    public byte[] getBytes(int length) {
+        byte[] res = this.getBytes(this.offset, length);
+        this.offset += length;
+        return res;
+    }
+
+    public int getByteToInt() {
+        int res = this.getByteToInt(this.offset);
+        this.offset++;
+        return res;
+    }
+
+    public short getInt16() {
+        short res = this.getInt16(this.offset);
+        this.offset += 2;
+        return res;
+    }
+
+    public int getUInt16() {
+        int res = this.getUInt16(this.offset);
+        this.offset += 2;
+        return res;
+    }
+
+    public int getInt32() {
+        int res = this.getInt32(this.offset);
+        this.offset += 4;
+        return res;
+    }
+
+    public long getUInt32() {
+        long res = this.getUInt32(this.offset);
+        this.offset += 4;
+        return res;
+    }
+
+    public long getInt64() {
+        long res = this.getInt64(this.offset);
+        this.offset += 8;
+        return res;
+    }
+
+    public float getFloat32() {
+        float res = this.getFloat32(this.offset);
+        this.offset += 4;
+        return res;
+    }
+
+    public double getFloat64() {
+        double res = this.getFloat64(this.offset);
+        this.offset += 8;
+        return res;
+    }
+
+    public String getString(int length) {
+        String res = this.getString(this.offset, length);
+        this.offset += length;
+        return res;
+    }
+
+    public String getString(int length, Charset charset) {
+        String res = this.getString(this.offset, length, charset);
+        this.offset += length;
+        return res;
+    }
+
+    //endregion
+
+    //region 索引读取
+
+    public boolean getBoolean(int index, int bit) {
+        return BooleanUtil.getValue(this.getByte(index), bit);
+    }
+
+    public int getBitToInt(int index, int bit) {
+        return BooleanUtil.getValueToInt(this.getByte(index), bit);
+    }
+
+    public byte getByte(int index) {
+        this.checkCondition(index, 1);
+        return this.buffer.get(index);
+    }
+
+    /**
+     * Get bytes by index, the data is copied.
+     * (获取字节数组，数据会被拷贝，不拷贝请使用getByteBuffer)
+     *
+     * @param index  byte index
+     * @param length byte length
+     * @return byte array
+     */
+    public byte[] getBytes(int index, int length) {
+        this.checkCondition(index, length);
+        byte[] res = new byte[length];
+        ByteBuffer src = this.buffer.duplicate();
+        ((Buffer) src).position(index);
+        src.get(res);
+        return res;
+    }
+
+    public int getByteToInt(int index) {
+        return this.getByte(index) & 0xFF;
+    }
+
+    public int getByteToInt(int index, int startBitIndex, int bitLength) {
+        return ByteUtil.toUInt8(this.getByte(index), startBitIndex, bitLength);
+    }
+
+    public short getInt16(int index) {
+        this.checkCondition(index, 2);
+        short res = this.buffer.getShort(index);
+        return this.littleEndian ? Short.reverseBytes(res) : res;
+    }
+
+    public int getUInt16(int index) {
+        return this.getInt16(index) & 0xFFFF;
+    }
+
+    public int getInt32(int index) {
+        this.checkCondition(index, 4);
+        int res = this.format.formatIn4Bytes(this.buffer.getInt(index));
+        return this.littleEndian ? Integer.reverseBytes(res) : res;
+    }
+
+    public long getUInt32(int index) {
+        return this.getInt32(index) & 0xFFFFFFFFL;
+    }
+
+    public long getInt64(int index) {
+        this.checkCondition(index, 8);
+        long res = this.format.formatIn8Bytes(this.buffer.getLong(index));
+        return this.littleEndian ? Long.reverseBytes(res) : res;
+    }
+
+    public float getFloat32(int index) {
+        return Float.intBitsToFloat(this.getInt32(index));
+    }
+
+    public double getFloat64(int index) {
+        return Double.longBitsToDouble(this.getInt64(index));
+    }
+
+    public String getString(int index, int length) {
+        return this.getString(index, length, StandardCharsets.US_ASCII);
+    }
+
+    public String getString(int index, int length, Charset charset) {
+        this.checkCondition(index, length);
+        if (this.buffer.hasArray()) {
+            return new String(this.buffer.array(), this.buffer.arrayOffset() + index, length, charset).trim();
+        }
+        return new String(this.getBytes(index, length), charset).trim();
+    }
+
+    //endregion
+}
@@ -0,0 +1,311 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.buff;
+
+
+import lombok.Getter;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Write buffer backed by ByteBuffer (heap or direct), the written bytes can be handed to a channel without copying.
+ * The index is relative to the position of the source buffer when it is wrapped.
+ * (基于ByteBuffer的字节写入缓存，支持堆内和直接内存，写入的数据可以不拷贝直接交给通道；索引相对于包装时源缓存的position)
+ *
+ * @author xingshuang
+ */
+@Getter
+public class ByteBufferWriteBuff {
+
+    /**
+     * 4 - or 8-byte encoding format.
+     * (4字节或8字节的编码格式)
+     */
+    private final EByteBuffFormat format;
+
+    /**
+     * Data target, a big-endian view of the source buffer.
+     * (数据，源缓存的大端视图)
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Current offset.
+     * (偏移量)
+     */
+    private int offset = 0;
+
+    /**
+     * Is little endian. The default is not, big endian mode.
+     * (是否为小端模式，默认不是，为大端模式)
+     */
+    private final boolean littleEndian;
+
+    public ByteBufferWriteBuff(ByteBuffer buffer) {
+        this(buffer, false, EByteBuffFormat.DC_BA);
+    }
+
+    public ByteBufferWriteBuff(ByteBuffer buffer, boolean littleEndian) {
+        this(buffer, littleEndian, EByteBuffFormat.DC_BA);
+    }
+
+    public ByteBufferWriteBuff(ByteBuffer buffer, EByteBuffFormat format) {
+        this(buffer, false, format);
+    }
+
+    public ByteBufferWriteBuff(ByteBuffer buffer, boolean littleEndian, EByteBuffFormat format) {
+        if (buffer.isReadOnly()) {
+            throw new IllegalArgumentException("buffer is read-only");
+        }
+        this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        this.littleEndian = littleEndian;
+        this.format = format;
+    }
+
+    public static ByteBufferWriteBuff newInstance(int capacity) {
+        return new ByteBufferWriteBuff(ByteBuffer.allocate(capacity));
+    }
+
+    public static ByteBufferWriteBuff newInstance(int capacity, boolean littleEndian, EByteBuffFormat format) {
+        return new ByteBufferWriteBuff(ByteBuffer.allocate(capacity), littleEndian, format);
+    }
+
+    /**
+     * Create a buffer in direct memory.
+     * (创建直接内存的缓存)
+     *
+     * @param capacity capacity
+     * @return ByteBufferWriteBuff
+     */
+    public static ByteBufferWriteBuff newDirectInstance(int capacity) {
+        return new ByteBufferWriteBuff(ByteBuffer.allocateDirect(capacity));
+    }
+
+    /**
+     * Create a buffer in direct memory.
+     * (创建直接内存的缓存)
+     *
+     * @param capacity     capacity
+     * @param littleEndian is little endian
+     * @param format       EByteBuffFormat format
+     * @return ByteBufferWriteBuff
+     */
+    public static ByteBufferWriteBuff newDirectInstance(int capacity, boolean littleEndian, EByteBuffFormat format) {
+        return new ByteBufferWriteBuff(ByteBuffer.allocateDirect(capacity), littleEndian, format);
+    }
+
+    /**
+     * Gets the capacity.
+     * (获取容量)
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return this.buffer.limit();
+    }
+
+    private void checkCondition(int desIndex, int targetLength) {
+        if (desIndex < 0 || desIndex + targetLength > this.buffer.limit()) {
+            // 超过字节数组最大容量
+            throw new IllegalArgumentException("Exceeds the maximum capacity of the byte array");
+        }
+    }
+
+    private ByteBufferWriteBuff moveOffset(int desIndex, int length) {
+        if (desIndex == this.offset) {
+            this.offset += length;
+        }
+        return this;
+    }
+
+    //region 结果
+
+    /**
+     * Get a ByteBuffer view of the written bytes [0, offset) without copying, ready to be written into a channel.
+     * (获取已写入字节[0, offset)的ByteBuffer视图，不拷贝，可直接写入通道)
+     *
+     * @return ByteBuffer
+     */
+    public ByteBuffer getByteBuffer() {
+        ByteBuffer res = this.buffer.duplicate();
+        ((Buffer) res).position(0).limit(this.offset);
+        return res;
+    }
+
+    /**
+     * Get the whole byte array, the backing array is returned when it is a heap buffer of exact size, otherwise copied.
+     * (获取全部字节数组，恰好匹配的堆内缓存直接返回底层数组，否则拷贝)
+     *
+     * @return byte array
+     */
+    public byte[] getData() {
+        if (this.buffer.hasArray() && this.buffer.arrayOffset() == 0 && this.buffer.array().length == this.buffer.limit()) {
+            return this.buffer.array();
+        }
+        byte[] res = new byte[this.buffer.limit()];
+        ByteBuffer src = this.buffer.duplicate();
+        ((Buffer) src).position(0);
+        src.get(res);
+        return res;
+    }
+
+    public byte getByte(int index) {
+        if (index < 0 || index >= this.buffer.limit()) {
+            throw new IndexOutOfBoundsException("index");
+        }
+        return this.buffer.get(index);
+    }
+
+    //endregion
+
+    //region 顺序写入
+
+    public ByteBufferWriteBuff putByte(byte src) {
+        return this.putByte(src, this.offset);
+    }
+
+    public ByteBufferWriteBuff putByte(int src) {
+        return this.putByte((byte) src, this.offset);
+    }
+
+    public ByteBufferWriteBuff putBytes(byte[] src) {
+        return this.putBytes(src, 0, src.length, this.offset);
+    }
+
+    /**
+     * Add the remaining bytes of source buffer, the position of source is not modified.
+     * (添加源缓存剩余的字节，不修改源缓存的position)
+     *
+     * @param src source buffer
+     * @return ByteBufferWriteBuff itself
+     */
+    public ByteBufferWriteBuff putBytes(ByteBuffer src) {
+        return this.putBytes(src, this.offset);
+    }
+
+    public ByteBufferWriteBuff putShort(int src) {
+        return this.putShort(src, this.offset, this.littleEndian);
+    }
+
+    public ByteBufferWriteBuff putInteger(int src) {
+        return this.putInteger(src, this.offset, this.littleEndian, this.format);
+    }
+
+    public ByteBufferWriteBuff putInteger(long src) {
+        return this.putInteger((int) src, this.offset, this.littleEndian, this.format);
+    }
+
+    public ByteBufferWriteBuff putLong(long src) {
+        return this.putLong(src, this.offset, this.littleEndian, this.format);
+    }
+
+    public ByteBufferWriteBuff putFloat(float src) {
+        return this.putFloat(src, this.offset, this.littleEndian, this.format);
+    }
+
+    public ByteBufferWriteBuff putDouble(double src) {
+        return this.putDouble(src, this.offset, this.littleEndian, this.format);
+    }
+
+    public ByteBufferWriteBuff putString(String src) {
+        return this.putString(src, StandardCharsets.US_ASCII, this.offset);
+    }
+
+    public ByteBufferWriteBuff putString(String src, Charset charset) {
+        return this.putString(src, charset, this.offset);
+    }
+
+    //endregion
+
+    //region 索引写入
+
+    public ByteBufferWriteBuff putByte(byte src, int desIndex) {
+        this.checkCondition(desIndex, 1);
+        this.buffer.put(desIndex, src);
+        return this.moveOffset(desIndex, 1);
+    }
+
+    public ByteBufferWriteBuff putBytes(byte[] src, int srcIndex, int length, int desIndex) {
+        if (src == null) {
+            throw new NullPointerException("src");
+        }
+        this.checkCondition(desIndex, length);
+        ByteBuffer des = this.buffer.duplicate();
+        ((Buffer) des).position(desIndex);
+        des.put(src, srcIndex, length);
+        return this.moveOffset(desIndex, length);
+    }
+
+    public ByteBufferWriteBuff putBytes(ByteBuffer src, int desIndex) {
+        if (src == null) {
+            throw new NullPointerException("src");
+        }
+        int length = src.remaining();
+        this.checkCondition(desIndex, length);
+        ByteBuffer des = this.buffer.duplicate();
+        ((Buffer) des).position(desIndex);
+        des.put(src.duplicate());
+        return this.moveOffset(desIndex, length);
+    }
+
+    public ByteBufferWriteBuff putShort(int src, int desIndex, boolean littleEndian) {
+        this.checkCondition(desIndex, 2);
+        short value = (short) src;
+        this.buffer.putShort(desIndex, littleEndian ? Short.reverseBytes(value) : value);
+        return this.moveOffset(desIndex, 2);
+    }
+
+    public ByteBufferWriteBuff putInteger(int src, int desIndex, boolean littleEndian, EByteBuffFormat format) {
+        this.checkCondition(desIndex, 4);
+        int value = littleEndian ? Integer.reverseBytes(src) : src;
+        this.buffer.putInt(desIndex, format.formatIn4Bytes(value));
+        return this.moveOffset(desIndex, 4);
+    }
+
+    public ByteBufferWriteBuff putLong(long src, int desIndex, boolean littleEndian, EByteBuffFormat format) {
+        this.checkCondition(desIndex, 8);
+        long value = littleEndian ? Long.reverseBytes(src) : src;
+        this.buffer.putLong(desIndex, format.formatIn8Bytes(value));
+        return this.moveOffset(desIndex, 8);
+    }
+
+    public ByteBufferWriteBuff putFloat(float src, int desIndex, boolean littleEndian, EByteBuffFormat format) {
+        return this.putInteger(Float.floatToIntBits(src), desIndex, littleEndian, format);
+    }
+
+    public ByteBufferWriteBuff putDouble(double src, int desIndex, boolean littleEndian, EByteBuffFormat format) {
+        return this.putLong(Double.doubleToLongBits(src), desIndex, littleEndian, format);
+    }
+
+    public ByteBufferWriteBuff putString(String src, Charset charset, int desIndex) {
+        byte[] bytes = src.getBytes(charset);
+        return this.putBytes(bytes, 0, bytes.length, desIndex);
+    }
+
+    //endregion
+}
@@ -184,4 +184,52 @@ public enum EByteBuffFormat {
         }
         return res;
     }
+
+    /**
+     * The 4-byte value read in big-endian is reformatted in EByteBuffFormat, same as formatIn4Bytes without allocating.
+     * (按大端读取的4字节数值按EByteBuffFormat重新格式化，与formatIn4Bytes一致，但不分配数组)
+     *
+     * @param value 4-byte value in big-endian
+     * @return formatted value
+     */
+    public int formatIn4Bytes(int value) {
+        switch (this) {
+            case AB_CD:
+                return Integer.reverseBytes(value);
+            case BA_DC:
+                return swapIn2Bytes(Integer.reverseBytes(value));
+            case CD_AB:
+                return swapIn2Bytes(value);
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * The 8-byte value read in big-endian is reformatted in EByteBuffFormat, same as formatIn8Bytes without allocating.
+     * (按大端读取的8字节数值按EByteBuffFormat重新格式化，与formatIn8Bytes一致，但不分配数组)
+     *
+     * @param value 8-byte value in big-endian
+     * @return formatted value
+     */
+    public long formatIn8Bytes(long value) {
+        switch (this) {
+            case AB_CD:
+                return Long.reverseBytes(value);
+            case BA_DC:
+                return swapIn2Bytes(Long.reverseBytes(value));
+            case CD_AB:
+                return swapIn2Bytes(value);
+            default:
+                return value;
+        }
+    }
+
+    private static int swapIn2Bytes(int value) {
+        return ((value & 0x00FF00FF) << 8) | ((value >>> 8) & 0x00FF00FF);
+    }
+
+    private static long swapIn2Bytes(long value) {
+        return ((value & 0x00FF00FF00FF00FFL) << 8) | ((value >>> 8) & 0x00FF00FF00FF00FFL);
+    }
 }
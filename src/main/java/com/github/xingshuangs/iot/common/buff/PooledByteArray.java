@@ -0,0 +1,159 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.buff;
+
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Byte array leased from ByteArrayPool, only the first length bytes are valid. It is reference counted, the array goes
+ * back to the pool when the count reaches zero and must not be touched afterwards.
+ * (从ByteArrayPool租借的字节数组，只有前length个字节有效；采用引用计数，计数为0时归还缓存池，之后不能再访问)
+ *
+ * @author xingshuang
+ */
+public final class PooledByteArray implements AutoCloseable {
+
+    /**
+     * Owner pool, null means not pooled.
+     * (所属的缓存池，null表示不需要回收)
+     */
+    private final ByteArrayPool pool;
+
+    /**
+     * Backing array, it may be longer than the length.
+     * (底层数组，可能比有效长度长)
+     */
+    private final byte[] data;
+
+    /**
+     * Valid length.
+     * (有效长度)
+     */
+    private final int length;
+
+    /**
+     * Reference count.
+     * (引用计数)
+     */
+    private final AtomicInteger refCnt = new AtomicInteger(1);
+
+    PooledByteArray(ByteArrayPool pool, byte[] data, int length) {
+        this.pool = pool;
+        this.data = data;
+        this.length = length;
+    }
+
+    /**
+     * Get the backing array, only the first length bytes are valid.
+     * (获取底层数组，只有前length个字节有效)
+     *
+     * @return byte array
+     */
+    public byte[] getData() {
+        this.ensureAccessible();
+        return this.data;
+    }
+
+    /**
+     * Get the valid length.
+     * (获取有效长度)
+     *
+     * @return length
+     */
+    public int getLength() {
+        return this.length;
+    }
+
+    /**
+     * Get the reference count.
+     * (获取引用计数)
+     *
+     * @return reference count
+     */
+    public int refCnt() {
+        return this.refCnt.get();
+    }
+
+    /**
+     * Copy the valid bytes to a new array which is not pooled.
+     * (将有效字节拷贝到一个新的非池化数组)
+     *
+     * @return byte array
+     */
+    public byte[] toByteArray() {
+        this.ensureAccessible();
+        return Arrays.copyOf(this.data, this.length);
+    }
+
+    /**
+     * Increase the reference count, the holder must call release once.
+     * (增加引用计数，持有者需要对应调用一次release)
+     *
+     * @return this
+     */
+    public PooledByteArray retain() {
+        int cnt;
+        do {
+            cnt = this.refCnt.get();
+            if (cnt <= 0) {
+                // 字节数组已经释放
+                throw new IllegalStateException("The pooled byte array has been released");
+            }
+        } while (!this.refCnt.compareAndSet(cnt, cnt + 1));
+        return this;
+    }
+
+    /**
+     * Decrease the reference count, the array goes back to the pool when it reaches zero.
+     * (减少引用计数，为0时归还缓存池)
+     *
+     * @return true: the array is released, false: still referenced
+     */
+    public boolean release() {
+        int cnt = this.refCnt.decrementAndGet();
+        if (cnt < 0) {
+            this.refCnt.incrementAndGet();
+            // 字节数组已经释放
+            throw new IllegalStateException("The pooled byte array has been released");
+        }
+        if (cnt == 0 && this.pool != null) {
+            this.pool.recycle(this.data);
+        }
+        return cnt == 0;
+    }
+
+    @Override
+    public void close() {
+        this.release();
+    }
+
+    private void ensureAccessible() {
+        if (this.refCnt.get() <= 0) {
+            // 字节数组已经释放
+            throw new IllegalStateException("The pooled byte array has been released");
+        }
+    }
+}
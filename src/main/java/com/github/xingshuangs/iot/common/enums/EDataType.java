@@ -36,49 +36,49 @@ import java.util.Map;
  */
 public enum EDataType {
 
-    BOOL("bool", 1),
+    BOOL("bool", 1, boolean.class),
 
-    BYTE("byte", 1),
+    BYTE("byte", 1, byte.class),
 
-    UINT16("uint16", 2),
+    UINT16("uint16", 2, int.class),
 
-    INT16("int16", 2),
+    INT16("int16", 2, short.class),
 
-    UINT32("uint32", 4),
+    UINT32("uint32", 4, long.class),
 
-    INT32("int32", 4),
+    INT32("int32", 4, int.class),
 
-    INT64("int64", 8),
+    INT64("int64", 8, long.class),
 
-    FLOAT32("float32", 4),
+    FLOAT32("float32", 4, float.class),
 
-    FLOAT64("float64", 8),
+    FLOAT64("float64", 8, double.class),
 
-    STRING("string", 1),
+    STRING("string", 1, null),
 
     /**
      * It is used only for the S7 protocol currently, and the corresponding JAVA type is long.
      * (目前只对S7协议使用，对应的JAVA类型long)
      */
-    TIME("time", 4),
+    TIME("time", 4, long.class),
 
     /**
      * It is used only for the S7 protocol currently, and the corresponding JAVA type is LocalDate.
      * (目前只对S7协议使用，对应的JAVA类型LocalDate)
      */
-    DATE("date", 2),
+    DATE("date", 2, null),
 
     /**
      * It is used only for the S7 protocol currently, and the corresponding JAVA type is LocalTime.
      * (目前只对S7协议使用，对应的JAVA类型LocalTime)
      */
-    TIME_OF_DAY("timeOfDay", 4),
+    TIME_OF_DAY("timeOfDay", 4, null),
 
     /**
      * It is used only for the S7 protocol currently, and the corresponding JAVA type is LocalDateTime.
      * (目前只对S7协议使用，对应的JAVA类型LocalDateTime)
      */
-    DTL("dtl", 12),
+    DTL("dtl", 12, null),
 
     ;
 
@@ -108,9 +108,16 @@ public enum EDataType {
      */
     private final String name;
 
-    EDataType(String name, int byteLength) {
+    /**
+     * JAVA primitive type of a single value, null if the value is not primitive.
+     * (单个数据对应的JAVA基础类型，非基础类型时为null)
+     */
+    private final Class<?> primitiveType;
+
+    EDataType(String name, int byteLength, Class<?> primitiveType) {
         this.name = name;
         this.byteLength = byteLength;
+        this.primitiveType = primitiveType;
     }
 
     public int getByteLength() {
@@ -120,4 +127,8 @@ public enum EDataType {
     public String getName() {
         return name;
     }
+
+    public Class<?> getPrimitiveType() {
+        return primitiveType;
+    }
 }
@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.scan;
+
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Cyclic scan scheduler, the tags with the same reader and scan rate are coalesced into one scan group, and every
+ * group is read in one batch per cycle, the start time of the groups is staggered to spread the load.
+ * (周期扫描调度器，相同读取器和扫描周期的标签合并为一个扫描组，每个周期批量读取一次，各组的起始时间错开以分散负载)
+ *
+ * @author xingshuang
+ */
+@Slf4j
+public class ScanScheduler implements AutoCloseable {
+
+    /**
+     * Golden ratio, used to spread the start time of groups.
+     * (黄金分割比，用于分散各组的起始时间)
+     */
+    private static final double GOLDEN_RATIO = 0.6180339887498949;
+
+    private static final AtomicInteger INDEX = new AtomicInteger();
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Scan groups, key is reader and scan rate.
+     * (扫描组，key为读取器和扫描周期)
+     */
+    private final Map<GroupKey, ScanGroup> groups = new LinkedHashMap<>();
+
+    /**
+     * The number of the scheduled groups per scan rate, used to stagger.
+     * (每个扫描周期已调度的组个数，用于错开)
+     */
+    private final Map<Long, Integer> rateCounts = new HashMap<>();
+
+    /**
+     * Error handler, log by default.
+     * (异常处理器，默认打印日志)
+     */
+    private volatile BiConsumer<IScanReader, Exception> errorHandler;
+
+    private boolean started;
+
+    public ScanScheduler() {
+        // 一个超时的连接会占住一个线程，多个线程避免拖慢其它连接的扫描组
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public ScanScheduler(int threadCount) {
+        String prefix = "iot-scan-" + INDEX.getAndIncrement() + "-";
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threadCount, r -> {
+            Thread thread = new Thread(r, prefix + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void setErrorHandler(BiConsumer<IScanReader, Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Subscribe the tag.
+     * (订阅标签)
+     *
+     * @param reader   scan reader of the connection
+     * @param scanRate scan rate in millisecond
+     * @param tag      scan tag
+     */
+    public synchronized void subscribe(IScanReader reader, long scanRate, ScanTag tag) {
+        if (scanRate <= 0) {
+            throw new IllegalArgumentException("scanRate > 0");
+        }
+        if (tag.getListener() == null) {
+            throw new IllegalArgumentException("listener of tag is null");
+        }
+        ScanGroup group = this.groups.computeIfAbsent(new GroupKey(reader, scanRate), k -> new ScanGroup(reader, scanRate));
+        group.tags.add(tag);
+        if (this.started && group.future == null) {
+            this.schedule(group);
+        }
+    }
+
+    /**
+     * Unsubscribe the tag.
+     * (取消订阅标签)
+     *
+     * @param reader   scan reader of the connection
+     * @param scanRate scan rate in millisecond
+     * @param tag      scan tag
+     */
+    public synchronized void unsubscribe(IScanReader reader, long scanRate, ScanTag tag) {
+        GroupKey key = new GroupKey(reader, scanRate);
+        ScanGroup group = this.groups.get(key);
+        if (group == null) {
+            return;
+        }
+        // 按实例移除，与lastValues的key保持一致，避免移除字段相等的其它标签
+        group.tags.removeIf(x -> x == tag);
+        group.lastValues.remove(tag);
+        if (group.tags.isEmpty()) {
+            if (group.future != null) {
+                group.future.cancel(false);
+                this.rateCounts.computeIfPresent(scanRate, (k, v) -> v > 1 ? v - 1 : null);
+            }
+            this.groups.remove(key);
+        }
+    }
+
+    /**
+     * Start scanning.
+     * (开始扫描)
+     */
+    public synchronized void start() {
+        if (this.started) {
+            return;
+        }
+        this.started = true;
+        this.groups.values().forEach(this::schedule);
+    }
+
+    /**
+     * Stop scanning, the subscriptions are kept.
+     * (停止扫描，订阅保留)
+     */
+    public synchronized void stop() {
+        this.started = false;
+        this.rateCounts.clear();
+        this.groups.values().forEach(x -> {
+            if (x.future != null) {
+                x.future.cancel(false);
+                x.future = null;
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        this.stop();
+        this.executor.shutdownNow();
+    }
+
+    private void schedule(ScanGroup group) {
+        int count = this.rateCounts.merge(group.scanRate, 1, Integer::sum) - 1;
+        // 按黄金分割比错开同一周期下各组的起始时间
+        double fraction = (count * GOLDEN_RATIO) % 1;
+        long initialDelay = (long) (group.scanRate * fraction);
+        group.future = this.executor.scheduleAtFixedRate(group::scan, initialDelay, group.scanRate, TimeUnit.MILLISECONDS);
+    }
+
+    private class ScanGroup {
+
+        private final IScanReader reader;
+
+        private final long scanRate;
+
+        private final List<ScanTag> tags = new CopyOnWriteArrayList<>();
+
+        /**
+         * Last notified values, key is the tag instance.
+         * (上一次通知的值，key为标签实例)
+         */
+        private final Map<ScanTag, Object> lastValues = Collections.synchronizedMap(new IdentityHashMap<>());
+
+        private ScheduledFuture<?> future;
+
+        private ScanGroup(IScanReader reader, long scanRate) {
+            this.reader = reader;
+            this.scanRate = scanRate;
+        }
+
+        private void scan() {
+            List<ScanTag> snapshot = new ArrayList<>(this.tags);
+            if (snapshot.isEmpty()) {
+                return;
+            }
+            try {
+                List<Object> values = this.reader.read(snapshot);
+                for (int i = 0; i < snapshot.size(); i++) {
+                    this.notifyIfChanged(snapshot.get(i), values.get(i));
+                }
+            } catch (Exception e) {
+                BiConsumer<IScanReader, Exception> handler = ScanScheduler.this.errorHandler;
+                if (handler != null) {
+                    handler.accept(this.reader, e);
+                } else {
+                    // 扫描读取异常
+                    log.error("Scan read failed, scan rate [{}ms], tag count [{}]", this.scanRate, snapshot.size(), e);
+                }
+            }
+        }
+
+        private void notifyIfChanged(ScanTag tag, Object value) {
+            Object oldValue = this.lastValues.get(tag);
+            if (this.lastValues.containsKey(tag) && !tag.isChanged(oldValue, value)) {
+                return;
+            }
+            this.lastValues.put(tag, value);
+            try {
+                tag.getListener().onChange(tag, oldValue, value);
+            } catch (Exception e) {
+                log.error("Scan listener of tag [{}] failed", tag.getName(), e);
+            }
+        }
+    }
+
+    private static class GroupKey {
+
+        private final IScanReader reader;
+
+        private final long scanRate;
+
+        private GroupKey(IScanReader reader, long scanRate) {
+            this.reader = reader;
+            this.scanRate = scanRate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey that = (GroupKey) o;
+            return this.reader == that.reader && this.scanRate == that.scanRate;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.reader) + Long.hashCode(this.scanRate);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.scan;
+
+
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import lombok.Data;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Scan tag, a PLC address which is read cyclically.
+ * (扫描标签，周期读取的PLC地址)
+ *
+ * @author xingshuang
+ */
+@Data
+public class ScanTag {
+
+    /**
+     * Tag name.
+     * (标签名)
+     */
+    private String name;
+
+    /**
+     * Address string, the format depends on the protocol, e.g. DB1.2 for S7, D100 for MC, 100 for modbus.
+     * (地址，格式由协议决定，例如S7为DB1.2，MC为D100，modbus为100)
+     */
+    private String address;
+
+    /**
+     * Data type.
+     * (数据类型)
+     */
+    private EDataType dataType;
+
+    /**
+     * Length of the string, 1 default.
+     * (字符串的长度，默认1)
+     */
+    private int length = 1;
+
+    /**
+     * Deadband of the number, the change is notified only when the difference is greater than it, 0 default.
+     * (数值死区，变化量大于该值才通知，默认0)
+     */
+    private double deadband = 0;
+
+    /**
+     * Change listener.
+     * (变化监听器)
+     */
+    private IScanListener listener;
+
+    public ScanTag() {
+    }
+
+    public ScanTag(String name, String address, EDataType dataType) {
+        this.name = name;
+        this.address = address;
+        this.dataType = dataType;
+    }
+
+    public ScanTag(String name, String address, EDataType dataType, IScanListener listener) {
+        this(name, address, dataType);
+        this.listener = listener;
+    }
+
+    /**
+     * Is the value changed compared with the last notified value.
+     * (与上一次通知的值相比是否发生变化)
+     *
+     * @param oldValue last notified value
+     * @param newValue new value
+     * @return true: changed, false: not changed
+     */
+    public boolean isChanged(Object oldValue, Object newValue) {
+        if (oldValue == null || newValue == null) {
+            return oldValue != newValue;
+        }
+        if (this.deadband > 0 && oldValue instanceof Number && newValue instanceof Number) {
+            return Math.abs(((Number) newValue).doubleValue() - ((Number) oldValue).doubleValue()) > this.deadband;
+        }
+        if (oldValue instanceof byte[] && newValue instanceof byte[]) {
+            return !Arrays.equals((byte[]) oldValue, (byte[]) newValue);
+        }
+        return !Objects.equals(oldValue, newValue);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.serializer;
+
+
+import com.github.xingshuangs.iot.exceptions.ByteArrayParseException;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.xingshuangs.iot.common.enums.EDataType.BOOL;
+
+/**
+ * Compiled plan of a class annotated by ByteArrayVariable, built once per class and cached.
+ * (ByteArrayVariable注解类的解析计划，每个类只构建一次并缓存)
+ *
+ * @author xingshuang
+ */
+@Getter
+public final class ByteArrayBeanPlan {
+
+    private static final ClassValue<ByteArrayBeanPlan> CACHE = new ClassValue<ByteArrayBeanPlan>() {
+        @Override
+        protected ByteArrayBeanPlan computeValue(Class<?> type) {
+            return new ByteArrayBeanPlan(type);
+        }
+    };
+
+    /**
+     * Target class.
+     * (目标类)
+     */
+    private final Class<?> targetClass;
+
+    /**
+     * No-argument constructor handle, null if the class can not be instantiated.
+     * (无参构造函数句柄，无法实例化的时候为null)
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * Annotated field list.
+     * (注解字段列表)
+     */
+    private final List<ByteArrayParseData> items;
+
+    /**
+     * Max byte length of all the fields.
+     * (所有字段的最大字节长度)
+     */
+    private final int byteLength;
+
+    private ByteArrayBeanPlan(Class<?> targetClass) {
+        this.targetClass = targetClass;
+        List<ByteArrayParseData> list = new ArrayList<>();
+        int maxPos = 0;
+        for (final Field field : targetClass.getDeclaredFields()) {
+            final ByteArrayVariable variable = field.getAnnotation(ByteArrayVariable.class);
+            if (variable == null) {
+                continue;
+            }
+            ByteArrayParameter parameter = new ByteArrayParameter(variable.byteOffset(), variable.bitOffset(),
+                    variable.count(), variable.type(), variable.littleEndian(), variable.format());
+            checkParameter(parameter);
+            list.add(new ByteArrayParseData(variable, field, parameter, FieldAccessor.of(field)));
+            maxPos = Math.max(maxPos, variable.byteOffset() + variable.count() * variable.type().getByteLength());
+        }
+        this.items = Collections.unmodifiableList(list);
+        this.byteLength = maxPos;
+        MethodHandle handle;
+        try {
+            handle = FieldAccessor.constructor(targetClass);
+        } catch (IllegalArgumentException e) {
+            // 只用于序列化成字节数组的类可以没有无参构造函数
+            handle = null;
+        }
+        this.constructor = handle;
+    }
+
+    /**
+     * Get the cached plan of class.
+     * (获取类的缓存解析计划)
+     *
+     * @param targetClass target class
+     * @return plan
+     */
+    public static ByteArrayBeanPlan of(Class<?> targetClass) {
+        return CACHE.get(targetClass);
+    }
+
+    /**
+     * Create a new instance of the target class.
+     * (创建目标类的实例)
+     *
+     * @param <T> type
+     * @return new instance
+     */
+    public <T> T newInstance() {
+        if (this.constructor == null) {
+            // 目标类没有可访问的无参构造函数
+            throw new ByteArrayParseException("The target class has no accessible no-argument constructor: " + this.targetClass.getName());
+        }
+        return FieldAccessor.newInstance(this.constructor);
+    }
+
+    /**
+     * Check byte array parameter.
+     * (校验字节数组注解的参数)
+     *
+     * @param variable variable
+     */
+    static void checkParameter(ByteArrayParameter variable) {
+        if (variable.getByteOffset() < 0) {
+            // 字节偏移量不能为负数
+            throw new ByteArrayParseException("The byte offset can't be negative");
+        }
+        if (variable.getCount() < 0) {
+            // 数据个数不能为负数
+            throw new ByteArrayParseException("The number of data can't be negative");
+        }
+        if (variable.getType() == BOOL && (variable.getBitOffset() > 7 || variable.getBitOffset() < 0)) {
+            // 当数据类型为bool时，位偏移量只能是[0,7]
+            throw new ByteArrayParseException("When the data type is bool, the bit offset can only be [0,7].");
+        }
+    }
+}
@@ -49,6 +49,18 @@ public class ByteArrayParseData {
      */
     Field field;
 
+    /**
+     * Parameter converted from the annotation.
+     * (由注解转换得到的参数)
+     */
+    ByteArrayParameter parameter;
+
+    /**
+     * Field accessor.
+     * (字段访问器)
+     */
+    FieldAccessor accessor;
+
     public ByteArrayParseData() {
     }
 
@@ -56,4 +68,11 @@ public class ByteArrayParseData {
         this.variable = variable;
         this.field = field;
     }
+
+    public ByteArrayParseData(ByteArrayVariable variable, Field field, ByteArrayParameter parameter, FieldAccessor accessor) {
+        this.variable = variable;
+        this.field = field;
+        this.parameter = parameter;
+        this.accessor = accessor;
+    }
 }
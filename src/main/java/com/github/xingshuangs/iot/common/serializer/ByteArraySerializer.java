@@ -30,15 +30,12 @@ import com.github.xingshuangs.iot.common.buff.ByteWriteBuff;
 import com.github.xingshuangs.iot.exceptions.ByteArrayParseException;
 import com.github.xingshuangs.iot.utils.BooleanUtil;
 
-import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static com.github.xingshuangs.iot.common.enums.EDataType.BOOL;
 import static com.github.xingshuangs.iot.common.enums.EDataType.STRING;
 
 /**
@@ -56,16 +53,10 @@ public class ByteArraySerializer implements IByteArraySerializable {
     @Override
     public <T> T toObject(final Class<T> targetClass, final byte[] src) {
         try {
-            final T bean = targetClass.newInstance();
-            for (final Field field : targetClass.getDeclaredFields()) {
-                final ByteArrayVariable variable = field.getAnnotation(ByteArrayVariable.class);
-                if (variable == null) {
-                    continue;
-                }
-                ByteArrayParameter parameter = new ByteArrayParameter(variable.byteOffset(), variable.bitOffset(),
-                        variable.count(), variable.type(), variable.littleEndian(), variable.format());
-                this.checkByteArrayVariable(parameter);
-                this.extractData(src, bean, field, parameter);
+            ByteArrayBeanPlan plan = ByteArrayBeanPlan.of(targetClass);
+            final T bean = plan.newInstance();
+            for (final ByteArrayParseData item : plan.getItems()) {
+                this.bindData(src, bean, item);
             }
             return bean;
         } catch (Exception e) {
@@ -101,9 +92,8 @@ public class ByteArraySerializer implements IByteArraySerializable {
                     throw new ByteArrayParseException("null exists in the list of ByteArrayParameter");
                 }
 
-                this.checkByteArrayVariable(parameter);
-                Field field = parameter.getClass().getDeclaredField("value");
-                this.extractData(src, parameter, field, parameter);
+                ByteArrayBeanPlan.checkParameter(parameter);
+                parameter.setValue(this.extractData(src, parameter));
             }
             return parameters;
         } catch (Exception e) {
@@ -114,31 +104,14 @@ public class ByteArraySerializer implements IByteArraySerializable {
     @Override
     public <T> byte[] toByteArray(final T targetBean) {
         try {
-            // 组装数据，同时计算最大的字节长度
-            int buffSize = 0;
-            List<ByteArrayParseData> parseDataList = new ArrayList<>();
-            for (final Field field : targetBean.getClass().getDeclaredFields()) {
-                final ByteArrayVariable variable = field.getAnnotation(ByteArrayVariable.class);
-                if (variable == null) {
-                    continue;
-                }
-                ByteArrayParameter parameter = new ByteArrayParameter(variable.byteOffset(), variable.bitOffset(),
-                        variable.count(), variable.type(), variable.littleEndian(), variable.format());
-                this.checkByteArrayVariable(parameter);
-                parseDataList.add(new ByteArrayParseData(variable, field));
-                int maxPos = variable.byteOffset() + variable.count() * variable.type().getByteLength();
-                if (maxPos > buffSize) {
-                    buffSize = maxPos;
-                }
-            }
-            if (buffSize == 0 || parseDataList.isEmpty()) {
+            ByteArrayBeanPlan plan = ByteArrayBeanPlan.of(targetBean.getClass());
+            if (plan.getByteLength() == 0 || plan.getItems().isEmpty()) {
                 return new byte[0];
             }
             // 填充字节数组的内容
-            ByteWriteBuff buff = ByteWriteBuff.newInstance(buffSize);
-            for (ByteArrayParseData item : parseDataList) {
-                item.getField().setAccessible(true);
-                Object data = item.getField().get(targetBean);
+            ByteWriteBuff buff = ByteWriteBuff.newInstance(plan.getByteLength());
+            for (ByteArrayParseData item : plan.getItems()) {
+                Object data = item.getAccessor().get(targetBean);
                 if (data == null) {
                     continue;
                 }
@@ -154,20 +127,70 @@ public class ByteArraySerializer implements IByteArraySerializable {
         }
     }
 
+    /**
+     * Extract data and store it into the field of bean, single primitive value is stored without boxing.
+     * (提取数据并写入对象字段，单个基础类型数据不装箱)
+     *
+     * @param src  byte array
+     * @param bean bean object
+     * @param item parse data
+     */
+    private void bindData(byte[] src, Object bean, ByteArrayParseData item) {
+        ByteArrayParameter variable = item.getParameter();
+        FieldAccessor accessor = item.getAccessor();
+        Class<?> primitiveType = variable.getType().getPrimitiveType();
+        // 字段类型与数据类型不一致时走通用路径，由其抛出类型不匹配的异常，避免强制转换截断数据
+        if (variable.getCount() != 1 || primitiveType == null || primitiveType != accessor.getPrimitiveType()) {
+            accessor.set(bean, this.extractData(src, variable));
+            return;
+        }
+        ByteReadBuff buff = new ByteReadBuff(src, 0, variable.isLittleEndian(), variable.getFormat());
+        int offset = variable.getByteOffset();
+        switch (variable.getType()) {
+            case BOOL:
+                // Boolean和Byte的装箱对象是缓存的，不会分配内存
+                accessor.set(bean, buff.getBoolean(offset, variable.getBitOffset()));
+                break;
+            case BYTE:
+                accessor.set(bean, buff.getByte(offset));
+                break;
+            case UINT16:
+                accessor.setLong(bean, buff.getUInt16(offset));
+                break;
+            case INT16:
+                accessor.setLong(bean, buff.getInt16(offset));
+                break;
+            case UINT32:
+                accessor.setLong(bean, buff.getUInt32(offset));
+                break;
+            case INT32:
+                accessor.setLong(bean, buff.getInt32(offset));
+                break;
+            case INT64:
+                accessor.setLong(bean, buff.getInt64(offset));
+                break;
+            case FLOAT32:
+                accessor.setDouble(bean, buff.getFloat32(offset));
+                break;
+            case FLOAT64:
+                accessor.setDouble(bean, buff.getFloat64(offset));
+                break;
+            default:
+                accessor.set(bean, this.extractData(src, variable));
+                break;
+        }
+    }
+
     /**
      * Extract target data by condition.
      * (提取数据)
      *
      * @param src      byte array
-     * @param bean     bean object
-     * @param field    field
      * @param variable byte array parameter
-     * @param <T>      type
-     * @throws IllegalAccessException illegal access exception
+     * @return value of the field
      */
-    private <T> void extractData(byte[] src, T bean, Field field, ByteArrayParameter variable) throws IllegalAccessException {
+    private Object extractData(byte[] src, ByteArrayParameter variable) {
         ByteReadBuff buff = new ByteReadBuff(src, 0, variable.isLittleEndian(), variable.getFormat());
-        field.setAccessible(true);
         switch (variable.getType()) {
             case BOOL:
                 List<Boolean> booleans = IntStream.range(0, variable.getCount())
@@ -176,86 +199,55 @@ public class ByteArraySerializer implements IByteArraySerializable {
                             int bitAdd = (variable.getBitOffset() + x) % 8;
                             return buff.getBoolean(byteAdd, bitAdd);
                         }).collect(Collectors.toList());
-                field.set(bean, variable.getCount() == 1 ? booleans.get(0) : booleans);
-                break;
+                return variable.getCount() == 1 ? booleans.get(0) : booleans;
             case BYTE:
                 List<Byte> bytes = IntStream.range(0, variable.getCount())
                         .mapToObj(x -> buff.getByte(variable.getByteOffset() + x * variable.getType().getByteLength()))
                         .collect(Collectors.toList());
-                field.set(bean, variable.getCount() == 1 ? bytes.get(0) : bytes);
-                break;
+                return variable.getCount() == 1 ? bytes.get(0) : bytes;
             case UINT16:
                 List<Integer> uint16s = IntStream.range(0, variable.getCount())
                         .mapToObj(x -> buff.getUInt16(variable.getByteOffset() + x * variable.getType().getByteLength()))
                         .collect(Collectors.toList());
-                field.set(bean, variable.getCount() == 1 ? uint16s.get(0) : uint16s);
-                break;
+                return variable.getCount() == 1 ? uint16s.get(0) : uint16s;
             case INT16:
                 List<Short> int16s = IntStream.range(0, variable.getCount())
                         .mapToObj(x -> buff.getInt16(variable.getByteOffset() + x * variable.getType().getByteLength()))
                         .collect(Collectors.toList());
-                field.set(bean, variable.getCount() == 1 ? int16s.get(0) : int16s);
-                break;
+                return variable.getCount() == 1 ? int16s.get(0) : int16s;
             case UINT32:
                 List<Long> uint32s = IntStream.range(0, variable.getCount())
                         .mapToObj(x -> buff.getUInt32(variable.getByteOffset() + x * variable.getType().getByteLength()))
                         .collect(Collectors.toList());
-                field.set(bean, variable.getCount() == 1 ? uint32s.get(0) : uint32s);
-                break;
+                return variable.getCount() == 1 ? uint32s.get(0) : uint32s;
             case INT32:
                 List<Integer> int32s = IntStream.range(0, variable.getCount())
                         .mapToObj(x -> buff.getInt32(variable.getByteOffset() + x * variable.getType().getByteLength()))
                         .collect(Collectors.toList());
-                field.set(bean, variable.getCount() == 1 ? int32s.get(0) : int32s);
-                break;
+                return variable.getCount() == 1 ? int32s.get(0) : int32s;
             case INT64:
                 List<Long> int64s = IntStream.range(0, variable.getCount())
                         .mapToObj(x -> buff.getInt64(variable.getByteOffset() + x * variable.getType().getByteLength()))
                         .collect(Collectors.toList());
-                field.set(bean, variable.getCount() == 1 ? int64s.get(0) : int64s);
-                break;
+                return variable.getCount() == 1 ? int64s.get(0) : int64s;
             case FLOAT32:
                 List<Float> float32s = IntStream.range(0, variable.getCount())
                         .mapToObj(x -> buff.getFloat32(variable.getByteOffset() + x * variable.getType().getByteLength()))
                         .collect(Collectors.toList());
-                field.set(bean, variable.getCount() == 1 ? float32s.get(0) : float32s);
-                break;
+                return variable.getCount() == 1 ? float32s.get(0) : float32s;
             case FLOAT64:
                 List<Double> float64s = IntStream.range(0, variable.getCount())
                         .mapToObj(x -> buff.getFloat64(variable.getByteOffset() + x * variable.getType().getByteLength()))
                         .collect(Collectors.toList());
-                field.set(bean, variable.getCount() == 1 ? float64s.get(0) : float64s);
-                break;
+                return variable.getCount() == 1 ? float64s.get(0) : float64s;
             case STRING:
-                field.set(bean, buff.getString(variable.getByteOffset(), variable.getCount()));
-                break;
+                return buff.getString(variable.getByteOffset(), variable.getCount());
             default:
                 // 提取数据的时候无法识别数据类型
                 throw new ByteArrayParseException("The data type can not be recognized when extracting the data");
         }
     }
 
-    /**
-     * Check byte array variable.
-     * (校验字节数组注解的参数)
-     *
-     * @param variable variable
-     */
-    private void checkByteArrayVariable(ByteArrayParameter variable) {
-        if (variable.getByteOffset() < 0) {
-            // 字节偏移量不能为负数
-            throw new ByteArrayParseException("The byte offset can't be negative");
-        }
-        if (variable.getCount() < 0) {
-            // 数据个数不能为负数
-            throw new ByteArrayParseException("The number of data can't be negative");
-        }
-        if (variable.getType() == BOOL && (variable.getBitOffset() > 7 || variable.getBitOffset() < 0)) {
-            // 当数据类型为bool时，位偏移量只能是[0,7]
-            throw new ByteArrayParseException("When the data type is bool, the bit offset can only be [0,7].");
-        }
-    }
-
     /**
      * Fill with one data.
      * (填充一个数据)
@@ -0,0 +1,264 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.serializer;
+
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+
+/**
+ * Field accessor backed by method handles, resolved once and reused for every bean.
+ * Fields of primitive or wrapper type also get a long and a double setter converted to the field type, so integral and
+ * floating values are stored into primitive fields without boxing.
+ * (基于MethodHandle的字段访问器，只解析一次，后续重复使用；基础类型及其包装类型字段额外生成long和double的setter并转换为字段类型，
+ * 整数和浮点数写入基础类型字段时无装箱)
+ *
+ * @author xingshuang
+ */
+public final class FieldAccessor {
+
+    /**
+     * Field.
+     * (字段)
+     */
+    private final Field field;
+
+    /**
+     * Getter handle, type (Object)Object.
+     * (读取句柄)
+     */
+    private final MethodHandle getter;
+
+    /**
+     * Setter handle, type (Object,Object)void.
+     * (写入句柄)
+     */
+    private final MethodHandle setter;
+
+    /**
+     * Primitive type of the field, the wrapper type is unwrapped, null if the field is not primitive or wrapper.
+     * (字段的基础类型，包装类型会拆箱，非基础类型时为null)
+     */
+    private final Class<?> primitiveType;
+
+    /**
+     * Setter handle of integral value, type (Object,long)void, null if the field is not primitive or wrapper.
+     * (整数写入句柄，非基础类型时为null)
+     */
+    private final MethodHandle longSetter;
+
+    /**
+     * Setter handle of floating value, type (Object,double)void, null if the field is not primitive or wrapper.
+     * (浮点数写入句柄，非基础类型时为null)
+     */
+    private final MethodHandle doubleSetter;
+
+    public FieldAccessor(Field field) {
+        try {
+            field.setAccessible(true);
+            this.field = field;
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.getter = lookup.unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = lookup.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.primitiveType = unwrap(field.getType());
+            if (this.primitiveType == null) {
+                this.longSetter = null;
+                this.doubleSetter = null;
+            } else {
+                // 包装类型先装箱为字段类型，再由long或double强制转换为基础类型
+                MethodHandle primitiveSetter = lookup.unreflectSetter(field)
+                        .asType(MethodType.methodType(void.class, Object.class, this.primitiveType));
+                this.longSetter = MethodHandles.explicitCastArguments(primitiveSetter,
+                        MethodType.methodType(void.class, Object.class, long.class));
+                this.doubleSetter = MethodHandles.explicitCastArguments(primitiveSetter,
+                        MethodType.methodType(void.class, Object.class, double.class));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("field can not be accessed: " + field, e);
+        }
+    }
+
+    public static FieldAccessor of(Field field) {
+        return new FieldAccessor(field);
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Class<?> getPrimitiveType() {
+        return primitiveType;
+    }
+
+    /**
+     * Get the field value of target.
+     * (获取目标对象的字段值)
+     *
+     * @param target target object
+     * @return field value
+     */
+    public Object get(Object target) {
+        try {
+            return this.getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Set the field value of target, primitive fields are unboxed.
+     * (设置目标对象的字段值，基础类型字段会自动拆箱)
+     *
+     * @param target target object
+     * @param value  field value
+     */
+    public void set(Object target, Object value) {
+        try {
+            this.setter.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Set integral value, converted to the primitive type of the field without boxing, such as int, short and long,
+     * the conversion is not checked, the caller must make sure the value is of the primitive type of the field.
+     * (设置整数值，转换为字段的基础类型且不装箱，例如int，short和long，转换不做校验，调用方需保证数据为字段的基础类型)
+     *
+     * @param target target object
+     * @param value  field value
+     */
+    public void setLong(Object target, long value) {
+        if (this.longSetter == null) {
+            this.set(target, value);
+            return;
+        }
+        try {
+            this.longSetter.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Set floating value, converted to the primitive type of the field without boxing, such as float and double,
+     * the conversion is not checked, the caller must make sure the value is of the primitive type of the field.
+     * (设置浮点数值，转换为字段的基础类型且不装箱，例如float和double，转换不做校验，调用方需保证数据为字段的基础类型)
+     *
+     * @param target target object
+     * @param value  field value
+     */
+    public void setDouble(Object target, double value) {
+        if (this.doubleSetter == null) {
+            this.set(target, value);
+            return;
+        }
+        try {
+            this.doubleSetter.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Create the handle of the no-argument constructor, type ()Object.
+     * (创建无参构造函数的句柄)
+     *
+     * @param targetClass target class
+     * @return method handle
+     */
+    public static MethodHandle constructor(Class<?> targetClass) {
+        try {
+            Constructor<?> constructor = targetClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("no accessible no-argument constructor: " + targetClass.getName(), e);
+        }
+    }
+
+    /**
+     * Create a new instance by the constructor handle.
+     * (通过构造函数句柄创建实例)
+     *
+     * @param constructor constructor handle, type ()Object
+     * @param <T>         type
+     * @return new instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T newInstance(MethodHandle constructor) {
+        try {
+            return (T) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Unwrap the type to primitive type.
+     * (包装类型转换为基础类型)
+     *
+     * @param type type
+     * @return primitive type, null if not primitive or wrapper
+     */
+    private static Class<?> unwrap(Class<?> type) {
+        if (type.isPrimitive()) {
+            return type == void.class ? null : type;
+        }
+        if (type == Boolean.class) {
+            return boolean.class;
+        } else if (type == Byte.class) {
+            return byte.class;
+        } else if (type == Short.class) {
+            return short.class;
+        } else if (type == Integer.class) {
+            return int.class;
+        } else if (type == Long.class) {
+            return long.class;
+        } else if (type == Float.class) {
+            return float.class;
+        } else if (type == Double.class) {
+            return double.class;
+        } else if (type == Character.class) {
+            return char.class;
+        }
+        return null;
+    }
+}
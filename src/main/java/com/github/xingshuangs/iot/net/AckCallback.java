@@ -28,6 +28,9 @@ import lombok.Getter;
 
 import java.time.LocalDateTime;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Response callback class.
@@ -54,7 +57,7 @@ public class AckCallback<T> {
      * Flag, is completed.
      * (是否完成)
      */
-    protected boolean completed;
+    protected volatile boolean completed;
 
     /**
      * Error message for callback.
@@ -72,7 +75,13 @@ public class AckCallback<T> {
      * Lock object.
      * (锁对象)
      */
-    protected final Object lock = new Object();
+    protected final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Condition signalled when completed.
+     * (完成时通知的条件)
+     */
+    protected final Condition done = this.lock.newCondition();
 
     /**
      * Object create time.
@@ -99,11 +108,14 @@ public class AckCallback<T> {
      * @param ackPackage response package data
      */
     public void responseOk(T ackPackage) {
-        this.ackData = ackPackage;
-        this.completed = true;
-        this.errorMessage = "";
-        synchronized (this.lock) {
-            this.lock.notifyAll();
+        this.lock.lock();
+        try {
+            this.ackData = ackPackage;
+            this.errorMessage = "";
+            this.completed = true;
+            this.done.signalAll();
+        } finally {
+            this.lock.unlock();
         }
         if (this.listener != null) {
             CompletableFuture.runAsync(() -> this.listener.ok(ackPackage));
@@ -117,11 +129,14 @@ public class AckCallback<T> {
      * @param message error message
      */
     public void responseFail(String message) {
-        this.ackData = null;
-        this.completed = true;
-        this.errorMessage = message;
-        synchronized (this.lock) {
-            this.lock.notifyAll();
+        this.lock.lock();
+        try {
+            this.ackData = null;
+            this.errorMessage = message;
+            this.completed = true;
+            this.done.signalAll();
+        } finally {
+            this.lock.unlock();
         }
         if (this.listener != null) {
             CompletableFuture.runAsync(() -> this.listener.fail(message));
@@ -133,13 +148,7 @@ public class AckCallback<T> {
      * (等待数据)
      */
     public void waitData() {
-        try {
-            synchronized (this.lock) {
-                this.lock.wait(this.timeoutMs);
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        this.waitData(this.timeoutMs);
     }
 
     /**
@@ -149,12 +158,17 @@ public class AckCallback<T> {
      * @param timeout timeout in millisecond
      */
     public void waitData(long timeout) {
+        this.lock.lock();
         try {
-            synchronized (this.lock) {
-                this.lock.wait(timeout);
+            // 已经完成的不需要再等待，虚假唤醒时继续等待剩余时间
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (!this.completed && nanos > 0) {
+                nanos = this.done.awaitNanos(nanos);
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } finally {
+            this.lock.unlock();
         }
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net;
+
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+
+/**
+ * Frame decoder based on the length field in the protocol header, such as TPKT, MBAP and MC 3E/4E.
+ * (基于协议头中长度字段的帧解码器，例如TPKT，MBAP，MC的3E/4E)
+ * <p>
+ * frame length = value of length field + lengthAdjustment.
+ *
+ * @author xingshuang
+ */
+public class LengthFieldFrameDecoder implements IFrameDecoder {
+
+    /**
+     * The offset of the length field.
+     * (长度字段的偏移量)
+     */
+    private final int lengthFieldOffset;
+
+    /**
+     * The byte size of the length field, 1, 2 or 4.
+     * (长度字段的字节数，1，2或4)
+     */
+    private final int lengthFieldSize;
+
+    /**
+     * Is the length field little endian.
+     * (长度字段是否小端模式)
+     */
+    private final boolean littleEndian;
+
+    /**
+     * The value added to the length field to get the frame length.
+     * (长度字段值加上该值得到完整帧长度)
+     */
+    private final int lengthAdjustment;
+
+    public LengthFieldFrameDecoder(int lengthFieldOffset, int lengthFieldSize, boolean littleEndian, int lengthAdjustment) {
+        if (lengthFieldOffset < 0) {
+            throw new IllegalArgumentException("lengthFieldOffset >= 0");
+        }
+        if (lengthFieldSize != 1 && lengthFieldSize != 2 && lengthFieldSize != 4) {
+            throw new IllegalArgumentException("lengthFieldSize = 1, 2 or 4");
+        }
+        this.lengthFieldOffset = lengthFieldOffset;
+        this.lengthFieldSize = lengthFieldSize;
+        this.littleEndian = littleEndian;
+        this.lengthAdjustment = lengthAdjustment;
+    }
+
+    /**
+     * TPKT frame decoder, big endian length at offset 2, including the header.
+     * (TPKT帧解码器)
+     *
+     * @return frame decoder
+     */
+    public static LengthFieldFrameDecoder tpkt() {
+        return new LengthFieldFrameDecoder(2, 2, false, 0);
+    }
+
+    /**
+     * Modbus TCP MBAP frame decoder, big endian length at offset 4, excluding the first 6 bytes.
+     * (Modbus TCP的MBAP帧解码器)
+     *
+     * @return frame decoder
+     */
+    public static LengthFieldFrameDecoder mbap() {
+        return new LengthFieldFrameDecoder(4, 2, false, 6);
+    }
+
+    @Override
+    public int frameLength(final byte[] data, final int offset, final int length) {
+        if (length < this.lengthFieldOffset + this.lengthFieldSize) {
+            return -1;
+        }
+        int index = offset + this.lengthFieldOffset;
+        long value = 0;
+        for (int i = 0; i < this.lengthFieldSize; i++) {
+            int b = data[index + (this.littleEndian ? this.lengthFieldSize - 1 - i : i)] & 0xFF;
+            value = (value << 8) | b;
+        }
+        long frameLength = value + this.lengthAdjustment;
+        if (frameLength < this.lengthFieldOffset + this.lengthFieldSize || frameLength > Integer.MAX_VALUE) {
+            // 帧长度字段非法
+            throw new SocketRuntimeException("Invalid frame length: " + frameLength);
+        }
+        return frameLength <= length ? (int) frameLength : -1;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.client;
+
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selector driven event loop, one thread serves the IO events of many {@link NioTcpChannel}.
+ * (基于Selector的事件循环，一个线程处理多个NioTcpChannel的IO事件)
+ *
+ * @author xingshuang
+ */
+@Slf4j
+public class NioEventLoop implements Closeable {
+
+    private static final AtomicInteger INDEX = new AtomicInteger();
+
+    private static volatile NioEventLoop defaultLoop;
+
+    /**
+     * Selector object.
+     * (选择器)
+     */
+    private final Selector selector;
+
+    /**
+     * IO thread.
+     * (IO线程)
+     */
+    private final Thread thread;
+
+    /**
+     * Tasks which must be executed in the IO thread.
+     * (需要在IO线程中执行的任务)
+     */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Read buffer shared by all channels of this loop, only used in the IO thread.
+     * (本事件循环中所有通道共用的读缓存，只在IO线程中使用)
+     */
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private volatile boolean running = true;
+
+    public NioEventLoop() {
+        this("iot-nio-" + INDEX.getAndIncrement());
+    }
+
+    public NioEventLoop(String name) {
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new SocketRuntimeException(e);
+        }
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Get the default event loop shared by the whole process.
+     * (获取进程内共享的默认事件循环)
+     *
+     * @return event loop
+     */
+    public static NioEventLoop getDefault() {
+        if (defaultLoop == null) {
+            synchronized (NioEventLoop.class) {
+                if (defaultLoop == null) {
+                    defaultLoop = new NioEventLoop();
+                }
+            }
+        }
+        return defaultLoop;
+    }
+
+    /**
+     * Is running.
+     * (是否运行中)
+     *
+     * @return true: running, false: closed
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Is current thread the IO thread.
+     * (当前线程是否是IO线程)
+     *
+     * @return true: yes, false: no
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == this.thread;
+    }
+
+    /**
+     * Execute the task in the IO thread.
+     * (在IO线程中执行任务)
+     *
+     * @param task task
+     */
+    public void execute(Runnable task) {
+        if (!this.running) {
+            // 事件循环已关闭
+            throw new SocketRuntimeException("The event loop has been closed");
+        }
+        this.tasks.add(task);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Register the channel into the selector.
+     * (将通道注册到选择器中)
+     *
+     * @param socketChannel socket channel in non-blocking mode
+     * @param channel       handler of the IO events
+     * @return selection key
+     */
+    SelectionKey register(SocketChannel socketChannel, NioTcpChannel channel) {
+        CompletableFuture<SelectionKey> future = new CompletableFuture<>();
+        this.execute(() -> {
+            try {
+                future.complete(socketChannel.register(this.selector, SelectionKey.OP_READ, channel));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SocketRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new SocketRuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Change the interest operations of the key in the IO thread.
+     * (在IO线程中修改关注的事件)
+     *
+     * @param key key
+     * @param ops interest operations
+     */
+    void interestOps(SelectionKey key, int ops) {
+        this.execute(() -> {
+            if (key.isValid()) {
+                key.interestOps(ops);
+            }
+        });
+    }
+
+    private void run() {
+        while (this.running) {
+            try {
+                this.selector.select();
+                this.runTasks();
+                Iterator<SelectionKey> iterator = this.selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    this.handle(key);
+                }
+            } catch (Exception e) {
+                // 事件循环发生异常
+                log.error("Event loop [{}] error", this.thread.getName(), e);
+            }
+        }
+        this.runTasks();
+        for (SelectionKey key : this.selector.keys()) {
+            ((NioTcpChannel) key.attachment()).onError(new SocketRuntimeException("The event loop has been closed"));
+        }
+        try {
+            this.selector.close();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        NioTcpChannel channel = (NioTcpChannel) key.attachment();
+        try {
+            if (key.isValid() && key.isReadable()) {
+                channel.onReadable(this.readBuffer);
+            }
+            if (key.isValid() && key.isWritable()) {
+                key.interestOps(SelectionKey.OP_READ);
+                channel.onWritable();
+            }
+        } catch (CancelledKeyException e) {
+            // NOOP
+        } catch (Exception e) {
+            channel.onError(e);
+        }
+    }
+
+    /**
+     * Close the event loop, all the registered channels will be closed.
+     * (关闭事件循环，所有注册的通道都会被关闭)
+     */
+    @Override
+    public void close() {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        this.selector.wakeup();
+        synchronized (NioEventLoop.class) {
+            if (defaultLoop == this) {
+                defaultLoop = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.client;
+
+
+import com.github.xingshuangs.iot.common.buff.ByteArrayPool;
+import com.github.xingshuangs.iot.common.buff.PooledByteArray;
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import com.github.xingshuangs.iot.net.ICommunicable;
+import com.github.xingshuangs.iot.net.IFrameDecoder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Non-blocking TCP channel, the IO events are driven by {@link NioEventLoop}, the received data is cached and
+ * consumed by the read methods, or frame by frame by {@link #readFrame(ByteArrayPool, int)} if the frame decoder is set.
+ * (非阻塞TCP通道，IO事件由NioEventLoop驱动，接收的数据缓存起来，由read方法读取，设置了帧解码器时可以按帧读取)
+ *
+ * @author xingshuang
+ */
+@Slf4j
+public class NioTcpChannel implements ICommunicable {
+
+    /**
+     * Event loop.
+     * (事件循环)
+     */
+    private final NioEventLoop eventLoop;
+
+    /**
+     * Frame decoder, null means the frame boundary is unknown.
+     * (帧解码器，为null表示未知帧边界)
+     */
+    private final IFrameDecoder frameDecoder;
+
+    /**
+     * Lock of the receive buffer.
+     * (接收缓存的锁)
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signal of the receive buffer or writable event.
+     * (接收数据或可写的信号)
+     */
+    private final Condition signal = this.lock.newCondition();
+
+    /**
+     * Receive buffer, valid data is in [start, end).
+     * (接收缓存，有效数据在[start, end)之间)
+     */
+    private byte[] buffer = new byte[1024];
+
+    private int start;
+
+    private int end;
+
+    private SocketChannel socketChannel;
+
+    private SelectionKey selectionKey;
+
+    /**
+     * The error occurred in the IO thread.
+     * (IO线程中发生的异常)
+     */
+    private volatile Exception error;
+
+    private volatile boolean writable;
+
+    /**
+     * Timeout in millisecond of the reads and writes without a timeout argument, 0: no timeout.
+     * (未指定超时时间的读写所使用的超时时间，0表示不超时)
+     */
+    private volatile int receiveTimeout = 10_000;
+
+    public NioTcpChannel(NioEventLoop eventLoop, IFrameDecoder frameDecoder) {
+        this.eventLoop = eventLoop;
+        this.frameDecoder = frameDecoder;
+    }
+
+    public int getReceiveTimeout() {
+        return receiveTimeout;
+    }
+
+    public void setReceiveTimeout(int receiveTimeout) {
+        if (receiveTimeout < 0) {
+            throw new IllegalArgumentException("receiveTimeout>=0");
+        }
+        this.receiveTimeout = receiveTimeout;
+    }
+
+    /**
+     * Whether the frame decoder is set, then the data can be read frame by frame.
+     * (是否设置了帧解码器，设置后可以按帧读取数据)
+     *
+     * @return true: set, false: not set
+     */
+    public boolean hasFrameDecoder() {
+        return this.frameDecoder != null;
+    }
+
+    /**
+     * Connect server, connecting is blocking, after connected the channel switches to non-blocking mode.
+     * (连接服务器，连接过程是阻塞的，连接成功后切换为非阻塞模式)
+     *
+     * @param address        server address
+     * @param connectTimeout connect timeout in millisecond
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public void connect(InetSocketAddress address, int connectTimeout) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.socket().connect(address, connectTimeout);
+            channel.configureBlocking(false);
+            this.socketChannel = channel;
+            this.selectionKey = this.eventLoop.register(channel, this);
+        } catch (IOException e) {
+            this.closeQuietly(channel);
+            throw new SocketRuntimeException(e);
+        } catch (RuntimeException e) {
+            this.closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Get connected state.
+     * (是否连接状态)
+     *
+     * @return true：connected，false：disconnected
+     */
+    public boolean isConnected() {
+        return this.error == null && this.socketChannel != null && this.socketChannel.isOpen()
+                && this.socketChannel.isConnected();
+    }
+
+    @Override
+    public void close() {
+        this.onError(new SocketRuntimeException("The channel has been closed"));
+    }
+
+    //region IO线程回调
+
+    void onReadable(ByteBuffer readBuffer) throws IOException {
+        ((Buffer) readBuffer).clear();
+        int num = this.socketChannel.read(readBuffer);
+        if (num < 0) {
+            // 读取数据异常，未读取到数据，连接断开
+            this.onError(new SocketRuntimeException("The end of the stream has been reached, and disconnected"));
+            return;
+        }
+        if (num == 0) {
+            return;
+        }
+        ((Buffer) readBuffer).flip();
+        this.lock.lock();
+        try {
+            this.ensureCapacity(num);
+            readBuffer.get(this.buffer, this.end, num);
+            this.end += num;
+            this.signal.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    void onWritable() {
+        this.lock.lock();
+        try {
+            this.writable = true;
+            this.signal.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    void onError(Exception e) {
+        this.lock.lock();
+        try {
+            if (this.error == null) {
+                this.error = e;
+            }
+            this.signal.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        if (this.selectionKey != null) {
+            this.selectionKey.cancel();
+        }
+        this.closeQuietly(this.socketChannel);
+    }
+
+    //endregion
+
+    //region 读写方法
+
+    @Override
+    public void write(final byte[] data) {
+        this.write(data, 0, data.length, this.receiveTimeout);
+    }
+
+    @Override
+    public void write(final byte[] data, final int offset, final int length) {
+        this.write(data, offset, length, this.receiveTimeout);
+    }
+
+    /**
+     * Write data by byte array, if the socket buffer is full, wait until writable.
+     * (写入数据，socket缓存满了则等待可写)
+     *
+     * @param data    byte array
+     * @param offset  the start offset in the data.
+     * @param length  the number of bytes to write.
+     * @param timeout timeout in millisecond for waiting writable, 0: no timeout
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public void write(final byte[] data, final int offset, final int length, final int timeout) {
+        if (offset + length > data.length) {
+            throw new IllegalArgumentException("offset+length");
+        }
+        this.checkError();
+        ByteBuffer src = ByteBuffer.wrap(data, offset, length);
+        try {
+            while (src.hasRemaining()) {
+                if (this.socketChannel.write(src) > 0) {
+                    continue;
+                }
+                // socket发送缓存已满，等待可写
+                this.lock.lock();
+                try {
+                    this.writable = false;
+                    this.eventLoop.interestOps(this.selectionKey, SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+                    while (!this.writable) {
+                        this.checkError();
+                        nanos = this.await(timeout, nanos, "Write timed out");
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            this.onError(e);
+            throw new SocketRuntimeException(e);
+        }
+    }
+
+    @Override
+    public int read(final byte[] data) {
+        return this.read(data, 0, data.length, -1, this.receiveTimeout, false);
+    }
+
+    @Override
+    public int read(final byte[] data, final int offset, final int length) {
+        return this.read(data, offset, length, -1, this.receiveTimeout, false);
+    }
+
+    /**
+     * Read data and store it in the position of the specified byte array, same semantics as the blocking socket.
+     * (读取数据，与阻塞socket的语义一致)
+     *
+     * @param data        byte array
+     * @param offset      the start offset in the data.
+     * @param length      the number of bytes to read.
+     * @param maxLength   the maximum length allowed for a single communication,if litter than 0, then ignore. (单次通信允许的对最大长度，若小于等于0则不考虑)
+     * @param timeout     timeout with ms, 0: no timeout
+     * @param waitForMore If the data is not enough, whether to wait for more data
+     * @return the total number of bytes read into the data
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public int read(final byte[] data, final int offset, final int length, final int maxLength,
+                    final int timeout, final boolean waitForMore) {
+        if (offset + length > data.length) {
+            throw new IllegalArgumentException("offset+length");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout>=0");
+        }
+        int count = 0;
+        int off = offset;
+        this.lock.lock();
+        try {
+            while (count < length) {
+                long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+                while (this.end == this.start) {
+                    this.checkError();
+                    nanos = this.await(timeout, nanos, "Read timed out");
+                }
+                int len = maxLength <= 0 ? length - count : Math.min(maxLength, length - count);
+                int num = Math.min(len, this.end - this.start);
+                System.arraycopy(this.buffer, this.start, data, off, num);
+                this.start += num;
+                count += num;
+                off += num;
+                // 实际读取的数据长度比期望还小，则证明已经读取完了
+                if (!waitForMore && num < len) {
+                    break;
+                }
+            }
+            return count;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Read a complete frame split by the frame decoder into a leased buffer, the caller releases the buffer after use.
+     * (读取由帧解码器切分的完整帧到租借的缓存中，使用完成后由调用方释放)
+     *
+     * @param pool    byte array pool
+     * @param timeout timeout with ms, 0: no timeout
+     * @return leased frame
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public PooledByteArray readFrame(final ByteArrayPool pool, final int timeout) {
+        if (this.frameDecoder == null) {
+            // 没有帧解码器，无法读取完整的帧
+            throw new IllegalStateException("frameDecoder is null");
+        }
+        this.lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+            int frameLength;
+            while ((frameLength = this.frameDecoder.frameLength(this.buffer, this.start, this.end - this.start)) < 0) {
+                this.checkError();
+                nanos = this.await(timeout, nanos, "Read timed out");
+            }
+            PooledByteArray frame = pool.lease(frameLength);
+            System.arraycopy(this.buffer, this.start, frame.getData(), 0, frameLength);
+            this.start += frameLength;
+            return frame;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    //endregion
+
+    //region 私有方法
+
+    private void ensureCapacity(int size) {
+        if (this.start == this.end) {
+            this.start = 0;
+            this.end = 0;
+        }
+        if (this.end + size <= this.buffer.length) {
+            return;
+        }
+        int remain = this.end - this.start;
+        byte[] dst = remain + size <= this.buffer.length ? this.buffer
+                : new byte[Math.max(this.buffer.length * 2, remain + size)];
+        System.arraycopy(this.buffer, this.start, dst, 0, remain);
+        this.buffer = dst;
+        this.start = 0;
+        this.end = remain;
+    }
+
+    private long await(int timeout, long nanos, String timeoutMessage) {
+        try {
+            if (timeout == 0) {
+                this.signal.await();
+                return nanos;
+            }
+            if (nanos <= 0) {
+                throw new SocketRuntimeException(new SocketTimeoutException(timeoutMessage));
+            }
+            return this.signal.awaitNanos(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SocketRuntimeException(e);
+        }
+    }
+
+    private void checkError() {
+        Exception e = this.error;
+        if (e == null) {
+            return;
+        }
+        if (e instanceof SocketRuntimeException) {
+            throw new SocketRuntimeException(e.getMessage(), e);
+        }
+        throw new SocketRuntimeException(e);
+    }
+
+    private void closeQuietly(SocketChannel channel) {
+        if (channel == null || !channel.isOpen()) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug(e.getMessage(), e);
+        }
+    }
+
+    //endregion
+}
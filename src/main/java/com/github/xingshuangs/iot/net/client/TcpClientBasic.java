@@ -25,15 +25,25 @@
 package com.github.xingshuangs.iot.net.client;
 
 
+import com.github.xingshuangs.iot.common.buff.ByteArrayPool;
+import com.github.xingshuangs.iot.common.buff.PooledByteArray;
 import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import com.github.xingshuangs.iot.net.AckCallback;
+import com.github.xingshuangs.iot.net.IAckListener;
 import com.github.xingshuangs.iot.net.ICommunicable;
+import com.github.xingshuangs.iot.net.IFrameDecoder;
 import com.github.xingshuangs.iot.net.SocketUtils;
+import com.github.xingshuangs.iot.utils.ThreadUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.util.Queue;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static com.github.xingshuangs.iot.common.constant.GeneralConst.LOCALHOST;
 
@@ -45,6 +55,29 @@ import static com.github.xingshuangs.iot.common.constant.GeneralConst.LOCALHOST;
 @Slf4j
 public class TcpClientBasic implements ICommunicable {
 
+    /**
+     * The max number of async requests executed in one turn, then the thread is given back to the executor.
+     * (单次最多连续执行的异步请求个数，之后线程归还给线程池)
+     */
+    private static final int ASYNC_BATCH_SIZE = 64;
+
+    /**
+     * Default executor of the async requests, shared by all clients, a thread is only occupied by the connection
+     * which has pending requests, virtual threads are used on Java 21+.
+     * (默认的异步请求执行器，所有客户端共享，只有存在待执行请求的连接才会占用线程，Java 21+使用虚拟线程)
+     */
+    private static final Executor DEFAULT_ASYNC_EXECUTOR = ThreadUtil.newPerTaskExecutor("iot-async-",
+            () -> Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger index = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "iot-async-" + this.index.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }));
+
     // region 私有对象
 
     /**
@@ -88,6 +121,42 @@ public class TcpClientBasic implements ICommunicable {
      */
     protected boolean enableReconnect = true;
 
+    /**
+     * NIO event loop, null: use the blocking socket, not null: use the non-blocking channel driven by the event loop.
+     * (NIO事件循环，为null时使用阻塞socket，不为null时使用事件循环驱动的非阻塞通道)
+     */
+    protected NioEventLoop nioEventLoop;
+
+    /**
+     * Non-blocking channel object.
+     * (非阻塞通道对象)
+     */
+    protected volatile NioTcpChannel channel;
+
+    /**
+     * Executor of the async requests.
+     * (异步请求的执行器)
+     */
+    protected Executor asyncExecutor = DEFAULT_ASYNC_EXECUTOR;
+
+    /**
+     * Async request queue of this connection, executed one by one.
+     * (本连接的异步请求队列，逐个执行)
+     */
+    private final Queue<Runnable> asyncQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of pending async requests.
+     * (待执行的异步请求个数)
+     */
+    private final AtomicInteger asyncPending = new AtomicInteger();
+
+    /**
+     * Flag, is the async queue being drained.
+     * (异步队列是否正在执行)
+     */
+    private final AtomicBoolean asyncRunning = new AtomicBoolean(false);
+
     public InetSocketAddress getSocketAddress() {
         return socketAddress;
     }
@@ -108,12 +177,57 @@ public class TcpClientBasic implements ICommunicable {
         this.connectTimeout = connectTimeout;
     }
 
+    public NioEventLoop getNioEventLoop() {
+        return nioEventLoop;
+    }
+
+    /**
+     * Set NIO event loop, must be set before connecting, null means using the blocking socket.
+     * (设置NIO事件循环，需要在连接之前设置，为null表示使用阻塞socket)
+     *
+     * @param nioEventLoop event loop, {@link NioEventLoop#getDefault()} can be shared by all clients
+     */
+    public void setNioEventLoop(NioEventLoop nioEventLoop) {
+        this.nioEventLoop = nioEventLoop;
+    }
+
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Set the executor of the async requests, the requests of one connection are always executed one by one.
+     * (设置异步请求的执行器，同一连接的请求始终逐个执行)
+     *
+     * @param asyncExecutor executor
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        if (asyncExecutor == null) {
+            throw new IllegalArgumentException("asyncExecutor is null");
+        }
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Get the number of pending async requests.
+     * (获取待执行的异步请求个数)
+     *
+     * @return number
+     */
+    public int getAsyncPending() {
+        return this.asyncPending.get();
+    }
+
     public int getReceiveTimeout() {
         return receiveTimeout;
     }
 
     public void setReceiveTimeout(int receiveTimeout) {
         this.receiveTimeout = receiveTimeout;
+        NioTcpChannel current = this.channel;
+        if (current != null) {
+            current.setReceiveTimeout(receiveTimeout);
+        }
     }
 
     // endregion
@@ -138,6 +252,10 @@ public class TcpClientBasic implements ICommunicable {
      * @return connected state，true: connected，false: disconnected.
      */
     public boolean checkConnected() {
+        if (this.nioEventLoop != null) {
+            NioTcpChannel current = this.channel;
+            return !this.socketError.get() && current != null && current.isConnected();
+        }
         return !this.socketError.get() && SocketUtils.isConnected(this.socket);
     }
 
@@ -149,7 +267,11 @@ public class TcpClientBasic implements ICommunicable {
      */
     public void connect() {
         this.close();
-        this.getAvailableSocket();
+        if (this.nioEventLoop != null) {
+            this.getAvailableChannel();
+        } else {
+            this.getAvailableSocket();
+        }
     }
 
     /**
@@ -187,6 +309,42 @@ public class TcpClientBasic implements ICommunicable {
         }
     }
 
+    /**
+     * Get available non-blocking channel object, only used when the NIO event loop is set.
+     * (获取有效的非阻塞通道对象，只在设置了NIO事件循环时使用)
+     *
+     * @return channel object
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public NioTcpChannel getAvailableChannel() {
+        if (this.nioEventLoop == null) {
+            // 未设置NIO事件循环
+            throw new SocketRuntimeException("The NIO event loop is not set");
+        }
+        // 连接过了，同时又不支持自动重连，直接返回
+        NioTcpChannel current = this.channel;
+        if (current != null && !this.enableReconnect) {
+            return current;
+        }
+
+        // 已连接的直接返回通道
+        if (current != null && !this.socketError.get() && current.isConnected()) {
+            return current;
+        }
+        // 未连接，表示已断开，需要手动关闭通道，创建新的通道
+        this.close();
+
+        NioTcpChannel newChannel = new NioTcpChannel(this.nioEventLoop, this.createFrameDecoder());
+        newChannel.setReceiveTimeout(this.receiveTimeout);
+        newChannel.connect(this.socketAddress, this.connectTimeout);
+        this.channel = newChannel;
+        this.socketError.set(false);
+        // 创建并连接{}服务端[{}]成功
+        log.debug("Create NIO channel and connect to {} server [{}] succeed", this.tag, this.socketAddress);
+        this.doAfterConnected();
+        return newChannel;
+    }
+
     /**
      * Close socket.
      * (关闭socket)
@@ -194,6 +352,12 @@ public class TcpClientBasic implements ICommunicable {
      * @throws SocketRuntimeException Socket Runtime Exception
      */
     public void close() {
+        // 置空之后再次使用时会重新建立通道，而不是继续使用已关闭的通道
+        NioTcpChannel current = this.channel;
+        if (current != null) {
+            this.channel = null;
+            current.close();
+        }
         try {
             SocketUtils.close(this.socket);
         } catch (IOException e) {
@@ -211,6 +375,121 @@ public class TcpClientBasic implements ICommunicable {
         // NOOP
     }
 
+    /**
+     * Create the frame decoder of the protocol, used by the non-blocking channel to split the responses, see
+     * {@link #readFrame(ByteArrayPool)}.
+     * (创建协议的帧解码器，非阻塞通道使用它切分响应)
+     *
+     * @return frame decoder, null if the protocol has no length field
+     */
+    protected IFrameDecoder createFrameDecoder() {
+        return null;
+    }
+
+    //region 异步方法
+
+    /**
+     * Execute the request asynchronously, the request is put into the queue of this connection.
+     * (异步执行请求，请求放入本连接的队列中)
+     *
+     * @param supplier request
+     * @param <R>      result type
+     * @return future
+     */
+    public <R> CompletableFuture<R> executeAsync(Supplier<R> supplier) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            if (future.isDone()) {
+                // 已经被取消的不再执行
+                return;
+            }
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        this.asyncPending.incrementAndGet();
+        this.asyncQueue.add(task);
+        try {
+            this.scheduleAsync();
+        } catch (RejectedExecutionException e) {
+            if (this.asyncQueue.remove(task)) {
+                this.asyncPending.decrementAndGet();
+            }
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Execute the request asynchronously without result.
+     * (异步执行无返回值的请求)
+     *
+     * @param runnable request
+     * @return future
+     */
+    public CompletableFuture<Void> runAsync(Runnable runnable) {
+        return this.executeAsync(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Execute the request asynchronously, the result is notified by the listener.
+     * (异步执行请求，结果通过监听器通知)
+     *
+     * @param supplier request
+     * @param listener ack listener, can be null
+     * @param <R>      result type
+     * @return ack callback, can wait for the result by {@link AckCallback#waitData()}
+     */
+    public <R> AckCallback<R> executeAsync(Supplier<R> supplier, IAckListener<R> listener) {
+        AckCallback<R> callback = new AckCallback<>(listener);
+        this.executeAsync(supplier).whenComplete((r, e) -> {
+            if (e == null) {
+                callback.responseOk(r);
+            } else {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                callback.responseFail(cause.getMessage());
+            }
+        });
+        return callback;
+    }
+
+    private void scheduleAsync() {
+        if (!this.asyncQueue.isEmpty() && this.asyncRunning.compareAndSet(false, true)) {
+            try {
+                this.asyncExecutor.execute(this::drainAsync);
+            } catch (RejectedExecutionException e) {
+                this.asyncRunning.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drainAsync() {
+        try {
+            Runnable task;
+            int count = 0;
+            while (count++ < ASYNC_BATCH_SIZE && (task = this.asyncQueue.poll()) != null) {
+                this.asyncPending.decrementAndGet();
+                task.run();
+            }
+        } finally {
+            this.asyncRunning.set(false);
+            try {
+                this.scheduleAsync();
+            } catch (RejectedExecutionException e) {
+                // 异步请求执行器拒绝执行
+                log.error("The async executor rejected the requests of {} server [{}]", this.tag, this.socketAddress, e);
+            }
+        }
+    }
+
+    //endregion
+
     //region 读写方法
 
     /**
@@ -248,6 +527,15 @@ public class TcpClientBasic implements ICommunicable {
      * @throws SocketRuntimeException Socket Runtime Exception
      */
     public void write(final byte[] data, final int offset, final int length, final int maxLength) {
+        if (this.nioEventLoop != null) {
+            try {
+                this.getAvailableChannel().write(data, offset, length, this.receiveTimeout);
+                return;
+            } catch (SocketRuntimeException e) {
+                this.socketError.set(true);
+                throw e;
+            }
+        }
         try {
             Socket availableSocket = this.getAvailableSocket();
             SocketUtils.write(availableSocket, data, offset, length, maxLength);
@@ -357,6 +645,14 @@ public class TcpClientBasic implements ICommunicable {
      */
     public int read(final byte[] data, final int offset, final int length, final int maxLength,
                     final int timeout, final boolean waitForMore) {
+        if (this.nioEventLoop != null) {
+            try {
+                return this.getAvailableChannel().read(data, offset, length, maxLength, timeout, waitForMore);
+            } catch (SocketRuntimeException e) {
+                this.socketError.set(true);
+                throw e;
+            }
+        }
         try {
             Socket availableSocket = this.getAvailableSocket();
             return SocketUtils.read(availableSocket, data, offset, length, maxLength, timeout, waitForMore);
@@ -366,5 +662,35 @@ public class TcpClientBasic implements ICommunicable {
         }
     }
 
+    /**
+     * Whether the responses can be read by {@link #readFrame(ByteArrayPool)}, that is the non-blocking channel is
+     * used and the protocol has a frame decoder.
+     * (是否可以通过readFrame读取响应，即使用非阻塞通道且协议有帧解码器)
+     *
+     * @return true: read by frame, false: read by length
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    protected boolean isFrameReadable() {
+        return this.nioEventLoop != null && this.getAvailableChannel().hasFrameDecoder();
+    }
+
+    /**
+     * Read one complete frame split by the frame decoder into a leased buffer, the frame is taken from the receive
+     * buffer of the channel at once instead of header and body, the caller releases the buffer after decoding.
+     * (读取由帧解码器切分的完整帧到租借的缓存中，从通道接收缓存中一次取出而不是分头部和数据两次读取，解析完成后由调用方释放)
+     *
+     * @param pool byte array pool
+     * @return leased frame
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    protected PooledByteArray readFrame(ByteArrayPool pool) {
+        try {
+            return this.getAvailableChannel().readFrame(pool, this.receiveTimeout);
+        } catch (SocketRuntimeException e) {
+            this.socketError.set(true);
+            throw e;
+        }
+    }
+
     //endregion
 }
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.client;
+
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * TCP client pools keyed by endpoint, such as host:port:rack:slot, one bounded pool per key.
+ * (按端点区分的TCP客户端连接池，例如host:port:rack:slot，每个key一个有界连接池)
+ *
+ * @author xingshuang
+ */
+@Slf4j
+public class TcpClientKeyedPool<K, T extends TcpClientBasic> implements AutoCloseable {
+
+    /**
+     * Client factory by key.
+     * (根据key创建客户端的工厂)
+     */
+    private final Function<K, T> factory;
+
+    private final TcpClientPoolConfig config;
+
+    private final Map<K, TcpClientPool<T>> pools = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    public TcpClientKeyedPool(Function<K, T> factory) {
+        this(factory, new TcpClientPoolConfig());
+    }
+
+    public TcpClientKeyedPool(Function<K, T> factory, TcpClientPoolConfig config) {
+        this.factory = factory;
+        this.config = config;
+    }
+
+    /**
+     * Get the pool of the key, created if absent.
+     * (获取key对应的连接池，不存在则创建)
+     *
+     * @param key endpoint key
+     * @return pool
+     * @throws SocketRuntimeException the keyed pool has been closed
+     */
+    public TcpClientPool<T> getPool(K key) {
+        this.checkClosed();
+        TcpClientPool<T> pool = this.pools.computeIfAbsent(key,
+                k -> new TcpClientPool<>(() -> this.factory.apply(k), this.config));
+        if (this.closed) {
+            // 与close并发时新建的连接池可能没有被关闭
+            pool.close();
+            this.checkClosed();
+        }
+        return pool;
+    }
+
+    /**
+     * Borrow a connected client of the key.
+     * (借用key对应的已连接客户端)
+     *
+     * @param key endpoint key
+     * @return client
+     */
+    public T borrow(K key) {
+        return this.getPool(key).borrow();
+    }
+
+    /**
+     * Give back the client of the key, it also works after the keyed pool is closed, then the client is closed,
+     * the client is closed too if there is no pool of the key.
+     * (归还key对应的客户端，连接池关闭之后也可以归还，此时客户端会被关闭，key对应的连接池不存在时同样关闭客户端)
+     *
+     * @param key    endpoint key
+     * @param client client
+     */
+    public void giveBack(K key, T client) {
+        TcpClientPool<T> pool = this.pools.get(key);
+        if (pool != null) {
+            pool.giveBack(client);
+            return;
+        }
+        try {
+            client.close();
+        } catch (Exception e) {
+            log.debug(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Borrow a client of the key, execute the function and give back the client.
+     * (借用key对应的客户端执行函数后归还)
+     *
+     * @param key      endpoint key
+     * @param function function
+     * @param <R>      result type
+     * @return result
+     */
+    public <R> R execute(K key, Function<T, R> function) {
+        return this.getPool(key).execute(function);
+    }
+
+    /**
+     * Close the idle clients of all pools which exceed the idle timeout.
+     * (关闭所有连接池中超过空闲时间的客户端)
+     */
+    public void evictIdle() {
+        this.pools.values().forEach(TcpClientPool::evictIdle);
+    }
+
+    /**
+     * Close all pools, the pools are kept so that the borrowed clients can still be given back and closed.
+     * (关闭所有连接池，连接池会被保留，以便借出的客户端仍能归还并关闭)
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.pools.values().forEach(TcpClientPool::close);
+    }
+
+    private void checkClosed() {
+        if (this.closed) {
+            // 连接池已关闭
+            throw new SocketRuntimeException("The client pool has been closed");
+        }
+    }
+}
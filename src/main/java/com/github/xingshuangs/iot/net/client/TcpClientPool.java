@@ -0,0 +1,365 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.client;
+
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.SocketTimeoutException;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of connected TCP clients of one endpoint, such as S7PLC, McPLC and ModbusTcp, the handshake is done
+ * when the client is created, so the borrowed client can be used directly.
+ * (同一端点的TCP客户端有界连接池，例如S7PLC，McPLC和ModbusTcp，客户端创建时完成握手，借出的客户端可以直接使用)
+ * <p>
+ * The clients must be long connection, one client is only used by one borrower at the same time.
+ * (客户端必须是长连接，同一时间一个客户端只被一个借用者使用)
+ * <p>
+ * The idle clients are also evicted in background every evictionInterval until the pool is closed.
+ * (空闲客户端也会每隔evictionInterval在后台回收，直到连接池关闭)
+ *
+ * @author xingshuang
+ */
+@Slf4j
+public class TcpClientPool<T extends TcpClientBasic> implements AutoCloseable {
+
+    /**
+     * Idle evictor shared by all pools, one daemon thread is enough for the short eviction task.
+     * (所有连接池共享的空闲回收器，回收任务很短，一个守护线程足够)
+     */
+    private static final ScheduledThreadPoolExecutor EVICTOR = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "iot-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EVICTOR.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Client factory, the client is connected by the pool.
+     * (客户端工厂，由连接池负责连接)
+     */
+    private final Supplier<T> factory;
+
+    private final TcpClientPoolConfig config;
+
+    /**
+     * Idle clients, the last returned is borrowed first.
+     * (空闲客户端，后归还的先借出)
+     */
+    private final Deque<IdleClient<T>> idleClients = new ArrayDeque<>();
+
+    /**
+     * Borrowed clients.
+     * (借出的客户端)
+     */
+    private final Set<T> borrowedClients = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition available = this.lock.newCondition();
+
+    /**
+     * The number of clients being created.
+     * (正在创建的客户端个数)
+     */
+    private int creating;
+
+    private boolean closed;
+
+    /**
+     * Background eviction task, null means disabled.
+     * (后台回收任务，为null表示未开启)
+     */
+    private final ScheduledFuture<?> evictionTask;
+
+    public TcpClientPool(Supplier<T> factory) {
+        this(factory, new TcpClientPoolConfig());
+    }
+
+    public TcpClientPool(Supplier<T> factory, TcpClientPoolConfig config) {
+        if (config.getMaxTotal() < 1) {
+            throw new IllegalArgumentException("maxTotal >= 1");
+        }
+        this.factory = factory;
+        this.config = config;
+        long interval = config.getEvictionInterval();
+        this.evictionTask = interval > 0 && config.getIdleTimeout() > 0
+                ? EVICTOR.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    /**
+     * Get the number of idle clients.
+     * (获取空闲客户端个数)
+     *
+     * @return number
+     */
+    public int getIdleCount() {
+        this.lock.lock();
+        try {
+            return this.idleClients.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of borrowed clients.
+     * (获取借出的客户端个数)
+     *
+     * @return number
+     */
+    public int getBorrowedCount() {
+        this.lock.lock();
+        try {
+            return this.borrowedClients.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Borrow a connected client, wait at most borrowTimeout if all clients are borrowed.
+     * (借用一个已连接的客户端，全部借出时最多等待borrowTimeout)
+     *
+     * @return client
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public T borrow() {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(this.config.getBorrowTimeout());
+        List<T> expired = new ArrayList<>();
+        this.lock.lock();
+        try {
+            while (true) {
+                this.checkClosed();
+                this.pollExpired(expired);
+                IdleClient<T> idle = this.idleClients.pollLast();
+                if (idle != null) {
+                    if (this.config.isTestOnBorrow() && !idle.client.checkConnected()) {
+                        expired.add(idle.client);
+                        continue;
+                    }
+                    this.borrowedClients.add(idle.client);
+                    return idle.client;
+                }
+                if (this.borrowedClients.size() + this.creating < this.config.getMaxTotal()) {
+                    this.creating++;
+                    break;
+                }
+                if (nanos <= 0) {
+                    // 借用客户端超时
+                    throw new SocketRuntimeException(new SocketTimeoutException("Borrow client timed out"));
+                }
+                nanos = this.available.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SocketRuntimeException(e);
+        } finally {
+            this.lock.unlock();
+            expired.forEach(this::closeQuietly);
+        }
+        return this.create();
+    }
+
+    /**
+     * Give back the client, the client is closed if disconnected.
+     * (归还客户端，已断开的客户端会被关闭)
+     *
+     * @param client client
+     * @throws IllegalArgumentException the connected client is not borrowed from this pool
+     */
+    public void giveBack(T client) {
+        if (!client.checkConnected()) {
+            this.invalidate(client);
+            return;
+        }
+        this.lock.lock();
+        try {
+            if (!this.borrowedClients.remove(client)) {
+                // 客户端不是从该连接池借出的
+                throw new IllegalArgumentException("The client is not borrowed from this pool");
+            }
+            if (!this.closed) {
+                this.idleClients.addLast(new IdleClient<>(client, System.currentTimeMillis()));
+                this.available.signal();
+                return;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        this.closeQuietly(client);
+    }
+
+    /**
+     * Invalidate the client, the client is closed and removed from the pool.
+     * (使客户端失效，客户端会被关闭并从连接池中移除)
+     *
+     * @param client client
+     */
+    public void invalidate(T client) {
+        this.lock.lock();
+        try {
+            this.borrowedClients.remove(client);
+            this.available.signal();
+        } finally {
+            this.lock.unlock();
+        }
+        this.closeQuietly(client);
+    }
+
+    /**
+     * Borrow a client, execute the function and give back the client, the client is closed if the communication
+     * failed and disconnected.
+     * (借用客户端执行函数后归还，通信失败断开的客户端会被关闭)
+     *
+     * @param function function
+     * @param <R>      result type
+     * @return result
+     */
+    public <R> R execute(Function<T, R> function) {
+        T client = this.borrow();
+        try {
+            return function.apply(client);
+        } finally {
+            this.giveBack(client);
+        }
+    }
+
+    /**
+     * Close the idle clients which exceed the idle timeout.
+     * (关闭超过空闲时间的客户端)
+     */
+    public void evictIdle() {
+        List<T> expired = new ArrayList<>();
+        this.lock.lock();
+        try {
+            this.pollExpired(expired);
+        } finally {
+            this.lock.unlock();
+        }
+        expired.forEach(this::closeQuietly);
+    }
+
+    /**
+     * Close the pool and all idle clients, the borrowed clients are closed when given back, the background eviction
+     * is stopped.
+     * (关闭连接池和所有空闲客户端，借出的客户端在归还时关闭，后台回收停止)
+     */
+    @Override
+    public void close() {
+        if (this.evictionTask != null) {
+            this.evictionTask.cancel(false);
+        }
+        List<T> clients = new ArrayList<>();
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.idleClients.forEach(x -> clients.add(x.client));
+            this.idleClients.clear();
+            this.available.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        clients.forEach(this::closeQuietly);
+    }
+
+    private T create() {
+        T client = null;
+        try {
+            client = this.factory.get();
+            client.connect();
+        } catch (RuntimeException e) {
+            this.lock.lock();
+            try {
+                this.creating--;
+                this.available.signal();
+            } finally {
+                this.lock.unlock();
+            }
+            if (client != null) {
+                this.closeQuietly(client);
+            }
+            throw e;
+        }
+        this.lock.lock();
+        try {
+            this.creating--;
+            this.borrowedClients.add(client);
+            return client;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void pollExpired(List<T> expired) {
+        if (this.config.getIdleTimeout() <= 0) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() - this.config.getIdleTimeout();
+        // 队首是最早归还的
+        while (!this.idleClients.isEmpty() && this.idleClients.peekFirst().idleSince <= deadline) {
+            expired.add(this.idleClients.pollFirst().client);
+        }
+    }
+
+    private void checkClosed() {
+        if (this.closed) {
+            // 连接池已关闭
+            throw new SocketRuntimeException("The client pool has been closed");
+        }
+    }
+
+    private void closeQuietly(T client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            log.debug(e.getMessage(), e);
+        }
+    }
+
+    private static class IdleClient<T> {
+
+        private final T client;
+
+        private final long idleSince;
+
+        private IdleClient(T client, long idleSince) {
+            this.client = client;
+            this.idleSince = idleSince;
+        }
+    }
+}
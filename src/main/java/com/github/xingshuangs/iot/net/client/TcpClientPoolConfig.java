@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.client;
+
+
+import lombok.Data;
+
+/**
+ * Configuration of the TCP client pool.
+ * (TCP客户端连接池配置)
+ *
+ * @author xingshuang
+ */
+@Data
+public class TcpClientPoolConfig {
+
+    /**
+     * Max number of the clients, include borrowed and idle, 8 default.
+     * (最大客户端数量，包括借出的和空闲的，默认8)
+     */
+    private int maxTotal = 8;
+
+    /**
+     * Max wait time in millisecond when borrowing, 10_000ms default.
+     * (借用时的最大等待时间，默认10s)
+     */
+    private long borrowTimeout = 10_000;
+
+    /**
+     * Idle time in millisecond after which the idle client is closed, less than or equal to 0 means never, 60_000ms default.
+     * (空闲多久之后关闭客户端，小于等于0表示不关闭，默认60s)
+     */
+    private long idleTimeout = 60_000;
+
+    /**
+     * Interval in millisecond of the background idle eviction, less than or equal to 0 means only evicted when
+     * borrowing, 30_000ms default.
+     * (后台空闲回收的间隔时间，小于等于0表示只在借用时回收，默认30s)
+     */
+    private long evictionInterval = 30_000;
+
+    /**
+     * Check the connected state by checkConnected when borrowing, true default.
+     * (借用时是否通过checkConnected校验连接状态，默认true)
+     */
+    private boolean testOnBorrow = true;
+}
@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.client;
+
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Transaction dispatcher, multiple requests are outstanding on one connection and the responses are matched by
+ * the transaction id, so the responses can arrive out of order.
+ * (事务分发器，一个连接上同时存在多个未响应的请求，响应通过事务ID匹配，因此响应可以乱序到达)
+ * <p>
+ * There is no dedicated reading thread, the requesting thread which gets the read lock reads one frame and hands it
+ * over to the owner, then gives the read lock to the next one.
+ * (没有专门的读线程，获得读锁的请求线程读取一帧并交给所属请求，然后把读锁让给下一个线程)
+ *
+ * @author xingshuang
+ */
+@Slf4j
+public class TransactionDispatcher {
+
+    /**
+     * Window of the outstanding requests.
+     * (未响应请求的窗口)
+     */
+    private final Semaphore window;
+
+    /**
+     * Max number of the outstanding requests.
+     * (最大未响应请求个数)
+     */
+    private final int maxInFlight;
+
+    /**
+     * Write the whole request frame.
+     * (写入完整的请求帧)
+     */
+    private final Consumer<byte[]> writer;
+
+    /**
+     * Read one whole response frame.
+     * (读取一个完整的响应帧)
+     */
+    private final Supplier<byte[]> frameReader;
+
+    /**
+     * Extract the transaction id from the response frame.
+     * (从响应帧中提取事务ID)
+     */
+    private final ToIntFunction<byte[]> keyExtractor;
+
+    /**
+     * Outstanding requests, key is the transaction id.
+     * (未响应的请求，key为事务ID)
+     */
+    private final Map<Integer, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Fair lock, so the waiting thread whose response has been handed over gets the lock before the reader again.
+     * (公平锁，保证已收到响应的等待线程先于读线程再次获得锁)
+     */
+    private final ReentrantLock readLock = new ReentrantLock(true);
+
+    public TransactionDispatcher(int maxInFlight, Consumer<byte[]> writer, Supplier<byte[]> frameReader,
+                                 ToIntFunction<byte[]> keyExtractor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight >= 1");
+        }
+        this.maxInFlight = maxInFlight;
+        this.window = new Semaphore(maxInFlight, true);
+        this.writer = writer;
+        this.frameReader = frameReader;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Get the number of outstanding requests.
+     * (获取未响应的请求个数)
+     *
+     * @return number
+     */
+    public int getInFlight() {
+        return this.pending.size();
+    }
+
+    /**
+     * Send the request and wait for the response with the same transaction id.
+     * (发送请求并等待相同事务ID的响应)
+     *
+     * @param key       transaction id
+     * @param request   request frame
+     * @param timeoutMs timeout in millisecond
+     * @return response frame
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public byte[] exchange(int key, byte[] request, long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.acquire(this.window::tryAcquire, deadline);
+        try {
+            CompletableFuture<byte[]> future = new CompletableFuture<>();
+            if (this.pending.putIfAbsent(key, future) != null) {
+                // 事务ID仍在使用中
+                throw new SocketRuntimeException("The transaction id is still in use: " + key);
+            }
+            try {
+                this.acquire(this.writeLock::tryLock, deadline);
+                try {
+                    this.writer.accept(request);
+                } finally {
+                    this.writeLock.unlock();
+                }
+                return this.await(future, deadline);
+            } finally {
+                this.pending.remove(key, future);
+            }
+        } finally {
+            this.window.release();
+        }
+    }
+
+    private byte[] await(CompletableFuture<byte[]> future, long deadline) {
+        while (!future.isDone()) {
+            this.acquire(this.readLock::tryLock, deadline);
+            try {
+                if (future.isDone()) {
+                    break;
+                }
+                byte[] frame = this.frameReader.get();
+                int key = this.keyExtractor.applyAsInt(frame);
+                CompletableFuture<byte[]> owner = this.pending.remove(key);
+                if (owner == null) {
+                    // 收到未知事务ID的响应，可能是已超时请求的响应，丢弃
+                    log.warn("Discard the response with unknown transaction id [{}]", key);
+                    continue;
+                }
+                owner.complete(frame);
+            } catch (RuntimeException e) {
+                // 通信异常，所有未响应的请求都失败
+                this.pending.values().forEach(x -> x.completeExceptionally(e));
+                throw e;
+            } finally {
+                this.readLock.unlock();
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private void acquire(TryAcquire tryAcquire, long deadline) {
+        try {
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0 || !tryAcquire.tryAcquire(nanos, TimeUnit.NANOSECONDS)) {
+                throw new SocketRuntimeException(new SocketTimeoutException("Wait for response timed out"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SocketRuntimeException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TryAcquire {
+        boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException;
+    }
+}
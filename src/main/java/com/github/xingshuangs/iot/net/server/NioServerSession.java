@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.server;
+
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Client session of {@link NioTcpServer}, the received byte stream is split into frames by the frame decoder of
+ * the server. All the IO of the session happens in the IO thread of its worker, the methods can be called by any
+ * thread.
+ * (NioTcpServer的客户端会话，接收的字节流由服务端的帧解码器切分成帧；会话的所有IO都在所属工作线程中进行，方法可以被任意线程调用)
+ *
+ * @author xingshuang
+ */
+public class NioServerSession {
+
+    /**
+     * Worker which the session belongs to.
+     * (会话所属的工作线程)
+     */
+    private final NioServerWorker worker;
+
+    /**
+     * Socket channel.
+     * (socket通道)
+     */
+    private final SocketChannel channel;
+
+    /**
+     * Remote address.
+     * (远端地址)
+     */
+    private final SocketAddress remoteAddress;
+
+    /**
+     * Data waiting to be written, only used in the IO thread.
+     * (等待写入的数据，只在IO线程中使用)
+     */
+    private final Queue<ByteBuffer> writeQueue = new ArrayDeque<>();
+
+    /**
+     * Receive buffer, valid data is in [start, end), only used in the IO thread.
+     * (接收缓存，有效数据在[start, end)之间，只在IO线程中使用)
+     */
+    byte[] buffer = new byte[1024];
+
+    int start;
+
+    int end;
+
+    SelectionKey selectionKey;
+
+    /**
+     * Protocol state, the meaning is defined by the server, such as the handshake step, 0 default.
+     * (协议状态，含义由服务端定义，例如握手步骤，默认0)
+     */
+    private volatile int state;
+
+    private volatile boolean closed;
+
+    NioServerSession(NioServerWorker worker, SocketChannel channel, SocketAddress remoteAddress) {
+        this.worker = worker;
+        this.channel = channel;
+        this.remoteAddress = remoteAddress;
+    }
+
+    public SocketAddress getRemoteAddress() {
+        return this.remoteAddress;
+    }
+
+    public int getState() {
+        return this.state;
+    }
+
+    public void setState(int state) {
+        this.state = state;
+    }
+
+    /**
+     * Is the session closed.
+     * (会话是否已关闭)
+     *
+     * @return true: closed, false: open
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Write data to the client, the data is queued if the socket buffer is full.
+     * (向客户端写入数据，socket缓存满了则排队等待)
+     *
+     * @param data byte array
+     */
+    public void write(byte[] data) {
+        if (this.worker.inEventLoop()) {
+            this.doWrite(ByteBuffer.wrap(data));
+        } else {
+            this.worker.execute(() -> this.doWrite(ByteBuffer.wrap(data)));
+        }
+    }
+
+    /**
+     * Close the session.
+     * (关闭会话)
+     */
+    public void close() {
+        if (this.worker.inEventLoop()) {
+            this.worker.closeSession(this);
+        } else {
+            this.worker.execute(() -> this.worker.closeSession(this));
+        }
+    }
+
+    //region IO线程调用
+
+    SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    void markClosed() {
+        this.closed = true;
+        this.writeQueue.clear();
+    }
+
+    /**
+     * Make sure the receive buffer has enough space for the size bytes.
+     * (确保接收缓存有足够的空间)
+     *
+     * @param size size
+     */
+    void ensureCapacity(int size) {
+        if (this.start == this.end) {
+            this.start = 0;
+            this.end = 0;
+        }
+        if (this.end + size <= this.buffer.length) {
+            return;
+        }
+        int remain = this.end - this.start;
+        byte[] dst = remain + size <= this.buffer.length ? this.buffer
+                : new byte[Math.max(this.buffer.length * 2, remain + size)];
+        System.arraycopy(this.buffer, this.start, dst, 0, remain);
+        this.buffer = dst;
+        this.start = 0;
+        this.end = remain;
+    }
+
+    /**
+     * Flush the queued data, called when the channel is writable.
+     * (发送排队的数据，通道可写时调用)
+     */
+    void flush() {
+        try {
+            while (!this.writeQueue.isEmpty()) {
+                ByteBuffer src = this.writeQueue.peek();
+                this.channel.write(src);
+                if (src.hasRemaining()) {
+                    return;
+                }
+                this.writeQueue.poll();
+            }
+            this.selectionKey.interestOps(SelectionKey.OP_READ);
+        } catch (Exception e) {
+            this.worker.closeSession(this);
+        }
+    }
+
+    private void doWrite(ByteBuffer src) {
+        if (this.closed) {
+            return;
+        }
+        try {
+            if (this.writeQueue.isEmpty()) {
+                this.channel.write(src);
+                if (!src.hasRemaining()) {
+                    return;
+                }
+            }
+            // socket发送缓存已满，排队等待可写
+            this.writeQueue.add(src);
+            this.selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (Exception e) {
+            this.worker.closeSession(this);
+        }
+    }
+
+    //endregion
+}
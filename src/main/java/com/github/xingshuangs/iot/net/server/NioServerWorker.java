@@ -0,0 +1,261 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.server;
+
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * IO worker of {@link NioTcpServer}, one selector thread serves the accepting and many client sessions.
+ * (NioTcpServer的IO工作线程，一个选择器线程处理连接接入和多个客户端会话)
+ *
+ * @author xingshuang
+ */
+@Slf4j
+final class NioServerWorker {
+
+    private final NioTcpServer server;
+
+    private final Selector selector;
+
+    private final Thread thread;
+
+    /**
+     * Tasks which must be executed in the IO thread.
+     * (需要在IO线程中执行的任务)
+     */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Read buffer shared by all sessions of this worker, only used in the IO thread.
+     * (本工作线程中所有会话共用的读缓存，只在IO线程中使用)
+     */
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private volatile boolean running = true;
+
+    NioServerWorker(NioTcpServer server, String name) {
+        this.server = server;
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new SocketRuntimeException(e);
+        }
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    Selector getSelector() {
+        return this.selector;
+    }
+
+    boolean inEventLoop() {
+        return Thread.currentThread() == this.thread;
+    }
+
+    void execute(Runnable task) {
+        if (!this.running) {
+            return;
+        }
+        this.tasks.add(task);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Register the accepted client channel.
+     * (注册连入的客户端通道)
+     *
+     * @param channel client channel in non-blocking mode
+     */
+    void register(SocketChannel channel) {
+        this.execute(() -> {
+            NioServerSession session = null;
+            try {
+                session = new NioServerSession(this, channel, channel.getRemoteAddress());
+                session.selectionKey = channel.register(this.selector, SelectionKey.OP_READ, session);
+                this.server.sessionOpened(session);
+            } catch (Exception e) {
+                log.error(e.getMessage());
+                if (session != null) {
+                    this.closeSession(session);
+                } else {
+                    NioTcpServer.closeQuietly(channel);
+                }
+            }
+        });
+    }
+
+    /**
+     * Close the session, only called in the IO thread.
+     * (关闭会话，只在IO线程中调用)
+     *
+     * @param session session
+     */
+    void closeSession(NioServerSession session) {
+        if (session.isClosed()) {
+            return;
+        }
+        session.markClosed();
+        if (session.selectionKey != null) {
+            session.selectionKey.cancel();
+        }
+        NioTcpServer.closeQuietly(session.getChannel());
+        this.server.sessionClosed(session);
+    }
+
+    /**
+     * Stop the worker and wait for the IO thread to exit, all the sessions will be closed.
+     * (停止工作线程并等待IO线程退出，所有会话都会被关闭)
+     */
+    void close() {
+        this.running = false;
+        this.selector.wakeup();
+        if (!this.inEventLoop()) {
+            try {
+                this.thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        while (this.running) {
+            try {
+                this.selector.select();
+                this.runTasks();
+                Iterator<SelectionKey> iterator = this.selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    this.handle(key);
+                }
+            } catch (Exception e) {
+                // 工作线程发生异常
+                log.error("Server worker [{}] error", this.thread.getName(), e);
+            }
+        }
+        for (SelectionKey key : new ArrayList<>(this.selector.keys())) {
+            if (key.attachment() instanceof NioServerSession) {
+                this.closeSession((NioServerSession) key.attachment());
+            } else {
+                key.cancel();
+            }
+        }
+        try {
+            // 关闭选择器后被注销的通道才真正释放，例如服务端端口
+            this.selector.close();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!(key.attachment() instanceof NioServerSession)) {
+            if (key.isValid() && key.isAcceptable()) {
+                this.server.accept();
+            }
+            return;
+        }
+        NioServerSession session = (NioServerSession) key.attachment();
+        try {
+            if (key.isValid() && key.isReadable()) {
+                this.onReadable(session);
+            }
+            if (key.isValid() && key.isWritable()) {
+                session.flush();
+            }
+        } catch (CancelledKeyException e) {
+            // NOOP
+        } catch (Exception e) {
+            if (!session.isClosed()) {
+                // 客户端[{}]处理异常
+                log.error("Client [{}] error, {}", session.getRemoteAddress(), e.getMessage());
+            }
+            this.closeSession(session);
+        }
+    }
+
+    private void onReadable(NioServerSession session) throws IOException {
+        ((Buffer) this.readBuffer).clear();
+        int num = session.getChannel().read(this.readBuffer);
+        if (num < 0) {
+            // 客户端断开
+            this.closeSession(session);
+            return;
+        }
+        if (num == 0) {
+            return;
+        }
+        ((Buffer) this.readBuffer).flip();
+        session.ensureCapacity(num);
+        this.readBuffer.get(session.buffer, session.end, num);
+        session.end += num;
+
+        List<byte[]> frames = new ArrayList<>();
+        int frameLength;
+        while (session.end > session.start
+                && (frameLength = this.server.getFrameDecoder().frameLength(session.buffer, session.start, session.end - session.start)) > 0) {
+            byte[] frame = new byte[frameLength];
+            System.arraycopy(session.buffer, session.start, frame, 0, frameLength);
+            session.start += frameLength;
+            frames.add(frame);
+        }
+        for (byte[] frame : frames) {
+            if (session.isClosed()) {
+                return;
+            }
+            byte[] response = this.server.handleFrame(session, frame);
+            if (response != null) {
+                session.write(response);
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.server;
+
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import com.github.xingshuangs.iot.net.IFrameDecoder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TCP server based on the NIO selector, a few IO threads serve thousands of clients. The byte stream of every client
+ * is split into frames by the frame decoder, each frame is handled in the IO thread and the response is written back.
+ * The frame handler should be fast and must not block.
+ * (基于NIO选择器的TCP服务端，少量IO线程服务成千上万个客户端；每个客户端的字节流由帧解码器切分成帧，
+ * 每帧在IO线程中处理并回写响应，帧处理必须快速且不能阻塞)
+ *
+ * @author xingshuang
+ */
+@Slf4j
+public abstract class NioTcpServer {
+
+    /**
+     * Port Number.
+     * (端口号)
+     */
+    protected int port = 8088;
+
+    /**
+     * Number of the IO threads.
+     * (IO线程数量)
+     */
+    protected int ioThreads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Current connected client number.
+     * (客户端当前的连接数量)
+     */
+    private final AtomicInteger connectedNumber = new AtomicInteger();
+
+    /**
+     * Index of the next worker to assign the client to.
+     * (下一个分配客户端的工作线程索引)
+     */
+    private final AtomicInteger nextWorker = new AtomicInteger();
+
+    private volatile ServerSocketChannel serverChannel;
+
+    private volatile NioServerWorker[] workers;
+
+    //region 服务端
+
+    public int getPort() {
+        return this.port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getIoThreads() {
+        return this.ioThreads;
+    }
+
+    public void setIoThreads(int ioThreads) {
+        if (ioThreads < 1) {
+            // IO线程数量必须大于0
+            throw new IllegalArgumentException("ioThreads must be greater than 0");
+        }
+        this.ioThreads = ioThreads;
+    }
+
+    /**
+     * Get the current connected client number, maintained by the server, same type as the former TcpServerBasic
+     * subclasses exposed.
+     * (获取客户端当前的连接数量，由服务端维护，类型与原TcpServerBasic子类暴露的一致)
+     *
+     * @return connected number
+     */
+    public AtomicInteger getConnectedNumber() {
+        return this.connectedNumber;
+    }
+
+    /**
+     * start the server
+     * (启动)
+     *
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public void start() {
+        this.start(this.port);
+    }
+
+    /**
+     * start the server
+     * (启动)
+     *
+     * @param port port number
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public synchronized void start(int port) {
+        this.port = port;
+        this.stop();
+        ServerSocketChannel channel = null;
+        try {
+            channel = ServerSocketChannel.open();
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.bind(new InetSocketAddress(port), 1024);
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new SocketRuntimeException(e);
+        }
+        NioServerWorker[] array = new NioServerWorker[this.ioThreads];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = new NioServerWorker(this, "iot-server-" + port + "-" + i);
+        }
+        this.serverChannel = channel;
+        this.workers = array;
+        ServerSocketChannel registered = channel;
+        NioServerWorker acceptor = array[0];
+        acceptor.execute(() -> {
+            try {
+                registered.register(acceptor.getSelector(), SelectionKey.OP_ACCEPT);
+            } catch (IOException e) {
+                log.error(e.getMessage(), e);
+            }
+        });
+        // 开启服务端，端口号[{}]，IO线程数[{}]
+        log.debug("Open the server, port number [{}], IO threads [{}]", port, array.length);
+    }
+
+    /**
+     * Stop the server, all the clients will be disconnected.
+     * (停止，所有的客户端都会断开)
+     */
+    public synchronized void stop() {
+        if (this.serverChannel == null) {
+            return;
+        }
+        closeQuietly(this.serverChannel);
+        for (NioServerWorker worker : this.workers) {
+            worker.close();
+        }
+        this.serverChannel = null;
+        this.workers = null;
+        // 关闭服务端，端口号[{}]
+        log.debug("Close the server, port number [{}]", this.port);
+    }
+
+    /**
+     * Is the server alive.
+     * (是否活跃着)
+     *
+     * @return ture：alive，false：dead
+     */
+    public boolean isAlive() {
+        ServerSocketChannel channel = this.serverChannel;
+        return channel != null && channel.isOpen();
+    }
+
+    //endregion
+
+    //region 客户端
+
+    /**
+     * Get the frame decoder which splits the byte stream of the clients, must be stateless.
+     * (获取切分客户端字节流的帧解码器，必须是无状态的)
+     *
+     * @return frame decoder
+     */
+    protected abstract IFrameDecoder getFrameDecoder();
+
+    /**
+     * Handle a complete frame in the IO thread, must not block.
+     * (在IO线程中处理一个完整的帧，不能阻塞)
+     *
+     * @param session client session
+     * @param frame   complete frame
+     * @return response, null means no response
+     */
+    protected abstract byte[] handleFrame(NioServerSession session, byte[] frame);
+
+    /**
+     * Valid if the client can come in, can override.
+     * (校验客户端是否允许连入，可重写)
+     *
+     * @param channel client channel
+     * @return true: valid success，false：valid fail
+     */
+    protected boolean checkClientValid(SocketChannel channel) {
+        return true;
+    }
+
+    /**
+     * Client connected, can override.
+     * (客户端连入，可重写)
+     *
+     * @param session client session
+     */
+    protected void clientConnected(NioServerSession session) {
+        // NOOP
+    }
+
+    /**
+     * Client disconnected, can override.
+     * (客户端断开，可重写)
+     *
+     * @param session client session
+     */
+    protected void clientDisconnected(NioServerSession session) {
+        // NOOP
+    }
+
+    //endregion
+
+    //region IO线程回调
+
+    void accept() {
+        ServerSocketChannel channel = this.serverChannel;
+        NioServerWorker[] array = this.workers;
+        if (channel == null || array == null) {
+            return;
+        }
+        SocketChannel client;
+        try {
+            while ((client = channel.accept()) != null) {
+                if (!this.checkClientValid(client)) {
+                    closeQuietly(client);
+                    continue;
+                }
+                client.configureBlocking(false);
+                client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                int index = Math.floorMod(this.nextWorker.getAndIncrement(), array.length);
+                array[index].register(client);
+            }
+        } catch (Exception e) {
+            if (this.isAlive()) {
+                log.error(e.getMessage());
+            }
+        }
+    }
+
+    void sessionOpened(NioServerSession session) {
+        this.connectedNumber.incrementAndGet();
+        // 有客户端[{}]连入
+        log.debug("The client [{}] is connected", session.getRemoteAddress());
+        this.clientConnected(session);
+    }
+
+    void sessionClosed(NioServerSession session) {
+        this.connectedNumber.decrementAndGet();
+        this.clientDisconnected(session);
+        // 有客户端[{}]断开
+        log.debug("The client [{}] is disconnected", session.getRemoteAddress());
+    }
+
+    static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // NOOP
+        }
+    }
+
+    //endregion
+}
@@ -27,6 +27,7 @@ package com.github.xingshuangs.iot.net.server;
 
 import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
 import com.github.xingshuangs.iot.net.SocketUtils;
+import com.github.xingshuangs.iot.utils.ThreadUtil;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
@@ -64,6 +65,12 @@ public class TcpServerBasic {
      */
     protected ExecutorService executorService;
 
+    /**
+     * Thread waiting for the clients.
+     * (等待客户端连入的线程)
+     */
+    private Thread acceptThread;
+
     public TcpServerBasic() {
         // NOOP
     }
@@ -92,11 +99,12 @@ public class TcpServerBasic {
         try {
             this.port = port;
             this.stop();
-            this.executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            this.executorService = ThreadUtil.newPerTaskExecutor("iot-server-",
+                    () -> Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
             this.serverSocket = new ServerSocket(port);
-            Thread thread = new Thread(this::waitForClients);
-            thread.setDaemon(true);
-            thread.start();
+            this.acceptThread = new Thread(this::waitForClients);
+            this.acceptThread.setDaemon(true);
+            this.acceptThread.start();
         } catch (IOException e) {
             throw new SocketRuntimeException(e);
         }
@@ -113,11 +121,17 @@ public class TcpServerBasic {
             if (this.isAlive()) {
                 this.serverSocket.close();
                 this.executorService.shutdown();
+                // 阻塞在accept中的线程退出后端口才真正释放，等待其退出避免立即重启时端口被占用
+                if (this.acceptThread != null && this.acceptThread != Thread.currentThread()) {
+                    this.acceptThread.join(1000);
+                }
                 // 关闭服务端，端口号[{}]
                 log.debug("Close the server, port number [{}]", this.port);
             }
         } catch (IOException e) {
             throw new SocketRuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.algorithm;
+
+
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceAddress;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One request frame of the read plan, all the device points are in word units.
+ * (读取计划中的一个请求帧，所有软元件点数都以字为单位)
+ *
+ * @author xingshuang
+ */
+@Getter
+public class McReadFrame {
+
+    /**
+     * Frame type.
+     * (帧类型)
+     */
+    public enum Type {
+        /**
+         * Batch read in word units, one contiguous range.
+         * (按字批量读取，一个连续范围)
+         */
+        BATCH,
+
+        /**
+         * Random read in word units, word and dword points.
+         * (按字随机读取，字和双字点)
+         */
+        RANDOM,
+
+        /**
+         * Batch read multi blocks, word blocks and bit blocks.
+         * (多块批量读取，字块和位块)
+         */
+        MULTI_BLOCKS
+    }
+
+    /**
+     * Frame type.
+     * (帧类型)
+     */
+    private final Type type;
+
+    /**
+     * Batch: the range, random: the word points, multi blocks: the word device blocks.
+     * (批量：读取范围，随机：字点，多块：字软元件块)
+     */
+    private final List<McDeviceAddress> words;
+
+    /**
+     * Random: the dword points, otherwise empty.
+     * (随机：双字点，其他为空)
+     */
+    private final List<McDeviceAddress> dwords;
+
+    /**
+     * Multi blocks: the bit device blocks in word units, otherwise empty.
+     * (多块：以字为单位的位软元件块，其他为空)
+     */
+    private final List<McDeviceAddress> bits;
+
+    McReadFrame(Type type, List<McDeviceAddress> words, List<McDeviceAddress> dwords, List<McDeviceAddress> bits) {
+        this.type = type;
+        this.words = Collections.unmodifiableList(words);
+        this.dwords = Collections.unmodifiableList(dwords);
+        this.bits = Collections.unmodifiableList(bits);
+    }
+}
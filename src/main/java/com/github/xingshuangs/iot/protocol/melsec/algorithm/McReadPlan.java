@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.algorithm;
+
+
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceAddress;
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceContent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read plan, the request frames and how the responses are copied back into the raw device addresses. The plan is
+ * immutable and can be executed every scan cycle.
+ * (读取计划，包含请求帧以及响应如何拷贝回原始软元件地址；计划不可变，可以在每个扫描周期重复执行)
+ *
+ * @author xingshuang
+ */
+public final class McReadPlan {
+
+    /**
+     * Raw device addresses.
+     * (原始软元件地址)
+     */
+    private final List<McDeviceAddress> addresses;
+
+    /**
+     * Request frames.
+     * (请求帧)
+     */
+    private final List<McReadFrame> frames;
+
+    /**
+     * Copies, each is {frame index, source offset, address index, destination offset, length}.
+     * (拷贝项，每项为{帧索引，源偏移，地址索引，目标偏移，长度})
+     */
+    private final List<int[]> copies;
+
+    McReadPlan(List<McDeviceAddress> addresses, List<McReadFrame> frames, List<int[]> copies) {
+        this.addresses = Collections.unmodifiableList(addresses);
+        this.frames = Collections.unmodifiableList(frames);
+        this.copies = copies;
+    }
+
+    public List<McDeviceAddress> getAddresses() {
+        return this.addresses;
+    }
+
+    public List<McReadFrame> getFrames() {
+        return this.frames;
+    }
+
+    /**
+     * Assemble the response data of the frames into the device contents.
+     * (将各帧的响应数据组装成软元件内容)
+     *
+     * @param frameData response data of every frame, in the order of the frames
+     * @return device content list, in the order of the raw device addresses
+     */
+    public List<McDeviceContent> assemble(byte[][] frameData) {
+        if (frameData.length != this.frames.size()) {
+            throw new IllegalArgumentException("frameData.length != frames.size()");
+        }
+        byte[][] data = new byte[this.addresses.size()][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new byte[this.addresses.get(i).getDevicePointsCount() * 2];
+        }
+        for (int[] copy : this.copies) {
+            System.arraycopy(frameData[copy[0]], copy[1], data[copy[2]], copy[3], copy[4]);
+        }
+        List<McDeviceContent> result = new ArrayList<>(data.length);
+        for (int i = 0; i < data.length; i++) {
+            result.add(McDeviceContent.createByAddress(this.addresses.get(i), data[i]));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.algorithm;
+
+
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcDeviceCode;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceAddress;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read plan algorithm, arbitrary device addresses are read in word units with as few frames as possible.
+ * (读取计划算法，以尽可能少的帧按字读取任意软元件地址)
+ * <p>
+ * 1. The addresses of the same device code are sorted and the contiguous ones are merged into ranges, a range longer
+ * than the batch points limit is split.
+ * (同一软元件代码的地址排序后将连续的合并成范围，超过批量点数限制的范围会被拆分)
+ * 2. The small ranges can be read by the random frames as word and dword points, the others by the batch frames, or
+ * packed into the multi blocks frames if the frame type is 4E.
+ * (小的范围可以用随机读取帧按字和双字点读取，其他的用批量读取帧，4E帧时还可以装入多块批量读取帧)
+ * 3. Every count of the smallest ranges assigned to the random frames is evaluated, the one with the fewest total
+ * frames wins.
+ * (依次评估分配给随机读取帧的最小范围个数，总帧数最少的胜出)
+ *
+ * @author xingshuang
+ */
+public class McReadPlanAlg {
+
+    /**
+     * Device codes not supported by the random read in word units.
+     * (不支持按字随机读取的软元件)
+     */
+    private static final Set<EMcDeviceCode> RANDOM_RESTRICTED = EnumSet.of(EMcDeviceCode.LTS, EMcDeviceCode.LTC,
+            EMcDeviceCode.LSTS, EMcDeviceCode.LSTC, EMcDeviceCode.LCS, EMcDeviceCode.LCC);
+
+    /**
+     * Device codes not supported by the batch read multi blocks.
+     * (不支持多块批量读取的软元件)
+     */
+    private static final Set<EMcDeviceCode> BLOCKS_RESTRICTED = EnumSet.of(EMcDeviceCode.LTS, EMcDeviceCode.LTC,
+            EMcDeviceCode.LTN, EMcDeviceCode.LSTS, EMcDeviceCode.LSTC, EMcDeviceCode.LSTN, EMcDeviceCode.LCS,
+            EMcDeviceCode.LCC, EMcDeviceCode.LCN, EMcDeviceCode.LZ);
+
+    private McReadPlanAlg() {
+        // NOOP
+    }
+
+    /**
+     * Plan the read of the device addresses, only the contiguous addresses are merged.
+     * (规划软元件地址的读取，只合并连续的地址)
+     *
+     * @param addresses device addresses, the points count is in word units
+     * @param series    PLC series
+     * @param frameType frame type
+     * @return read plan
+     */
+    public static McReadPlan plan(List<McDeviceAddress> addresses, EMcSeries series, EMcFrameType frameType) {
+        return plan(addresses, series, frameType, 0);
+    }
+
+    /**
+     * Plan the read of the device addresses.
+     * (规划软元件地址的读取)
+     *
+     * @param addresses device addresses, the points count is in word units
+     * @param series    PLC series
+     * @param frameType frame type
+     * @param maxGap    max gap words between two addresses to be merged into one range
+     * @return read plan
+     */
+    public static McReadPlan plan(List<McDeviceAddress> addresses, EMcSeries series, EMcFrameType frameType, int maxGap) {
+        if (addresses == null || addresses.isEmpty()) {
+            throw new IllegalArgumentException("addresses is null or empty");
+        }
+        if (addresses.stream().anyMatch(x -> x.getDevicePointsCount() < 1)) {
+            throw new IllegalArgumentException("1 < device point count");
+        }
+        List<McDeviceAddress> raw = new ArrayList<>(addresses.size());
+        addresses.forEach(x -> raw.add(new McDeviceAddress(x.getDeviceCode(), x.getHeadDeviceNumber(), x.getDevicePointsCount())));
+
+        int batchMax = series.getDeviceBatchInWordPointsCount();
+        int randomMax = frameType == EMcFrameType.FRAME_1E ? 0 : series.getDeviceRandomReadInWordPointsCount();
+        int blocksMax = frameType == EMcFrameType.FRAME_4E ? series.getDeviceBlocksBlocksCount() : 0;
+        List<Range> ranges = merge(raw, Math.max(0, maxGap), batchMax);
+
+        // 可以随机读取的候选范围，按点数从小到大
+        List<Range> candidates = new ArrayList<>();
+        List<Range> fixed = new ArrayList<>();
+        for (Range range : ranges) {
+            if (randomMax > 0 && !RANDOM_RESTRICTED.contains(range.code) && range.points() <= randomMax) {
+                candidates.add(range);
+            } else {
+                fixed.add(range);
+            }
+        }
+        candidates.sort(Comparator.comparingInt(Range::points));
+
+        int bestCount = -1;
+        int bestCost = Integer.MAX_VALUE;
+        for (int k = 0; k <= candidates.size(); k++) {
+            List<Range> rest = new ArrayList<>(fixed);
+            rest.addAll(candidates.subList(k, candidates.size()));
+            int cost = packBlocks(rest, blocksMax, batchMax).size() + packRandom(candidates.subList(0, k), randomMax).size();
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestCount = k;
+            }
+        }
+
+        List<Range> rest = new ArrayList<>(fixed);
+        rest.addAll(candidates.subList(bestCount, candidates.size()));
+        List<McReadFrame> frames = new ArrayList<>();
+        List<Piece> pieces = new ArrayList<>();
+        for (List<Range> bin : packBlocks(rest, blocksMax, batchMax)) {
+            addBlocksFrame(bin, frames, pieces);
+        }
+        for (List<Range> bin : packRandom(candidates.subList(0, bestCount), randomMax)) {
+            addRandomFrame(bin, frames, pieces);
+        }
+        return new McReadPlan(raw, frames, copies(raw, pieces));
+    }
+
+    /**
+     * Merge the addresses of the same device code into ranges.
+     * (同一软元件代码的地址合并成范围)
+     *
+     * @param addresses device addresses
+     * @param maxGap    max gap words
+     * @param batchMax  max points of one range
+     * @return ranges
+     */
+    private static List<Range> merge(List<McDeviceAddress> addresses, int maxGap, int batchMax) {
+        Map<EMcDeviceCode, List<McDeviceAddress>> groups = new LinkedHashMap<>();
+        addresses.forEach(x -> groups.computeIfAbsent(x.getDeviceCode(), k -> new ArrayList<>()).add(x));
+        List<Range> ranges = new ArrayList<>();
+        for (Map.Entry<EMcDeviceCode, List<McDeviceAddress>> entry : groups.entrySet()) {
+            // 位软元件按字读取时1个字对应16个软元件
+            int unit = EMcDeviceCode.checkBitType(entry.getKey()) ? 16 : 1;
+            List<McDeviceAddress> list = entry.getValue();
+            list.sort(Comparator.comparingInt(McDeviceAddress::getHeadDeviceNumber));
+            Range current = null;
+            for (McDeviceAddress address : list) {
+                int end = address.getHeadDeviceNumber() + address.getDevicePointsCount() * unit;
+                if (current != null
+                        && (address.getHeadDeviceNumber() - current.head) % unit == 0
+                        && address.getHeadDeviceNumber() <= current.end() + maxGap * unit) {
+                    current.words = Math.max(current.words, (end - current.head) / unit);
+                    continue;
+                }
+                current = new Range(entry.getKey(), address.getHeadDeviceNumber(), address.getDevicePointsCount(), unit);
+                ranges.add(current);
+            }
+        }
+        // 超过批量点数限制的范围拆分
+        List<Range> result = new ArrayList<>();
+        for (Range range : ranges) {
+            for (int off = 0; off < range.words; off += batchMax) {
+                result.add(new Range(range.code, range.head + off * range.unit, Math.min(batchMax, range.words - off), range.unit));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pack the ranges into the multi blocks frames by first fit decreasing, a bin of one range is a batch frame.
+     * (按首次适应递减将范围装入多块批量读取帧，只有一个范围的箱即批量读取帧)
+     *
+     * @param ranges    ranges
+     * @param blocksMax max blocks of one frame, less than 2 means not supported
+     * @param batchMax  max total points of one frame
+     * @return bins
+     */
+    private static List<List<Range>> packBlocks(List<Range> ranges, int blocksMax, int batchMax) {
+        List<List<Range>> bins = new ArrayList<>();
+        List<Range> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingInt((Range x) -> x.words).reversed());
+        List<Integer> binPoints = new ArrayList<>();
+        for (Range range : sorted) {
+            int index = -1;
+            if (blocksMax > 1 && isBlockable(range.code)) {
+                for (int i = 0; i < bins.size(); i++) {
+                    List<Range> bin = bins.get(i);
+                    if (bin.size() < blocksMax && binPoints.get(i) + range.words <= batchMax
+                            && isBlockable(bin.get(0).code)) {
+                        index = i;
+                        break;
+                    }
+                }
+            }
+            if (index < 0) {
+                List<Range> bin = new ArrayList<>();
+                bin.add(range);
+                bins.add(bin);
+                binPoints.add(range.words);
+            } else {
+                bins.get(index).add(range);
+                binPoints.set(index, binPoints.get(index) + range.words);
+            }
+        }
+        return bins;
+    }
+
+    /**
+     * Pack the ranges into the random frames by first fit decreasing, the points of a range are in the same frame.
+     * (按首次适应递减将范围装入随机读取帧，一个范围的点在同一帧中)
+     *
+     * @param ranges    ranges
+     * @param randomMax max points of one frame
+     * @return bins
+     */
+    private static List<List<Range>> packRandom(List<Range> ranges, int randomMax) {
+        List<List<Range>> bins = new ArrayList<>();
+        List<Integer> binPoints = new ArrayList<>();
+        List<Range> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingInt(Range::points).reversed());
+        for (Range range : sorted) {
+            int index = -1;
+            for (int i = 0; i < bins.size(); i++) {
+                if (binPoints.get(i) + range.points() <= randomMax) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                bins.add(new ArrayList<>());
+                binPoints.add(0);
+                index = bins.size() - 1;
+            }
+            bins.get(index).add(range);
+            binPoints.set(index, binPoints.get(index) + range.points());
+        }
+        return bins;
+    }
+
+    /**
+     * Whether the device code can be read by the batch read multi blocks.
+     * (软元件是否可以多块批量读取)
+     *
+     * @param code device code
+     * @return true: yes, false: no
+     */
+    private static boolean isBlockable(EMcDeviceCode code) {
+        return !BLOCKS_RESTRICTED.contains(code) && (EMcDeviceCode.checkWordType(code) || EMcDeviceCode.checkBitType(code));
+    }
+
+    private static void addBlocksFrame(List<Range> bin, List<McReadFrame> frames, List<Piece> pieces) {
+        int frameIndex = frames.size();
+        List<McDeviceAddress> words = new ArrayList<>();
+        List<McDeviceAddress> bits = new ArrayList<>();
+        if (bin.size() == 1) {
+            Range range = bin.get(0);
+            words.add(range.toAddress());
+            pieces.add(new Piece(frameIndex, 0, range.code, range.head, range.words, range.unit));
+            frames.add(new McReadFrame(McReadFrame.Type.BATCH, words, new ArrayList<>(), bits));
+            return;
+        }
+        // 响应中先字块后位块
+        int offset = 0;
+        for (Range range : bin) {
+            if (range.unit == 1) {
+                words.add(range.toAddress());
+                pieces.add(new Piece(frameIndex, offset, range.code, range.head, range.words, range.unit));
+                offset += range.words * 2;
+            }
+        }
+        for (Range range : bin) {
+            if (range.unit != 1) {
+                bits.add(range.toAddress());
+                pieces.add(new Piece(frameIndex, offset, range.code, range.head, range.words, range.unit));
+                offset += range.words * 2;
+            }
+        }
+        frames.add(new McReadFrame(McReadFrame.Type.MULTI_BLOCKS, words, new ArrayList<>(), bits));
+    }
+
+    private static void addRandomFrame(List<Range> bin, List<McReadFrame> frames, List<Piece> pieces) {
+        int frameIndex = frames.size();
+        List<McDeviceAddress> words = new ArrayList<>();
+        List<McDeviceAddress> dwords = new ArrayList<>();
+        List<int[]> wordHeads = new ArrayList<>();
+        List<int[]> dwordHeads = new ArrayList<>();
+        for (int r = 0; r < bin.size(); r++) {
+            Range range = bin.get(r);
+            // 偶数个字按双字读取，剩余1个字按字读取
+            for (int i = 0; i + 1 < range.words; i += 2) {
+                dwords.add(new McDeviceAddress(range.code, range.head + i * range.unit, 1));
+                dwordHeads.add(new int[]{r, range.head + i * range.unit});
+            }
+            if (range.words % 2 == 1) {
+                words.add(new McDeviceAddress(range.code, range.head + (range.words - 1) * range.unit, 1));
+                wordHeads.add(new int[]{r, range.head + (range.words - 1) * range.unit});
+            }
+        }
+        // 响应中先字点后双字点
+        int offset = 0;
+        for (int[] head : wordHeads) {
+            Range range = bin.get(head[0]);
+            pieces.add(new Piece(frameIndex, offset, range.code, head[1], 1, range.unit));
+            offset += 2;
+        }
+        for (int[] head : dwordHeads) {
+            Range range = bin.get(head[0]);
+            pieces.add(new Piece(frameIndex, offset, range.code, head[1], 2, range.unit));
+            offset += 4;
+        }
+        frames.add(new McReadFrame(McReadFrame.Type.RANDOM, words, dwords, new ArrayList<>()));
+    }
+
+    private static List<int[]> copies(List<McDeviceAddress> addresses, List<Piece> pieces) {
+        List<int[]> copies = new ArrayList<>();
+        for (int i = 0; i < addresses.size(); i++) {
+            McDeviceAddress address = addresses.get(i);
+            for (Piece piece : pieces) {
+                if (piece.code != address.getDeviceCode()
+                        || (address.getHeadDeviceNumber() - piece.head) % piece.unit != 0) {
+                    continue;
+                }
+                int start = Math.max(address.getHeadDeviceNumber(), piece.head);
+                int end = Math.min(address.getHeadDeviceNumber() + address.getDevicePointsCount() * piece.unit,
+                        piece.head + piece.words * piece.unit);
+                if (start >= end) {
+                    continue;
+                }
+                copies.add(new int[]{piece.frameIndex,
+                        piece.offset + (start - piece.head) / piece.unit * 2,
+                        i,
+                        (start - address.getHeadDeviceNumber()) / piece.unit * 2,
+                        (end - start) / piece.unit * 2});
+            }
+        }
+        return copies;
+    }
+
+    /**
+     * Contiguous range of one device code in word units.
+     * (同一软元件代码以字为单位的连续范围)
+     */
+    private static final class Range {
+
+        final EMcDeviceCode code;
+
+        final int head;
+
+        /**
+         * Number of device numbers per word, 16 for the bit device, otherwise 1.
+         * (每个字对应的软元件个数，位软元件为16，否则为1)
+         */
+        final int unit;
+
+        int words;
+
+        Range(EMcDeviceCode code, int head, int words, int unit) {
+            this.code = code;
+            this.head = head;
+            this.words = words;
+            this.unit = unit;
+        }
+
+        int end() {
+            return this.head + this.words * this.unit;
+        }
+
+        /**
+         * Points of the random read, the dword points plus the remaining word point.
+         * (随机读取的点数，双字点数加剩余的字点数)
+         */
+        int points() {
+            return (this.words + 1) / 2;
+        }
+
+        McDeviceAddress toAddress() {
+            return new McDeviceAddress(this.code, this.head, this.words);
+        }
+    }
+
+    /**
+     * Part of the response data of a frame.
+     * (帧响应数据中的一段)
+     */
+    private static final class Piece {
+
+        final int frameIndex;
+
+        final int offset;
+
+        final EMcDeviceCode code;
+
+        final int head;
+
+        final int words;
+
+        final int unit;
+
+        Piece(int frameIndex, int offset, EMcDeviceCode code, int head, int words, int unit) {
+            this.frameIndex = frameIndex;
+            this.offset = offset;
+            this.code = code;
+            this.head = head;
+            this.words = words;
+            this.unit = unit;
+        }
+    }
+}
@@ -255,4 +255,30 @@ public enum EMcCommand {
     public int getCode() {
         return code;
     }
+
+    /**
+     * Whether the command only reads from the PLC, so sending it again has no side effect.
+     * (是否为只读指令，重复发送不会产生副作用)
+     *
+     * @return true: read only, false: otherwise
+     */
+    public boolean isReadOnly() {
+        switch (this) {
+            case DEVICE_ACCESS_BATCH_READ_IN_BIT:
+            case DEVICE_ACCESS_BATCH_READ_IN_WORD:
+            case DEVICE_ACCESS_BATCH_READ_IN_UNITS:
+            case DEVICE_ACCESS_RANDOM_READ_IN_UNITS:
+            case DEVICE_ACCESS_BATCH_READ_MULTIPLE_BLOCKS:
+            case DEVICE_ACCESS_MONITOR:
+            case LABEL_ACCESS_BATCH_READ_ARRAY_TYPE_LABELS:
+            case LABEL_ACCESS_RANDOM_READ_LABELS:
+            case BUFFER_MEMORY_ACCESS_BATCH_READ:
+            case BUFFER_MEMORY_ACCESS_INTELLIGENT_FUNCTION_MODULE_BATCH_READ:
+            case MODULE_CONTROL_READ_CPU_MODEL_NAME:
+            case MODULE_CONTROL_LOOPBACK_TEST:
+                return true;
+            default:
+                return false;
+        }
+    }
 }
@@ -75,12 +75,25 @@ public class McAckData extends McData {
      * @return McAckData
      */
     public static McAckData fromBytes(final byte[] data, final int offset) {
-        if (data.length == 0) {
+        return fromBytes(data, offset, data.length);
+    }
+
+    /**
+     * Parses the bytes from offset to length, the data is copied, so the array can be a reused buffer.
+     * (解析从offset到length的字节数据，数据会被拷贝，因此字节数组可以是复用的缓存)
+     *
+     * @param data   byte array
+     * @param offset index offset
+     * @param length valid length of the byte array
+     * @return McAckData
+     */
+    public static McAckData fromBytes(final byte[] data, final int offset, final int length) {
+        if (length == 0) {
             return new McAckData();
         }
         ByteReadBuff buff = new ByteReadBuff(data, offset, true);
         McAckData res = new McAckData();
-        res.data = buff.getBytes();
+        res.data = buff.getBytes(length - offset);
         return res;
     }
 }
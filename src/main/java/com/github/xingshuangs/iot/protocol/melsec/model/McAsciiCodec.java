@@ -0,0 +1,351 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.model;
+
+
+import com.github.xingshuangs.iot.exceptions.McCommException;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * ASCII codec of 3E and 4E frame, the request is encoded from the model directly, the ack is decoded into the binary
+ * layout, so the binary parsing can be reused.
+ * (3E和4E帧的ASCII编解码，请求直接由模型编码，响应解码为二进制格式，从而复用二进制的解析)
+ * <p>
+ * Numeric fields are hex characters in big endian, the device number is decimal or hex according to the device,
+ * bit data is 1 character per point.
+ * (数值字段为大端的十六进制字符，软元件编号根据软元件为十进制或十六进制，位数据每点1个字符)
+ *
+ * @author xingshuang
+ */
+public final class McAsciiCodec {
+
+    private McAsciiCodec() {
+        // NOOP
+    }
+
+    //region 请求编码
+
+    /**
+     * Encode the request in ASCII code.
+     * (以ASCII代码编码请求)
+     *
+     * @param req request
+     * @return ASCII frame
+     */
+    public static byte[] encode(McMessageReq req) {
+        McHeaderReq header = req.getHeader();
+        checkFrameType(header.getFrameType());
+        if (!(req.getData() instanceof McReqData)) {
+            // ASCII代码不支持该请求数据
+            throw new McCommException("ASCII code is not supported by the request data");
+        }
+        // 数据长度之后的部分：监视定时器 + 请求数据
+        StringBuilder body = new StringBuilder();
+        appendHex(body, header.getMonitoringTimer(), 4);
+        encodeData(body, (McReqData) req.getData());
+
+        StringBuilder sb = new StringBuilder();
+        // 副头部按二进制字节顺序
+        appendHex(sb, header.getSubHeader() & 0xFF, 2);
+        appendHex(sb, (header.getSubHeader() >> 8) & 0xFF, 2);
+        if (header instanceof McHeader4EReq) {
+            appendHex(sb, ((McHeader4EReq) header).getSerialNumber(), 4);
+            appendHex(sb, ((McHeader4EReq) header).getFixedNumber(), 4);
+        }
+        McFrame4E3EAccessRoute route = (McFrame4E3EAccessRoute) header.getAccessRoute();
+        appendHex(sb, route.getNetworkNumber(), 2);
+        appendHex(sb, route.getPcNumber(), 2);
+        appendHex(sb, route.getRequestDestModuleIoNumber(), 4);
+        appendHex(sb, route.getRequestDestModuleStationNumber(), 2);
+        appendHex(sb, body.length(), 4);
+        sb.append(body);
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void encodeData(StringBuilder sb, McReqData data) {
+        EMcSeries series = data.getSeries();
+        appendHex(sb, data.getCommand().getCode(), 4);
+        appendHex(sb, data.getSubcommand(), 4);
+        if (data instanceof McReadDeviceBatchReqData) {
+            appendAddress(sb, ((McReadDeviceBatchReqData) data).getDeviceAddress(), series, true);
+        } else if (data instanceof McWriteDeviceBatchInBitReqData) {
+            McDeviceContent content = ((McWriteDeviceBatchInBitReqData) data).getDeviceContent();
+            appendAddress(sb, content, series, true);
+            appendBits(sb, content.getData(), content.getDevicePointsCount());
+        } else if (data instanceof McWriteDeviceBatchReqData) {
+            McDeviceContent content = ((McWriteDeviceBatchReqData) data).getDeviceContent();
+            appendAddress(sb, content, series, true);
+            appendUnits(sb, content.getData(), 2);
+        } else if (data instanceof McReadDeviceRandomInWordReqData) {
+            McReadDeviceRandomInWordReqData random = (McReadDeviceRandomInWordReqData) data;
+            appendHex(sb, random.getWordAddresses().size(), 2);
+            appendHex(sb, random.getDwordAddresses().size(), 2);
+            random.getWordAddresses().forEach(x -> appendAddress(sb, x, series, false));
+            random.getDwordAddresses().forEach(x -> appendAddress(sb, x, series, false));
+        } else if (data instanceof McWriteDeviceRandomInWordReqData) {
+            McWriteDeviceRandomInWordReqData random = (McWriteDeviceRandomInWordReqData) data;
+            appendHex(sb, random.getWordContents().size(), 2);
+            appendHex(sb, random.getDwordContents().size(), 2);
+            appendContents(sb, random.getWordContents(), series, false);
+            appendContents(sb, random.getDwordContents(), series, false);
+        } else if (data instanceof McWriteDeviceRandomInBitReqData) {
+            McWriteDeviceRandomInBitReqData random = (McWriteDeviceRandomInBitReqData) data;
+            appendHex(sb, random.getBitContents().size(), 2);
+            appendContents(sb, random.getBitContents(), series, false);
+        } else if (data instanceof McReadDeviceBatchMultiBlocksReqData) {
+            McReadDeviceBatchMultiBlocksReqData blocks = (McReadDeviceBatchMultiBlocksReqData) data;
+            appendHex(sb, blocks.getWordAddresses().size(), 2);
+            appendHex(sb, blocks.getBitAddresses().size(), 2);
+            blocks.getWordAddresses().forEach(x -> appendAddress(sb, x, series, true));
+            blocks.getBitAddresses().forEach(x -> appendAddress(sb, x, series, true));
+        } else if (data instanceof McWriteDeviceBatchMultiBlocksReqData) {
+            McWriteDeviceBatchMultiBlocksReqData blocks = (McWriteDeviceBatchMultiBlocksReqData) data;
+            appendHex(sb, blocks.getWordContents().size(), 2);
+            appendHex(sb, blocks.getBitContents().size(), 2);
+            appendContents(sb, blocks.getWordContents(), series, true);
+            appendContents(sb, blocks.getBitContents(), series, true);
+        } else {
+            // ASCII代码不支持该请求数据
+            throw new McCommException("ASCII code is not supported by the request data: " + data.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Append the device contents, the data of each content is one number in little endian, such as word, dword and
+     * set/reset of bit, except the batch blocks whose data are words.
+     * (添加软元件内容，每个内容的数据为一个小端数值，例如字，双字和位的置位复位，批量块的数据为多个字)
+     */
+    private static void appendContents(StringBuilder sb, List<McDeviceContent> contents, EMcSeries series, boolean withPointsCount) {
+        for (McDeviceContent content : contents) {
+            appendAddress(sb, content, series, withPointsCount);
+            appendUnits(sb, content.getData(), withPointsCount ? 2 : content.getData().length);
+        }
+    }
+
+    private static void appendAddress(StringBuilder sb, McDeviceAddress address, EMcSeries series, boolean withPointsCount) {
+        boolean iqr = series == EMcSeries.IQ_R;
+        sb.append(iqr ? address.getDeviceCode().getAsciiCodeIqr() : address.getDeviceCode().getAsciiCode());
+        String number = Integer.toString(address.getHeadDeviceNumber(), address.getDeviceCode().getNotation()).toUpperCase();
+        for (int i = number.length(); i < (iqr ? 8 : 6); i++) {
+            sb.append('0');
+        }
+        sb.append(number);
+        if (withPointsCount) {
+            appendHex(sb, address.getDevicePointsCount(), 4);
+        }
+    }
+
+    private static void appendUnits(StringBuilder sb, byte[] data, int unit) {
+        for (int i = 0; i + unit <= data.length; i += unit) {
+            for (int j = unit - 1; j >= 0; j--) {
+                appendHex(sb, data[i + j] & 0xFF, 2);
+            }
+        }
+    }
+
+    private static void appendBits(StringBuilder sb, byte[] data, int pointsCount) {
+        for (int i = 0; i < pointsCount; i++) {
+            // 二进制每个字节2个点，高4位在前
+            int value = i % 2 == 0 ? (data[i / 2] >> 4) & 0x0F : data[i / 2] & 0x0F;
+            sb.append(value == 0 ? '0' : '1');
+        }
+    }
+
+    private static void appendHex(StringBuilder sb, int value, int width) {
+        for (int i = width - 1; i >= 0; i--) {
+            sb.append(Character.toUpperCase(Character.forDigit((value >> (i * 4)) & 0x0F, 16)));
+        }
+    }
+
+    //endregion
+
+    //region 响应解码
+
+    /**
+     * Get the ASCII header length before the data of the data length field.
+     * (获取数据长度字段所计数据之前的ASCII头长度)
+     *
+     * @param frameType frame type
+     * @return header length
+     */
+    public static int headerLength(EMcFrameType frameType) {
+        checkFrameType(frameType);
+        // 副头部(4) + [序列号(4) + 固定值(4)] + 访问路径(10) + 数据长度(4)
+        return frameType == EMcFrameType.FRAME_4E ? 26 : 18;
+    }
+
+    /**
+     * Get the value of the data length field, the number of characters behind the header.
+     * (获取数据长度字段的值，即头部之后的字符个数)
+     *
+     * @param data      byte array
+     * @param offset    the start offset of the frame
+     * @param frameType frame type
+     * @return data length
+     */
+    public static int dataLength(final byte[] data, final int offset, EMcFrameType frameType) {
+        return parseHex(data, offset + headerLength(frameType) - 4, 4);
+    }
+
+    /**
+     * Get the total length of the ASCII ack frame which starts at the offset.
+     * (获取从offset开始的ASCII响应帧完整长度)
+     *
+     * @param data      byte array
+     * @param offset    the start offset in the data.
+     * @param length    the number of bytes available.
+     * @param frameType frame type
+     * @return frame length, -1 if more data is required
+     */
+    public static int frameLength(final byte[] data, final int offset, final int length, EMcFrameType frameType) {
+        int headerLength = headerLength(frameType);
+        if (length < headerLength) {
+            return -1;
+        }
+        int frameLength = headerLength + dataLength(data, offset, frameType);
+        return frameLength <= length ? frameLength : -1;
+    }
+
+    /**
+     * Extract the serial number of the 4E ASCII ack frame.
+     * (提取4E帧ASCII响应的序列号)
+     *
+     * @param frame 4E ASCII ack frame
+     * @return serial number, -1 if the frame is too short
+     */
+    public static int extractSerialNumber(byte[] frame) {
+        return frame.length < 8 ? -1 : parseHex(frame, 4, 4);
+    }
+
+    /**
+     * Decode the ASCII ack into the binary layout, the layout of the data depends on the request.
+     * (将ASCII响应解码为二进制格式，数据的格式取决于请求)
+     *
+     * @param data   ASCII ack frame
+     * @param length valid length
+     * @param req    the request of the ack
+     * @return binary ack frame
+     */
+    public static byte[] decode(byte[] data, int length, McMessageReq req) {
+        EMcFrameType frameType = req.getHeader().getFrameType();
+        // 头部到结束代码为止
+        int asciiHeaderLength = headerLength(frameType) + 4;
+        if (length < asciiHeaderLength) {
+            // McHeader 无效，读取长度不一致
+            throw new McCommException(" McHeader is invalid, read length is inconsistent");
+        }
+        int endCode = parseHex(data, asciiHeaderLength - 4, 4);
+        int remain = length - asciiHeaderLength;
+        boolean bitRead = endCode == 0 && req.getData() instanceof McReadDeviceBatchInBitReqData;
+        int dataLength = bitRead ? (remain + 1) / 2 : remain / 2;
+        int binaryHeaderLength = frameType == EMcFrameType.FRAME_4E ? 15 : 11;
+        byte[] res = new byte[binaryHeaderLength + dataLength];
+
+        int index = 0;
+        int pos = 0;
+        // 副头部按字节顺序
+        res[index++] = (byte) parseHex(data, pos, 2);
+        res[index++] = (byte) parseHex(data, pos + 2, 2);
+        pos += 4;
+        if (frameType == EMcFrameType.FRAME_4E) {
+            index = putUnit(res, index, data, pos, 2);
+            index = putUnit(res, index, data, pos + 4, 2);
+            pos += 8;
+        }
+        index = putUnit(res, index, data, pos, 1);
+        index = putUnit(res, index, data, pos + 2, 1);
+        index = putUnit(res, index, data, pos + 4, 2);
+        index = putUnit(res, index, data, pos + 8, 1);
+        pos += 10;
+        // 二进制的数据长度包含结束代码
+        res[index++] = (byte) (dataLength + 2);
+        res[index++] = (byte) ((dataLength + 2) >> 8);
+        pos += 4;
+        index = putUnit(res, index, data, pos, 2);
+        pos += 4;
+
+        if (bitRead) {
+            for (int i = 0; pos + i < length; i++) {
+                if (data[pos + i] != '0') {
+                    res[index + i / 2] |= i % 2 == 0 ? 0x10 : 0x01;
+                }
+            }
+        } else if (endCode != 0) {
+            // 错误信息：访问路径 + 指令 + 子指令
+            int[] units = {1, 1, 2, 1, 2, 2};
+            for (int i = 0; i < units.length && pos + units[i] * 2 <= length; i++) {
+                index = putUnit(res, index, data, pos, units[i]);
+                pos += units[i] * 2;
+            }
+        } else {
+            int dwordCount = req.getData() instanceof McReadDeviceRandomInWordReqData
+                    ? ((McReadDeviceRandomInWordReqData) req.getData()).getDwordAddresses().size() : 0;
+            // 随机读取时字在前，双字在后
+            int wordEnd = length - dwordCount * 8;
+            while (pos + 4 <= wordEnd) {
+                index = putUnit(res, index, data, pos, 2);
+                pos += 4;
+            }
+            while (pos + 8 <= length) {
+                index = putUnit(res, index, data, pos, 4);
+                pos += 8;
+            }
+        }
+        return res;
+    }
+
+    private static int putUnit(byte[] dst, int index, byte[] src, int pos, int unit) {
+        int value = parseHex(src, pos, unit * 2);
+        for (int i = 0; i < unit; i++) {
+            dst[index++] = (byte) (value >> (i * 8));
+        }
+        return index;
+    }
+
+    private static int parseHex(byte[] src, int pos, int width) {
+        int value = 0;
+        for (int i = 0; i < width; i++) {
+            int digit = Character.digit(src[pos + i], 16);
+            if (digit < 0) {
+                // 非法的十六进制字符
+                throw new McCommException("Invalid hex character in ASCII frame: " + (char) src[pos + i]);
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    //endregion
+
+    private static void checkFrameType(EMcFrameType frameType) {
+        if (frameType != EMcFrameType.FRAME_3E && frameType != EMcFrameType.FRAME_4E) {
+            // ASCII代码只支持3E和4E帧
+            throw new McCommException("ASCII code is only supported by 3E and 4E frame");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.model;
+
+
+import com.github.xingshuangs.iot.net.IFrameDecoder;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcCommand;
+
+/**
+ * Frame decoder of 1E ack, 1E ack has no length field, the length is derived from the command and the points count
+ * of the request, so the expected request must be set before sending.
+ * (1E响应帧解码器，1E响应没有长度字段，长度由请求的指令和点数推算，因此发送前需要先设置期望的请求)
+ * <p>
+ * ack = sub header(1) + end code(1) + data, abnormal code(1) instead of data when end code is 0x5B.
+ *
+ * @author xingshuang
+ */
+public class McFrame1EDecoder implements IFrameDecoder {
+
+    /**
+     * End code with the abnormal code behind.
+     * (后面跟随异常码的结束代码)
+     */
+    public static final int ABNORMAL_END_CODE = 0x5B;
+
+    /**
+     * Header length of 1E ack, sub header(1) + end code(1).
+     * (1E响应头长度)
+     */
+    public static final int HEADER_LENGTH = 2;
+
+    /**
+     * Offset of the points count in 1E request, sub header(1) + pc number(1) + timer(2) + device number(4) + device code(2).
+     * (1E请求中点数的偏移量)
+     */
+    private static final int POINTS_OFFSET = 10;
+
+    /**
+     * Ack length of the current request when end code is 0.
+     * (当前请求正常结束时的响应长度)
+     */
+    private volatile int expectedLength = HEADER_LENGTH;
+
+    /**
+     * Set the request to be sent, the expected ack length is derived from it.
+     * (设置待发送的请求，由此推算期望的响应长度)
+     *
+     * @param req 1E request
+     */
+    public void expect(byte[] req) {
+        this.expectedLength = ackLength(req);
+    }
+
+    /**
+     * Get the ack length by the end code.
+     * (根据结束代码获取响应长度)
+     *
+     * @param endCode end code
+     * @return ack length
+     */
+    public int ackLength(int endCode) {
+        if (endCode == 0) {
+            return this.expectedLength;
+        }
+        return endCode == ABNORMAL_END_CODE ? HEADER_LENGTH + 1 : HEADER_LENGTH;
+    }
+
+    @Override
+    public int frameLength(final byte[] data, final int offset, final int length) {
+        if (length < HEADER_LENGTH) {
+            return -1;
+        }
+        int frameLength = this.ackLength(data[offset + 1] & 0xFF);
+        return frameLength <= length ? frameLength : -1;
+    }
+
+    /**
+     * Get the ack length of 1E request when end code is 0, bit unit uses 4 bits per point, word unit uses 2 bytes.
+     * (获取1E请求正常结束时的响应长度，位单位每点4位，字单位每点2个字节)
+     *
+     * @param req 1E request
+     * @return ack length
+     */
+    public static int ackLength(byte[] req) {
+        int command = req[0] & 0xFF;
+        if (command != EMcCommand.DEVICE_ACCESS_BATCH_READ_IN_BIT.getCode()
+                && command != EMcCommand.DEVICE_ACCESS_BATCH_READ_IN_WORD.getCode()) {
+            // 写入指令只响应头
+            return HEADER_LENGTH;
+        }
+        if (req.length < POINTS_OFFSET + 1) {
+            // 1E读取请求长度不足，无法获取点数
+            throw new IllegalArgumentException("The length of 1E read request is too short to get the points count");
+        }
+        int points = req[POINTS_OFFSET] & 0xFF;
+        // 点数为0表示256点
+        points = points == 0 ? 256 : points;
+        return command == EMcCommand.DEVICE_ACCESS_BATCH_READ_IN_BIT.getCode()
+                ? HEADER_LENGTH + (points + 1) / 2
+                : HEADER_LENGTH + points * 2;
+    }
+}
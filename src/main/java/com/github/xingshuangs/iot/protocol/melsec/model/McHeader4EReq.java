@@ -30,6 +30,8 @@ import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Req header of 4E.
  * 请求头
@@ -40,6 +42,8 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = true)
 public class McHeader4EReq extends McHeader3EReq {
 
+    private static final AtomicInteger index = new AtomicInteger();
+
     /**
      * Serial number, 2-bytes.
      * (序列号，2字节)
@@ -83,4 +87,19 @@ public class McHeader4EReq extends McHeader3EReq {
                 .putShort(this.monitoringTimer)
                 .getData();
     }
+
+    /**
+     * Get new serial number, range in [0,65536)
+     * (获取新的序列号)
+     *
+     * @return number
+     */
+    public static int getNewNumber() {
+        int res = index.getAndIncrement();
+        if (res >= 65536) {
+            index.set(0);
+            res = 0;
+        }
+        return res;
+    }
 }
\ No newline at end of file
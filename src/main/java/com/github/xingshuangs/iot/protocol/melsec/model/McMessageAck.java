@@ -98,13 +98,29 @@ public class McMessageAck implements IObjectByteArray {
      * @return McMessageAck
      */
     public static McMessageAck fromBytes(final byte[] data, final int offset, EMcFrameType frameType) {
+        return fromBytes(data, offset, data.length, frameType);
+    }
+
+    /**
+     * Parses the bytes from offset to length, the result does not reference the array,
+     * so the array can be a reused buffer.
+     * (解析从offset到length的字节数据，结果不引用该数组，因此可以是复用的缓存)
+     *
+     * @param data      byte array
+     * @param offset    index offset
+     * @param length    valid length of the byte array
+     * @param frameType frame type
+     * @return McMessageAck
+     */
+    public static McMessageAck fromBytes(final byte[] data, final int offset, final int length, EMcFrameType frameType) {
         McMessageAck res = new McMessageAck();
         res.header = McHeaderAck.fromBytes(data, offset, frameType);
         int off = offset + res.header.byteArrayLength();
         if (res.header.getEndCode() == 0) {
-            res.data = McAckData.fromBytes(data, off);
+            res.data = McAckData.fromBytes(data, off, length);
         } else if (frameType == EMcFrameType.FRAME_1E) {
-            res.data = McError1EData.fromBytes(data, off);
+            // 1E只有结束代码为0x5B时才有异常码
+            res.data = off < length ? McError1EData.fromBytes(data, off) : new McError1EData();
         } else {
             res.data = McError4E3EData.fromBytes(data, off);
         }
@@ -25,24 +25,39 @@
 package com.github.xingshuangs.iot.protocol.melsec.service;
 
 
+import com.github.xingshuangs.iot.common.buff.ByteArrayPool;
 import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
 import com.github.xingshuangs.iot.common.buff.ByteWriteBuff;
+import com.github.xingshuangs.iot.common.buff.PooledByteArray;
 import com.github.xingshuangs.iot.common.constant.GeneralConst;
 import com.github.xingshuangs.iot.exceptions.McCommException;
+import com.github.xingshuangs.iot.net.IFrameDecoder;
+import com.github.xingshuangs.iot.net.LengthFieldFrameDecoder;
 import com.github.xingshuangs.iot.net.client.TcpClientBasic;
+import com.github.xingshuangs.iot.net.client.TransactionDispatcher;
 import com.github.xingshuangs.iot.common.algorithm.LoopGroupAlg;
 import com.github.xingshuangs.iot.common.algorithm.LoopGroupItem;
+import com.github.xingshuangs.iot.protocol.melsec.algorithm.McReadFrame;
+import com.github.xingshuangs.iot.protocol.melsec.algorithm.McReadPlan;
+import com.github.xingshuangs.iot.protocol.melsec.algorithm.McReadPlanAlg;
 import com.github.xingshuangs.iot.protocol.melsec.enums.EMcCommand;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcDataCode;
 import com.github.xingshuangs.iot.protocol.melsec.enums.EMcDeviceCode;
 import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
 import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
 import com.github.xingshuangs.iot.protocol.melsec.model.*;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 
@@ -59,7 +74,7 @@ public class McNetwork extends TcpClientBasic {
     /**
      * locker
      */
-    private final Object objLock = new Object();
+    private final ReentrantLock objLock = new ReentrantLock();
 
     /**
      * Communication callback, first parameter is tag, second is package content.
@@ -67,6 +82,50 @@ public class McNetwork extends TcpClientBasic {
      */
     private BiConsumer<String, byte[]> comCallback;
 
+    /**
+     * Pool of the receive buffers.
+     * (接收缓存池)
+     */
+    private ByteArrayPool bufferPool = ByteArrayPool.getDefault();
+
+    /**
+     * Reusable ack header buffer of this connection, only used in the lock, 15 bytes is the header length of 4E.
+     * (当前连接可复用的响应头缓存，只在锁内使用，15个字节为4E帧的头长度)
+     */
+    private final byte[] ackHeader = new byte[15];
+
+    /**
+     * Frame decoder of 1E ack, the expected length is set before each request.
+     * (1E响应帧解码器，每次请求之前设置期望长度)
+     */
+    private final McFrame1EDecoder frame1EDecoder = new McFrame1EDecoder();
+
+    /**
+     * Frame decoder of 3E ack, sub header(2) + access route(5) + data length(2).
+     * (3E响应帧解码器，副头部(2) + 访问路径(5) + 数据长度(2))
+     */
+    private static final IFrameDecoder FRAME_3E_DECODER = new LengthFieldFrameDecoder(7, 2, true, 9);
+
+    /**
+     * Frame decoder of 4E ack, sub header(2) + serial number(2) + fixed value(2) + access route(5) + data length(2).
+     * (4E响应帧解码器，副头部(2) + 序列号(2) + 固定值(2) + 访问路径(5) + 数据长度(2))
+     */
+    private static final IFrameDecoder FRAME_4E_DECODER = new LengthFieldFrameDecoder(11, 2, true, 13);
+
+    /**
+     * Max number of outstanding requests on one connection, only for 4E, 1 default means request and response one by one.
+     * (一个连接上最大未响应的请求数，只适用于4E帧，默认1，即一问一答)
+     */
+    private int maxInFlight = 1;
+
+    /**
+     * Transaction dispatcher of 4E, the responses are matched by the serial number, used when maxInFlight greater than 1.
+     * (4E帧的事务分发器，响应通过序列号匹配，maxInFlight大于1时使用)
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TransactionDispatcher dispatcher;
+
     /**
      * Persistence, true: long connection, false: short connection.
      * (是否持久化，默认是持久化，对应长连接，true：长连接，false：短连接)
@@ -97,6 +156,19 @@ public class McNetwork extends TcpClientBasic {
      */
     protected EMcSeries series = EMcSeries.QnA;
 
+    /**
+     * Communication data code, binary by default, ASCII is only for 3E and 4E.
+     * (通信数据代码，默认二进制，ASCII只适用于3E和4E帧)
+     */
+    protected EMcDataCode dataCode = EMcDataCode.BINARY;
+
+    /**
+     * UDP client, null means TCP.
+     * (UDP客户端，为null时使用TCP)
+     */
+    @Setter(AccessLevel.NONE)
+    private McUdpClient udpClient;
+
     public McNetwork() {
         super();
     }
@@ -105,10 +177,99 @@ public class McNetwork extends TcpClientBasic {
         super(host, port);
     }
 
+    /**
+     * Set the max number of outstanding requests, only 4E frame carries the serial number, so the pipelined mode only
+     * works for 4E, 3E and 1E are still request and response one by one, must be set before communication and only
+     * for long connection.
+     * (设置最大未响应的请求数，只有4E帧带有序列号，因此流水线模式只对4E帧生效，3E和1E帧仍然一问一答，需要在通信之前设置，且只适用于长连接)
+     *
+     * @param maxInFlight max number of outstanding requests
+     * @throws IllegalStateException the connection is open or there are outstanding requests
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight >= 1");
+        }
+        this.objLock.lock();
+        try {
+            // 两个分发器同时读取同一个连接会抢走对方的响应，因此只能在连接关闭且没有未响应的请求时切换
+            TransactionDispatcher current = this.dispatcher;
+            if (this.checkConnected() || (current != null && current.getInFlight() > 0)) {
+                throw new IllegalStateException("maxInFlight can only be changed when the connection is closed");
+            }
+            this.maxInFlight = maxInFlight;
+            this.dispatcher = maxInFlight > 1
+                    ? new TransactionDispatcher(maxInFlight, this::write, this::read4EFrame, McNetwork::extractSerialNumber)
+                    : null;
+        } finally {
+            this.objLock.unlock();
+        }
+    }
+
+    public boolean isUdp() {
+        return this.udpClient != null;
+    }
+
+    /**
+     * Set the transport to UDP or TCP, with UDP and 4E, the requests of one read are sent in one burst and the
+     * responses are matched by the serial number, the retransmission can be set by {@link #getUdpClient()}.
+     * (设置传输方式为UDP或TCP，UDP配合4E帧时，一次读取的多个请求一次性发出，响应通过序列号匹配，重发参数通过getUdpClient()设置)
+     *
+     * @param udp true: UDP, false: TCP
+     */
+    public void setUdp(boolean udp) {
+        if (udp == this.isUdp()) {
+            return;
+        }
+        if (udp) {
+            this.udpClient = new McUdpClient(this.socketAddress.getHostString(), this.socketAddress.getPort());
+        } else {
+            this.udpClient.close();
+            this.udpClient = null;
+        }
+    }
+
     //region 底层数据通信部分
 
+    /**
+     * Create the frame decoder according to the frame type, the data length of 3E and 4E ack is little endian,
+     * 1E ack has no length field, the length is derived from the request, the frame type and the data code are
+     * taken when splitting, so they can still be changed after connected.
+     * (根据帧类型创建帧解码器，3E和4E响应的数据长度为小端模式，1E响应没有长度字段，长度由请求推算，帧类型和数据代码在切分时获取，因此连接之后仍可修改)
+     *
+     * @return frame decoder
+     */
+    @Override
+    protected IFrameDecoder createFrameDecoder() {
+        return (data, offset, length) -> {
+            if (this.dataCode == EMcDataCode.ASCII) {
+                return McAsciiCodec.frameLength(data, offset, length, this.frameType);
+            }
+            switch (this.frameType) {
+                case FRAME_3E:
+                    return FRAME_3E_DECODER.frameLength(data, offset, length);
+                case FRAME_4E:
+                    return FRAME_4E_DECODER.frameLength(data, offset, length);
+                default:
+                    return this.frame1EDecoder.frameLength(data, offset, length);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        if (this.udpClient != null) {
+            this.udpClient.close();
+        }
+        super.close();
+    }
+
     @Override
     public void connect() {
+        if (this.udpClient != null) {
+            this.udpClient.getAvailableSocket();
+            return;
+        }
         try {
             super.connect();
         } finally {
@@ -126,24 +287,147 @@ public class McNetwork extends TcpClientBasic {
      * @return McMessageAck
      */
     protected McMessageAck readFromServer(McMessageReq req) {
+        if (this.udpClient != null || this.dataCode == EMcDataCode.ASCII) {
+            return this.readFromServer(Collections.singletonList(req)).get(0);
+        }
+        TransactionDispatcher currentDispatcher = this.frameType == EMcFrameType.FRAME_4E ? this.dispatcher : null;
+        if (currentDispatcher != null) {
+            // 流水线模式下每个请求需要唯一的序列号，用于匹配乱序到达的响应
+            ((McHeader4EReq) req.getHeader()).setSerialNumber(McHeader4EReq.getNewNumber());
+        }
         byte[] reqBytes = req.toByteArray();
         if (this.comCallback != null) {
             this.comCallback.accept(GeneralConst.PACKAGE_REQ, reqBytes);
         }
-        byte[] total;
-        if (this.frameType == EMcFrameType.FRAME_4E || this.frameType == EMcFrameType.FRAME_3E) {
-            total = this.readFromServer4E3E(reqBytes);
+        McMessageAck ack;
+        if (currentDispatcher != null) {
+            int serialNumber = ((McHeader4EReq) req.getHeader()).getSerialNumber();
+            byte[] total = currentDispatcher.exchange(serialNumber, reqBytes, this.receiveTimeout);
+            ack = this.decodeAck(total, total.length);
+        } else if (this.frameType == EMcFrameType.FRAME_4E || this.frameType == EMcFrameType.FRAME_3E) {
+            try (PooledByteArray frame = this.readFromServer4E3ELease(reqBytes)) {
+                ack = this.decodeAck(frame.getData(), frame.getLength());
+            }
         } else {
-            total = this.readFromServer1E(reqBytes);
-        }
-        if (this.comCallback != null) {
-            this.comCallback.accept(GeneralConst.PACKAGE_ACK, total);
+            try (PooledByteArray frame = this.readFromServer1ELease(reqBytes)) {
+                ack = this.decodeAck(frame.getData(), frame.getLength());
+            }
         }
-        McMessageAck ack = McMessageAck.fromBytes(total, this.frameType);
         this.checkResult(req, ack);
         return ack;
     }
 
+    /**
+     * Read data from server, with UDP and 4E all the requests are sent in one burst, otherwise one by one.
+     * (从服务器读取数据，UDP配合4E帧时所有请求一次性发出，否则逐个发送)
+     *
+     * @param reqs McMessageReq list
+     * @return McMessageAck list, in the order of the requests
+     */
+    protected List<McMessageAck> readFromServer(List<McMessageReq> reqs) {
+        if (this.udpClient == null && this.dataCode == EMcDataCode.BINARY) {
+            List<McMessageAck> res = new ArrayList<>(reqs.size());
+            reqs.forEach(x -> res.add(this.readFromServer(x)));
+            return res;
+        }
+        boolean ascii = this.dataCode == EMcDataCode.ASCII;
+        // 只有4E帧带有序列号，可以匹配乱序到达的响应
+        boolean keyed = this.frameType == EMcFrameType.FRAME_4E;
+        byte[][] frames = new byte[reqs.size()][];
+        int[] keys = keyed ? new int[reqs.size()] : null;
+        for (int i = 0; i < reqs.size(); i++) {
+            McMessageReq req = reqs.get(i);
+            if (keyed) {
+                keys[i] = McHeader4EReq.getNewNumber();
+                ((McHeader4EReq) req.getHeader()).setSerialNumber(keys[i]);
+            }
+            frames[i] = ascii ? McAsciiCodec.encode(req) : req.toByteArray();
+            if (this.comCallback != null) {
+                this.comCallback.accept(GeneralConst.PACKAGE_REQ, frames[i]);
+            }
+        }
+
+        byte[][] acks;
+        if (this.udpClient != null && keyed) {
+            // 只有全部为只读指令时才能安全重发
+            boolean idempotent = reqs.stream().allMatch(x -> ((McReqData) x.getData()).getCommand().isReadOnly());
+            acks = this.udpClient.exchange(frames, keys,
+                    ascii ? McAsciiCodec::extractSerialNumber : McNetwork::extractSerialNumber,
+                    idempotent, this.receiveTimeout);
+        } else {
+            acks = new byte[frames.length][];
+            for (int i = 0; i < frames.length; i++) {
+                acks[i] = this.udpClient != null
+                        ? this.udpClient.exchange(new byte[][]{frames[i]}, null, null, false, this.receiveTimeout)[0]
+                        : this.readFromServerAscii(frames[i]);
+            }
+        }
+
+        List<McMessageAck> res = new ArrayList<>(reqs.size());
+        for (int i = 0; i < reqs.size(); i++) {
+            McMessageReq req = reqs.get(i);
+            if (this.comCallback != null) {
+                this.comCallback.accept(GeneralConst.PACKAGE_ACK, acks[i]);
+            }
+            byte[] binary = ascii ? McAsciiCodec.decode(acks[i], acks[i].length, req) : acks[i];
+            McMessageAck ack = McMessageAck.fromBytes(binary, this.frameType);
+            this.checkResult(req, ack);
+            res.add(ack);
+        }
+        return res;
+    }
+
+    /**
+     * Read data from server of 4E and 3E in ASCII code by TCP.
+     * (TCP下ASCII代码的3E帧和4E帧通信交互)
+     *
+     * @param req ASCII req
+     * @return ASCII ack
+     */
+    private byte[] readFromServerAscii(byte[] req) {
+        this.objLock.lock();
+        try {
+            this.write(req);
+            if (this.isFrameReadable()) {
+                try (PooledByteArray frame = this.readFrame(this.bufferPool)) {
+                    return frame.toByteArray();
+                }
+            }
+            int headerLength = McAsciiCodec.headerLength(this.frameType);
+            byte[] header = new byte[headerLength];
+            int len = this.read(header, 0, headerLength, true);
+            if (len < headerLength) {
+                // McHeader 无效，读取长度不一致
+                throw new McCommException(" McHeader is invalid, read length is inconsistent");
+            }
+            int remainLength = McAsciiCodec.dataLength(header, 0, this.frameType);
+            byte[] total = Arrays.copyOf(header, headerLength + remainLength);
+            len = this.read(total, headerLength, remainLength, true);
+            if (len < remainLength) {
+                // McHeader后面的数据长度，长度不一致
+                throw new McCommException("The length of the data behind the McHeader is inconsistent");
+            }
+            return total;
+        } finally {
+            this.objLock.unlock();
+        }
+    }
+
+    /**
+     * Decode the first length bytes of the ack buffer, the result does not reference the buffer.
+     * (解析响应缓存中前length个字节，结果不引用该缓存)
+     *
+     * @param data   ack buffer
+     * @param length valid length
+     * @return McMessageAck
+     */
+    private McMessageAck decodeAck(byte[] data, int length) {
+        if (this.comCallback != null) {
+            this.comCallback.accept(GeneralConst.PACKAGE_ACK, Arrays.copyOf(data, length));
+        }
+        return McMessageAck.fromBytes(data, 0, length, this.frameType);
+    }
+
     /**
      * Read data from server of 1E.
      * (1E帧的通信交互)
@@ -152,19 +436,54 @@ public class McNetwork extends TcpClientBasic {
      * @return ack
      */
     protected byte[] readFromServer1E(byte[] req) {
-        int len;
-        byte[] data = new byte[1024];
-        synchronized (this.objLock) {
-            this.write(req);
-            len = this.read(data);
+        try (PooledByteArray frame = this.readFromServer1ELease(req)) {
+            return frame.toByteArray();
         }
-        if (len < 0) {
-            // McHeader 无效，读取长度不一致
-            throw new McCommException(" McHeader is invalid, read length is inconsistent");
+    }
+
+    /**
+     * Read data from server of 1E into a leased buffer, the caller releases the buffer after decoding.
+     * (1E帧的通信交互，响应读取到租借的缓存中，解析完成后由调用方释放)
+     *
+     * @param req req
+     * @return leased ack
+     */
+    private PooledByteArray readFromServer1ELease(byte[] req) {
+        this.objLock.lock();
+        try {
+            this.frame1EDecoder.expect(req);
+            this.write(req);
+            if (this.isFrameReadable()) {
+                // 非阻塞通道由1E帧解码器根据期望长度切分完整的响应
+                return this.readFrame(this.bufferPool);
+            }
+
+            byte[] data = this.ackHeader;
+            int len = this.read(data, 0, McFrame1EDecoder.HEADER_LENGTH, true);
+            if (len < McFrame1EDecoder.HEADER_LENGTH) {
+                // McHeader 无效，读取长度不一致
+                throw new McCommException(" McHeader is invalid, read length is inconsistent");
+            }
+            int frameLength = this.frame1EDecoder.ackLength(data[1] & 0xFF);
+            int remainLength = frameLength - McFrame1EDecoder.HEADER_LENGTH;
+            PooledByteArray frame = this.bufferPool.lease(frameLength);
+            try {
+                System.arraycopy(data, 0, frame.getData(), 0, McFrame1EDecoder.HEADER_LENGTH);
+                if (remainLength > 0) {
+                    len = this.read(frame.getData(), McFrame1EDecoder.HEADER_LENGTH, remainLength, true);
+                    if (len < remainLength) {
+                        // McHeader后面的数据长度，长度不一致
+                        throw new McCommException("The length of the data behind the McHeader is inconsistent");
+                    }
+                }
+            } catch (RuntimeException e) {
+                frame.release();
+                throw e;
+            }
+            return frame;
+        } finally {
+            this.objLock.unlock();
         }
-        byte[] total = new byte[len];
-        System.arraycopy(data, 0, total, 0, len);
-        return total;
     }
 
     /**
@@ -175,30 +494,88 @@ public class McNetwork extends TcpClientBasic {
      * @return ack
      */
     protected byte[] readFromServer4E3E(byte[] req) {
-        int remainLength;
-        int len;
-        byte[] total;
-        synchronized (this.objLock) {
+        try (PooledByteArray frame = this.readFromServer4E3ELease(req)) {
+            return frame.toByteArray();
+        }
+    }
+
+    /**
+     * Read data from server of 4E and 3E into a leased buffer, the caller releases the buffer after decoding.
+     * (3E帧和4E帧的通信交互，响应读取到租借的缓存中，解析完成后由调用方释放)
+     *
+     * @param req req
+     * @return leased ack
+     */
+    private PooledByteArray readFromServer4E3ELease(byte[] req) {
+        this.objLock.lock();
+        try {
             this.write(req);
+            return this.readAckFrameLease();
+        } finally {
+            this.objLock.unlock();
+        }
+    }
 
-            int headerLength = this.frameType == EMcFrameType.FRAME_4E ? 15 : 11;
-            byte[] data = new byte[headerLength];
-            len = this.read(data);
-            if (len < headerLength) {
-                // McHeader 无效，读取长度不一致
-                throw new McCommException(" McHeader is invalid, read length is inconsistent");
+    /**
+     * Read one whole 4E frame, used by the transaction dispatcher.
+     * (读取一个完整的4E帧，供事务分发器使用)
+     *
+     * @return frame
+     */
+    private byte[] read4EFrame() {
+        try (PooledByteArray frame = this.readAckFrameLease()) {
+            return frame.toByteArray();
+        }
+    }
+
+    /**
+     * Read one whole 4E or 3E ack frame into a leased buffer, must be called by one reader at a time,
+     * the caller releases the buffer after decoding.
+     * (读取一个完整的4E或3E响应帧到租借的缓存中，同一时间只能有一个读取者，解析完成后由调用方释放)
+     *
+     * @return leased frame
+     */
+    private PooledByteArray readAckFrameLease() {
+        if (this.isFrameReadable()) {
+            // 非阻塞通道由帧解码器根据数据长度切分完整的响应
+            return this.readFrame(this.bufferPool);
+        }
+        int headerLength = this.frameType == EMcFrameType.FRAME_4E ? 15 : 11;
+        byte[] data = this.ackHeader;
+        int len = this.read(data, 0, headerLength);
+        if (len < headerLength) {
+            // McHeader 无效，读取长度不一致
+            throw new McCommException(" McHeader is invalid, read length is inconsistent");
+        }
+        McHeader3EAck header = (McHeader3EAck) McHeaderAck.fromBytes(data, this.frameType);
+        int remainLength = header.getDataLength() - 2;
+        PooledByteArray frame = this.bufferPool.lease(headerLength + remainLength);
+        try {
+            System.arraycopy(data, 0, frame.getData(), 0, headerLength);
+            len = this.read(frame.getData(), headerLength, remainLength, true);
+            if (len < remainLength) {
+                // McHeader后面的数据长度，长度不一致
+                throw new McCommException("The length of the data behind the McHeader is inconsistent");
             }
-            McHeader3EAck header = (McHeader3EAck) McHeaderAck.fromBytes(data, this.frameType);
-            remainLength = header.getDataLength() - 2;
-            total = new byte[headerLength + remainLength];
-            System.arraycopy(data, 0, total, 0, data.length);
-            len = this.read(total, data.length, remainLength, true);
+        } catch (RuntimeException e) {
+            frame.release();
+            throw e;
         }
-        if (len < remainLength) {
-            // McHeader后面的数据长度，长度不一致
-            throw new McCommException("The length of the data behind the McHeader is inconsistent");
+        return frame;
+    }
+
+    /**
+     * Extract the serial number of the 4E ack frame, the serial number is behind the sub header and little endian.
+     * (提取4E响应帧的序列号，序列号位于副头部之后，小端模式)
+     *
+     * @param frame 4E ack frame
+     * @return serial number, -1 if the frame is too short
+     */
+    static int extractSerialNumber(byte[] frame) {
+        if (frame.length < 4) {
+            return -1;
         }
-        return total;
+        return (frame[2] & 0xFF) | ((frame[3] & 0xFF) << 8);
     }
 
     /**
@@ -585,6 +962,38 @@ public class McNetwork extends TcpClientBasic {
      * @return device content list.
      */
     public List<McDeviceContent> readDeviceRandomInWord(List<McDeviceAddress> wordAddresses, List<McDeviceAddress> dwordAddresses) {
+        List<McMessageReq> reqs = this.createReadDeviceRandomInWordReqs(wordAddresses, dwordAddresses);
+        try {
+            List<McDeviceContent> result = new ArrayList<>();
+            for (McMessageReq req : reqs) {
+                McReadDeviceRandomInWordReqData reqData = (McReadDeviceRandomInWordReqData) req.getData();
+                McMessageAck ack = this.readFromServer(req);
+
+                ByteReadBuff buff = new ByteReadBuff(((McAckData) ack.getData()).getData());
+                for (McDeviceAddress word : reqData.getWordAddresses()) {
+                    result.add(McDeviceContent.createByAddress(word, buff.getBytes(2)));
+                }
+                for (McDeviceAddress dword : reqData.getDwordAddresses()) {
+                    result.add(McDeviceContent.createByAddress(dword, buff.getBytes(4)));
+                }
+            }
+            return result;
+        } finally {
+            if (!this.persistence) {
+                this.close();
+            }
+        }
+    }
+
+    /**
+     * Create the requests of the random read in word, grouped by the max points of one request.
+     * (创建按字随机读取的请求，按单次请求的最大点数分组)
+     *
+     * @param wordAddresses  word device address
+     * @param dwordAddresses dword device address
+     * @return request list
+     */
+    List<McMessageReq> createReadDeviceRandomInWordReqs(List<McDeviceAddress> wordAddresses, List<McDeviceAddress> dwordAddresses) {
         if (wordAddresses == null || dwordAddresses == null) {
             throw new NullPointerException("wordAddresses or dwordAddresses");
         }
@@ -599,36 +1008,21 @@ public class McNetwork extends TcpClientBasic {
         if (!wordAllMatch || !dwordAllMatch) {
             throw new McCommException("restricted access LTS、LTC、LSTS、LSTC、LCS、LCC");
         }
-        try {
-            List<McDeviceContent> result = new ArrayList<>();
-            int maxLength = this.series.getDeviceRandomReadInWordPointsCount();
+        List<McMessageReq> reqs = new ArrayList<>();
+        int maxLength = this.series.getDeviceRandomReadInWordPointsCount();
 //            int maxLength = this.series == EMcSeries.Q_L ? 192 : 96;
 
-            BiPredicate<LoopGroupItem, LoopGroupItem> biPredicate = (i1, i2) -> i1.getLen() + i2.getLen() >= maxLength;
-            LoopGroupItem wordItem = new LoopGroupItem(wordAddresses.size());
-            LoopGroupItem dwordItem = new LoopGroupItem(dwordAddresses.size());
+        BiPredicate<LoopGroupItem, LoopGroupItem> biPredicate = (i1, i2) -> i1.getLen() + i2.getLen() >= maxLength;
+        LoopGroupItem wordItem = new LoopGroupItem(wordAddresses.size());
+        LoopGroupItem dwordItem = new LoopGroupItem(dwordAddresses.size());
 
-            LoopGroupAlg.biLoopExecute(wordItem, dwordItem, biPredicate, (i1, i2) -> {
-                List<McDeviceAddress> newWords = wordAddresses.subList(i1.getOff(), i1.getOff() + i1.getLen());
-                List<McDeviceAddress> newDWords = dwordAddresses.subList(i2.getOff(), i2.getOff() + i2.getLen());
-                McHeaderReq header = McHeaderReq.createByFrameType(this.frameType, this.accessRoute, this.monitoringTimer);
-                McMessageReq req = McReqBuilder.createReadDeviceRandomInWordReq(this.series, header, newWords, newDWords);
-                McMessageAck ack = this.readFromServer(req);
-
-                ByteReadBuff buff = new ByteReadBuff(((McAckData) ack.getData()).getData());
-                for (McDeviceAddress word : newWords) {
-                    result.add(McDeviceContent.createByAddress(word, buff.getBytes(2)));
-                }
-                for (McDeviceAddress dword : newDWords) {
-                    result.add(McDeviceContent.createByAddress(dword, buff.getBytes(4)));
-                }
-            });
-            return result;
-        } finally {
-            if (!this.persistence) {
-                this.close();
-            }
-        }
+        LoopGroupAlg.biLoopExecute(wordItem, dwordItem, biPredicate, (i1, i2) -> {
+            List<McDeviceAddress> newWords = wordAddresses.subList(i1.getOff(), i1.getOff() + i1.getLen());
+            List<McDeviceAddress> newDWords = dwordAddresses.subList(i2.getOff(), i2.getOff() + i2.getLen());
+            McHeaderReq header = McHeaderReq.createByFrameType(this.frameType, this.accessRoute, this.monitoringTimer);
+            reqs.add(McReqBuilder.createReadDeviceRandomInWordReq(this.series, header, newWords, newDWords));
+        });
+        return reqs;
     }
 
     /**
@@ -881,6 +1275,63 @@ public class McNetwork extends TcpClientBasic {
 
     //endregion
 
+    //region 软元件规划读取
+
+    /**
+     * Read the device addresses in word units with the fewest frames, batch, random and multi blocks frames are chosen
+     * automatically.
+     * (以最少的帧按字读取软元件地址，自动选择批量、随机和多块批量读取帧)
+     *
+     * @param addresses device addresses, the points count is in word units
+     * @return device content list, in the order of the addresses
+     */
+    public List<McDeviceContent> readDevicePlanned(List<McDeviceAddress> addresses) {
+        return this.readDevicePlanned(McReadPlanAlg.plan(addresses, this.series, this.frameType));
+    }
+
+    /**
+     * Read by the read plan, the plan can be created once by {@link McReadPlanAlg} and executed every scan cycle.
+     * (根据读取计划读取，计划可以通过McReadPlanAlg创建一次，每个扫描周期重复执行)
+     *
+     * @param plan read plan
+     * @return device content list, in the order of the addresses of the plan
+     */
+    public List<McDeviceContent> readDevicePlanned(McReadPlan plan) {
+        try {
+            List<McReadFrame> frames = plan.getFrames();
+            List<McMessageReq> reqs = new ArrayList<>(frames.size());
+            for (McReadFrame frame : frames) {
+                McHeaderReq header = McHeaderReq.createByFrameType(this.frameType, this.accessRoute, this.monitoringTimer);
+                McMessageReq req;
+                switch (frame.getType()) {
+                    case BATCH:
+                        req = McReqBuilder.createReadDeviceBatchInWordReq(this.series, header, frame.getWords().get(0));
+                        break;
+                    case RANDOM:
+                        req = McReqBuilder.createReadDeviceRandomInWordReq(this.series, header, frame.getWords(), frame.getDwords());
+                        break;
+                    default:
+                        req = McReqBuilder.createReadDeviceBatchMultiBlocksReq(this.series, header, frame.getWords(), frame.getBits());
+                        break;
+                }
+                reqs.add(req);
+            }
+            // UDP配合4E帧时所有帧一次性发出
+            List<McMessageAck> acks = this.readFromServer(reqs);
+            byte[][] frameData = new byte[acks.size()][];
+            for (int i = 0; i < acks.size(); i++) {
+                frameData[i] = ((McAckData) acks.get(i).getData()).getData();
+            }
+            return plan.assemble(frameData);
+        } finally {
+            if (!this.persistence) {
+                this.close();
+            }
+        }
+    }
+
+    //endregion
+
     //region 软元件boolean列表和字节数组之间数据转换
 
     /**
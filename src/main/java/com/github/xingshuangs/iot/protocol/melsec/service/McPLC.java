@@ -28,17 +28,26 @@ package com.github.xingshuangs.iot.protocol.melsec.service;
 import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
 import com.github.xingshuangs.iot.common.buff.ByteWriteBuff;
 import com.github.xingshuangs.iot.common.buff.EByteBuffFormat;
+import com.github.xingshuangs.iot.exceptions.McCommException;
 import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
 import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
+import com.github.xingshuangs.iot.protocol.melsec.model.McAckData;
 import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceAddress;
 import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceContent;
 import com.github.xingshuangs.iot.protocol.melsec.model.McFrame1EAccessRoute;
 import com.github.xingshuangs.iot.protocol.melsec.model.McFrame4E3EAccessRoute;
+import com.github.xingshuangs.iot.protocol.melsec.model.McMessageAck;
+import com.github.xingshuangs.iot.protocol.melsec.model.McMessageReq;
+import com.github.xingshuangs.iot.protocol.melsec.model.McReadDeviceRandomInWordReqData;
+import com.github.xingshuangs.iot.utils.FloatUtil;
+import com.github.xingshuangs.iot.utils.IntegerUtil;
+import com.github.xingshuangs.iot.utils.ShortUtil;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static com.github.xingshuangs.iot.common.constant.GeneralConst.LOCALHOST;
@@ -430,6 +439,182 @@ public class McPLC extends McNetwork {
 
     //endregion
 
+    //region 基本类型数组读取
+
+    /**
+     * Read int16 into the array without boxing.
+     * (读取多个Int16数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt16(String[] addresses, short[] values) {
+        this.readInt16(McPreparedAddresses.of(addresses), values);
+    }
+
+    /**
+     * Read int16 of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个Int16数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt16(McPreparedAddresses addresses, short[] values) {
+        this.readPrepared(addresses, false, values.length, (src, offset, i) -> values[i] = ShortUtil.toInt16(src, offset, true));
+    }
+
+    /**
+     * Read uint16 into the array without boxing.
+     * (读取多个UInt16数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readUInt16(String[] addresses, int[] values) {
+        this.readUInt16(McPreparedAddresses.of(addresses), values);
+    }
+
+    /**
+     * Read uint16 of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个UInt16数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readUInt16(McPreparedAddresses addresses, int[] values) {
+        this.readPrepared(addresses, false, values.length, (src, offset, i) -> values[i] = ShortUtil.toUInt16(src, offset, true));
+    }
+
+    /**
+     * Read int32 into the array without boxing.
+     * (读取多个Int32数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt32(String[] addresses, int[] values) {
+        this.readInt32(McPreparedAddresses.of(addresses), values);
+    }
+
+    /**
+     * Read int32 of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个Int32数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt32(McPreparedAddresses addresses, int[] values) {
+        this.readPrepared(addresses, true, values.length, (src, offset, i) -> values[i] = IntegerUtil.toInt32(src, offset, true));
+    }
+
+    /**
+     * Read uint32 into the array without boxing.
+     * (读取多个UInt32数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readUInt32(String[] addresses, long[] values) {
+        this.readUInt32(McPreparedAddresses.of(addresses), values);
+    }
+
+    /**
+     * Read uint32 of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个UInt32数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readUInt32(McPreparedAddresses addresses, long[] values) {
+        this.readPrepared(addresses, true, values.length, (src, offset, i) -> values[i] = IntegerUtil.toUInt32(src, offset, true));
+    }
+
+    /**
+     * Read float32 into the array without boxing.
+     * (读取多个Float32数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readFloat32(String[] addresses, float[] values) {
+        this.readFloat32(McPreparedAddresses.of(addresses), values);
+    }
+
+    /**
+     * Read float32 of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个Float32数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readFloat32(McPreparedAddresses addresses, float[] values) {
+        this.readPrepared(addresses, true, values.length, (src, offset, i) -> values[i] = FloatUtil.toFloat32(src, offset, true));
+    }
+
+    /**
+     * Read the prepared addresses randomly in word after checking the output array length, the requests are built once
+     * and the values are decoded from the response data directly.
+     * (校验输出数组长度后以字为单位随机读取预解析的地址，请求只构建一次，数值直接从响应数据中解码)
+     *
+     * @param addresses   prepared addresses
+     * @param dword       true: read in double word, false: read in word
+     * @param valueLength output array length
+     * @param decoder     decoder of each value
+     */
+    private void readPrepared(McPreparedAddresses addresses, boolean dword, int valueLength, ValueDecoder decoder) {
+        if (valueLength < addresses.size()) {
+            // 输出数组长度小于地址数量
+            throw new IllegalArgumentException(String.format("The length of the values [%d] is less than the number of addresses [%d]",
+                    valueLength, addresses.size()));
+        }
+        int width = dword ? 4 : 2;
+        // 同一个预解析地址的缓存请求会被改写，同一时间只能被一个线程执行
+        addresses.getLock().lock();
+        try {
+            List<McMessageReq> reqs = addresses.getReqs(this, dword);
+            List<McMessageAck> acks = this.readFromServer(reqs);
+            int index = 0;
+            for (int r = 0; r < reqs.size(); r++) {
+                McReadDeviceRandomInWordReqData reqData = (McReadDeviceRandomInWordReqData) reqs.get(r).getData();
+                int count = dword ? reqData.getDwordAddresses().size() : reqData.getWordAddresses().size();
+                byte[] src = ((McAckData) acks.get(r).getData()).getData();
+                if (src.length < count * width) {
+                    // 响应数据长度与请求的点数不一致
+                    throw new McCommException(String.format("The length of the response data [%d] is less than the expected [%d]",
+                            src.length, count * width));
+                }
+                for (int i = 0; i < count; i++) {
+                    decoder.decode(src, i * width, index++);
+                }
+            }
+        } finally {
+            addresses.getLock().unlock();
+            if (!this.isPersistence()) {
+                this.close();
+            }
+        }
+    }
+
+    /**
+     * Decoder of one value in the response data.
+     * (响应数据中单个数值的解码器)
+     */
+    @FunctionalInterface
+    private interface ValueDecoder {
+
+        /**
+         * Decode the value.
+         * (解码数值)
+         *
+         * @param src    response data
+         * @param offset offset of the value
+         * @param index  index of the value
+         */
+        void decode(byte[] src, int offset, int index);
+    }
+
+    //endregion
+
     //region 软元件写入
 
     /**
@@ -792,4 +977,227 @@ public class McPLC extends McNetwork {
     }
 
     //endregion
+
+    //region 异步读写
+
+    /**
+     * Multi-address read asynchronously.
+     * (异步多地址读取)
+     *
+     * @param multiAddressRead multi-address read
+     * @return future of device content list
+     */
+    public CompletableFuture<List<McDeviceContent>> readMultiAddressAsync(McMultiAddressRead multiAddressRead) {
+        return this.executeAsync(() -> this.readMultiAddress(multiAddressRead));
+    }
+
+    /**
+     * Read boolean list asynchronously.
+     * (异步读取boolean列表)
+     *
+     * @param address address string
+     * @param count   count
+     * @return future of boolean list
+     */
+    public CompletableFuture<List<Boolean>> readBooleanAsync(String address, int count) {
+        return this.executeAsync(() -> this.readBoolean(address, count));
+    }
+
+    /**
+     * Read bytes asynchronously.
+     * (异步读取字节数组)
+     *
+     * @param address address string
+     * @param count   byte count
+     * @return future of byte array
+     */
+    public CompletableFuture<byte[]> readBytesAsync(String address, int count) {
+        return this.executeAsync(() -> this.readBytes(address, count));
+    }
+
+    /**
+     * Read boolean asynchronously.
+     * (异步读取boolean数据)
+     *
+     * @param address address string
+     * @return future of boolean
+     */
+    public CompletableFuture<Boolean> readBooleanAsync(String address) {
+        return this.executeAsync(() -> this.readBoolean(address));
+    }
+
+    /**
+     * Read int16 asynchronously.
+     * (异步读取int16数据)
+     *
+     * @param address address string
+     * @return future of int16
+     */
+    public CompletableFuture<Short> readInt16Async(String address) {
+        return this.executeAsync(() -> this.readInt16(address));
+    }
+
+    /**
+     * Read uint16 asynchronously.
+     * (异步读取uint16数据)
+     *
+     * @param address address string
+     * @return future of uint16
+     */
+    public CompletableFuture<Integer> readUInt16Async(String address) {
+        return this.executeAsync(() -> this.readUInt16(address));
+    }
+
+    /**
+     * Read int32 asynchronously.
+     * (异步读取int32数据)
+     *
+     * @param address address string
+     * @return future of int32
+     */
+    public CompletableFuture<Integer> readInt32Async(String address) {
+        return this.executeAsync(() -> this.readInt32(address));
+    }
+
+    /**
+     * Read uint32 asynchronously.
+     * (异步读取uint32数据)
+     *
+     * @param address address string
+     * @return future of uint32
+     */
+    public CompletableFuture<Long> readUInt32Async(String address) {
+        return this.executeAsync(() -> this.readUInt32(address));
+    }
+
+    /**
+     * Read float32 asynchronously.
+     * (异步读取float32数据)
+     *
+     * @param address address string
+     * @return future of float32
+     */
+    public CompletableFuture<Float> readFloat32Async(String address) {
+        return this.executeAsync(() -> this.readFloat32(address));
+    }
+
+    /**
+     * Read float64 asynchronously.
+     * (异步读取float64数据)
+     *
+     * @param address address string
+     * @return future of float64
+     */
+    public CompletableFuture<Double> readFloat64Async(String address) {
+        return this.executeAsync(() -> this.readFloat64(address));
+    }
+
+    /**
+     * Read string asynchronously.
+     * (异步读取字符串)
+     *
+     * @param address address string
+     * @param length  string length
+     * @return future of string
+     */
+    public CompletableFuture<String> readStringAsync(String address, int length) {
+        return this.executeAsync(() -> this.readString(address, length));
+    }
+
+    /**
+     * Multi-address write asynchronously.
+     * (异步多地址写入)
+     *
+     * @param multiAddressWrite multi-address write
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeMultiAddressAsync(McMultiAddressWrite multiAddressWrite) {
+        return this.runAsync(() -> this.writeMultiAddress(multiAddressWrite));
+    }
+
+    /**
+     * Write byte array asynchronously.
+     * (异步写入字节数组)
+     *
+     * @param address address string
+     * @param data    byte array
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeBytesAsync(String address, byte[] data) {
+        return this.runAsync(() -> this.writeBytes(address, data));
+    }
+
+    /**
+     * Write boolean asynchronously.
+     * (异步写入boolean数据)
+     *
+     * @param address address string
+     * @param data    boolean data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeBooleanAsync(String address, boolean data) {
+        return this.runAsync(() -> this.writeBoolean(address, data));
+    }
+
+    /**
+     * Write int16 asynchronously.
+     * (异步写入int16数据)
+     *
+     * @param address address string
+     * @param data    int16 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeInt16Async(String address, short data) {
+        return this.runAsync(() -> this.writeInt16(address, data));
+    }
+
+    /**
+     * Write int32 asynchronously.
+     * (异步写入int32数据)
+     *
+     * @param address address string
+     * @param data    int32 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeInt32Async(String address, int data) {
+        return this.runAsync(() -> this.writeInt32(address, data));
+    }
+
+    /**
+     * Write float32 asynchronously.
+     * (异步写入float32数据)
+     *
+     * @param address address string
+     * @param data    float32 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeFloat32Async(String address, float data) {
+        return this.runAsync(() -> this.writeFloat32(address, data));
+    }
+
+    /**
+     * Write float64 asynchronously.
+     * (异步写入float64数据)
+     *
+     * @param address address string
+     * @param data    float64 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeFloat64Async(String address, double data) {
+        return this.runAsync(() -> this.writeFloat64(address, data));
+    }
+
+    /**
+     * Write string asynchronously.
+     * (异步写入字符串)
+     *
+     * @param address address string
+     * @param data    string data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeStringAsync(String address, String data) {
+        return this.runAsync(() -> this.writeString(address, data));
+    }
+
+    //endregion
 }
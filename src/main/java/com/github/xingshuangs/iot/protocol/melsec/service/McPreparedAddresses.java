@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.service;
+
+
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
+import com.github.xingshuangs.iot.protocol.melsec.model.McAccessRoute;
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceAddress;
+import com.github.xingshuangs.iot.protocol.melsec.model.McMessageReq;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Device addresses parsed once and reused by the primitive array reads, the random read requests are built once for
+ * the communication settings of the PLC as well. One prepared addresses is read by one thread at a time.
+ * (一次解析、多次复用的软元件地址集合，用于基本类型数组的读取，随机读取请求也按PLC的通信参数只构建一次；同一时间只能被一个线程读取)
+ *
+ * @author xingshuang
+ */
+@Getter
+public final class McPreparedAddresses {
+
+    /**
+     * Parsed device addresses, unmodifiable.
+     * (解析后的软元件地址，不可修改)
+     */
+    private final List<McDeviceAddress> deviceAddresses;
+
+    /**
+     * Lock of the cached requests, the serial number of 4E header is rewritten before every sending.
+     * (缓存请求的锁，每次发送前会改写4E请求头的序列号)
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Cached requests.
+     * (缓存的请求)
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile Plan plan;
+
+    private McPreparedAddresses(List<McDeviceAddress> deviceAddresses) {
+        this.deviceAddresses = Collections.unmodifiableList(deviceAddresses);
+    }
+
+    /**
+     * Prepare device addresses, such as D100.
+     * (预解析软元件地址，如D100)
+     *
+     * @param addresses address strings
+     * @return McPreparedAddresses
+     */
+    public static McPreparedAddresses of(String... addresses) {
+        return of(Arrays.asList(addresses));
+    }
+
+    /**
+     * Prepare device addresses, such as D100.
+     * (预解析软元件地址，如D100)
+     *
+     * @param addresses address strings
+     * @return McPreparedAddresses
+     */
+    public static McPreparedAddresses of(List<String> addresses) {
+        List<McDeviceAddress> items = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            items.add(McDeviceAddress.createBy(address));
+        }
+        return new McPreparedAddresses(items);
+    }
+
+    /**
+     * Number of addresses.
+     * (地址数量)
+     *
+     * @return size
+     */
+    public int size() {
+        return this.deviceAddresses.size();
+    }
+
+    /**
+     * Get the random read requests built for the communication settings, build them if absent or outdated.
+     * (获取按通信参数构建的随机读取请求，不存在或过期时重新构建)
+     *
+     * @param network network of the PLC
+     * @param dword   true: read in double word, false: read in word
+     * @return requests
+     */
+    List<McMessageReq> getReqs(McNetwork network, boolean dword) {
+        Plan current = this.plan;
+        if (current == null || !current.matches(network, dword)) {
+            List<McDeviceAddress> empty = Collections.emptyList();
+            List<McMessageReq> reqs = dword
+                    ? network.createReadDeviceRandomInWordReqs(empty, this.deviceAddresses)
+                    : network.createReadDeviceRandomInWordReqs(this.deviceAddresses, empty);
+            current = new Plan(network, dword, reqs);
+            this.plan = current;
+        }
+        return current.reqs;
+    }
+
+    /**
+     * Requests built for the communication settings.
+     * (按通信参数构建的请求)
+     */
+    private static final class Plan {
+
+        private final EMcSeries series;
+
+        private final EMcFrameType frameType;
+
+        private final McAccessRoute accessRoute;
+
+        private final int monitoringTimer;
+
+        private final boolean dword;
+
+        private final List<McMessageReq> reqs;
+
+        private Plan(McNetwork network, boolean dword, List<McMessageReq> reqs) {
+            this.series = network.series;
+            this.frameType = network.frameType;
+            this.accessRoute = network.accessRoute;
+            this.monitoringTimer = network.monitoringTimer;
+            this.dword = dword;
+            this.reqs = reqs;
+        }
+
+        private boolean matches(McNetwork network, boolean dword) {
+            return this.series == network.series && this.frameType == network.frameType
+                    && this.accessRoute == network.accessRoute && this.monitoringTimer == network.monitoringTimer
+                    && this.dword == dword;
+        }
+    }
+}
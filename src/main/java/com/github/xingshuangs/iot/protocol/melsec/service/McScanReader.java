@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.service;
+
+
+import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
+import com.github.xingshuangs.iot.common.buff.EByteBuffFormat;
+import com.github.xingshuangs.iot.common.scan.IScanReader;
+import com.github.xingshuangs.iot.common.scan.ScanTag;
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceAddress;
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceContent;
+import com.github.xingshuangs.iot.utils.ByteUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Melsec scan reader, all the tags are read by the device random read in word, 3E and 4E frame only.
+ * (三菱扫描读取器，所有标签通过按字随机读取完成，只支持3E和4E帧)
+ * <p>
+ * BOOL reads the word of the bit device and takes the first bit, INT64 and FLOAT64 take two dwords, STRING takes
+ * consecutive words.
+ * (BOOL读取位软元件的字并取第一位，INT64和FLOAT64占两个双字，STRING占连续的字)
+ *
+ * @author xingshuang
+ */
+public class McScanReader implements IScanReader {
+
+    private final McPLC plc;
+
+    public McScanReader(McPLC plc) {
+        this.plc = plc;
+    }
+
+    @Override
+    public List<Object> read(List<ScanTag> tags) {
+        Map<String, McDeviceAddress> words = new LinkedHashMap<>();
+        Map<String, McDeviceAddress> dwords = new LinkedHashMap<>();
+        List<List<String>> tagKeys = new ArrayList<>(tags.size());
+        for (ScanTag tag : tags) {
+            tagKeys.add(this.addAddresses(tag, words, dwords));
+        }
+        McMultiAddressRead addressRead = new McMultiAddressRead();
+        addressRead.getWords().addAll(words.values());
+        addressRead.getDwords().addAll(dwords.values());
+        List<McDeviceContent> contents = this.plc.readMultiAddress(addressRead);
+        Map<String, byte[]> dataMap = new HashMap<>();
+        for (McDeviceContent content : contents) {
+            dataMap.put(key(content, content.getData().length == 4), content.getData());
+        }
+
+        List<Object> res = new ArrayList<>(tags.size());
+        for (int i = 0; i < tags.size(); i++) {
+            List<String> keys = tagKeys.get(i);
+            int total = 0;
+            for (String key : keys) {
+                total += dataMap.get(key).length;
+            }
+            byte[] data = new byte[total];
+            int offset = 0;
+            for (String key : keys) {
+                byte[] item = dataMap.get(key);
+                System.arraycopy(item, 0, data, offset, item.length);
+                offset += item.length;
+            }
+            res.add(this.toValue(tags.get(i), data));
+        }
+        return res;
+    }
+
+    private List<String> addAddresses(ScanTag tag, Map<String, McDeviceAddress> words, Map<String, McDeviceAddress> dwords) {
+        McDeviceAddress address = McDeviceAddress.createBy(tag.getAddress());
+        switch (tag.getDataType()) {
+            case BOOL:
+            case BYTE:
+            case UINT16:
+            case INT16:
+                return Collections.singletonList(put(words, address, 0, false));
+            case UINT32:
+            case INT32:
+            case FLOAT32:
+                return Collections.singletonList(put(dwords, address, 0, true));
+            case INT64:
+            case FLOAT64:
+                return Arrays.asList(put(dwords, address, 0, true), put(dwords, address, 2, true));
+            case STRING:
+                List<String> keys = new ArrayList<>();
+                for (int i = 0; i < (tag.getLength() + 1) / 2; i++) {
+                    keys.add(put(words, address, i, false));
+                }
+                return keys;
+            default:
+                // 不支持的扫描数据类型
+                throw new IllegalArgumentException("Unsupported scan data type: " + tag.getDataType());
+        }
+    }
+
+    private static String put(Map<String, McDeviceAddress> map, McDeviceAddress address, int offset, boolean dword) {
+        McDeviceAddress item = new McDeviceAddress(address.getDeviceCode(), address.getHeadDeviceNumber() + offset, 1);
+        String key = key(item, dword);
+        map.putIfAbsent(key, item);
+        return key;
+    }
+
+    private static String key(McDeviceAddress address, boolean dword) {
+        return address.getDeviceCode() + ":" + address.getHeadDeviceNumber() + (dword ? ":D" : ":W");
+    }
+
+    private Object toValue(ScanTag tag, byte[] data) {
+        switch (tag.getDataType()) {
+            case BOOL:
+                return (data[0] & 0x01) != 0;
+            case BYTE:
+                return data[0];
+            case UINT16:
+                return ByteReadBuff.newInstance(data, true).getUInt16();
+            case INT16:
+                return ByteReadBuff.newInstance(data, true).getInt16();
+            case UINT32:
+                return ByteReadBuff.newInstance(data, EByteBuffFormat.AB_CD).getUInt32();
+            case INT32:
+                return ByteReadBuff.newInstance(data, EByteBuffFormat.AB_CD).getInt32();
+            case FLOAT32:
+                return ByteReadBuff.newInstance(data, EByteBuffFormat.AB_CD).getFloat32();
+            case INT64:
+                return ByteReadBuff.newInstance(data, EByteBuffFormat.AB_CD).getInt64();
+            case FLOAT64:
+                return ByteReadBuff.newInstance(data, EByteBuffFormat.AB_CD).getFloat64();
+            case STRING:
+                return ByteUtil.toStr(data, 0, tag.getLength(), StandardCharsets.US_ASCII);
+            default:
+                throw new IllegalArgumentException("Unsupported scan data type: " + tag.getDataType());
+        }
+    }
+}
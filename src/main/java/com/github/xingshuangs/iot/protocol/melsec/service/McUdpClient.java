@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.service;
+
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import com.github.xingshuangs.iot.net.client.UdpClientBasic;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * UDP client of MC protocol, several requests can be sent in one burst, the responses are matched by the key, such as
+ * the serial number of 4E, and the unanswered requests are sent again when the retransmit timer expires.
+ * (MC协议的UDP客户端，多个请求可以一次性发出，响应通过键匹配，例如4E帧的序列号，重发定时器到期后未响应的请求会重新发送)
+ * <p>
+ * Only the idempotent bursts, such as reads, are retransmitted by default, a lost response of a write can not be told
+ * from a lost request, retransmitting it may apply the write twice, set {@link #setRetransmitWrites(boolean)} to
+ * allow it.
+ * (默认只重发幂等的请求，例如读取，写入的响应丢失和请求丢失无法区分，重发可能导致写入执行两次，可通过setRetransmitWrites(boolean)开启)
+ * <p>
+ * Requests without key, such as 3E, are sent one by one without retransmission, because a late response could not
+ * be told from the response of the next request.
+ * (没有键的请求，例如3E帧，只能一问一答且不重发，因为迟到的响应无法与下一个请求的响应区分)
+ *
+ * @author xingshuang
+ */
+@Slf4j
+public class McUdpClient extends UdpClientBasic {
+
+    /**
+     * Retransmit timeout in millisecond, 0 means no retransmission.
+     * (重发超时时间，毫秒，0表示不重发)
+     */
+    private int retransmitTimeout = 500;
+
+    /**
+     * Max retransmit times of one burst.
+     * (一次发送最大的重发次数)
+     */
+    private int maxRetransmits = 2;
+
+    /**
+     * Whether to retransmit the non-idempotent requests, such as writes.
+     * (是否重发非幂等的请求，例如写入)
+     */
+    private boolean retransmitWrites = false;
+
+    /**
+     * Only one burst at a time, the socket and the receive buffer are shared.
+     * (同一时间只有一次发送，socket和接收缓存共享)
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Receive buffer, large enough for the ASCII ack of the max points.
+     * (接收缓存，足够容纳最大点数的ASCII响应)
+     */
+    private final byte[] receiveBuffer = new byte[8192];
+
+    public McUdpClient(String ip, int port) {
+        super(ip, port);
+    }
+
+    public int getRetransmitTimeout() {
+        return retransmitTimeout;
+    }
+
+    public void setRetransmitTimeout(int retransmitTimeout) {
+        if (retransmitTimeout < 0) {
+            throw new IllegalArgumentException("retransmitTimeout >= 0");
+        }
+        this.retransmitTimeout = retransmitTimeout;
+    }
+
+    public int getMaxRetransmits() {
+        return maxRetransmits;
+    }
+
+    public void setMaxRetransmits(int maxRetransmits) {
+        if (maxRetransmits < 0) {
+            throw new IllegalArgumentException("maxRetransmits >= 0");
+        }
+        this.maxRetransmits = maxRetransmits;
+    }
+
+    public boolean isRetransmitWrites() {
+        return retransmitWrites;
+    }
+
+    public void setRetransmitWrites(boolean retransmitWrites) {
+        this.retransmitWrites = retransmitWrites;
+    }
+
+    /**
+     * Close the socket, a new socket is created when communicating again.
+     * (关闭socket，再次通信时创建新的socket)
+     */
+    @Override
+    public void close() {
+        super.close();
+        this.socket = null;
+    }
+
+    /**
+     * Send all the requests in one burst and wait for the responses matched by the key.
+     * (一次性发送所有请求，并等待通过键匹配的响应)
+     *
+     * @param requests     request frames
+     * @param keys         key of each request, null means no key, then only one request is allowed
+     * @param keyExtractor extract the key from the response frame, -1 if the frame is invalid
+     * @param idempotent   whether all the requests can be sent again safely, such as reads
+     * @param timeout      total timeout in millisecond
+     * @return response frames, in the order of the requests
+     * @throws SocketRuntimeException Socket Runtime Exception
+     */
+    public byte[][] exchange(byte[][] requests, int[] keys, ToIntFunction<byte[]> keyExtractor,
+                             boolean idempotent, int timeout) {
+        if (keys == null && requests.length != 1) {
+            throw new IllegalArgumentException("Only one request is allowed without key");
+        }
+        this.lock.lock();
+        try {
+            byte[][] responses = new byte[requests.length][];
+            Map<Integer, Integer> pending = new HashMap<>();
+            if (keys != null) {
+                for (int i = 0; i < keys.length; i++) {
+                    pending.put(keys[i], i);
+                }
+            }
+            for (byte[] request : requests) {
+                this.write(request);
+            }
+
+            DatagramSocket availableSocket = this.getAvailableSocket();
+            DatagramPacket packet = new DatagramPacket(this.receiveBuffer, this.receiveBuffer.length);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            // 非幂等的请求重发可能被执行两次，默认不重发
+            boolean retransmit = keys != null && (idempotent || this.retransmitWrites)
+                    && this.retransmitTimeout > 0 && this.maxRetransmits > 0;
+            long resendAt = retransmit ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.retransmitTimeout) : deadline;
+            int retransmits = 0;
+            int remain = requests.length;
+            while (remain > 0) {
+                long now = System.nanoTime();
+                if (now - deadline >= 0) {
+                    throw new SocketRuntimeException(new SocketTimeoutException("Wait for response timed out"));
+                }
+                if (now - resendAt >= 0) {
+                    retransmits++;
+                    for (int i = 0; i < requests.length; i++) {
+                        if (responses[i] == null) {
+                            this.write(requests[i]);
+                        }
+                    }
+                    // 重发未响应的请求
+                    log.debug("Retransmit {} unanswered requests to [{}], times [{}]", remain, this.serverAddress, retransmits);
+                    resendAt = retransmits < this.maxRetransmits
+                            ? now + TimeUnit.MILLISECONDS.toNanos(this.retransmitTimeout) : deadline;
+                    continue;
+                }
+                long waitNanos = Math.min(deadline - now, resendAt - now);
+                packet.setLength(this.receiveBuffer.length);
+                try {
+                    availableSocket.setSoTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+                    availableSocket.receive(packet);
+                } catch (SocketTimeoutException e) {
+                    continue;
+                } catch (IOException e) {
+                    throw new SocketRuntimeException(e);
+                }
+                if (!this.serverAddress.equals(packet.getSocketAddress())) {
+                    // 丢弃非服务端的数据
+                    log.debug("Discard the datagram from [{}]", packet.getSocketAddress());
+                    continue;
+                }
+                byte[] frame = Arrays.copyOf(this.receiveBuffer, packet.getLength());
+                if (keys == null) {
+                    responses[0] = frame;
+                    remain--;
+                    continue;
+                }
+                int key = keyExtractor.applyAsInt(frame);
+                Integer index = pending.remove(key);
+                if (index == null) {
+                    // 收到未知键的响应，可能是重发导致的重复响应，丢弃
+                    log.debug("Discard the response with unknown key [{}]", key);
+                    continue;
+                }
+                responses[index] = frame;
+                remain--;
+            }
+            return responses;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.algorithm;
+
+
+import com.github.xingshuangs.iot.protocol.modbus.model.MbPreparedRead;
+import com.github.xingshuangs.iot.protocol.modbus.model.MbReadItem;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Block merge algorithm, the read items of the same function code which are close to each other are merged into one
+ * block, a block is at most 125 registers or 2000 coils, an item larger than the limit is rejected.
+ * (块合并算法，同一功能码中相近的读取项合并为一个块，每块最多125个寄存器或2000个线圈，超过限制的单个读取项会被拒绝)
+ *
+ * @author xingshuang
+ */
+public class MbBlockMergeAlg {
+
+    private MbBlockMergeAlg() {
+        // NOOP
+    }
+
+    /**
+     * Merge the read items.
+     * (合并读取项)
+     * 示例：最大间隔：16
+     * HR0(int16), HR1(float32), HR10(int16), HR100(int16), COIL5, COIL6
+     * |COIL5(2)|HR0(11)|HR100(1)|
+     *
+     * @param items  raw read items
+     * @param maxGap max gap of registers or coils between two items which can be merged
+     * @return blocks, sorted by function code and address
+     * @throws IllegalArgumentException an item is larger than the limit of one request
+     */
+    public static List<MbReadBlock> merge(List<MbReadItem> items, int maxGap) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap >= 0");
+        }
+        List<Integer> sorted = IntStream.range(0, items.size()).boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> items.get(i).getFunctionCode().getCode())
+                        .thenComparingInt(i -> items.get(i).getAddress()))
+                .collect(Collectors.toList());
+
+        List<MbReadBlock> res = new ArrayList<>();
+        MbReadBlock current = null;
+        int end = 0;
+        for (Integer index : sorted) {
+            MbReadItem item = items.get(index);
+            if (item.getQuantity() > maxQuantity(item)) {
+                // 单个读取项超过了一次请求的数量限制
+                throw new IllegalArgumentException("The quantity of the item exceeds the limit of one request: " + item);
+            }
+            int itemEnd = item.getAddress() + item.getQuantity();
+            if (current != null && current.getFunctionCode() == item.getFunctionCode()
+                    && item.getAddress() - end <= maxGap
+                    && Math.max(end, itemEnd) - current.getAddress() <= maxQuantity(item)) {
+                current.getIndexes().add(index);
+                end = Math.max(end, itemEnd);
+                current.setQuantity(end - current.getAddress());
+                continue;
+            }
+            current = new MbReadBlock(item.getFunctionCode(), item.getAddress(), item.getQuantity(), new ArrayList<>());
+            current.getIndexes().add(index);
+            end = itemEnd;
+            res.add(current);
+        }
+        return res;
+    }
+
+    private static int maxQuantity(MbReadItem item) {
+        return item.isRegister() ? MbPreparedRead.MAX_REGISTER_QUANTITY : MbPreparedRead.MAX_COIL_QUANTITY;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.algorithm;
+
+
+import com.github.xingshuangs.iot.protocol.modbus.enums.EMbFunctionCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Block of registers or coils read by one request.
+ * (一次请求读取的寄存器或线圈块)
+ *
+ * @author xingshuang
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MbReadBlock {
+
+    /**
+     * Read function code.
+     * (读取功能码)
+     */
+    private EMbFunctionCode functionCode;
+
+    /**
+     * Start address.
+     * (起始地址)
+     */
+    private int address;
+
+    /**
+     * Quantity of registers or coils.
+     * (寄存器或线圈的数量)
+     */
+    private int quantity;
+
+    /**
+     * Indexes of the raw read items in the block.
+     * (块内原始读取项的索引)
+     */
+    private List<Integer> indexes = new ArrayList<>();
+}
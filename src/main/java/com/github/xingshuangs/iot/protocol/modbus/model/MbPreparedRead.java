@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.model;
+
+
+import com.github.xingshuangs.iot.protocol.modbus.enums.EMbFunctionCode;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Prepared modbus tcp read request of one block, the MBAP + PDU bytes are encoded once and only the transaction id is
+ * rewritten before every sending. One prepared read is executed by one thread at a time.
+ * (预编码的Modbus TCP单块读取请求，MBAP + PDU字节只编码一次，每次发送前只改写事务ID；同一个预编码请求同一时间只能被一个线程执行)
+ *
+ * @author xingshuang
+ */
+@Getter
+public final class MbPreparedRead {
+
+    /**
+     * Max quantity of registers in one request.
+     * (单次请求最大寄存器数量)
+     */
+    public static final int MAX_REGISTER_QUANTITY = 125;
+
+    /**
+     * Max quantity of coils in one request.
+     * (单次请求最大线圈数量)
+     */
+    public static final int MAX_COIL_QUANTITY = 2000;
+
+    /**
+     * Function code.
+     * (功能码)
+     */
+    private final EMbFunctionCode functionCode;
+
+    /**
+     * Unit id or slave id.
+     * (从站编号)
+     */
+    private final int unitId;
+
+    /**
+     * Modbus address.
+     * (modbus地址)
+     */
+    private final int address;
+
+    /**
+     * Quantity of registers or coils.
+     * (寄存器或线圈的数量)
+     */
+    private final int quantity;
+
+    /**
+     * Byte count of the response data.
+     * (响应数据的字节数)
+     */
+    private final int byteCount;
+
+    /**
+     * Encoded request frame, the first 2 bytes are the transaction id.
+     * (编码后的请求报文，前2个字节为事务ID)
+     */
+    @Getter(AccessLevel.NONE)
+    private final byte[] frame;
+
+    /**
+     * Lock of the encoded frames, the frames are rewritten before every sending.
+     * (编码报文的锁，每次发送前报文都会被改写)
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private MbPreparedRead(int unitId, MbPdu pdu, EMbFunctionCode functionCode, int address, int quantity, int byteCount) {
+        this.functionCode = functionCode;
+        this.unitId = unitId;
+        this.address = address;
+        this.quantity = quantity;
+        this.byteCount = byteCount;
+        MbTcpRequest request = MbTcpRequest.createDefault();
+        request.getHeader().setUnitId(unitId);
+        request.setPdu(pdu);
+        request.selfCheck();
+        this.frame = request.toByteArray();
+    }
+
+    /**
+     * Prepare the read of coils.
+     * (预编码读取线圈)
+     *
+     * @param unitId   unit id or slave id
+     * @param address  modbus address
+     * @param quantity coil quantity
+     * @return MbPreparedRead
+     */
+    public static MbPreparedRead coil(int unitId, int address, int quantity) {
+        checkParameter(address, quantity, MAX_COIL_QUANTITY);
+        return new MbPreparedRead(unitId, new MbReadCoilRequest(address, quantity), EMbFunctionCode.READ_COIL,
+                address, quantity, (quantity + 7) / 8);
+    }
+
+    /**
+     * Prepare the read of discrete inputs.
+     * (预编码读取离散输入)
+     *
+     * @param unitId   unit id or slave id
+     * @param address  modbus address
+     * @param quantity discrete input quantity
+     * @return MbPreparedRead
+     */
+    public static MbPreparedRead discreteInput(int unitId, int address, int quantity) {
+        checkParameter(address, quantity, MAX_COIL_QUANTITY);
+        return new MbPreparedRead(unitId, new MbReadDiscreteInputRequest(address, quantity), EMbFunctionCode.READ_DISCRETE_INPUT,
+                address, quantity, (quantity + 7) / 8);
+    }
+
+    /**
+     * Prepare the read of hold registers.
+     * (预编码读取保持寄存器)
+     *
+     * @param unitId   unit id or slave id
+     * @param address  modbus address
+     * @param quantity register quantity
+     * @return MbPreparedRead
+     */
+    public static MbPreparedRead holdRegister(int unitId, int address, int quantity) {
+        checkParameter(address, quantity, MAX_REGISTER_QUANTITY);
+        return new MbPreparedRead(unitId, new MbReadHoldRegisterRequest(address, quantity), EMbFunctionCode.READ_HOLD_REGISTER,
+                address, quantity, quantity * 2);
+    }
+
+    /**
+     * Prepare the read of input registers.
+     * (预编码读取输入寄存器)
+     *
+     * @param unitId   unit id or slave id
+     * @param address  modbus address
+     * @param quantity register quantity
+     * @return MbPreparedRead
+     */
+    public static MbPreparedRead inputRegister(int unitId, int address, int quantity) {
+        checkParameter(address, quantity, MAX_REGISTER_QUANTITY);
+        return new MbPreparedRead(unitId, new MbReadInputRegisterRequest(address, quantity), EMbFunctionCode.READ_INPUT_REGISTER,
+                address, quantity, quantity * 2);
+    }
+
+    /**
+     * Is it the read of registers.
+     * (是否为寄存器读取)
+     *
+     * @return true: register, false: coil or discrete input
+     */
+    public boolean isRegister() {
+        return this.functionCode == EMbFunctionCode.READ_HOLD_REGISTER || this.functionCode == EMbFunctionCode.READ_INPUT_REGISTER;
+    }
+
+    /**
+     * Rewrite the transaction id of the frame and return the frame, the frame is reused by every call.
+     * (改写报文的事务ID并返回报文，每次调用复用同一个报文)
+     *
+     * @param transactionId transaction id
+     * @return request frame
+     */
+    public byte[] frameWith(int transactionId) {
+        this.frame[0] = (byte) (transactionId >> 8);
+        this.frame[1] = (byte) transactionId;
+        return this.frame;
+    }
+
+    private static void checkParameter(int address, int quantity, int maxQuantity) {
+        if (address < 0 || address > 65535) {
+            throw new IllegalArgumentException("address < 0 || address > 65535");
+        }
+        if (quantity < 1 || quantity > maxQuantity) {
+            throw new IllegalArgumentException(String.format("quantity < 1 || quantity > %d", maxQuantity));
+        }
+    }
+}
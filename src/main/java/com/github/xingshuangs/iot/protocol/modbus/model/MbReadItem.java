@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.model;
+
+
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.protocol.modbus.enums.EMbFunctionCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read item of the modbus multi-address read.
+ * (Modbus多地址读取的读取项)
+ *
+ * @author xingshuang
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MbReadItem {
+
+    /**
+     * Read function code, decides the area of coil, discrete input, hold register or input register.
+     * (读取功能码，决定线圈、离散输入、保持寄存器或输入寄存器区域)
+     */
+    private EMbFunctionCode functionCode;
+
+    /**
+     * Modbus address.
+     * (modbus地址)
+     */
+    private int address;
+
+    /**
+     * Data type, always BOOL for coil and discrete input.
+     * (数据类型，线圈和离散输入固定为BOOL)
+     */
+    private EDataType dataType;
+
+    /**
+     * Bit index [0,15] of BOOL in the register.
+     * (寄存器中BOOL的位索引[0,15])
+     */
+    private int bitIndex;
+
+    /**
+     * Byte length of STRING.
+     * (STRING的字节长度)
+     */
+    private int length;
+
+    /**
+     * Is it the item of registers.
+     * (是否为寄存器读取项)
+     *
+     * @return true: register, false: coil or discrete input
+     */
+    public boolean isRegister() {
+        return this.functionCode == EMbFunctionCode.READ_HOLD_REGISTER || this.functionCode == EMbFunctionCode.READ_INPUT_REGISTER;
+    }
+
+    /**
+     * Quantity of registers or coils.
+     * (寄存器或线圈的数量)
+     *
+     * @return quantity
+     */
+    public int getQuantity() {
+        if (!this.isRegister()) {
+            return 1;
+        }
+        switch (this.dataType) {
+            case BOOL:
+            case BYTE:
+            case UINT16:
+            case INT16:
+                return 1;
+            case UINT32:
+            case INT32:
+            case FLOAT32:
+                return 2;
+            case INT64:
+            case FLOAT64:
+                return 4;
+            case STRING:
+                return (this.length + 1) / 2;
+            default:
+                // 不支持的数据类型
+                throw new IllegalArgumentException("Unsupported data type: " + this.dataType);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.service;
+
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bit-packed store of the coils or discrete inputs, 64 bits per long word. Reads are optimistic and lock-free unless
+ * a write happens at the same time, writes are exclusive.
+ * (线圈或离散量输入的位压缩存储，每个long存64位；读取采用乐观读，只有同时发生写入时才加锁，写入独占)
+ *
+ * @author xingshuang
+ */
+public final class MbBitStore {
+
+    /**
+     * Bits, bit i is stored in bit (i % 64) of words[i / 64].
+     * (位数据，第i位存储在words[i / 64]的第(i % 64)位)
+     */
+    private final long[] words;
+
+    /**
+     * Number of bits.
+     * (位数量)
+     */
+    private final int size;
+
+    private final StampedLock lock = new StampedLock();
+
+    public MbBitStore(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size >= 0");
+        }
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * Number of bits.
+     * (位数量)
+     *
+     * @return size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Get the bit.
+     * (获取位)
+     *
+     * @param index bit index
+     * @return bit value
+     */
+    public boolean get(int index) {
+        this.checkRange(index, 1);
+        long stamp = this.lock.tryOptimisticRead();
+        boolean value = (this.words[index >>> 6] & (1L << index)) != 0;
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                value = (this.words[index >>> 6] & (1L << index)) != 0;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Set the bit.
+     * (设置位)
+     *
+     * @param index bit index
+     * @param value bit value
+     */
+    public void set(int index, boolean value) {
+        this.checkRange(index, 1);
+        long stamp = this.lock.writeLock();
+        try {
+            this.setBit(index, value);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Get the bits packed into bytes, the first bit is the lowest bit of the first byte, same as the modbus protocol.
+     * (获取压缩成字节的位数据，第一个位是第一个字节的最低位，与modbus协议一致)
+     *
+     * @param address  start bit index
+     * @param quantity number of bits
+     * @return byte array
+     */
+    public byte[] getBytes(int address, int quantity) {
+        this.checkRange(address, quantity);
+        long stamp = this.lock.tryOptimisticRead();
+        byte[] result = this.pack(address, quantity);
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                result = this.pack(address, quantity);
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Set the bits packed in bytes, the first bit is the lowest bit of the first byte, same as the modbus protocol.
+     * (设置压缩成字节的位数据，第一个位是第一个字节的最低位，与modbus协议一致)
+     *
+     * @param address  start bit index
+     * @param quantity number of bits
+     * @param src      byte array
+     */
+    public void setBytes(int address, int quantity, byte[] src) {
+        this.checkRange(address, quantity);
+        if (src.length < (quantity + 7) / 8) {
+            throw new IllegalArgumentException("src.length < (quantity + 7) / 8");
+        }
+        long stamp = this.lock.writeLock();
+        try {
+            for (int i = 0; i < quantity; i++) {
+                this.setBit(address + i, (src[i >>> 3] & (1 << (i & 7))) != 0);
+            }
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Fixed-size list view backed by the store, changes are written through.
+     * (由存储支撑的固定长度列表视图，修改会直接写入存储)
+     *
+     * @return list view
+     */
+    public List<Boolean> asList() {
+        return new AbstractList<Boolean>() {
+            @Override
+            public Boolean get(int index) {
+                return MbBitStore.this.get(index);
+            }
+
+            @Override
+            public Boolean set(int index, Boolean element) {
+                boolean old = MbBitStore.this.get(index);
+                MbBitStore.this.set(index, element);
+                return old;
+            }
+
+            @Override
+            public int size() {
+                return MbBitStore.this.size;
+            }
+        };
+    }
+
+    /**
+     * Create the store from the list of bits.
+     * (根据位列表创建存储)
+     *
+     * @param bits list of bits
+     * @return bit store
+     */
+    static MbBitStore of(List<Boolean> bits) {
+        MbBitStore store = new MbBitStore(bits.size());
+        for (int i = 0; i < bits.size(); i++) {
+            store.setBit(i, Boolean.TRUE.equals(bits.get(i)));
+        }
+        return store;
+    }
+
+    private byte[] pack(int address, int quantity) {
+        byte[] result = new byte[(quantity + 7) >>> 3];
+        for (int i = 0; i < result.length; i++) {
+            int bit = address + (i << 3);
+            int index = bit >>> 6;
+            int shift = bit & 63;
+            long value = this.words[index] >>> shift;
+            // 跨越两个long的8位
+            if (shift > 56 && index + 1 < this.words.length) {
+                value |= this.words[index + 1] << (64 - shift);
+            }
+            int remain = quantity - (i << 3);
+            result[i] = (byte) (remain >= 8 ? value : value & ((1 << remain) - 1));
+        }
+        return result;
+    }
+
+    private void setBit(int index, boolean value) {
+        if (value) {
+            this.words[index >>> 6] |= 1L << index;
+        } else {
+            this.words[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private void checkRange(int address, int quantity) {
+        if (address < 0 || quantity < 0 || address + quantity > this.size) {
+            throw new IndexOutOfBoundsException(String.format("address[%d], quantity[%d], size[%d]", address, quantity, this.size));
+        }
+    }
+}
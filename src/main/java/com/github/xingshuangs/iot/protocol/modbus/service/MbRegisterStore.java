@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.service;
+
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Register store, 2 bytes per register in big endian. Reads are optimistic and lock-free unless a write happens at
+ * the same time, writes are exclusive.
+ * (寄存器存储，每个寄存器2个字节，大端模式；读取采用乐观读，只有同时发生写入时才加锁，写入独占)
+ *
+ * @author xingshuang
+ */
+public final class MbRegisterStore {
+
+    /**
+     * Register data.
+     * (寄存器数据)
+     */
+    private final byte[] data;
+
+    private final StampedLock lock = new StampedLock();
+
+    public MbRegisterStore(int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity >= 0");
+        }
+        this.data = new byte[quantity * 2];
+    }
+
+    MbRegisterStore(byte[] data) {
+        if (data.length % 2 != 0) {
+            throw new IllegalArgumentException("data.length must be even");
+        }
+        this.data = data;
+    }
+
+    /**
+     * Number of registers.
+     * (寄存器数量)
+     *
+     * @return size
+     */
+    public int size() {
+        return this.data.length / 2;
+    }
+
+    /**
+     * Get the bytes of the registers.
+     * (获取寄存器的字节数据)
+     *
+     * @param address  start register address
+     * @param quantity number of registers
+     * @return byte array
+     */
+    public byte[] getBytes(int address, int quantity) {
+        this.checkRange(address, quantity);
+        byte[] result = new byte[quantity * 2];
+        long stamp = this.lock.tryOptimisticRead();
+        System.arraycopy(this.data, address * 2, result, 0, result.length);
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                System.arraycopy(this.data, address * 2, result, 0, result.length);
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Set the bytes of the registers.
+     * (设置寄存器的字节数据)
+     *
+     * @param address start register address
+     * @param src     byte array, the length must be even
+     */
+    public void setBytes(int address, byte[] src) {
+        if (src.length % 2 != 0) {
+            throw new IllegalArgumentException("src.length must be even");
+        }
+        this.checkRange(address, src.length / 2);
+        long stamp = this.lock.writeLock();
+        try {
+            System.arraycopy(src, 0, this.data, address * 2, src.length);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Backing array, writes to it bypass the lock.
+     * (底层数组，直接写入时不经过锁)
+     *
+     * @return byte array
+     */
+    byte[] array() {
+        return this.data;
+    }
+
+    private void checkRange(int address, int quantity) {
+        if (address < 0 || quantity < 0 || address + quantity > this.size()) {
+            throw new IndexOutOfBoundsException(String.format("address[%d], quantity[%d], size[%d]", address, quantity, this.size()));
+        }
+    }
+}
@@ -97,9 +97,12 @@ public class ModbusAsciiOverTcp extends ModbusSkeletonAbstract<MbAsciiRequest, M
         }
         int len;
         byte[] data = new byte[1024];
-        synchronized (this.objLock) {
+        this.objLock.lock();
+        try {
             this.write(reqBytes);
             len = this.read(data);
+        } finally {
+            this.objLock.unlock();
         }
         if (len <= 0) {
             // Modbus数据读取长度有误
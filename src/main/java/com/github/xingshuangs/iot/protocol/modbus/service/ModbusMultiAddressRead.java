@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.service;
+
+
+import com.github.xingshuangs.iot.common.buff.EByteBuffFormat;
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.protocol.modbus.enums.EMbFunctionCode;
+import com.github.xingshuangs.iot.protocol.modbus.model.MbPreparedRead;
+import com.github.xingshuangs.iot.protocol.modbus.model.MbReadItem;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wrapper of the modbus multi-address read, the items are merged into blocks before reading.
+ * (Modbus多地址读取的包装类，读取前读取项会被合并成块)
+ *
+ * @author xingshuang
+ */
+@Data
+public class ModbusMultiAddressRead {
+
+    /**
+     * Read items.
+     * (读取项列表)
+     */
+    private List<MbReadItem> items = new ArrayList<>();
+
+    /**
+     * Max gap of registers or coils which can be read through when merging, 16 default, set 0 if the device reject
+     * the undefined registers.
+     * (合并时允许一并读取的最大寄存器或线圈间隔，默认16，若设备不允许读取未定义的寄存器则设置为0)
+     */
+    private int maxGap = 16;
+
+    /**
+     * Format of 4 and 8 bytes data, BA_DC default, same as ModbusSkeletonAbstract.
+     * (4字节和8字节数据的格式，默认BA_DC，与ModbusSkeletonAbstract一致)
+     */
+    private EByteBuffFormat format = EByteBuffFormat.BA_DC;
+
+    public void setMaxGap(int maxGap) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap >= 0");
+        }
+        this.maxGap = maxGap;
+    }
+
+    /**
+     * Add coil.
+     * (添加线圈)
+     *
+     * @param address modbus address
+     * @return ModbusMultiAddressRead
+     */
+    public ModbusMultiAddressRead addCoil(int address) {
+        return this.addItem(EMbFunctionCode.READ_COIL, address, EDataType.BOOL, 0, 0);
+    }
+
+    /**
+     * Add discrete input.
+     * (添加离散输入)
+     *
+     * @param address modbus address
+     * @return ModbusMultiAddressRead
+     */
+    public ModbusMultiAddressRead addDiscreteInput(int address) {
+        return this.addItem(EMbFunctionCode.READ_DISCRETE_INPUT, address, EDataType.BOOL, 0, 0);
+    }
+
+    /**
+     * Add hold register, BOOL is bit 0 and STRING is not supported, use the dedicated methods.
+     * (添加保持寄存器，BOOL为第0位，STRING不支持，使用对应的专用方法)
+     *
+     * @param address  modbus address
+     * @param dataType data type
+     * @return ModbusMultiAddressRead
+     */
+    public ModbusMultiAddressRead addHoldRegister(int address, EDataType dataType) {
+        return this.addItem(EMbFunctionCode.READ_HOLD_REGISTER, address, dataType, 0, 0);
+    }
+
+    /**
+     * Add bit of hold register.
+     * (添加保持寄存器中的位)
+     *
+     * @param address  modbus address
+     * @param bitIndex bit index [0,15]
+     * @return ModbusMultiAddressRead
+     */
+    public ModbusMultiAddressRead addHoldRegisterBit(int address, int bitIndex) {
+        return this.addItem(EMbFunctionCode.READ_HOLD_REGISTER, address, EDataType.BOOL, bitIndex, 0);
+    }
+
+    /**
+     * Add string of hold register.
+     * (添加保持寄存器中的字符串)
+     *
+     * @param address modbus address
+     * @param length  byte length, at most 250
+     * @return ModbusMultiAddressRead
+     */
+    public ModbusMultiAddressRead addHoldRegisterString(int address, int length) {
+        return this.addItem(EMbFunctionCode.READ_HOLD_REGISTER, address, EDataType.STRING, 0, length);
+    }
+
+    /**
+     * Add input register, BOOL is bit 0 and STRING is not supported, use the dedicated methods.
+     * (添加输入寄存器，BOOL为第0位，STRING不支持，使用对应的专用方法)
+     *
+     * @param address  modbus address
+     * @param dataType data type
+     * @return ModbusMultiAddressRead
+     */
+    public ModbusMultiAddressRead addInputRegister(int address, EDataType dataType) {
+        return this.addItem(EMbFunctionCode.READ_INPUT_REGISTER, address, dataType, 0, 0);
+    }
+
+    /**
+     * Add bit of input register.
+     * (添加输入寄存器中的位)
+     *
+     * @param address  modbus address
+     * @param bitIndex bit index [0,15]
+     * @return ModbusMultiAddressRead
+     */
+    public ModbusMultiAddressRead addInputRegisterBit(int address, int bitIndex) {
+        return this.addItem(EMbFunctionCode.READ_INPUT_REGISTER, address, EDataType.BOOL, bitIndex, 0);
+    }
+
+    /**
+     * Add string of input register.
+     * (添加输入寄存器中的字符串)
+     *
+     * @param address modbus address
+     * @param length  byte length, at most 250
+     * @return ModbusMultiAddressRead
+     */
+    public ModbusMultiAddressRead addInputRegisterString(int address, int length) {
+        return this.addItem(EMbFunctionCode.READ_INPUT_REGISTER, address, EDataType.STRING, 0, length);
+    }
+
+    private ModbusMultiAddressRead addItem(EMbFunctionCode functionCode, int address, EDataType dataType,
+                                           int bitIndex, int length) {
+        if (address < 0 || address > 65535) {
+            throw new IllegalArgumentException("address < 0 || address > 65535");
+        }
+        if (bitIndex < 0 || bitIndex > 15) {
+            throw new IllegalArgumentException("bitIndex < 0 || bitIndex > 15");
+        }
+        if (dataType == EDataType.STRING && length < 1) {
+            throw new IllegalArgumentException("length < 1");
+        }
+        // 单个读取项必须能在一次请求中读取完，125个寄存器即250个字节
+        if (dataType == EDataType.STRING && length > MbPreparedRead.MAX_REGISTER_QUANTITY * 2) {
+            throw new IllegalArgumentException("length > " + MbPreparedRead.MAX_REGISTER_QUANTITY * 2);
+        }
+        MbReadItem item = new MbReadItem(functionCode, address, dataType, bitIndex, length);
+        // 提前校验数据类型
+        item.getQuantity();
+        this.items.add(item);
+        return this;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.service;
+
+
+import com.github.xingshuangs.iot.common.buff.EByteBuffFormat;
+import com.github.xingshuangs.iot.common.scan.IScanReader;
+import com.github.xingshuangs.iot.common.scan.ScanTag;
+
+import java.util.List;
+
+/**
+ * Modbus scan reader, the tags of hold register are coalesced into block reads by ModbusMultiAddressRead.
+ * (Modbus扫描读取器，保持寄存器的标签通过ModbusMultiAddressRead合并为块读取)
+ * <p>
+ * Address is the hold register address, e.g. "100", BOOL can specify the bit index, e.g. "100.3".
+ * (地址为保持寄存器地址，例如"100"，BOOL可以指定位索引，例如"100.3")
+ *
+ * @author xingshuang
+ */
+public class ModbusScanReader implements IScanReader {
+
+    private final ModbusSkeletonAbstract<?, ?> modbus;
+
+    /**
+     * Max register gap which can be read through when merging, 16 default, set 0 if the device reject the undefined
+     * registers.
+     * (合并时允许一并读取的最大寄存器间隔，默认16，若设备不允许读取未定义的寄存器则设置为0)
+     */
+    private int maxGap = 16;
+
+    /**
+     * Format of 4 and 8 bytes data, BA_DC default, same as ModbusSkeletonAbstract.
+     * (4字节和8字节数据的格式，默认BA_DC，与ModbusSkeletonAbstract一致)
+     */
+    private EByteBuffFormat format = EByteBuffFormat.BA_DC;
+
+    public ModbusScanReader(ModbusSkeletonAbstract<?, ?> modbus) {
+        this.modbus = modbus;
+    }
+
+    public int getMaxGap() {
+        return maxGap;
+    }
+
+    public void setMaxGap(int maxGap) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap >= 0");
+        }
+        this.maxGap = maxGap;
+    }
+
+    public EByteBuffFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(EByteBuffFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public List<Object> read(List<ScanTag> tags) {
+        ModbusMultiAddressRead addressRead = new ModbusMultiAddressRead();
+        addressRead.setMaxGap(this.maxGap);
+        addressRead.setFormat(this.format);
+        for (ScanTag tag : tags) {
+            String[] items = tag.getAddress().split("\\.");
+            int address = Integer.parseInt(items[0].trim());
+            switch (tag.getDataType()) {
+                case BOOL:
+                    addressRead.addHoldRegisterBit(address, items.length > 1 ? Integer.parseInt(items[1].trim()) : 0);
+                    break;
+                case STRING:
+                    addressRead.addHoldRegisterString(address, tag.getLength());
+                    break;
+                default:
+                    addressRead.addHoldRegister(address, tag.getDataType());
+                    break;
+            }
+        }
+        return this.modbus.readMultiAddress(addressRead);
+    }
+}
@@ -29,7 +29,10 @@ import com.github.xingshuangs.iot.common.algorithm.LoopGroupAlg;
 import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
 import com.github.xingshuangs.iot.common.buff.ByteWriteBuff;
 import com.github.xingshuangs.iot.common.buff.EByteBuffFormat;
+import com.github.xingshuangs.iot.protocol.modbus.algorithm.MbBlockMergeAlg;
+import com.github.xingshuangs.iot.protocol.modbus.algorithm.MbReadBlock;
 import com.github.xingshuangs.iot.net.client.TcpClientBasic;
+import com.github.xingshuangs.iot.protocol.modbus.enums.EMbFunctionCode;
 import com.github.xingshuangs.iot.protocol.modbus.model.*;
 import com.github.xingshuangs.iot.utils.BooleanUtil;
 import com.github.xingshuangs.iot.utils.ByteUtil;
@@ -40,7 +43,10 @@ import lombok.extern.slf4j.Slf4j;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 
 /**
@@ -64,7 +70,7 @@ public abstract class ModbusSkeletonAbstract<T, R> extends TcpClientBasic {
      * Lock.
      * (锁)
      */
-    protected final Object objLock = new Object();
+    protected final ReentrantLock objLock = new ReentrantLock();
 
     /**
      * Communication callback, first parameter is tag, second is package content.
@@ -452,6 +458,98 @@ public abstract class ModbusSkeletonAbstract<T, R> extends TcpClientBasic {
     }
     //endregion
 
+    //region 多地址读取
+
+    /**
+     * Multi-address read, the items are sorted and merged into blocks of at most 125 registers or 2000 coils.
+     * (多地址读取，读取项排序后合并成最多125个寄存器或2000个线圈的块)
+     *
+     * @param addressRead multi-address read
+     * @return values in the order of the items
+     */
+    public List<Object> readMultiAddress(ModbusMultiAddressRead addressRead) {
+        return this.readMultiAddress(this.unitId, addressRead);
+    }
+
+    /**
+     * Multi-address read, the items are sorted and merged into blocks of at most 125 registers or 2000 coils.
+     * (多地址读取，读取项排序后合并成最多125个寄存器或2000个线圈的块)
+     *
+     * @param unitId      unit id or slave id
+     * @param addressRead multi-address read
+     * @return values in the order of the items
+     */
+    public List<Object> readMultiAddress(int unitId, ModbusMultiAddressRead addressRead) {
+        List<MbReadItem> items = addressRead.getItems();
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("items is empty");
+        }
+        Object[] res = new Object[items.size()];
+        for (MbReadBlock block : MbBlockMergeAlg.merge(items, addressRead.getMaxGap())) {
+            switch (block.getFunctionCode()) {
+                case READ_COIL:
+                case READ_DISCRETE_INPUT:
+                    List<Boolean> bits = block.getFunctionCode() == EMbFunctionCode.READ_COIL
+                            ? this.readCoil(unitId, block.getAddress(), block.getQuantity())
+                            : this.readDiscreteInput(unitId, block.getAddress(), block.getQuantity());
+                    for (Integer index : block.getIndexes()) {
+                        res[index] = bits.get(items.get(index).getAddress() - block.getAddress());
+                    }
+                    break;
+                default:
+                    byte[] data = block.getFunctionCode() == EMbFunctionCode.READ_HOLD_REGISTER
+                            ? this.readHoldRegister(unitId, block.getAddress(), block.getQuantity())
+                            : this.readInputRegister(unitId, block.getAddress(), block.getQuantity());
+                    for (Integer index : block.getIndexes()) {
+                        MbReadItem item = items.get(index);
+                        res[index] = this.toValue(item, data, (item.getAddress() - block.getAddress()) * 2, addressRead.getFormat());
+                    }
+                    break;
+            }
+        }
+        return new ArrayList<>(Arrays.asList(res));
+    }
+
+    /**
+     * Convert the register bytes to the value of the item.
+     * (将寄存器字节转换为读取项的值)
+     *
+     * @param item   read item
+     * @param data   register bytes of the block
+     * @param offset byte offset of the item in the block
+     * @param format format of 4 and 8 bytes data
+     * @return value
+     */
+    private Object toValue(MbReadItem item, byte[] data, int offset, EByteBuffFormat format) {
+        switch (item.getDataType()) {
+            case BOOL:
+                return ByteReadBuff.newInstance(data).getBoolean(offset + item.getBitIndex() / 8, item.getBitIndex() % 8);
+            case BYTE:
+                return data[offset];
+            case UINT16:
+                return ByteReadBuff.newInstance(data, offset).getUInt16();
+            case INT16:
+                return ByteReadBuff.newInstance(data, offset).getInt16();
+            case UINT32:
+                return ByteReadBuff.newInstance(data, offset, false, format).getUInt32();
+            case INT32:
+                return ByteReadBuff.newInstance(data, offset, false, format).getInt32();
+            case FLOAT32:
+                return ByteReadBuff.newInstance(data, offset, false, format).getFloat32();
+            case INT64:
+                return ByteReadBuff.newInstance(data, offset, false, format).getInt64();
+            case FLOAT64:
+                return ByteReadBuff.newInstance(data, offset, false, format).getFloat64();
+            case STRING:
+                return ByteUtil.toStr(data, offset, item.getLength(), StandardCharsets.US_ASCII);
+            default:
+                // 不支持的数据类型
+                throw new IllegalArgumentException("Unsupported data type: " + item.getDataType());
+        }
+    }
+
+    //endregion
+
     //region 通用保持寄存器 读取数据
 
     /**
@@ -1431,4 +1529,254 @@ public abstract class ModbusSkeletonAbstract<T, R> extends TcpClientBasic {
         this.writeHoldRegister(unitId, address, bytes);
     }
     //endregion
+
+    //region 异步读写
+
+    /**
+     * Read coil asynchronously.
+     * (异步读取线圈)
+     *
+     * @param address  modbus address
+     * @param quantity quantity
+     * @return future of coil status list
+     */
+    public CompletableFuture<List<Boolean>> readCoilAsync(int address, int quantity) {
+        return this.executeAsync(() -> this.readCoil(address, quantity));
+    }
+
+    /**
+     * Read discrete input asynchronously.
+     * (异步读取离散量输入)
+     *
+     * @param address  modbus address
+     * @param quantity quantity
+     * @return future of discrete input list
+     */
+    public CompletableFuture<List<Boolean>> readDiscreteInputAsync(int address, int quantity) {
+        return this.executeAsync(() -> this.readDiscreteInput(address, quantity));
+    }
+
+    /**
+     * Read hold register asynchronously.
+     * (异步读取保持寄存器)
+     *
+     * @param address  modbus address
+     * @param quantity quantity
+     * @return future of byte array
+     */
+    public CompletableFuture<byte[]> readHoldRegisterAsync(int address, int quantity) {
+        return this.executeAsync(() -> this.readHoldRegister(address, quantity));
+    }
+
+    /**
+     * Read input register asynchronously.
+     * (异步读取输入寄存器)
+     *
+     * @param address  modbus address
+     * @param quantity quantity
+     * @return future of byte array
+     */
+    public CompletableFuture<byte[]> readInputRegisterAsync(int address, int quantity) {
+        return this.executeAsync(() -> this.readInputRegister(address, quantity));
+    }
+
+    /**
+     * Read boolean of hold register asynchronously.
+     * (异步读取保持寄存器中的boolean数据)
+     *
+     * @param address  modbus address
+     * @param bitIndex bit index
+     * @return future of boolean
+     */
+    public CompletableFuture<Boolean> readBooleanAsync(int address, int bitIndex) {
+        return this.executeAsync(() -> this.readBoolean(address, bitIndex));
+    }
+
+    /**
+     * Read int16 of hold register asynchronously.
+     * (异步读取int16数据)
+     *
+     * @param address modbus address
+     * @return future of int16
+     */
+    public CompletableFuture<Short> readInt16Async(int address) {
+        return this.executeAsync(() -> this.readInt16(address));
+    }
+
+    /**
+     * Read uint16 of hold register asynchronously.
+     * (异步读取uint16数据)
+     *
+     * @param address modbus address
+     * @return future of uint16
+     */
+    public CompletableFuture<Integer> readUInt16Async(int address) {
+        return this.executeAsync(() -> this.readUInt16(address));
+    }
+
+    /**
+     * Read int32 of hold register asynchronously.
+     * (异步读取int32数据)
+     *
+     * @param address modbus address
+     * @return future of int32
+     */
+    public CompletableFuture<Integer> readInt32Async(int address) {
+        return this.executeAsync(() -> this.readInt32(address));
+    }
+
+    /**
+     * Read uint32 of hold register asynchronously.
+     * (异步读取uint32数据)
+     *
+     * @param address modbus address
+     * @return future of uint32
+     */
+    public CompletableFuture<Long> readUInt32Async(int address) {
+        return this.executeAsync(() -> this.readUInt32(address));
+    }
+
+    /**
+     * Read float32 of hold register asynchronously.
+     * (异步读取float32数据)
+     *
+     * @param address modbus address
+     * @return future of float32
+     */
+    public CompletableFuture<Float> readFloat32Async(int address) {
+        return this.executeAsync(() -> this.readFloat32(address));
+    }
+
+    /**
+     * Read float64 of hold register asynchronously.
+     * (异步读取float64数据)
+     *
+     * @param address modbus address
+     * @return future of float64
+     */
+    public CompletableFuture<Double> readFloat64Async(int address) {
+        return this.executeAsync(() -> this.readFloat64(address));
+    }
+
+    /**
+     * Read string of hold register asynchronously.
+     * (异步读取字符串)
+     *
+     * @param address modbus address
+     * @param length  string length
+     * @return future of string
+     */
+    public CompletableFuture<String> readStringAsync(int address, int length) {
+        return this.executeAsync(() -> this.readString(address, length));
+    }
+
+    /**
+     * Write coil asynchronously.
+     * (异步写入线圈)
+     *
+     * @param address    modbus address
+     * @param coilStatus coil status
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeCoilAsync(int address, boolean coilStatus) {
+        return this.runAsync(() -> this.writeCoil(address, coilStatus));
+    }
+
+    /**
+     * Write coil list asynchronously.
+     * (异步写入线圈列表)
+     *
+     * @param address    modbus address
+     * @param coilStatus coil status list
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeCoilAsync(int address, List<Boolean> coilStatus) {
+        return this.runAsync(() -> this.writeCoil(address, coilStatus));
+    }
+
+    /**
+     * Write hold register asynchronously.
+     * (异步写入单个保持寄存器)
+     *
+     * @param address modbus address
+     * @param value   register value
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeHoldRegisterAsync(int address, int value) {
+        return this.runAsync(() -> this.writeHoldRegister(address, value));
+    }
+
+    /**
+     * Write hold register asynchronously.
+     * (异步写入多个保持寄存器)
+     *
+     * @param address modbus address
+     * @param values  byte array
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeHoldRegisterAsync(int address, byte[] values) {
+        return this.runAsync(() -> this.writeHoldRegister(address, values));
+    }
+
+    /**
+     * Write int16 to hold register asynchronously.
+     * (异步写入int16数据)
+     *
+     * @param address modbus address
+     * @param data    int16 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeInt16Async(int address, short data) {
+        return this.runAsync(() -> this.writeInt16(address, data));
+    }
+
+    /**
+     * Write int32 to hold register asynchronously.
+     * (异步写入int32数据)
+     *
+     * @param address modbus address
+     * @param data    int32 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeInt32Async(int address, int data) {
+        return this.runAsync(() -> this.writeInt32(address, data));
+    }
+
+    /**
+     * Write float32 to hold register asynchronously.
+     * (异步写入float32数据)
+     *
+     * @param address modbus address
+     * @param data    float32 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeFloat32Async(int address, float data) {
+        return this.runAsync(() -> this.writeFloat32(address, data));
+    }
+
+    /**
+     * Write float64 to hold register asynchronously.
+     * (异步写入float64数据)
+     *
+     * @param address modbus address
+     * @param data    float64 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeFloat64Async(int address, double data) {
+        return this.runAsync(() -> this.writeFloat64(address, data));
+    }
+
+    /**
+     * Write string to hold register asynchronously.
+     * (异步写入字符串)
+     *
+     * @param address modbus address
+     * @param data    data string
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeStringAsync(int address, String data) {
+        return this.runAsync(() -> this.writeString(address, data));
+    }
+
+    //endregion
 }
@@ -25,11 +25,18 @@
 package com.github.xingshuangs.iot.protocol.modbus.service;
 
 
+import com.github.xingshuangs.iot.common.buff.ByteArrayPool;
+import com.github.xingshuangs.iot.common.buff.PooledByteArray;
 import com.github.xingshuangs.iot.common.constant.GeneralConst;
 import com.github.xingshuangs.iot.exceptions.ModbusCommException;
+import com.github.xingshuangs.iot.net.IFrameDecoder;
+import com.github.xingshuangs.iot.net.LengthFieldFrameDecoder;
+import com.github.xingshuangs.iot.net.client.TransactionDispatcher;
 import com.github.xingshuangs.iot.protocol.modbus.model.*;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Arrays;
+
 import static com.github.xingshuangs.iot.common.constant.GeneralConst.LOCALHOST;
 import static com.github.xingshuangs.iot.common.constant.GeneralConst.MODBUS_PORT;
 
@@ -42,6 +49,30 @@ import static com.github.xingshuangs.iot.common.constant.GeneralConst.MODBUS_POR
 @Slf4j
 public class ModbusTcp extends ModbusSkeletonAbstract<MbTcpRequest, MbTcpResponse> {
 
+    /**
+     * Max number of outstanding transactions on one connection, 1 default means request and response one by one.
+     * (一个连接上最大未响应的事务数，默认1，即一问一答)
+     */
+    private int maxInFlight = 1;
+
+    /**
+     * Transaction dispatcher, used when maxInFlight greater than 1.
+     * (事务分发器，maxInFlight大于1时使用)
+     */
+    private TransactionDispatcher dispatcher;
+
+    /**
+     * Pool of the receive buffers.
+     * (接收缓存池)
+     */
+    private ByteArrayPool bufferPool = ByteArrayPool.getDefault();
+
+    /**
+     * Reusable MBAP header buffer of this connection, only used in the lock.
+     * (当前连接可复用的MBAP头缓存，只在锁内使用)
+     */
+    private final byte[] mbapHeader = new byte[MbapHeader.BYTE_LENGTH];
+
     public ModbusTcp() {
         this(1, LOCALHOST, MODBUS_PORT);
     }
@@ -67,6 +98,57 @@ public class ModbusTcp extends ModbusSkeletonAbstract<MbTcpRequest, MbTcpRespons
         this.tag = "ModbusTcp";
     }
 
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Set the max number of outstanding transactions, the responses are matched by the transaction id when greater
+     * than 1, gateways usually support 8-16, must be set before communication and only for long connection.
+     * (设置最大未响应的事务数，大于1时响应通过事务ID匹配，网关一般支持8-16个，需要在通信之前设置，且只适用于长连接)
+     *
+     * @param maxInFlight max number of outstanding transactions
+     * @throws IllegalStateException the connection is open or there are outstanding transactions
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight >= 1");
+        }
+        this.objLock.lock();
+        try {
+            // 两个分发器同时读取同一个连接会抢走对方的响应，因此只能在连接关闭且没有未响应的事务时切换
+            TransactionDispatcher current = this.dispatcher;
+            if (this.checkConnected() || (current != null && current.getInFlight() > 0)) {
+                throw new IllegalStateException("maxInFlight can only be changed when the connection is closed");
+            }
+            this.maxInFlight = maxInFlight;
+            this.dispatcher = maxInFlight > 1
+                    ? new TransactionDispatcher(maxInFlight, this::write, this::readMbapFrame, x -> ((x[0] & 0xFF) << 8) | (x[1] & 0xFF))
+                    : null;
+        } finally {
+            this.objLock.unlock();
+        }
+    }
+
+    public ByteArrayPool getBufferPool() {
+        return bufferPool;
+    }
+
+    public void setBufferPool(ByteArrayPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Create the MBAP frame decoder.
+     * (创建MBAP帧解码器)
+     *
+     * @return frame decoder
+     */
+    @Override
+    protected IFrameDecoder createFrameDecoder() {
+        return LengthFieldFrameDecoder.mbap();
+    }
+
     //region 底层数据通信部分
 
     /**
@@ -81,33 +163,88 @@ public class ModbusTcp extends ModbusSkeletonAbstract<MbTcpRequest, MbTcpRespons
         if (this.comCallback != null) {
             this.comCallback.accept(GeneralConst.PACKAGE_REQ, req.toByteArray());
         }
-        MbapHeader header;
-        int len;
-        byte[] total;
-        synchronized (this.objLock) {
-            this.write(req.toByteArray());
+        MbTcpResponse ack;
+        TransactionDispatcher currentDispatcher = this.dispatcher;
+        if (currentDispatcher != null) {
+            byte[] total = currentDispatcher.exchange(req.getHeader().getTransactionId(), req.toByteArray(), this.receiveTimeout);
+            if (this.comCallback != null) {
+                this.comCallback.accept(GeneralConst.PACKAGE_ACK, total);
+            }
+            ack = MbTcpResponse.fromBytes(total);
+        } else {
+            this.objLock.lock();
+            try {
+                this.write(req.toByteArray());
+                try (PooledByteArray frame = this.readMbapFrameLease()) {
+                    if (this.comCallback != null) {
+                        this.comCallback.accept(GeneralConst.PACKAGE_ACK, Arrays.copyOf(frame.getData(), frame.getLength()));
+                    }
+                    // 解析时数据都会被拷贝，响应对象不引用缓存
+                    ack = MbTcpResponse.fromBytes(frame.getData());
+                }
+            } finally {
+                this.objLock.unlock();
+            }
+        }
+        this.checkResult(req, ack);
+        return ack;
+    }
 
-            byte[] data = new byte[MbapHeader.BYTE_LENGTH];
-            len = this.read(data);
-            if (len < MbapHeader.BYTE_LENGTH) {
+    /**
+     * Read one whole frame with MBAP header.
+     * (读取一个包含MbapHeader的完整帧)
+     *
+     * @return frame
+     */
+    private byte[] readMbapFrame() {
+        try (PooledByteArray frame = this.readMbapFrameLease()) {
+            return frame.toByteArray();
+        }
+    }
+
+    /**
+     * Read one whole frame with MBAP header into a leased buffer, must be called by one reader at a time,
+     * the caller releases the buffer after decoding.
+     * (读取一个包含MbapHeader的完整帧到租借的缓存中，同一时间只能有一个读取者，解析完成后由调用方释放)
+     *
+     * @return leased frame
+     */
+    private PooledByteArray readMbapFrameLease() {
+        if (this.isFrameReadable()) {
+            // 非阻塞通道由MBAP帧解码器切分完整的帧
+            PooledByteArray frame = this.readFrame(this.bufferPool);
+            if (frame.getLength() < MbapHeader.BYTE_LENGTH) {
+                frame.release();
                 // MbapHeader 无效，读取长度不一致
                 throw new ModbusCommException("MbapHeader is invalid, the read length is inconsistent");
             }
-            header = MbapHeader.fromBytes(data);
-            total = new byte[data.length + header.getLength() - 1];
-            System.arraycopy(data, 0, total, 0, data.length);
-            len = this.read(total, data.length, header.getLength() - 1);
+            return frame;
         }
-        if (len < header.getLength() - 1) {
-            //  MbapHeader后面的数据长度不一致
-            throw new ModbusCommException("The length of the data after MbapHeader is inconsistent");
+        int len = this.read(this.mbapHeader);
+        if (len < MbapHeader.BYTE_LENGTH) {
+            // MbapHeader 无效，读取长度不一致
+            throw new ModbusCommException("MbapHeader is invalid, the read length is inconsistent");
         }
-        if (this.comCallback != null) {
-            this.comCallback.accept(GeneralConst.PACKAGE_ACK, total);
+        // 长度字段包含unitId，unitId已经在头中读取
+        int remain = (((this.mbapHeader[4] & 0xFF) << 8) | (this.mbapHeader[5] & 0xFF)) - 1;
+        if (remain < 0) {
+            // MbapHeader 无效，读取长度不一致
+            throw new ModbusCommException("MbapHeader is invalid, the read length is inconsistent");
+        }
+        PooledByteArray frame = this.bufferPool.lease(MbapHeader.BYTE_LENGTH + remain);
+        try {
+            byte[] total = frame.getData();
+            System.arraycopy(this.mbapHeader, 0, total, 0, MbapHeader.BYTE_LENGTH);
+            len = this.read(total, MbapHeader.BYTE_LENGTH, remain);
+            if (len < remain) {
+                //  MbapHeader后面的数据长度不一致
+                throw new ModbusCommException("The length of the data after MbapHeader is inconsistent");
+            }
+            return frame;
+        } catch (RuntimeException e) {
+            frame.release();
+            throw e;
         }
-        MbTcpResponse ack = MbTcpResponse.fromBytes(total);
-        this.checkResult(req, ack);
-        return ack;
     }
 
     /**
@@ -162,4 +299,169 @@ public class ModbusTcp extends ModbusSkeletonAbstract<MbTcpRequest, MbTcpRespons
             }
         }
     }
+
+    //region 预编码读取
+
+    /**
+     * Read by the prepared request, the raw register or coil bytes are copied into the array.
+     * (根据预编码请求读取，寄存器或线圈的原始字节拷贝到数组中)
+     *
+     * @param preparedRead prepared read
+     * @param data         output array, its length must be not less than the byte count
+     */
+    public void readPrepared(MbPreparedRead preparedRead, byte[] data) {
+        if (data.length < preparedRead.getByteCount()) {
+            throw new IllegalArgumentException(String.format("data.length < %d", preparedRead.getByteCount()));
+        }
+        this.readPrepared(preparedRead, (src, offset, byteCount) -> System.arraycopy(src, offset, data, 0, byteCount));
+    }
+
+    /**
+     * Read by the prepared request, the registers are written into the array as uint16.
+     * (根据预编码请求读取，寄存器以UInt16写入数组中)
+     *
+     * @param preparedRead prepared read of registers
+     * @param registers    output array, its length must be not less than the quantity
+     */
+    public void readPrepared(MbPreparedRead preparedRead, int[] registers) {
+        if (!preparedRead.isRegister()) {
+            throw new IllegalArgumentException("The prepared read is not a register read");
+        }
+        if (registers.length < preparedRead.getQuantity()) {
+            throw new IllegalArgumentException(String.format("registers.length < %d", preparedRead.getQuantity()));
+        }
+        int quantity = preparedRead.getQuantity();
+        this.readPrepared(preparedRead, (src, offset, byteCount) -> {
+            for (int i = 0; i < quantity; i++) {
+                registers[i] = ((src[offset + 2 * i] & 0xFF) << 8) | (src[offset + 2 * i + 1] & 0xFF);
+            }
+        });
+    }
+
+    /**
+     * Read by the prepared request, the coils or discrete inputs are written into the array.
+     * (根据预编码请求读取，线圈或离散输入写入数组中)
+     *
+     * @param preparedRead prepared read of coils or discrete inputs
+     * @param bits         output array, its length must be not less than the quantity
+     */
+    public void readPrepared(MbPreparedRead preparedRead, boolean[] bits) {
+        if (preparedRead.isRegister()) {
+            throw new IllegalArgumentException("The prepared read is not a coil or discrete input read");
+        }
+        if (bits.length < preparedRead.getQuantity()) {
+            throw new IllegalArgumentException(String.format("bits.length < %d", preparedRead.getQuantity()));
+        }
+        int quantity = preparedRead.getQuantity();
+        this.readPrepared(preparedRead, (src, offset, byteCount) -> {
+            for (int i = 0; i < quantity; i++) {
+                bits[i] = (src[offset + i / 8] & (1 << (i % 8))) != 0;
+            }
+        });
+    }
+
+    /**
+     * Send the prepared request and pass the response data to the decoder.
+     * (发送预编码请求并将响应数据交给解码器处理)
+     *
+     * @param preparedRead prepared read
+     * @param decoder      decoder of the response data
+     */
+    private void readPrepared(MbPreparedRead preparedRead, DataDecoder decoder) {
+        try {
+            // 同一个预编码请求的报文会被改写，同一时间只能被一个线程执行
+            preparedRead.getLock().lock();
+            try {
+                int transactionId = MbapHeader.getNewNumber();
+                byte[] frame = preparedRead.frameWith(transactionId);
+                if (this.comCallback != null) {
+                    this.comCallback.accept(GeneralConst.PACKAGE_REQ, Arrays.copyOf(frame, frame.length));
+                }
+                TransactionDispatcher currentDispatcher = this.dispatcher;
+                if (currentDispatcher != null) {
+                    byte[] total = currentDispatcher.exchange(transactionId, frame, this.receiveTimeout);
+                    this.decodePrepared(preparedRead, transactionId, total, total.length, decoder);
+                    return;
+                }
+                this.objLock.lock();
+                try {
+                    this.write(frame);
+                    try (PooledByteArray ack = this.readMbapFrameLease()) {
+                        this.decodePrepared(preparedRead, transactionId, ack.getData(), ack.getLength(), decoder);
+                    }
+                } finally {
+                    this.objLock.unlock();
+                }
+            } finally {
+                preparedRead.getLock().unlock();
+            }
+        } finally {
+            if (!this.persistence) {
+                log.debug("Due to the short connection mode, the communication is triggered to close the connection channel, and the server IP[{}]", this.socketAddress);
+                this.close();
+            }
+        }
+    }
+
+    /**
+     * Check the response frame and pass the data to the decoder directly.
+     * (校验响应报文，并将数据直接交给解码器处理)
+     *
+     * @param preparedRead  prepared read
+     * @param transactionId transaction id of the request
+     * @param ack           response frame
+     * @param length        valid length of the response frame
+     * @param decoder       decoder of the response data
+     */
+    private void decodePrepared(MbPreparedRead preparedRead, int transactionId, byte[] ack, int length,
+                                DataDecoder decoder) {
+        if (this.comCallback != null) {
+            this.comCallback.accept(GeneralConst.PACKAGE_ACK, Arrays.copyOf(ack, length));
+        }
+        if (length < MbapHeader.BYTE_LENGTH + 2) {
+            throw new ModbusCommException("PDU is null");
+        }
+        if ((((ack[0] & 0xFF) << 8) | (ack[1] & 0xFF)) != transactionId) {
+            // 事务元标识符Id不一致
+            throw new ModbusCommException("The transaction meta identifier Id is inconsistent");
+        }
+        byte code = preparedRead.getFunctionCode().getCode();
+        byte ackCode = ack[MbapHeader.BYTE_LENGTH];
+        if (ackCode == (byte) (code | 0x80)) {
+            MbErrorResponse response = MbErrorResponse.fromBytes(ack, MbapHeader.BYTE_LENGTH);
+            // 响应返回异常，异常码:
+            throw new ModbusCommException("The response returns an exception, the exception code: " + response.getErrorCode().getDescription());
+        }
+        if (ackCode != code) {
+            // 返回功能码和发送功能码不一致
+            throw new ModbusCommException("The return function code is inconsistent with the send function code");
+        }
+        int byteCount = ack[MbapHeader.BYTE_LENGTH + 1] & 0xFF;
+        int offset = MbapHeader.BYTE_LENGTH + 2;
+        if (byteCount != preparedRead.getByteCount() || length < offset + byteCount) {
+            // 响应数据的字节数与请求不一致
+            throw new ModbusCommException("The byte count of the response is inconsistent with the request");
+        }
+        decoder.decode(ack, offset, byteCount);
+    }
+
+    /**
+     * Decoder of the data in the response frame.
+     * (响应报文中数据的解码器)
+     */
+    @FunctionalInterface
+    private interface DataDecoder {
+
+        /**
+         * Decode the data.
+         * (解码数据)
+         *
+         * @param src       response frame
+         * @param offset    offset of the data
+         * @param byteCount byte count of the data
+         */
+        void decode(byte[] src, int offset, int byteCount);
+    }
+
+    //endregion
 }
@@ -25,83 +25,86 @@
 package com.github.xingshuangs.iot.protocol.modbus.service;
 
 
-import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
-import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
-import com.github.xingshuangs.iot.net.SocketUtils;
-import com.github.xingshuangs.iot.net.server.TcpServerBasic;
+import com.github.xingshuangs.iot.net.IFrameDecoder;
+import com.github.xingshuangs.iot.net.LengthFieldFrameDecoder;
+import com.github.xingshuangs.iot.net.server.NioServerSession;
+import com.github.xingshuangs.iot.net.server.NioTcpServer;
 import com.github.xingshuangs.iot.protocol.modbus.enums.EMbExceptionCode;
 import com.github.xingshuangs.iot.protocol.modbus.enums.EMbFunctionCode;
 import com.github.xingshuangs.iot.protocol.modbus.model.*;
 import com.github.xingshuangs.iot.utils.BooleanUtil;
 import com.github.xingshuangs.iot.utils.HexUtil;
 import com.github.xingshuangs.iot.utils.ShortUtil;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.Socket;
-import java.util.ArrayList;
+import java.nio.channels.SocketChannel;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * Modbus tcp server, ignore unitId.
- * (ModbusTcp服务端，目前忽略unitId)
+ * Modbus tcp server, ignore unitId, based on the NIO selector, a few IO threads serve many clients.
+ * (ModbusTcp服务端，目前忽略unitId，基于NIO选择器，少量IO线程服务大量客户端)
+ * <p>
+ * The superclass is NioTcpServer instead of TcpServerBasic, subclasses overriding the blocking Socket hooks must move
+ * to checkClientValid(SocketChannel), clientConnected(NioServerSession) and clientDisconnected(NioServerSession).
+ * (父类由TcpServerBasic改为NioTcpServer，重写了阻塞Socket钩子方法的子类需要改为重写上述基于通道和会话的方法)
  *
  * @author xingshuang
  */
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Slf4j
-public class ModbusTcpServer extends TcpServerBasic {
+public class ModbusTcpServer extends NioTcpServer {
 
     /**
-     * Read and write lock.
-     * (读写锁)
+     * MBAP frame decoder.
+     * (MBAP帧解码器)
      */
-    private ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private static final IFrameDecoder FRAME_DECODER = LengthFieldFrameDecoder.mbap();
 
     /**
      * Coil data.
      * (线圈)
      */
-    private List<Boolean> coils = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private MbBitStore coils;
 
     /**
      * Discrete input data.
      * (离散量输入)
      */
-    private List<Boolean> discreteInputs = new ArrayList<>();
-
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private MbBitStore discreteInputs;
 
     /**
      * Input register data.
      * (输入寄存器)
      */
-    private byte[] inputRegisters;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private MbRegisterStore inputRegisters;
 
     /**
      * Hold register data.
      * (保持寄存器)
      */
-    private byte[] holdRegisters;
-
-    /**
-     * current connected client number.
-     * (客户端当前的连接数量)
-     */
-    private AtomicInteger connectedNumber = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private MbRegisterStore holdRegisters;
 
     /**
-     * Max available number of client.
-     * (客户端连接的最大允许数量)
+     * Max available number of client, unlimited default, the clients are served by a few IO threads, so the number
+     * of clients is not bound to the number of processors, set it to limit the clients.
+     * (客户端连接的最大允许数量，默认不限制，客户端由少量IO线程服务，数量与处理器数量无关，需要限制时自行设置)
      */
-    private Integer maxAvailableNumber;
+    private Integer maxAvailableNumber = Integer.MAX_VALUE;
 
     public ModbusTcpServer() {
         this(502, 2000);
@@ -113,52 +116,152 @@ public class ModbusTcpServer extends TcpServerBasic {
 
     public ModbusTcpServer(int port, int size) {
         this.port = port;
-        for (int i = 0; i < size; i++) {
-            this.coils.add(false);
-            this.discreteInputs.add(false);
-        }
-        this.inputRegisters = new byte[size * 2];
-        this.holdRegisters = new byte[size * 2];
-        this.maxAvailableNumber = Runtime.getRuntime().availableProcessors();
+        this.coils = new MbBitStore(size);
+        this.discreteInputs = new MbBitStore(size);
+        this.inputRegisters = new MbRegisterStore(size);
+        this.holdRegisters = new MbRegisterStore(size);
     }
 
     /**
-     * Is the client valid.
-     * (校验客户端是否允许连入)
+     * Get the coils, a fixed-size list view backed by the coil store.
+     * (获取线圈，由线圈存储支撑的固定长度列表视图)
      *
-     * @param client client socket.
-     * @return true: check success，false：check failed.
+     * @return coils
      */
-    @Override
-    protected boolean checkClientValid(Socket client) {
-        return this.connectedNumber.get() < this.maxAvailableNumber;
+    public List<Boolean> getCoils() {
+        return this.coils.asList();
     }
 
     /**
-     * Client connected.
-     * (客户端连入)
+     * Set the coils, the values are copied into a new coil store.
+     * (设置线圈，数据会复制到新的线圈存储中)
      *
-     * @param socket client socket.
+     * @param coils coils
      */
-    @Override
-    protected void clientConnected(Socket socket) {
-        this.connectedNumber.getAndIncrement();
+    public void setCoils(List<Boolean> coils) {
+        this.coils = MbBitStore.of(coils);
+    }
+
+    /**
+     * Get the discrete inputs, a fixed-size list view backed by the discrete input store.
+     * (获取离散量输入，由离散量输入存储支撑的固定长度列表视图)
+     *
+     * @return discrete inputs
+     */
+    public List<Boolean> getDiscreteInputs() {
+        return this.discreteInputs.asList();
+    }
+
+    /**
+     * Set the discrete inputs, the values are copied into a new discrete input store.
+     * (设置离散量输入，数据会复制到新的离散量输入存储中)
+     *
+     * @param discreteInputs discrete inputs
+     */
+    public void setDiscreteInputs(List<Boolean> discreteInputs) {
+        this.discreteInputs = MbBitStore.of(discreteInputs);
+    }
+
+    /**
+     * Get the input registers, the backing array of the store, writes to it bypass the lock of the store.
+     * (获取输入寄存器，即存储的底层数组，直接写入时不经过存储的锁)
+     *
+     * @return input registers
+     */
+    public byte[] getInputRegisters() {
+        return this.inputRegisters.array();
+    }
+
+    /**
+     * Set the input registers, the array is used as the backing array of a new store.
+     * (设置输入寄存器，该数组作为新存储的底层数组)
+     *
+     * @param inputRegisters input registers, the length must be even
+     */
+    public void setInputRegisters(byte[] inputRegisters) {
+        this.inputRegisters = new MbRegisterStore(inputRegisters);
+    }
+
+    /**
+     * Get the hold registers, the backing array of the store, writes to it bypass the lock of the store.
+     * (获取保持寄存器，即存储的底层数组，直接写入时不经过存储的锁)
+     *
+     * @return hold registers
+     */
+    public byte[] getHoldRegisters() {
+        return this.holdRegisters.array();
+    }
+
+    /**
+     * Set the hold registers, the array is used as the backing array of a new store.
+     * (设置保持寄存器，该数组作为新存储的底层数组)
+     *
+     * @param holdRegisters hold registers, the length must be even
+     */
+    public void setHoldRegisters(byte[] holdRegisters) {
+        this.holdRegisters = new MbRegisterStore(holdRegisters);
+    }
+
+    /**
+     * Get the coil store.
+     * (获取线圈存储)
+     *
+     * @return coil store
+     */
+    public MbBitStore getCoilStore() {
+        return this.coils;
+    }
+
+    /**
+     * Get the discrete input store.
+     * (获取离散量输入存储)
+     *
+     * @return discrete input store
+     */
+    public MbBitStore getDiscreteInputStore() {
+        return this.discreteInputs;
     }
 
     /**
-     * Client disconnected.
-     * (客户端断开)
+     * Get the input register store.
+     * (获取输入寄存器存储)
      *
-     * @param socket client socket.
+     * @return input register store
+     */
+    public MbRegisterStore getInputRegisterStore() {
+        return this.inputRegisters;
+    }
+
+    /**
+     * Get the hold register store.
+     * (获取保持寄存器存储)
+     *
+     * @return hold register store
+     */
+    public MbRegisterStore getHoldRegisterStore() {
+        return this.holdRegisters;
+    }
+
+    /**
+     * Is the client valid.
+     * (校验客户端是否允许连入)
+     *
+     * @param channel client channel.
+     * @return true: check success，false：check failed.
      */
     @Override
-    protected void clientDisconnected(Socket socket) {
-        this.connectedNumber.getAndDecrement();
+    protected boolean checkClientValid(SocketChannel channel) {
+        return this.getConnectedNumber().get() < this.maxAvailableNumber;
     }
 
     @Override
-    protected void doClientHandle(Socket socket) {
-        MbTcpRequest request = this.readModbusDataFromClient(socket);
+    protected IFrameDecoder getFrameDecoder() {
+        return FRAME_DECODER;
+    }
+
+    @Override
+    protected byte[] handleFrame(NioServerSession session, byte[] frame) {
+        MbTcpRequest request = MbTcpRequest.fromBytes(frame);
         MbTcpResponse response;
         try {
             switch (request.getPdu().getFunctionCode()) {
@@ -191,53 +294,11 @@ public class ModbusTcpServer extends TcpServerBasic {
                     response = new MbTcpResponse(request.getHeader(), new MbErrorResponse(errorFunctionCode, EMbExceptionCode.ILLEGAL_FUNCTION));
                     break;
             }
-            this.write(socket, response.toByteArray());
+            return response.toByteArray();
         } catch (Exception e) {
             EMbFunctionCode errorFunctionCode = EMbFunctionCode.from((byte) (request.getPdu().getFunctionCode().getCode() | ((byte) 0x80)));
             response = new MbTcpResponse(request.getHeader(), new MbErrorResponse(errorFunctionCode, EMbExceptionCode.SLAVE_DEVICE_FAILURE));
-            this.write(socket, response.toByteArray());
-        }
-    }
-
-    /**
-     * Read modbus data from client.
-     * (读取Modbus协议的数据)
-     *
-     * @param socket client socket
-     * @return MbTcpRequest
-     */
-    private MbTcpRequest readModbusDataFromClient(Socket socket) {
-        byte[] data = this.readClientData(socket);
-        return MbTcpRequest.fromBytes(data);
-    }
-
-    /**
-     * Override read client data function.
-     * (重写读取客户端数据，针对粘包粘包的数据处理)
-     *
-     * @param socket client socket.
-     * @return byte array
-     */
-    @Override
-    protected byte[] readClientData(Socket socket) {
-        try {
-            InputStream in = socket.getInputStream();
-            int firstByte = in.read();
-            if (firstByte == -1) {
-                SocketUtils.close(socket);
-                throw new SocketRuntimeException("The client is disconnected.");
-            }
-
-            byte[] headerBytes = new byte[MbapHeader.BYTE_LENGTH];
-            headerBytes[0] = (byte) firstByte;
-            this.read(socket, headerBytes, 1, MbapHeader.BYTE_LENGTH - 1, 1024, 0, true);
-            MbapHeader header = MbapHeader.fromBytes(headerBytes);
-            byte[] total = new byte[headerBytes.length + header.getLength() - 1];
-            System.arraycopy(headerBytes, 0, total, 0, headerBytes.length);
-            this.read(socket, total, headerBytes.length, header.getLength() - 1, 1024, 0, true);
-            return total;
-        } catch (IOException e) {
-            throw new SocketRuntimeException(e);
+            return response.toByteArray();
         }
     }
 
@@ -260,14 +321,7 @@ public class ModbusTcpServer extends TcpServerBasic {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_READ_COIL, EMbExceptionCode.ILLEGAL_DATA_ADDRESS));
         }
 
-        byte[] bytes;
-        try {
-            this.rwLock.readLock().lock();
-            List<Boolean> booleans = this.coils.subList(reqPdu.getAddress(), reqPdu.getAddress() + reqPdu.getQuantity());
-            bytes = BooleanUtil.listToByteArray(booleans);
-        } finally {
-            this.rwLock.readLock().unlock();
-        }
+        byte[] bytes = this.coils.getBytes(reqPdu.getAddress(), reqPdu.getQuantity());
 
         MbReadCoilResponse ackPdu = new MbReadCoilResponse();
         ackPdu.setCount(bytes.length);
@@ -294,14 +348,7 @@ public class ModbusTcpServer extends TcpServerBasic {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_READ_DISCRETE_INPUT, EMbExceptionCode.ILLEGAL_DATA_ADDRESS));
         }
 
-        byte[] bytes;
-        try {
-            this.rwLock.readLock().lock();
-            List<Boolean> booleans = this.discreteInputs.subList(reqPdu.getAddress(), reqPdu.getAddress() + reqPdu.getQuantity());
-            bytes = BooleanUtil.listToByteArray(booleans);
-        } finally {
-            this.rwLock.readLock().unlock();
-        }
+        byte[] bytes = this.discreteInputs.getBytes(reqPdu.getAddress(), reqPdu.getQuantity());
 
         MbReadDiscreteInputResponse ackPdu = new MbReadDiscreteInputResponse();
         ackPdu.setCount(bytes.length);
@@ -319,23 +366,16 @@ public class ModbusTcpServer extends TcpServerBasic {
     private MbTcpResponse readHoldRegister(MbTcpRequest request) {
         MbReadHoldRegisterRequest reqPdu = (MbReadHoldRegisterRequest) request.getPdu();
         log.debug("[READ_HOLD_REGISTER] address[{}], quantity[{}]", reqPdu.getAddress(), reqPdu.getQuantity());
-        if (reqPdu.getQuantity() < 1 || reqPdu.getQuantity() > (this.holdRegisters.length / 2)) {
+        if (reqPdu.getQuantity() < 1 || reqPdu.getQuantity() > this.holdRegisters.size()) {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_READ_HOLD_REGISTER, EMbExceptionCode.ILLEGAL_DATA_VALUE));
         }
         if (reqPdu.getAddress() < 0
-                || reqPdu.getAddress() > (this.holdRegisters.length / 2) - 1
-                || reqPdu.getAddress() + reqPdu.getQuantity() > (this.holdRegisters.length / 2) - 1) {
+                || reqPdu.getAddress() > this.holdRegisters.size() - 1
+                || reqPdu.getAddress() + reqPdu.getQuantity() > this.holdRegisters.size() - 1) {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_READ_HOLD_REGISTER, EMbExceptionCode.ILLEGAL_DATA_ADDRESS));
         }
 
-        byte[] bytes;
-        try {
-            this.rwLock.readLock().lock();
-            ByteReadBuff buff = ByteReadBuff.newInstance(this.holdRegisters);
-            bytes = buff.getBytes(reqPdu.getAddress() * 2, reqPdu.getQuantity() * 2);
-        } finally {
-            this.rwLock.readLock().unlock();
-        }
+        byte[] bytes = this.holdRegisters.getBytes(reqPdu.getAddress(), reqPdu.getQuantity());
 
         MbReadHoldRegisterResponse ackPdu = new MbReadHoldRegisterResponse();
         ackPdu.setCount(bytes.length);
@@ -353,23 +393,16 @@ public class ModbusTcpServer extends TcpServerBasic {
     private MbTcpResponse readInputRegister(MbTcpRequest request) {
         MbReadInputRegisterRequest reqPdu = (MbReadInputRegisterRequest) request.getPdu();
         log.debug("[READ_INPUT_REGISTER] address[{}], quantity[{}]", reqPdu.getAddress(), reqPdu.getQuantity());
-        if (reqPdu.getQuantity() < 1 || reqPdu.getQuantity() > (this.inputRegisters.length / 2)) {
+        if (reqPdu.getQuantity() < 1 || reqPdu.getQuantity() > this.inputRegisters.size()) {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_READ_INPUT_REGISTER, EMbExceptionCode.ILLEGAL_DATA_VALUE));
         }
         if (reqPdu.getAddress() < 0
-                || reqPdu.getAddress() > (this.inputRegisters.length / 2) - 1
-                || reqPdu.getAddress() + reqPdu.getQuantity() > (this.inputRegisters.length / 2) - 1) {
+                || reqPdu.getAddress() > this.inputRegisters.size() - 1
+                || reqPdu.getAddress() + reqPdu.getQuantity() > this.inputRegisters.size() - 1) {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_READ_INPUT_REGISTER, EMbExceptionCode.ILLEGAL_DATA_ADDRESS));
         }
 
-        byte[] bytes;
-        try {
-            this.rwLock.readLock().lock();
-            ByteReadBuff buff = ByteReadBuff.newInstance(this.inputRegisters);
-            bytes = buff.getBytes(reqPdu.getAddress() * 2, reqPdu.getQuantity() * 2);
-        } finally {
-            this.rwLock.readLock().unlock();
-        }
+        byte[] bytes = this.inputRegisters.getBytes(reqPdu.getAddress(), reqPdu.getQuantity());
 
         MbReadInputRegisterResponse ackPdu = new MbReadInputRegisterResponse();
         ackPdu.setCount(bytes.length);
@@ -392,12 +425,7 @@ public class ModbusTcpServer extends TcpServerBasic {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_WRITE_SINGLE_COIL, EMbExceptionCode.ILLEGAL_DATA_ADDRESS));
         }
 
-        try {
-            this.rwLock.writeLock().lock();
-            this.coils.set(reqPdu.getAddress(), reqPdu.isValue());
-        } finally {
-            this.rwLock.writeLock().unlock();
-        }
+        this.coils.set(reqPdu.getAddress(), reqPdu.isValue());
 
         MbWriteSingleCoilResponse ackPdu = new MbWriteSingleCoilResponse();
         ackPdu.setAddress(reqPdu.getAddress());
@@ -418,17 +446,11 @@ public class ModbusTcpServer extends TcpServerBasic {
         if (reqPdu.getValue() < 0 || reqPdu.getValue() > 65535) {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_WRITE_SINGLE_REGISTER, EMbExceptionCode.ILLEGAL_DATA_VALUE));
         }
-        if (reqPdu.getAddress() < 0 || reqPdu.getAddress() > (this.holdRegisters.length / 2) - 1) {
+        if (reqPdu.getAddress() < 0 || reqPdu.getAddress() > this.holdRegisters.size() - 1) {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_WRITE_SINGLE_REGISTER, EMbExceptionCode.ILLEGAL_DATA_ADDRESS));
         }
 
-        try {
-            this.rwLock.writeLock().lock();
-            byte[] bytes = ShortUtil.toByteArray(reqPdu.getValue());
-            System.arraycopy(bytes, 0, this.holdRegisters, reqPdu.getAddress() * 2, bytes.length);
-        } finally {
-            this.rwLock.writeLock().unlock();
-        }
+        this.holdRegisters.setBytes(reqPdu.getAddress(), ShortUtil.toByteArray(reqPdu.getValue()));
 
         MbWriteSingleRegisterResponse ackPdu = new MbWriteSingleRegisterResponse();
         ackPdu.setAddress(reqPdu.getAddress());
@@ -445,8 +467,10 @@ public class ModbusTcpServer extends TcpServerBasic {
      */
     private MbTcpResponse writeMultipleCoil(MbTcpRequest request) {
         MbWriteMultipleCoilRequest reqPdu = (MbWriteMultipleCoilRequest) request.getPdu();
-        List<Boolean> booleans = BooleanUtil.byteArrayToList(reqPdu.getQuantity(), reqPdu.getValue());
-        log.debug("[WRITE_MULTIPLE_COIL] address[{}], quantity[{}], value[{}]", reqPdu.getAddress(), reqPdu.getQuantity(), Arrays.toString(booleans.toArray()));
+        if (log.isDebugEnabled()) {
+            List<Boolean> booleans = BooleanUtil.byteArrayToList(reqPdu.getQuantity(), reqPdu.getValue());
+            log.debug("[WRITE_MULTIPLE_COIL] address[{}], quantity[{}], value[{}]", reqPdu.getAddress(), reqPdu.getQuantity(), Arrays.toString(booleans.toArray()));
+        }
 
         if (reqPdu.getQuantity() < 1
                 || reqPdu.getQuantity() > this.coils.size()
@@ -459,14 +483,7 @@ public class ModbusTcpServer extends TcpServerBasic {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_WRITE_MULTIPLE_COIL, EMbExceptionCode.ILLEGAL_DATA_ADDRESS));
         }
 
-        try {
-            this.rwLock.writeLock().lock();
-            for (int i = 0; i < booleans.size(); i++) {
-                this.coils.set(reqPdu.getAddress() + i, booleans.get(i));
-            }
-        } finally {
-            this.rwLock.writeLock().unlock();
-        }
+        this.coils.setBytes(reqPdu.getAddress(), reqPdu.getQuantity(), reqPdu.getValue());
 
         MbWriteMultipleCoilResponse ackPdu = new MbWriteMultipleCoilResponse();
         ackPdu.setAddress(reqPdu.getAddress());
@@ -485,22 +502,17 @@ public class ModbusTcpServer extends TcpServerBasic {
         MbWriteMultipleRegisterRequest reqPdu = (MbWriteMultipleRegisterRequest) request.getPdu();
         log.debug("[WRITE_MULTIPLE_REGISTER] address[{}], quantity[{}], value[{}]", reqPdu.getAddress(), reqPdu.getQuantity(), HexUtil.toHexString(reqPdu.getValue()));
         if (reqPdu.getQuantity() < 1
-                || reqPdu.getQuantity() > (this.holdRegisters.length / 2)
+                || reqPdu.getQuantity() > this.holdRegisters.size()
                 || reqPdu.getCount() != reqPdu.getQuantity() * 2) {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_WRITE_MULTIPLE_REGISTER, EMbExceptionCode.ILLEGAL_DATA_VALUE));
         }
         if (reqPdu.getAddress() < 0
-                || reqPdu.getAddress() > (this.holdRegisters.length / 2) - 1
-                || reqPdu.getAddress() + reqPdu.getQuantity() > (this.holdRegisters.length / 2) - 1) {
+                || reqPdu.getAddress() > this.holdRegisters.size() - 1
+                || reqPdu.getAddress() + reqPdu.getQuantity() > this.holdRegisters.size() - 1) {
             return new MbTcpResponse(request.getHeader(), new MbErrorResponse(EMbFunctionCode.ERROR_WRITE_MULTIPLE_REGISTER, EMbExceptionCode.ILLEGAL_DATA_ADDRESS));
         }
 
-        try {
-            this.rwLock.writeLock().lock();
-            System.arraycopy(reqPdu.getValue(), 0, this.holdRegisters, reqPdu.getAddress() * 2, reqPdu.getCount());
-        } finally {
-            this.rwLock.writeLock().unlock();
-        }
+        this.holdRegisters.setBytes(reqPdu.getAddress(), Arrays.copyOf(reqPdu.getValue(), reqPdu.getCount()));
 
         MbWriteMultipleRegisterResponse ackPdu = new MbWriteMultipleRegisterResponse();
         ackPdu.setAddress(reqPdu.getAddress());
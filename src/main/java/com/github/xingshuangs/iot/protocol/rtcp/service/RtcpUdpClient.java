@@ -30,6 +30,7 @@ import com.github.xingshuangs.iot.net.client.UdpClientBasic;
 import com.github.xingshuangs.iot.protocol.rtcp.model.*;
 import com.github.xingshuangs.iot.protocol.rtp.model.RtpPackage;
 import com.github.xingshuangs.iot.protocol.rtsp.service.IRtspDataStream;
+import com.github.xingshuangs.iot.utils.ThreadUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
@@ -83,12 +84,12 @@ public class RtcpUdpClient extends UdpClientBasic implements IRtspDataStream {
 
 
     public RtcpUdpClient() {
-        this.executorService = Executors.newSingleThreadExecutor();
+        this.executorService = Executors.newSingleThreadExecutor(ThreadUtil.newThreadFactory("iot-rtcp-"));
     }
 
     public RtcpUdpClient(String ip, int port) {
         super(ip, port);
-        this.executorService = Executors.newSingleThreadExecutor();
+        this.executorService = Executors.newSingleThreadExecutor(ThreadUtil.newThreadFactory("iot-rtcp-"));
     }
 
     @Override
@@ -30,6 +30,7 @@ import com.github.xingshuangs.iot.net.client.UdpClientBasic;
 import com.github.xingshuangs.iot.protocol.rtcp.service.RtcpUdpClient;
 import com.github.xingshuangs.iot.protocol.rtp.model.RtpPackage;
 import com.github.xingshuangs.iot.protocol.rtsp.service.IRtspDataStream;
+import com.github.xingshuangs.iot.utils.ThreadUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.CompletableFuture;
@@ -91,12 +92,12 @@ public class RtpUdpClient extends UdpClientBasic implements IRtspDataStream {
 
     public RtpUdpClient(IPayloadParser iPayloadParser) {
         this.iPayloadParser = iPayloadParser;
-        this.executorService = Executors.newSingleThreadExecutor();
+        this.executorService = Executors.newSingleThreadExecutor(ThreadUtil.newThreadFactory("iot-rtp-"));
     }
 
     public RtpUdpClient(String ip, int port) {
         super(ip, port);
-        this.executorService = Executors.newSingleThreadExecutor();
+        this.executorService = Executors.newSingleThreadExecutor(ThreadUtil.newThreadFactory("iot-rtp-"));
     }
 
     @Override
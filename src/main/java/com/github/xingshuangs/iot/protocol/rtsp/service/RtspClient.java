@@ -28,6 +28,7 @@ package com.github.xingshuangs.iot.protocol.rtsp.service;
 import com.github.xingshuangs.iot.protocol.rtsp.authentication.DigestAuthenticator;
 import com.github.xingshuangs.iot.protocol.rtsp.enums.ERtspMethod;
 import com.github.xingshuangs.iot.protocol.rtsp.enums.ERtspTransportProtocol;
+import com.github.xingshuangs.iot.utils.ThreadUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.URI;
@@ -65,7 +66,7 @@ public class RtspClient extends RtspNetwork {
 
     public RtspClient(URI uri, DigestAuthenticator authenticator, ERtspTransportProtocol transportProtocol) {
         super(uri, authenticator, transportProtocol);
-        this.executorService = Executors.newSingleThreadExecutor();
+        this.executorService = Executors.newSingleThreadExecutor(ThreadUtil.newThreadFactory("iot-rtsp-"));
     }
 
     /**
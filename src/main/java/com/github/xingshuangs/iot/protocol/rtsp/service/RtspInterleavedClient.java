@@ -28,7 +28,9 @@ package com.github.xingshuangs.iot.protocol.rtsp.service;
 import com.github.xingshuangs.iot.exceptions.RtspCommException;
 import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
 import com.github.xingshuangs.iot.net.client.TcpClientBasic;
+import com.github.xingshuangs.iot.common.buff.ByteArrayPool;
 import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
+import com.github.xingshuangs.iot.common.buff.PooledByteArray;
 import com.github.xingshuangs.iot.protocol.rtcp.model.RtcpBasePackage;
 import com.github.xingshuangs.iot.protocol.rtcp.model.RtcpPackageBuilder;
 import com.github.xingshuangs.iot.protocol.rtcp.service.RtcpDataStatistics;
@@ -36,9 +38,11 @@ import com.github.xingshuangs.iot.protocol.rtp.model.RtpPackage;
 import com.github.xingshuangs.iot.protocol.rtp.service.IPayloadParser;
 import com.github.xingshuangs.iot.protocol.rtsp.model.interleaved.RtspInterleaved;
 import com.github.xingshuangs.iot.utils.HexUtil;
+import com.github.xingshuangs.iot.utils.ThreadUtil;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.InetSocketAddress;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -108,6 +112,18 @@ public class RtspInterleavedClient implements IRtspDataStream {
      */
     private final ExecutorService executorService;
 
+    /**
+     * Pool of the receive buffers.
+     * (接收缓存池)
+     */
+    private final ByteArrayPool bufferPool = ByteArrayPool.getDefault();
+
+    /**
+     * Reusable interleaved header buffer, only used by the receiving thread.
+     * (可复用的交错帧头缓存，只在接收线程中使用)
+     */
+    private final byte[] header = new byte[4];
+
     public void setCommCallback(Consumer<byte[]> commCallback) {
         this.commCallback = commCallback;
     }
@@ -131,7 +147,7 @@ public class RtspInterleavedClient implements IRtspDataStream {
     public RtspInterleavedClient(IPayloadParser iPayloadParser, TcpClientBasic rtspClient) {
         this.iPayloadParser = iPayloadParser;
         this.rtspClient = rtspClient;
-        this.executorService = Executors.newSingleThreadExecutor();
+        this.executorService = Executors.newSingleThreadExecutor(ThreadUtil.newThreadFactory("iot-rtp-interleaved-"));
     }
 
     @Override
@@ -178,11 +194,14 @@ public class RtspInterleavedClient implements IRtspDataStream {
                     this.terminal = true;
                     break;
                 }
-                byte[] data = this.readFromServer();
-                if (this.commCallback != null) {
-                    this.commCallback.accept(data);
+                RtspInterleaved interleaved;
+                try (PooledByteArray frame = this.readFromServer()) {
+                    if (this.commCallback != null) {
+                        this.commCallback.accept(Arrays.copyOf(frame.getData(), frame.getLength()));
+                    }
+                    // 负载会被拷贝，解析结果不引用缓存
+                    interleaved = RtspInterleaved.fromBytes(frame.getData());
                 }
-                RtspInterleaved interleaved = RtspInterleaved.fromBytes(data);
 
                 if (interleaved.getChannelId() == this.rtpVideoChannelNumber) {
                     this.rtpVideoHandle(interleaved);
@@ -203,13 +222,14 @@ public class RtspInterleavedClient implements IRtspDataStream {
     }
 
     /**
-     * Read data from server.
-     * (获取接收的数据)
+     * Read data from server into a leased buffer, the caller releases the buffer after decoding.
+     * (获取接收的数据到租借的缓存中，解析完成后由调用方释放)
      *
-     * @return byte array
+     * @return leased frame
      */
-    private byte[] readFromServer() {
-        byte[] header = new byte[4];
+    private PooledByteArray readFromServer() {
+        byte[] header = this.header;
+        header[0] = 0;
         while (header[0] != RtspInterleaved.VERSION) {
             this.rtspClient.read(header, 0, 1, 1024, 0, true);
         }
@@ -219,15 +239,21 @@ public class RtspInterleavedClient implements IRtspDataStream {
         }
         int offset = 4;
         int length = ByteReadBuff.newInstance(header, 2).getUInt16();
-        byte[] total = new byte[length + offset];
-        System.arraycopy(header, 0, total, 0, header.length);
-        // 存在分包的情况，循环读取，保证数据准确性
-        int read = this.rtspClient.read(total, offset, length, 1024, 0, true);
-        if (offset + read != total.length) {
-            log.error(HexUtil.toHexString(total));
-            throw new RtspCommException("The read length is incorrect，original length[" + (total.length) + "], present length[" + (offset + read) + "]");
+        PooledByteArray frame = this.bufferPool.lease(length + offset);
+        try {
+            byte[] total = frame.getData();
+            System.arraycopy(header, 0, total, 0, header.length);
+            // 存在分包的情况，循环读取，保证数据准确性
+            int read = this.rtspClient.read(total, offset, length, 1024, 0, true);
+            if (offset + read != frame.getLength()) {
+                log.error(HexUtil.toHexString(Arrays.copyOf(total, offset + Math.max(read, 0))));
+                throw new RtspCommException("The read length is incorrect，original length[" + (frame.getLength()) + "], present length[" + (offset + read) + "]");
+            }
+            return frame;
+        } catch (RuntimeException e) {
+            frame.release();
+            throw e;
         }
-        return total;
     }
 
     /**
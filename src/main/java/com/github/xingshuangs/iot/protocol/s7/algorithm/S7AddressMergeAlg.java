@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.algorithm;
+
+
+import com.github.xingshuangs.iot.protocol.s7.enums.EParamVariableType;
+import com.github.xingshuangs.iot.protocol.s7.model.RequestItem;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Address merge algorithm, the byte and bit items of the same area and DB which are close to each other are merged into
+ * one contiguous byte range.
+ * (地址合并算法，同一区域同一DB中相近的字节和位请求项合并为一个连续的字节范围)
+ * <p>
+ * Every request item costs 12 bytes in the request and 4 bytes header in the response, so reading a gap smaller than
+ * the overhead is cheaper than an extra item.
+ * (每个请求项在请求中占12字节，在响应中占4字节头，因此读取小于该开销的间隔比多一个请求项更划算)
+ *
+ * @author xingshuang
+ */
+public class S7AddressMergeAlg {
+
+    /**
+     * Recommended max gap, 12 bytes request item + 4 bytes response item header.
+     * (推荐的最大间隔，12字节请求项 + 4字节响应项头)
+     */
+    public static final int RECOMMENDED_MAX_GAP = 16;
+
+    private S7AddressMergeAlg() {
+        // NOOP
+    }
+
+    /**
+     * Merge the request items.
+     * (合并请求项)
+     * 示例：最大间隔：16
+     * DB1.0(2), DB1.2(2), DB1.4(4), DB1.100(2), DB2.0.3(bit)
+     * |DB1.0(8)|DB1.100(2)|DB2.0.3(bit)|
+     *
+     * @param items  raw request items
+     * @param maxGap max gap bytes between two items which can be merged
+     * @return merged ranges
+     */
+    public static List<S7MergeRange> merge(List<RequestItem> items, int maxGap) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap >= 0");
+        }
+        List<S7MergeRange> res = new ArrayList<>();
+        List<Integer> sorted = IntStream.range(0, items.size()).boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> items.get(i).getArea().getCode())
+                        .thenComparingInt(i -> items.get(i).getDbNumber())
+                        .thenComparingInt(i -> items.get(i).getByteAddress()))
+                .collect(Collectors.toList());
+
+        List<Integer> current = new ArrayList<>();
+        int start = 0;
+        int end = 0;
+        for (Integer index : sorted) {
+            RequestItem item = items.get(index);
+            if (!isMergeable(item)) {
+                res.add(new S7MergeRange(item, singletonList(index), false));
+                continue;
+            }
+            int itemEnd = item.getByteAddress() + byteCount(item);
+            if (!current.isEmpty() && isSameBlock(items.get(current.get(0)), item)
+                    && item.getByteAddress() - end <= maxGap) {
+                current.add(index);
+                end = Math.max(end, itemEnd);
+                continue;
+            }
+            if (!current.isEmpty()) {
+                res.add(createRange(items, current, start, end));
+            }
+            current = new ArrayList<>();
+            current.add(index);
+            start = item.getByteAddress();
+            end = itemEnd;
+        }
+        if (!current.isEmpty()) {
+            res.add(createRange(items, current, start, end));
+        }
+        return res;
+    }
+
+    /**
+     * Extract the data of the raw item from the data of the merged range.
+     * (从合并范围的数据中提取原始请求项的数据)
+     *
+     * @param range merged range
+     * @param item  raw request item
+     * @param data  data of the range
+     * @return data of the raw item, 1 byte 0 or 1 for bit item
+     */
+    public static byte[] extract(S7MergeRange range, RequestItem item, byte[] data) {
+        if (!range.isMerged()) {
+            return data;
+        }
+        int offset = item.getByteAddress() - range.getRequestItem().getByteAddress();
+        if (item.getVariableType() == EParamVariableType.BIT) {
+            return new byte[]{(byte) ((data[offset] >> item.getBitAddress()) & 0x01)};
+        }
+        byte[] res = new byte[item.getCount()];
+        System.arraycopy(data, offset, res, 0, res.length);
+        return res;
+    }
+
+    private static S7MergeRange createRange(List<RequestItem> items, List<Integer> indexes, int start, int end) {
+        if (indexes.size() == 1) {
+            return new S7MergeRange(items.get(indexes.get(0)), indexes, false);
+        }
+        RequestItem item = items.get(indexes.get(0)).copy();
+        item.setVariableType(EParamVariableType.BYTE);
+        item.setByteAddress(start);
+        item.setBitAddress(0);
+        item.setCount(end - start);
+        return new S7MergeRange(item, indexes, true);
+    }
+
+    private static boolean isMergeable(RequestItem item) {
+        return item.getVariableType() == EParamVariableType.BYTE
+                || (item.getVariableType() == EParamVariableType.BIT && item.getCount() == 1);
+    }
+
+    private static boolean isSameBlock(RequestItem a, RequestItem b) {
+        return a.getArea() == b.getArea() && a.getDbNumber() == b.getDbNumber();
+    }
+
+    private static int byteCount(RequestItem item) {
+        return item.getVariableType() == EParamVariableType.BIT ? 1 : item.getCount();
+    }
+
+    private static List<Integer> singletonList(int index) {
+        List<Integer> list = new ArrayList<>(1);
+        list.add(index);
+        return list;
+    }
+}
@@ -129,9 +129,22 @@ public class S7Data implements IObjectByteArray {
      * @return s7 data
      */
     public static S7Data fromBytes(final byte[] data) {
+        return fromBytes(data, data.length);
+    }
+
+    /**
+     * Parses the first length bytes of the byte array, the result does not reference the array,
+     * so the array can be a reused buffer.
+     * (解析字节数组中前length个字节，结果不引用该数组，因此可以是复用的缓存)
+     *
+     * @param data   byte array
+     * @param length valid length
+     * @return s7 data
+     */
+    public static S7Data fromBytes(final byte[] data, final int length) {
         byte[] tpktBytes = Arrays.copyOfRange(data, 0, TPKT.BYTE_LENGTH);
         TPKT tpkt = TPKT.fromBytes(tpktBytes);
-        byte[] remainBytes = Arrays.copyOfRange(data, TPKT.BYTE_LENGTH, data.length);
+        byte[] remainBytes = Arrays.copyOfRange(data, TPKT.BYTE_LENGTH, length);
         return fromBytes(tpkt, remainBytes);
     }
 
@@ -214,11 +227,24 @@ public class S7Data implements IObjectByteArray {
      * @return s7data
      */
     public static S7Data createConnectDtData(int pduLength) {
+        return createConnectDtData(pduLength, 1, 1);
+    }
+
+    /**
+     * Create connect dt data request.
+     * (创建连接setup，指定并行作业数)
+     *
+     * @param pduLength    PDU length
+     * @param maxAmqCaller max amq caller
+     * @param maxAmqCallee max amq callee
+     * @return s7data
+     */
+    public static S7Data createConnectDtData(int pduLength, int maxAmqCaller, int maxAmqCallee) {
         S7Data s7Data = new S7Data();
         s7Data.tpkt = new TPKT();
         s7Data.cotp = COTPData.createDefault();
         s7Data.header = Header.createDefault();
-        s7Data.parameter = SetupComParameter.createDefault(pduLength);
+        s7Data.parameter = SetupComParameter.createDefault(pduLength, maxAmqCaller, maxAmqCallee);
         s7Data.selfCheck();
         return s7Data;
     }
@@ -117,11 +117,24 @@ public class SetupComParameter extends Parameter implements IObjectByteArray {
      * @return SetupComParameter
      */
     public static SetupComParameter createDefault(int pduLength) {
+        return createDefault(pduLength, 1, 1);
+    }
+
+    /**
+     * Create default setup parameter.
+     * 创建默认的设置通信参数，指定并行作业数
+     *
+     * @param pduLength    PDU length
+     * @param maxAmqCaller max amq caller
+     * @param maxAmqCallee max amq callee
+     * @return SetupComParameter
+     */
+    public static SetupComParameter createDefault(int pduLength, int maxAmqCaller, int maxAmqCallee) {
         SetupComParameter parameter = new SetupComParameter();
         parameter.functionCode = EFunctionCode.SETUP_COMMUNICATION;
         parameter.reserved = (byte) 0x00;
-        parameter.maxAmqCaller = 1;
-        parameter.maxAmqCallee = 1;
+        parameter.maxAmqCaller = maxAmqCaller;
+        parameter.maxAmqCallee = maxAmqCallee;
         // 默认最大PDU长度240
         parameter.pduLength = pduLength;
         return parameter;
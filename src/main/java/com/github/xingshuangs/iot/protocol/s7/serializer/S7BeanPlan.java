@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.serializer;
+
+
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.common.serializer.FieldAccessor;
+import com.github.xingshuangs.iot.exceptions.S7CommException;
+import com.github.xingshuangs.iot.protocol.s7.model.RequestItem;
+import com.github.xingshuangs.iot.protocol.s7.utils.AddressUtil;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiled plan of a class annotated by S7Variable, built once per class and cached.
+ * The request items are parsed in advance, each read or write only copies them.
+ * (S7Variable注解类的解析计划，每个类只构建一次并缓存，地址预先解析，每次读写只做拷贝)
+ *
+ * @author xingshuang
+ */
+@Getter
+public final class S7BeanPlan {
+
+    private static final ClassValue<S7BeanPlan> CACHE = new ClassValue<S7BeanPlan>() {
+        @Override
+        protected S7BeanPlan computeValue(Class<?> type) {
+            return new S7BeanPlan(type);
+        }
+    };
+
+    /**
+     * Target class.
+     * (目标类)
+     */
+    private final Class<?> targetClass;
+
+    /**
+     * No-argument constructor handle, null if the class can not be instantiated.
+     * (无参构造函数句柄，无法实例化的时候为null)
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * Template of parse data, must not be modified, use {@link S7ParseData#copy()}.
+     * (解析数据模板，不可修改，使用时需拷贝)
+     */
+    private final List<S7ParseData> templates;
+
+    private S7BeanPlan(Class<?> targetClass) {
+        this.targetClass = targetClass;
+        List<S7ParseData> list = new ArrayList<>();
+        for (final Field field : targetClass.getDeclaredFields()) {
+            final S7Variable s7Variable = field.getAnnotation(S7Variable.class);
+            if (s7Variable == null) {
+                continue;
+            }
+            S7Parameter parameter = new S7Parameter(s7Variable.address(), s7Variable.type(), s7Variable.count());
+            S7ParseData s7ParseData = createTemplate(parameter);
+            s7ParseData.setField(field);
+            s7ParseData.setAccessor(FieldAccessor.of(field));
+            list.add(s7ParseData);
+        }
+        this.templates = Collections.unmodifiableList(list);
+        MethodHandle handle;
+        try {
+            handle = FieldAccessor.constructor(targetClass);
+        } catch (IllegalArgumentException e) {
+            // 只用于写入的类可以没有无参构造函数
+            handle = null;
+        }
+        this.constructor = handle;
+    }
+
+    /**
+     * Get the cached plan of class.
+     * (获取类的缓存解析计划)
+     *
+     * @param targetClass target class
+     * @return plan
+     */
+    public static S7BeanPlan of(Class<?> targetClass) {
+        return CACHE.get(targetClass);
+    }
+
+    /**
+     * Create a new instance of the target class.
+     * (创建目标类的实例)
+     *
+     * @param <T> type
+     * @return new instance
+     */
+    public <T> T newInstance() {
+        if (this.constructor == null) {
+            // 目标类没有可访问的无参构造函数
+            throw new S7CommException("The target class has no accessible no-argument constructor: " + this.targetClass.getName());
+        }
+        return FieldAccessor.newInstance(this.constructor);
+    }
+
+    /**
+     * Build the S7ParseData template, the byte address of string is not shifted by plc type.
+     * (构建S7ParseData模板，字符串的字节地址未根据PLC类型偏移)
+     *
+     * @param p S7Parameter data
+     * @return S7ParseData
+     */
+    static S7ParseData createTemplate(S7Parameter p) {
+        checkS7Variable(p);
+        // 组装S7解析数据
+        S7ParseData s7ParseData = new S7ParseData();
+        s7ParseData.setDataType(p.getDataType());
+        s7ParseData.setCount(p.getCount());
+        if (p.getDataType() == EDataType.BOOL) {
+            s7ParseData.setRequestItem(AddressUtil.parseBit(p.getAddress()));
+        } else if (p.getDataType() == EDataType.STRING) {
+            RequestItem requestItem = AddressUtil.parseByte(p.getAddress(), 1 + p.getCount() * p.getDataType().getByteLength());
+            s7ParseData.setRequestItem(requestItem);
+        } else {
+            s7ParseData.setRequestItem(AddressUtil.parseByte(p.getAddress(), p.getCount() * p.getDataType().getByteLength()));
+        }
+        return s7ParseData;
+    }
+
+    /**
+     * Check that the data of the S7Variable meets the rule requirements.
+     * (校验S7Variable的数据是否满足规则要求)
+     *
+     * @param parameter parameter
+     */
+    private static void checkS7Variable(final S7Parameter parameter) {
+        if (parameter.getAddress().isEmpty()) {
+            // S7参数中[address]不能为空
+            throw new S7CommException("[address] in the S7 parameter cannot be empty");
+        }
+        if (parameter.getCount() < 0) {
+            // S7参数中[count]不能为负数
+            throw new S7CommException("[count] in the S7 parameter cannot be negative");
+        }
+        if (parameter.getDataType() == EDataType.STRING && parameter.getCount() > 254) {
+            // S7参数中字符串类型类型数据的[count]不能大于254
+            throw new S7CommException("The [count] value of the string type in the S7 parameter cannot be greater than 254");
+        }
+        if (parameter.getDataType() != EDataType.BYTE && parameter.getDataType() != EDataType.STRING && parameter.getCount() > 1) {
+            // S7参数中只有[type]=字节和字符串类型数据的[count]才能大于1，其他必须等于1
+            throw new S7CommException("In the S7 parameter, only [type]= bytes and [count] of string type data can be greater than 1, and the rest must be equal to 1");
+        }
+    }
+}
@@ -26,6 +26,7 @@ package com.github.xingshuangs.iot.protocol.s7.serializer;
 
 
 import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.common.serializer.FieldAccessor;
 import com.github.xingshuangs.iot.protocol.s7.model.DataItem;
 import com.github.xingshuangs.iot.protocol.s7.model.RequestItem;
 import lombok.Data;
@@ -59,6 +60,12 @@ public class S7ParseData {
      */
     private Field field;
 
+    /**
+     * Field accessor.
+     * (字段访问器)
+     */
+    private FieldAccessor accessor;
+
     /**
      * Request item.
      * (请求项)
@@ -70,4 +77,20 @@ public class S7ParseData {
      * (数据项)
      */
     private DataItem dataItem;
+
+    /**
+     * Copy the template, the request item is copied and the data item is not.
+     * (拷贝模板，请求项深拷贝，数据项不拷贝)
+     *
+     * @return S7ParseData
+     */
+    public S7ParseData copy() {
+        S7ParseData res = new S7ParseData();
+        res.dataType = this.dataType;
+        res.count = this.count;
+        res.field = this.field;
+        res.accessor = this.accessor;
+        res.requestItem = this.requestItem.copy();
+        return res;
+    }
 }
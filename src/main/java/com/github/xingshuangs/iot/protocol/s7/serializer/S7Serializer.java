@@ -29,14 +29,15 @@ import com.github.xingshuangs.iot.exceptions.S7CommException;
 import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
 import com.github.xingshuangs.iot.common.buff.ByteWriteBuff;
 import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.common.serializer.FieldAccessor;
 import com.github.xingshuangs.iot.common.serializer.IPLCSerializable;
 import com.github.xingshuangs.iot.protocol.s7.enums.EPlcType;
 import com.github.xingshuangs.iot.protocol.s7.model.DataItem;
 import com.github.xingshuangs.iot.protocol.s7.model.RequestItem;
 import com.github.xingshuangs.iot.protocol.s7.service.S7PLC;
 import com.github.xingshuangs.iot.protocol.s7.utils.AddressUtil;
+import com.github.xingshuangs.iot.utils.*;
 
-import java.lang.reflect.Field;
 import java.nio.charset.Charset;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -71,26 +72,17 @@ public class S7Serializer implements IPLCSerializable {
     }
 
     /**
-     * Convert to parsed data according to the S7Variable annotation.
-     * 将类根据S7Variable注解转换为解析数据
+     * Convert to parsed data according to the S7Variable annotation, the plan is cached per class.
+     * 将类根据S7Variable注解转换为解析数据，解析计划按类缓存
      *
-     * @param targetClass target object class
+     * @param plan plan of target class
      * @return result data list
      */
-    private List<S7ParseData> parseBean(final Class<?> targetClass) {
-        List<S7ParseData> s7ParseDataList = new ArrayList<>();
-
-        for (final Field field : targetClass.getDeclaredFields()) {
-            final S7Variable s7Variable = field.getAnnotation(S7Variable.class);
-
-            if (s7Variable == null) {
-                continue;
-            }
-
-            S7Parameter parameter = new S7Parameter(s7Variable.address(), s7Variable.type(), s7Variable.count());
-            S7ParseData s7ParseData = this.createS7ParseData(parameter, field);
-
-            s7ParseDataList.add(s7ParseData);
+    private List<S7ParseData> parseBean(final S7BeanPlan plan) {
+        List<S7ParseData> templates = plan.getTemplates();
+        List<S7ParseData> s7ParseDataList = new ArrayList<>(templates.size());
+        for (S7ParseData template : templates) {
+            s7ParseDataList.add(this.shiftStringAddress(template.copy()));
         }
         return s7ParseDataList;
     }
@@ -103,45 +95,34 @@ public class S7Serializer implements IPLCSerializable {
      * @return List<S7ParseData>
      */
     private List<S7ParseData> parseBean(final List<S7Parameter> parameters) {
-        try {
-            List<S7ParseData> s7ParseDataList = new ArrayList<>();
-            for (final S7Parameter p : parameters) {
-                if (p == null) {
-                    // parameters列表中存在null
-                    throw new S7CommException("null exists in the parameters list");
-                }
-                S7ParseData s7ParseData = this.createS7ParseData(p, p.getClass().getDeclaredField("value"));
-                s7ParseDataList.add(s7ParseData);
+        List<S7ParseData> s7ParseDataList = new ArrayList<>(parameters.size());
+        for (final S7Parameter p : parameters) {
+            if (p == null) {
+                // parameters列表中存在null
+                throw new S7CommException("null exists in the parameters list");
             }
-            return s7ParseDataList;
-        } catch (NoSuchFieldException e) {
-            throw new S7CommException(e);
+            s7ParseDataList.add(this.shiftStringAddress(S7BeanPlan.createTemplate(p)));
         }
+        return s7ParseDataList;
     }
 
     /**
-     * Check that the data of the S7Variable meets the rule requirements.
-     * (校验S7Variable的数据是否满足规则要求)
+     * Shift the byte address of string according to the plc type.
+     * (根据PLC类型偏移字符串的字节地址)
      *
-     * @param parameter parameter
+     * @param s7ParseData S7ParseData
+     * @return S7ParseData
      */
-    private void checkS7Variable(final S7Parameter parameter) {
-        if (parameter.getAddress().isEmpty()) {
-            // S7参数中[address]不能为空
-            throw new S7CommException("[address] in the S7 parameter cannot be empty");
-        }
-        if (parameter.getCount() < 0) {
-            // S7参数中[count]不能为负数
-            throw new S7CommException("[count] in the S7 parameter cannot be negative");
-        }
-        if (parameter.getDataType() == EDataType.STRING && parameter.getCount() > 254) {
-            // S7参数中字符串类型类型数据的[count]不能大于254
-            throw new S7CommException("The [count] value of the string type in the S7 parameter cannot be greater than 254");
-        }
-        if (parameter.getDataType() != EDataType.BYTE && parameter.getDataType() != EDataType.STRING && parameter.getCount() > 1) {
-            // S7参数中只有[type]=字节和字符串类型数据的[count]才能大于1，其他必须等于1
-            throw new S7CommException("In the S7 parameter, only [type]= bytes and [count] of string type data can be greater than 1, and the rest must be equal to 1");
+    private S7ParseData shiftStringAddress(S7ParseData s7ParseData) {
+        if (s7ParseData.getDataType() == EDataType.STRING) {
+            // 为什么字节索引+1，为了避免修改PLC中string[60]类型的第一个字节数据，该数据为字符串的允许最大长度
+            // S1200（非S200Smart）:数据类型为 string 的操作数可存储多个字符，最多可包括 254 个字符。字符串中的第一个字节为总长度，第二个字节为有效字符数量。
+            // S200SMART:字符串由变量存储时，字符串长度为0至254个字符，最长为255个字节，其中第一个字符为长度字节
+            int offset = this.s7PLC.getPlcType() == EPlcType.S200_SMART ? 0 : 1;
+            RequestItem requestItem = s7ParseData.getRequestItem();
+            requestItem.setByteAddress(requestItem.getByteAddress() + offset);
         }
+        return s7ParseData;
     }
 
     /**
@@ -171,44 +152,14 @@ public class S7Serializer implements IPLCSerializable {
         }
     }
 
-    /**
-     * Build the S7ParseData data.
-     * (构建S7ParseData数据)
-     *
-     * @param p     S7Parameter data
-     * @param field target field
-     * @return S7ParseData
-     */
-    private S7ParseData createS7ParseData(S7Parameter p, Field field) {
-        this.checkS7Variable(p);
-        // 组装S7解析数据
-        S7ParseData s7ParseData = new S7ParseData();
-        s7ParseData.setDataType(p.getDataType());
-        s7ParseData.setCount(p.getCount());
-        s7ParseData.setField(field);
-        if (p.getDataType() == EDataType.BOOL) {
-            s7ParseData.setRequestItem(AddressUtil.parseBit(p.getAddress()));
-        } else if (p.getDataType() == EDataType.STRING) {
-            RequestItem requestItem = AddressUtil.parseByte(p.getAddress(), 1 + p.getCount() * p.getDataType().getByteLength());
-            // 为什么字节索引+1，为了避免修改PLC中string[60]类型的第一个字节数据，该数据为字符串的允许最大长度
-            // S1200（非S200Smart）:数据类型为 string 的操作数可存储多个字符，最多可包括 254 个字符。字符串中的第一个字节为总长度，第二个字节为有效字符数量。
-            // S200SMART:字符串由变量存储时，字符串长度为0至254个字符，最长为255个字节，其中第一个字符为长度字节
-            int offset = this.s7PLC.getPlcType() == EPlcType.S200_SMART ? 0 : 1;
-            requestItem.setByteAddress(requestItem.getByteAddress() + offset);
-            s7ParseData.setRequestItem(requestItem);
-        } else {
-            s7ParseData.setRequestItem(AddressUtil.parseByte(p.getAddress(), p.getCount() * p.getDataType().getByteLength()));
-        }
-        return s7ParseData;
-    }
-
     // region read
 
     @Override
     public <T> T read(Class<T> targetClass) {
-        List<S7ParseData> s7ParseDataList = this.parseBean(targetClass);
+        S7BeanPlan plan = S7BeanPlan.of(targetClass);
+        List<S7ParseData> s7ParseDataList = this.parseBean(plan);
         this.readDataByCondition(s7ParseDataList);
-        return this.fillData(targetClass, s7ParseDataList);
+        return this.fillData(plan, s7ParseDataList);
     }
 
     /**
@@ -229,16 +180,16 @@ public class S7Serializer implements IPLCSerializable {
      * Fill value of field.
      * (提取数据)
      *
-     * @param targetClass     target class
+     * @param plan            plan of target class
      * @param s7ParseDataList S7ParseData list
      * @param <T>             type
      * @return target object.
      */
-    private <T> T fillData(Class<T> targetClass, List<S7ParseData> s7ParseDataList) {
+    private <T> T fillData(S7BeanPlan plan, List<S7ParseData> s7ParseDataList) {
         try {
-            final T result = targetClass.newInstance();
+            final T result = plan.newInstance();
             for (S7ParseData item : s7ParseDataList) {
-                this.fillField(result, item);
+                this.bindValue(result, item);
             }
             return result;
 
@@ -259,7 +210,7 @@ public class S7Serializer implements IPLCSerializable {
             for (int i = 0; i < s7ParseDataList.size(); i++) {
                 S7ParseData item = s7ParseDataList.get(i);
                 S7Parameter parameter = parameters.get(i);
-                this.fillField(parameter, item);
+                parameter.setValue(this.parseValue(item));
             }
         } catch (Exception e) {
             throw new S7CommException("Serialization fetch data error:" + e.getMessage(), e);
@@ -267,58 +218,92 @@ public class S7Serializer implements IPLCSerializable {
     }
 
     /**
-     * Fill value of field.
-     * 填充字段数据
+     * Parse value and store it into the field of target, primitive fields are stored without boxing.
+     * (解析数据并写入目标对象字段，基础类型字段不装箱)
      *
-     * @param result target object
+     * @param target target object
      * @param item   S7ParseData
-     * @param <T>    type
-     * @throws IllegalAccessException IllegalAccessException
      */
-    private <T> void fillField(T result, S7ParseData item) throws IllegalAccessException {
-        ByteReadBuff buff = new ByteReadBuff(item.getDataItem().getData());
-        item.getField().setAccessible(true);
+    private void bindValue(Object target, S7ParseData item) {
+        FieldAccessor accessor = item.getAccessor();
+        Class<?> primitiveType = item.getDataType().getPrimitiveType();
+        // 字段类型与数据类型不一致时走通用路径，由其抛出类型不匹配的异常，避免强制转换截断数据
+        if (primitiveType == null || primitiveType != accessor.getPrimitiveType()) {
+            accessor.set(target, this.parseValue(item));
+            return;
+        }
+        byte[] data = item.getDataItem().getData();
         switch (item.getDataType()) {
             case BOOL:
-                item.getField().set(result, buff.getBoolean(0));
-                break;
-            case BYTE:
-                item.getField().set(result, buff.getBytes(item.getCount()));
+                // Boolean的装箱对象是缓存的，不会分配内存
+                accessor.set(target, BooleanUtil.getValue(data[0], 0));
                 break;
             case UINT16:
-                item.getField().set(result, buff.getUInt16());
+                accessor.setLong(target, ShortUtil.toUInt16(data, 0));
                 break;
             case INT16:
-                item.getField().set(result, buff.getInt16());
+                accessor.setLong(target, ShortUtil.toInt16(data, 0));
                 break;
             case TIME:
             case UINT32:
-                item.getField().set(result, buff.getUInt32());
+                accessor.setLong(target, IntegerUtil.toUInt32(data, 0));
                 break;
             case INT32:
-                item.getField().set(result, buff.getInt32());
+                accessor.setLong(target, IntegerUtil.toInt32(data, 0));
                 break;
             case INT64:
-                item.getField().set(result, buff.getInt64());
+                accessor.setLong(target, LongUtil.toInt64(data, 0));
                 break;
             case FLOAT32:
-                item.getField().set(result, buff.getFloat32());
+                accessor.setDouble(target, FloatUtil.toFloat32(data, 0));
                 break;
             case FLOAT64:
-                item.getField().set(result, buff.getFloat64());
+                accessor.setDouble(target, FloatUtil.toFloat64(data, 0));
+                break;
+            default:
+                accessor.set(target, this.parseValue(item));
                 break;
+        }
+    }
+
+    /**
+     * Parse value of field.
+     * 解析字段数据
+     *
+     * @param item S7ParseData
+     * @return value of field
+     */
+    private Object parseValue(S7ParseData item) {
+        ByteReadBuff buff = new ByteReadBuff(item.getDataItem().getData());
+        switch (item.getDataType()) {
+            case BOOL:
+                return buff.getBoolean(0);
+            case BYTE:
+                return buff.getBytes(item.getCount());
+            case UINT16:
+                return buff.getUInt16();
+            case INT16:
+                return buff.getInt16();
+            case TIME:
+            case UINT32:
+                return buff.getUInt32();
+            case INT32:
+                return buff.getInt32();
+            case INT64:
+                return buff.getInt64();
+            case FLOAT32:
+                return buff.getFloat32();
+            case FLOAT64:
+                return buff.getFloat64();
             case STRING:
                 int length = buff.getByteToInt(0);
-                item.getField().set(result, buff.getString(1, Math.min(length, item.getCount()), Charset.forName("GB2312")));
-                break;
+                return buff.getString(1, Math.min(length, item.getCount()), Charset.forName("GB2312"));
             case DATE:
                 LocalDate date = LocalDate.of(1990, 1, 1).plusDays(buff.getUInt16());
-                item.getField().set(result, date);
-                break;
+                return date;
             case TIME_OF_DAY:
                 LocalTime time = LocalTime.ofSecondOfDay(buff.getUInt32() / 1000);
-                item.getField().set(result, time);
-                break;
+                return time;
             case DTL:
                 int year = buff.getUInt16();
                 int month = buff.getByteToInt();
@@ -329,8 +314,7 @@ public class S7Serializer implements IPLCSerializable {
                 int second = buff.getByteToInt();
                 long nanoOfSecond = buff.getUInt32();
                 LocalDateTime dateTime = LocalDateTime.of(year, month, dayOfMonth, hour, minute, second, (int) nanoOfSecond);
-                item.getField().set(result, dateTime);
-                break;
+                return dateTime;
             default:
                 throw new S7CommException("Data type can not be recognized");
         }
@@ -342,7 +326,7 @@ public class S7Serializer implements IPLCSerializable {
     @Override
     public <T> void write(T targetBean) {
         // 解析参数
-        List<S7ParseData> s7ParseDataList = this.parseBean(targetBean.getClass());
+        List<S7ParseData> s7ParseDataList = this.parseBean(S7BeanPlan.of(targetBean.getClass()));
 
         if (s7ParseDataList.isEmpty()) {
             // 解析出的注解数据个数为空，无法读取数据
@@ -394,8 +378,7 @@ public class S7Serializer implements IPLCSerializable {
     private <T> List<S7ParseData> extractData(T targetBean, List<S7ParseData> s7ParseDataList) {
         try {
             for (S7ParseData item : s7ParseDataList) {
-                item.getField().setAccessible(true);
-                Object data = item.getField().get(targetBean);
+                Object data = item.getAccessor().get(targetBean);
                 if (data == null) {
                     continue;
                 }
@@ -25,13 +25,19 @@
 package com.github.xingshuangs.iot.protocol.s7.service;
 
 
+import com.github.xingshuangs.iot.common.buff.ByteArrayPool;
 import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
 import com.github.xingshuangs.iot.common.buff.ByteWriteBuff;
+import com.github.xingshuangs.iot.common.buff.PooledByteArray;
 import com.github.xingshuangs.iot.common.constant.GeneralConst;
 import com.github.xingshuangs.iot.exceptions.S7CommException;
+import com.github.xingshuangs.iot.net.IFrameDecoder;
+import com.github.xingshuangs.iot.net.LengthFieldFrameDecoder;
 import com.github.xingshuangs.iot.net.client.TcpClientBasic;
+import com.github.xingshuangs.iot.protocol.s7.algorithm.S7AddressMergeAlg;
 import com.github.xingshuangs.iot.protocol.s7.algorithm.S7ComGroup;
 import com.github.xingshuangs.iot.protocol.s7.algorithm.S7ComItem;
+import com.github.xingshuangs.iot.protocol.s7.algorithm.S7MergeRange;
 import com.github.xingshuangs.iot.protocol.s7.algorithm.S7SequentialGroupAlg;
 import com.github.xingshuangs.iot.protocol.s7.constant.ErrorCode;
 import com.github.xingshuangs.iot.protocol.s7.enums.*;
@@ -40,8 +46,13 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
@@ -66,7 +77,7 @@ public class PLCNetwork extends TcpClientBasic {
     /**
      * locker.
      */
-    private final Object objLock = new Object();
+    private final ReentrantLock objLock = new ReentrantLock();
 
     /**
      * PLC type.
@@ -92,6 +103,25 @@ public class PLCNetwork extends TcpClientBasic {
      */
     protected int pduLength;
 
+    /**
+     * Max amq caller, the number of parallel jobs of the caller, the value of PLC shall prevail after handshake.
+     * (主叫方Ack队列的大小，即并行作业数，握手后以PLC的为准，默认1)
+     */
+    protected int maxAmqCaller = 1;
+
+    /**
+     * Max amq callee, the number of parallel jobs of the callee, the value of PLC shall prevail after handshake.
+     * (被叫方Ack队列的大小，即并行作业数，握手后以PLC的为准，默认1)
+     */
+    protected int maxAmqCallee = 1;
+
+    /**
+     * Max gap bytes for merging the nearby addresses of the same area and DB into one read item, less than 0 means
+     * disabled, {@link S7AddressMergeAlg#RECOMMENDED_MAX_GAP} is recommended, -1 default.
+     * (同一区域同一DB中相近地址合并为一个读取项的最大间隔字节数，小于0表示不合并，推荐16，默认-1)
+     */
+    protected int addressMergeGap = -1;
+
     /**
      * Persistence, true: long connection, false: short connection.
      * (是否持久化，默认是持久化，对应长连接，true：长连接，false：短连接)
@@ -104,6 +134,18 @@ public class PLCNetwork extends TcpClientBasic {
      */
     private BiConsumer<String, byte[]> comCallback;
 
+    /**
+     * Pool of the receive buffers.
+     * (接收缓存池)
+     */
+    private ByteArrayPool bufferPool = ByteArrayPool.getDefault();
+
+    /**
+     * Reusable TPKT header buffer of this connection, only used in the lock.
+     * (当前连接可复用的TPKT头缓存，只在锁内使用)
+     */
+    private final byte[] tpktHeader = new byte[TPKT.BYTE_LENGTH];
+
     public PLCNetwork() {
         super();
     }
@@ -124,6 +166,17 @@ public class PLCNetwork extends TcpClientBasic {
         }
     }
 
+    /**
+     * Create the TPKT frame decoder.
+     * (创建TPKT帧解码器)
+     *
+     * @return frame decoder
+     */
+    @Override
+    protected IFrameDecoder createFrameDecoder() {
+        return LengthFieldFrameDecoder.tpkt();
+    }
+
     //region socket连接后握手操作
 
     /**
@@ -133,9 +186,13 @@ public class PLCNetwork extends TcpClientBasic {
     @Override
     protected void doAfterConnected() {
         this.connectionRequest();
-        // 存在设置的PDULength != 实际PLC的PDULength，因此以PLC的为准
-        this.pduLength = this.connectDtData();
-        log.debug("PLC[{}] handshake success, rack[{}]，slot[{}]，PDULength[{}]", this.plcType, this.rack, this.slot, this.pduLength);
+        // 存在设置的PDULength != 实际PLC的PDULength，因此以PLC的为准，并行作业数同理
+        SetupComParameter parameter = this.connectDtData();
+        this.pduLength = parameter.getPduLength();
+        this.maxAmqCaller = Math.max(1, parameter.getMaxAmqCaller());
+        this.maxAmqCallee = Math.max(1, parameter.getMaxAmqCallee());
+        log.debug("PLC[{}] handshake success, rack[{}]，slot[{}]，PDULength[{}]，MaxAmqCaller[{}]，MaxAmqCallee[{}]",
+                this.plcType, this.rack, this.slot, this.pduLength, this.maxAmqCaller, this.maxAmqCallee);
     }
 
     /**
@@ -193,10 +250,10 @@ public class PLCNetwork extends TcpClientBasic {
      * Connection setup.
      * (连接setup)
      *
-     * @return pduLength pdu长度
+     * @return setup communication parameter of PLC
      */
-    private int connectDtData() {
-        S7Data req = S7Data.createConnectDtData(this.pduLength);
+    private SetupComParameter connectDtData() {
+        S7Data req = S7Data.createConnectDtData(this.pduLength, this.maxAmqCaller, this.maxAmqCallee);
         S7Data ack = this.readFromServer(req);
         if (ack.getCotp().getPduType() != EPduType.DT_DATA) {
             // 连接Setup响应错误
@@ -206,12 +263,12 @@ public class PLCNetwork extends TcpClientBasic {
             // 连接Setup响应错误，缺失响应头header或响应头长度不够[12]
             throw new S7CommException("Connection Setup response error, missing response header or insufficient response header length [12]");
         }
-        int length = ((SetupComParameter) ack.getParameter()).getPduLength();
-        if (length <= 0) {
+        SetupComParameter parameter = (SetupComParameter) ack.getParameter();
+        if (parameter.getPduLength() <= 0) {
             // PDU的最大长度小于0
             throw new S7CommException("The maximum length of a PDU is less than 0");
         }
-        return length;
+        return parameter;
     }
     //endregion
 
@@ -226,8 +283,17 @@ public class PLCNetwork extends TcpClientBasic {
      */
     private S7Data readFromServer(S7Data req) {
         byte[] sendData = req.toByteArray();
-        byte[] total = this.readFromServer(sendData);
-        S7Data ack = S7Data.fromBytes(total);
+        this.checkSendData(sendData);
+        S7Data ack;
+        this.objLock.lock();
+        try {
+            this.write(sendData);
+            try (PooledByteArray frame = this.readTpktFrameLease()) {
+                ack = S7Data.fromBytes(frame.getData(), frame.getLength());
+            }
+        } finally {
+            this.objLock.unlock();
+        }
         this.checkPostedCom(req, ack);
         return ack;
     }
@@ -240,6 +306,129 @@ public class PLCNetwork extends TcpClientBasic {
      * @return byte array of response
      */
     private byte[] readFromServer(byte[] sendData) {
+        this.checkSendData(sendData);
+        byte[] total;
+        this.objLock.lock();
+        try {
+            this.write(sendData);
+            total = this.readTpktFrame();
+        } finally {
+            this.objLock.unlock();
+        }
+        return total;
+    }
+
+    /**
+     * Pipelined data interaction with the server, keeps up to the negotiated parallel jobs in flight on one connection,
+     * matches the response by pdu reference and returns the responses in the order of the requests.
+     * (流水线方式和服务器交互，同一连接上最多同时存在协商的并行作业数个请求，根据PDU引用编号匹配响应，结果按请求顺序返回)
+     *
+     * @param reqs req data list
+     * @return ack data list
+     */
+    private List<S7Data> readFromServer(List<S7Data> reqs) {
+        int window = this.getParallelJobs();
+        if (window <= 1 || reqs.size() <= 1) {
+            return reqs.stream().map(this::readFromServer).collect(Collectors.toList());
+        }
+        byte[][] frames = new byte[reqs.size()][];
+        int[] itemCounts = new int[reqs.size()];
+        for (int i = 0; i < reqs.size(); i++) {
+            frames[i] = reqs.get(i).toByteArray();
+            itemCounts[i] = this.getItemCount(reqs.get(i));
+        }
+        return this.readFromServer(frames, itemCounts, window);
+    }
+
+    /**
+     * Pipelined data interaction with the server by encoded request frames, the pdu reference is taken from the frame.
+     * (以编码后的请求报文流水线方式和服务器交互，PDU引用编号从报文中获取)
+     *
+     * @param frames     encoded request frames
+     * @param itemCounts number of request items of each frame, less than 0 means not checked
+     * @param window     max number of requests in flight
+     * @return ack data list
+     */
+    private List<S7Data> readFromServer(byte[][] frames, int[] itemCounts, int window) {
+        S7Data[] acks = new S7Data[frames.length];
+        // key：pdu引用编号，value：请求的索引
+        Map<Integer, Integer> inFlight = new HashMap<>();
+        S7CommException error = null;
+        this.objLock.lock();
+        try {
+            try {
+                int sent = 0;
+                while (sent < frames.length || !inFlight.isEmpty()) {
+                    // 出现异常后不再发送新的请求，只接收已发送请求的响应，保证连接中没有残留的数据
+                    while (error == null && sent < frames.length && inFlight.size() < window) {
+                        byte[] sendData = frames[sent];
+                        this.checkSendData(sendData);
+                        this.write(sendData);
+                        inFlight.put(getPduReference(sendData), sent);
+                        sent++;
+                    }
+                    if (inFlight.isEmpty()) {
+                        break;
+                    }
+                    S7Data ack;
+                    try (PooledByteArray frame = this.readTpktFrameLease()) {
+                        ack = S7Data.fromBytes(frame.getData(), frame.getLength());
+                    }
+                    Integer index = ack.getHeader() == null ? null : inFlight.remove(ack.getHeader().getPduReference());
+                    if (index == null) {
+                        // 响应的pdu引用编号与发送中的请求都不匹配
+                        throw new S7CommException("The PDU reference of the response does not match any request in flight");
+                    }
+                    try {
+                        this.checkPostedCom(getPduReference(frames[index]), itemCounts[index], ack);
+                        acks[index] = ack;
+                    } catch (S7CommException e) {
+                        error = error == null ? e : error;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // 通信层异常，连接中可能残留未读取的响应，直接关闭
+                this.close();
+                throw e;
+            }
+        } finally {
+            this.objLock.unlock();
+        }
+        if (error != null) {
+            throw error;
+        }
+        return Arrays.asList(acks);
+    }
+
+    /**
+     * Get the pdu reference of the encoded request frame.
+     * (获取编码后请求报文中的PDU引用编号)
+     *
+     * @param frame request frame
+     * @return pdu reference
+     */
+    private static int getPduReference(byte[] frame) {
+        return ((frame[S7PreparedRead.PDU_REFERENCE_OFFSET] & 0xFF) << 8) | (frame[S7PreparedRead.PDU_REFERENCE_OFFSET + 1] & 0xFF);
+    }
+
+    /**
+     * Get the number of request items of the read-write request.
+     * (获取读写请求的请求项个数)
+     *
+     * @param req req data
+     * @return number of request items, -1 if it is not a read-write request
+     */
+    private int getItemCount(S7Data req) {
+        return req.getParameter() instanceof ReadWriteParameter ? ((ReadWriteParameter) req.getParameter()).getItemCount() : -1;
+    }
+
+    /**
+     * Check the send data and trigger the communication callback.
+     * (校验发送的数据，并触发通信回调)
+     *
+     * @param sendData byte array of request
+     */
+    private void checkSendData(byte[] sendData) {
         if (this.comCallback != null) {
             this.comCallback.accept(GeneralConst.PACKAGE_REQ, sendData);
         }
@@ -249,32 +438,73 @@ public class PLCNetwork extends TcpClientBasic {
             // 发送请求的字节数过长[%d]，已经大于最大的PDU长度[%d]
             throw new S7CommException(String.format("The number of bytes sent for the request is too long [%d], which is larger than the maximum PDU length [%d].", sendData.length, this.pduLength));
         }
+    }
 
-        TPKT tpkt;
-        int len;
-        byte[] total;
-        synchronized (this.objLock) {
-            this.write(sendData);
+    /**
+     * Read one complete frame according to TPKT, must be called in the lock.
+     * (根据TPKT读取一个完整的报文，需要在锁内调用)
+     *
+     * @return byte array of response
+     */
+    private byte[] readTpktFrame() {
+        try (PooledByteArray frame = this.readTpktFrameLease()) {
+            return frame.toByteArray();
+        }
+    }
 
-            byte[] data = new byte[TPKT.BYTE_LENGTH];
-            len = this.read(data);
-            if (len < TPKT.BYTE_LENGTH) {
-                // TPKT 无效，长度不一致
-                throw new S7CommException("The TPKT is invalid and the length is inconsistent");
+    /**
+     * Read one complete frame according to TPKT into a leased buffer, must be called in the lock,
+     * the caller releases the buffer after decoding.
+     * (根据TPKT读取一个完整的报文到租借的缓存中，需要在锁内调用，解析完成后由调用方释放)
+     *
+     * @return leased frame
+     */
+    private PooledByteArray readTpktFrameLease() {
+        if (this.isFrameReadable()) {
+            // 非阻塞通道由TPKT帧解码器切分完整的报文
+            PooledByteArray frame = this.readFrame(this.bufferPool);
+            if (this.comCallback != null) {
+                this.comCallback.accept(GeneralConst.PACKAGE_ACK, frame.toByteArray());
             }
-            tpkt = TPKT.fromBytes(data);
-            total = new byte[tpkt.getLength()];
-            System.arraycopy(data, 0, total, 0, data.length);
-            len = this.read(total, TPKT.BYTE_LENGTH, tpkt.getLength() - TPKT.BYTE_LENGTH);
+            return frame;
         }
-        if (len < total.length - TPKT.BYTE_LENGTH) {
-            // TPKT后面的数据长度，长度不一致
-            throw new S7CommException("The length of the data after TPKT is inconsistent");
+        int len = this.read(this.tpktHeader);
+        if (len < TPKT.BYTE_LENGTH) {
+            // TPKT 无效，长度不一致
+            throw new S7CommException("The TPKT is invalid and the length is inconsistent");
         }
-        if (this.comCallback != null) {
-            this.comCallback.accept(GeneralConst.PACKAGE_ACK, total);
+        int length = ((this.tpktHeader[2] & 0xFF) << 8) | (this.tpktHeader[3] & 0xFF);
+        if (length < TPKT.BYTE_LENGTH) {
+            // TPKT 无效，长度不一致
+            throw new S7CommException("The TPKT is invalid and the length is inconsistent");
+        }
+        PooledByteArray frame = this.bufferPool.lease(length);
+        try {
+            byte[] total = frame.getData();
+            System.arraycopy(this.tpktHeader, 0, total, 0, TPKT.BYTE_LENGTH);
+            len = this.read(total, TPKT.BYTE_LENGTH, length - TPKT.BYTE_LENGTH);
+            if (len < length - TPKT.BYTE_LENGTH) {
+                // TPKT后面的数据长度，长度不一致
+                throw new S7CommException("The length of the data after TPKT is inconsistent");
+            }
+            if (this.comCallback != null) {
+                this.comCallback.accept(GeneralConst.PACKAGE_ACK, Arrays.copyOf(total, length));
+            }
+            return frame;
+        } catch (RuntimeException e) {
+            frame.release();
+            throw e;
         }
-        return total;
+    }
+
+    /**
+     * Get the number of parallel jobs, it is the minimum of max amq caller and max amq callee.
+     * (获取并行作业数，取主叫和被叫Ack队列大小的最小值)
+     *
+     * @return parallel jobs
+     */
+    public int getParallelJobs() {
+        return Math.max(1, Math.min(this.maxAmqCaller, this.maxAmqCallee));
     }
 
     /**
@@ -319,6 +549,21 @@ public class PLCNetwork extends TcpClientBasic {
      * @param ack ack data
      */
     private void checkPostedCom(S7Data req, S7Data ack) {
+        if (ack.getHeader() == null) {
+            return;
+        }
+        this.checkPostedCom(req.getHeader().getPduReference(), this.getItemCount(req), ack);
+    }
+
+    /**
+     * Check the ack data by the pdu reference and the number of request items of the request.
+     * (根据请求的PDU引用编号和请求项个数校验响应数据)
+     *
+     * @param pduReference pdu reference of the request
+     * @param itemCount    number of request items of the request, less than 0 means not checked
+     * @param ack          ack data
+     */
+    private void checkPostedCom(int pduReference, int itemCount, S7Data ack) {
         if (ack.getHeader() == null) {
             return;
         }
@@ -334,7 +579,7 @@ public class PLCNetwork extends TcpClientBasic {
                     ackHeader.getErrorClass().getDescription(), ErrorCode.MAP.getOrDefault(ackHeader.getErrorCode(), "The error code does not exist")));
         }
         // 发送和接收的PDU编号一致
-        if (ackHeader.getPduReference() != req.getHeader().getPduReference()) {
+        if (ackHeader.getPduReference() != pduReference) {
             // pdu引用编号不一致，数据有误
             throw new S7CommException("The PDU references are inconsistent, causing incorrect data");
         }
@@ -347,8 +592,7 @@ public class PLCNetwork extends TcpClientBasic {
         ReadWriteDatum datum = (ReadWriteDatum) ack.getDatum();
         // 请求的数据个数一致
         List<ReturnItem> returnItems = datum.getReturnItems();
-        ReadWriteParameter parameter = (ReadWriteParameter) req.getParameter();
-        if (returnItems.size() != parameter.getItemCount()) {
+        if (itemCount >= 0 && returnItems.size() != itemCount) {
             // 返回的数据个数和请求的数据个数不一致
             throw new S7CommException("The returned data quantity is different from the requested data quantity");
         }
@@ -377,6 +621,37 @@ public class PLCNetwork extends TcpClientBasic {
             // 请求项缺失，无法获取数据
             throw new S7CommException("The request item is missing and the data cannot be retrieved");
         }
+        if (this.addressMergeGap < 0 || requestItems.size() < 2) {
+            return this.readS7DataBySequentialGroup(requestItems);
+        }
+        // 相近地址合并成连续的字节范围读取，再拆分回原始的请求项
+        List<S7MergeRange> ranges = S7AddressMergeAlg.merge(requestItems, this.addressMergeGap);
+        if (ranges.size() == requestItems.size()) {
+            return this.readS7DataBySequentialGroup(requestItems);
+        }
+        List<DataItem> rangeData = this.readS7DataBySequentialGroup(ranges.stream()
+                .map(S7MergeRange::getRequestItem).collect(Collectors.toList()));
+        DataItem[] resultList = new DataItem[requestItems.size()];
+        for (int r = 0; r < ranges.size(); r++) {
+            S7MergeRange range = ranges.get(r);
+            byte[] data = rangeData.get(r).getData();
+            for (Integer index : range.getIndexes()) {
+                RequestItem item = requestItems.get(index);
+                resultList[index] = DataItem.createReq(S7AddressMergeAlg.extract(range, item, data),
+                        item.getVariableType() == EParamVariableType.BIT ? EDataVariableType.BIT : EDataVariableType.BYTE_WORD_DWORD);
+            }
+        }
+        return new ArrayList<>(Arrays.asList(resultList));
+    }
+
+    /**
+     * Read S7 data, the items are grouped by the PDU length sequentially.
+     * (读取S7协议数据，请求项按PDU长度顺序分组)
+     *
+     * @param requestItems request items
+     * @return ack data items
+     */
+    private List<DataItem> readS7DataBySequentialGroup(List<RequestItem> requestItems) {
         // 根据原始请求列表提取每个请求数据大小
         List<Integer> rawNumbers = requestItems.stream().map(RequestItem::getCount).collect(Collectors.toList());
         // 根据原始请求列表构建最终结果列表
@@ -389,30 +664,32 @@ public class PLCNetwork extends TcpClientBasic {
         // 接收： 14=12(header)+2(parameter),5(DataItem)，dataItem可能4或5，统一采用5
         List<S7ComGroup> s7ComGroups = S7SequentialGroupAlg.readRecombination(rawNumbers, this.pduLength - 14, 5, 12);
         try {
-            s7ComGroups.forEach(x -> {
-                // 根据分组构建对应的请求列表
-                List<S7ComItem> comItemList = x.getItems();
-                List<RequestItem> newRequestItems = comItemList.stream().map(i -> {
+            // 根据分组构建对应的请求列表
+            List<S7Data> reqs = s7ComGroups.stream().map(x -> {
+                List<RequestItem> newRequestItems = x.getItems().stream().map(i -> {
                     RequestItem item = requestItems.get(i.getIndex()).copy();
                     item.setCount(i.getRipeSize());
                     item.setByteAddress(item.getByteAddress() + i.getSplitOffset());
                     return item;
                 }).collect(Collectors.toList());
+                return S7Data.createReadRequest(newRequestItems);
+            }).collect(Collectors.toList());
 
-                // S7数据请求
-                S7Data req = S7Data.createReadRequest(newRequestItems);
-                S7Data ack = this.readFromServer(req);
-                ReadWriteDatum datum = (ReadWriteDatum) ack.getDatum();
-                List<DataItem> dataItems = datum.getReturnItems().stream().map(DataItem.class::cast).collect(Collectors.toList());
+            // S7数据请求，并行作业数大于1时采用流水线方式
+            List<S7Data> acks = this.readFromServer(reqs);
 
-                // 将获取的数据重装实际结果列表中
+            // 将获取的数据重装实际结果列表中
+            for (int g = 0; g < s7ComGroups.size(); g++) {
+                List<S7ComItem> comItemList = s7ComGroups.get(g).getItems();
+                ReadWriteDatum datum = (ReadWriteDatum) acks.get(g).getDatum();
+                List<ReturnItem> returnItems = datum.getReturnItems();
                 for (int i = 0; i < comItemList.size(); i++) {
                     S7ComItem comItem = comItemList.get(i);
-                    byte[] src = dataItems.get(i).getData();
+                    byte[] src = ((DataItem) returnItems.get(i)).getData();
                     byte[] des = resultList.get(comItem.getIndex()).getData();
                     System.arraycopy(src, 0, des, comItem.getSplitOffset(), src.length);
                 }
-            });
+            }
             return resultList;
         } finally {
             if (!this.persistence) {
@@ -432,6 +709,65 @@ public class PLCNetwork extends TcpClientBasic {
         return this.readS7Data(Collections.singletonList(requestItem)).get(0);
     }
 
+    /**
+     * Read by the prepared read, only the PDU references of the encoded frames are patched before sending.
+     * (根据预编译读取进行读取，发送前只修改已编码报文中的PDU引用编号)
+     *
+     * @param preparedRead prepared read
+     * @return byte array list, in the order of the request items
+     */
+    public List<byte[]> readPrepared(S7PreparedRead preparedRead) {
+        // 同一个预编译读取的报文会被修改，同一时间只能被一个线程执行
+        preparedRead.getLock().lock();
+        try {
+            S7PreparedRead.Plan plan = preparedRead.getPlan(this.pduLength, this.addressMergeGap);
+            plan.patchPduReferences();
+            List<S7Data> acks = this.readFrames(plan.frames, plan.itemCounts);
+            return plan.assemble(acks);
+        } finally {
+            preparedRead.getLock().unlock();
+        }
+    }
+
+    /**
+     * Read the snapshot, the data is read into the back buffer of the snapshot directly without allocation,
+     * then the buffers are swapped and compared with the previous cycle.
+     * (读取快照，数据直接读取到快照的后台缓存中，不分配新数组，然后交换缓存并与上一周期比较)
+     *
+     * @param snapshot snapshot
+     * @return changed byte ranges, the whole area in the first cycle
+     */
+    public List<S7DbSnapshot.Range> readSnapshot(S7DbSnapshot snapshot) {
+        // 同一个快照的缓存会被修改，同一时间只能被一个线程执行
+        snapshot.getLock().lock();
+        try {
+            S7PreparedRead.Plan plan = snapshot.getPreparedRead().getPlan(this.pduLength, this.addressMergeGap);
+            plan.patchPduReferences();
+            plan.assembleInto(this.readFrames(plan.frames, plan.itemCounts), snapshot.getBackBuffer());
+            return snapshot.swap();
+        } finally {
+            snapshot.getLock().unlock();
+        }
+    }
+
+    /**
+     * Read by the encoded request frames, pipelined if the parallel jobs is greater than 1.
+     * (根据编码后的请求报文读取，并行作业数大于1时采用流水线方式)
+     *
+     * @param frames     encoded request frames
+     * @param itemCounts number of request items of each frame
+     * @return ack data list
+     */
+    List<S7Data> readFrames(byte[][] frames, int[] itemCounts) {
+        try {
+            return this.readFromServer(frames, itemCounts, this.getParallelJobs());
+        } finally {
+            if (!this.persistence) {
+                this.close();
+            }
+        }
+    }
+
     /**
      * Write S7 data.
      * (写S7协议数据)
@@ -464,7 +800,7 @@ public class PLCNetwork extends TcpClientBasic {
         // 接收：14=12(header)+2(parameter),1(DataItem)
         List<S7ComGroup> s7ComGroups = S7SequentialGroupAlg.writeRecombination(rawNumbers, this.pduLength - 12, 17);
         try {
-            s7ComGroups.forEach(x -> {
+            List<S7Data> reqs = s7ComGroups.stream().map(x -> {
                 // 根据分组构建对应的请求列表
                 List<S7ComItem> comItemList = x.getItems();
                 List<RequestItem> newRequestItems = comItemList.stream().map(i -> {
@@ -481,10 +817,10 @@ public class PLCNetwork extends TcpClientBasic {
                     return item;
                 }).collect(Collectors.toList());
 
-                // S7数据请求
-                S7Data req = S7Data.createWriteRequest(newRequestItems, newDataItems);
-                this.readFromServer(req);
-            });
+                return S7Data.createWriteRequest(newRequestItems, newDataItems);
+            }).collect(Collectors.toList());
+            // S7数据请求，并行作业数大于1时采用流水线方式
+            this.readFromServer(reqs);
         } finally {
             if (!this.persistence) {
                 this.close();
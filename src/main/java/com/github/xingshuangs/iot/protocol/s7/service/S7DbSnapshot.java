@@ -0,0 +1,232 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.service;
+
+
+import com.github.xingshuangs.iot.protocol.s7.utils.AddressUtil;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Snapshot of a contiguous byte area, such as a whole DB, two buffers are allocated once, every read fills the back
+ * buffer and swaps it with the front one, the changed byte ranges compared with the previous cycle are returned,
+ * so the consumers only process the deltas.
+ * (连续字节区域的快照，例如整个DB块，两个缓存只分配一次，每次读取写入后台缓存后与前台缓存交换，
+ * 返回与上一周期相比发生变化的字节范围，消费者只需处理变化部分)
+ * <p>
+ * The data returned by {@link #getData()} stays valid until the next read, one snapshot is read by one thread
+ * at a time.
+ * (getData()返回的数据在下一次读取之前有效，同一个快照同一时间只能被一个线程读取)
+ *
+ * @author xingshuang
+ */
+@Getter
+public final class S7DbSnapshot {
+
+    /**
+     * Address of the first byte.
+     * (起始字节地址)
+     */
+    private final String address;
+
+    /**
+     * Byte length of the area.
+     * (区域的字节长度)
+     */
+    private final int length;
+
+    /**
+     * Prepared read of the area, encoded once and reused.
+     * (区域的预编译读取，只编码一次并复用)
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final S7PreparedRead preparedRead;
+
+    /**
+     * Changes separated by no more than this number of unchanged bytes are merged into one range, 0 means only the
+     * adjacent changes are merged.
+     * (变化之间未变化的字节数不超过该值时合并为一个范围，0表示只合并相邻的变化)
+     */
+    private int mergeGap = 0;
+
+    /**
+     * Number of completed reads.
+     * (已完成的读取次数)
+     */
+    private long cycle = 0;
+
+    /**
+     * Front buffer, the data of the latest cycle.
+     * (前台缓存，最近一个周期的数据)
+     */
+    @Getter(AccessLevel.NONE)
+    private byte[] front;
+
+    /**
+     * Back buffer, the data of the previous cycle, filled by the next read.
+     * (后台缓存，上一个周期的数据，由下一次读取写入)
+     */
+    @Getter(AccessLevel.NONE)
+    private byte[] back;
+
+    /**
+     * Lock of the buffers, held by the read from filling the back buffer to swapping.
+     * (缓存的锁，读取从写入后台缓存到交换期间持有)
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public S7DbSnapshot(String address, int length) {
+        if (length < 1) {
+            throw new IllegalArgumentException("length >= 1");
+        }
+        this.address = address;
+        this.length = length;
+        this.preparedRead = new S7PreparedRead(Collections.singletonList(AddressUtil.parseByte(address, length)));
+        this.front = new byte[length];
+        this.back = new byte[length];
+    }
+
+    public void setMergeGap(int mergeGap) {
+        if (mergeGap < 0) {
+            throw new IllegalArgumentException("mergeGap >= 0");
+        }
+        this.mergeGap = mergeGap;
+    }
+
+    /**
+     * Get the data of the latest cycle, do not modify it.
+     * (获取最近一个周期的数据，不要修改)
+     *
+     * @return byte array
+     */
+    public byte[] getData() {
+        return this.front;
+    }
+
+    /**
+     * Get the data of the previous cycle, do not modify it.
+     * (获取上一个周期的数据，不要修改)
+     *
+     * @return byte array
+     */
+    public byte[] getPrevious() {
+        return this.back;
+    }
+
+    /**
+     * Get the back buffer to be filled.
+     * (获取待写入的后台缓存)
+     *
+     * @return back buffer
+     */
+    byte[] getBackBuffer() {
+        return this.back;
+    }
+
+    /**
+     * Swap the buffers after the back buffer is filled, and get the changed ranges, the whole area is changed in the
+     * first cycle.
+     * (后台缓存写入完成后交换缓存，并获取变化的范围，第一个周期整个区域都视为变化)
+     *
+     * @return changed ranges
+     */
+    List<Range> swap() {
+        List<Range> res = this.cycle == 0
+                ? Collections.singletonList(new Range(0, this.length))
+                : diff(this.front, this.back, this.mergeGap);
+        byte[] tmp = this.front;
+        this.front = this.back;
+        this.back = tmp;
+        this.cycle++;
+        return res;
+    }
+
+    /**
+     * Compare the two buffers and get the changed ranges.
+     * (比较两个缓存，获取变化的范围)
+     *
+     * @param previous previous data
+     * @param current  current data
+     * @param mergeGap max number of unchanged bytes between two merged changes
+     * @return changed ranges
+     */
+    static List<Range> diff(byte[] previous, byte[] current, int mergeGap) {
+        List<Range> res = new ArrayList<>();
+        int start = -1;
+        int end = -1;
+        for (int i = 0; i < current.length; i++) {
+            if (previous[i] == current[i]) {
+                continue;
+            }
+            if (start >= 0 && i - end <= mergeGap) {
+                end = i + 1;
+                continue;
+            }
+            if (start >= 0) {
+                res.add(new Range(start, end - start));
+            }
+            start = i;
+            end = i + 1;
+        }
+        if (start >= 0) {
+            res.add(new Range(start, end - start));
+        }
+        return res;
+    }
+
+    /**
+     * Changed byte range, the offset is relative to the first byte of the snapshot.
+     * (变化的字节范围，偏移量相对于快照的起始字节)
+     */
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    public static final class Range {
+
+        /**
+         * Byte offset.
+         * (字节偏移量)
+         */
+        private final int offset;
+
+        /**
+         * Byte length.
+         * (字节长度)
+         */
+        private final int length;
+
+        public Range(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -41,6 +41,8 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -124,6 +126,17 @@ public class S7PLC extends PLCNetwork {
         return dataItems.stream().map(DataItem::getData).collect(Collectors.toList());
     }
 
+    /**
+     * Multi-address reads byte data by the prepared read, the requests are encoded once and reused.
+     * (根据预编译读取进行多地址读取字节数据，请求报文只编码一次并复用)
+     *
+     * @param preparedRead prepared read
+     * @return byte array list
+     */
+    public List<byte[]> readMultiByte(S7PreparedRead preparedRead) {
+        return this.readPrepared(preparedRead);
+    }
+
     /**
      * Read byte.
      * (单地址字节数据读取)
@@ -551,6 +564,213 @@ public class S7PLC extends PLCNetwork {
 
     //endregion
 
+    //region 基本类型数组读取
+
+    /**
+     * Read bit into the array without boxing.
+     * (读取多个布尔数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readBoolean(String[] addresses, boolean[] values) {
+        this.readBoolean(S7PreparedAddresses.ofBit(addresses), values);
+    }
+
+    /**
+     * Read bit of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个布尔数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readBoolean(S7PreparedAddresses addresses, boolean[] values) {
+        this.readPrepared(addresses, 0, values.length, (data, i) -> values[i] = BooleanUtil.getValue(data[0], 0));
+    }
+
+    /**
+     * Read int16, 2-bytes into the array without boxing.
+     * (读取多个Int16 2字节数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt16(String[] addresses, short[] values) {
+        this.readInt16(S7PreparedAddresses.of(2, addresses), values);
+    }
+
+    /**
+     * Read int16, 2-bytes of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个Int16 2字节数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt16(S7PreparedAddresses addresses, short[] values) {
+        this.readPrepared(addresses, 2, values.length, (data, i) -> values[i] = ShortUtil.toInt16(data));
+    }
+
+    /**
+     * Read uint16, 2-bytes into the array without boxing.
+     * (读取多个UInt16 2字节数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readUInt16(String[] addresses, int[] values) {
+        this.readUInt16(S7PreparedAddresses.of(2, addresses), values);
+    }
+
+    /**
+     * Read uint16, 2-bytes of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个UInt16 2字节数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readUInt16(S7PreparedAddresses addresses, int[] values) {
+        this.readPrepared(addresses, 2, values.length, (data, i) -> values[i] = ShortUtil.toUInt16(data));
+    }
+
+    /**
+     * Read int32, 4-bytes into the array without boxing.
+     * (读取多个Int32 4字节数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt32(String[] addresses, int[] values) {
+        this.readInt32(S7PreparedAddresses.of(4, addresses), values);
+    }
+
+    /**
+     * Read int32, 4-bytes of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个Int32 4字节数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt32(S7PreparedAddresses addresses, int[] values) {
+        this.readPrepared(addresses, 4, values.length, (data, i) -> values[i] = IntegerUtil.toInt32(data));
+    }
+
+    /**
+     * Read uint32, 4-bytes into the array without boxing.
+     * (读取多个UInt32 4字节数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readUInt32(String[] addresses, long[] values) {
+        this.readUInt32(S7PreparedAddresses.of(4, addresses), values);
+    }
+
+    /**
+     * Read uint32, 4-bytes of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个UInt32 4字节数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readUInt32(S7PreparedAddresses addresses, long[] values) {
+        this.readPrepared(addresses, 4, values.length, (data, i) -> values[i] = IntegerUtil.toUInt32(data));
+    }
+
+    /**
+     * Read int64, 8-bytes into the array without boxing.
+     * (读取多个Int64 8字节数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt64(String[] addresses, long[] values) {
+        this.readInt64(S7PreparedAddresses.of(8, addresses), values);
+    }
+
+    /**
+     * Read int64, 8-bytes of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个Int64 8字节数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readInt64(S7PreparedAddresses addresses, long[] values) {
+        this.readPrepared(addresses, 8, values.length, (data, i) -> values[i] = LongUtil.toInt64(data));
+    }
+
+    /**
+     * Read float32, 4-bytes into the array without boxing.
+     * (读取多个Float32 4字节数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readFloat32(String[] addresses, float[] values) {
+        this.readFloat32(S7PreparedAddresses.of(4, addresses), values);
+    }
+
+    /**
+     * Read float32, 4-bytes of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个Float32 4字节数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readFloat32(S7PreparedAddresses addresses, float[] values) {
+        this.readPrepared(addresses, 4, values.length, (data, i) -> values[i] = FloatUtil.toFloat32(data));
+    }
+
+    /**
+     * Read float64, 8-bytes into the array without boxing.
+     * (读取多个Float64 8字节数据到数组中，不装箱)
+     *
+     * @param addresses address strings
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readFloat64(String[] addresses, double[] values) {
+        this.readFloat64(S7PreparedAddresses.of(8, addresses), values);
+    }
+
+    /**
+     * Read float64, 8-bytes of the prepared addresses into the array without boxing.
+     * (读取预解析地址的多个Float64 8字节数据到数组中，不装箱)
+     *
+     * @param addresses prepared addresses
+     * @param values    output array, its length must be not less than the number of addresses
+     */
+    public void readFloat64(S7PreparedAddresses addresses, double[] values) {
+        this.readPrepared(addresses, 8, values.length, (data, i) -> values[i] = FloatUtil.toFloat64(data));
+    }
+
+    /**
+     * Read the prepared addresses after checking the byte length and the output array length, the request frames are
+     * encoded once, every item is passed to the decoder.
+     * (校验字节长度和输出数组长度后读取预解析的地址，请求报文只编码一次，每个数据项交给解码器处理)
+     *
+     * @param addresses   prepared addresses
+     * @param byteLength  expected byte length, 0 means bit
+     * @param valueLength output array length
+     * @param decoder     decoder of each item, the arguments are the item data and the index
+     */
+    private void readPrepared(S7PreparedAddresses addresses, int byteLength, int valueLength, ObjIntConsumer<byte[]> decoder) {
+        if (addresses.getByteLength() != byteLength) {
+            // 预解析地址的字节长度与读取的数据类型不一致
+            throw new IllegalArgumentException(String.format("The byte length of the prepared addresses [%d] does not match the data type [%d]",
+                    addresses.getByteLength(), byteLength));
+        }
+        if (valueLength < addresses.size()) {
+            // 输出数组长度小于地址数量
+            throw new IllegalArgumentException(String.format("The length of the values [%d] is less than the number of addresses [%d]",
+                    valueLength, addresses.size()));
+        }
+        List<byte[]> data = this.readPrepared(addresses.getPreparedRead());
+        for (int i = 0; i < data.size(); i++) {
+            decoder.accept(data.get(i), i);
+        }
+    }
+
+    //endregion
+
     //region 写入数据
 
     /**
@@ -818,6 +1038,216 @@ public class S7PLC extends PLCNetwork {
 
     //endregion
 
+    //region 异步读写
+
+    /**
+     * Multi-address reads byte data asynchronously.
+     * (异步多地址读取字节数据)
+     *
+     * @param addressRead address wrapper list
+     * @return future of byte array list
+     */
+    public CompletableFuture<List<byte[]>> readMultiByteAsync(MultiAddressRead addressRead) {
+        return this.executeAsync(() -> this.readMultiByte(addressRead));
+    }
+
+    /**
+     * Read byte asynchronously.
+     * (异步单地址字节数据读取)
+     *
+     * @param address address string
+     * @param count   byte count
+     * @return future of byte array
+     */
+    public CompletableFuture<byte[]> readByteAsync(String address, int count) {
+        return this.executeAsync(() -> this.readByte(address, count));
+    }
+
+    /**
+     * Read boolean asynchronously.
+     * (异步读取boolean数据)
+     *
+     * @param address address string
+     * @return future of boolean
+     */
+    public CompletableFuture<Boolean> readBooleanAsync(String address) {
+        return this.executeAsync(() -> this.readBoolean(address));
+    }
+
+    /**
+     * Read int16 asynchronously.
+     * (异步读取int16数据)
+     *
+     * @param address address string
+     * @return future of int16
+     */
+    public CompletableFuture<Short> readInt16Async(String address) {
+        return this.executeAsync(() -> this.readInt16(address));
+    }
+
+    /**
+     * Read uint16 asynchronously.
+     * (异步读取uint16数据)
+     *
+     * @param address address string
+     * @return future of uint16
+     */
+    public CompletableFuture<Integer> readUInt16Async(String address) {
+        return this.executeAsync(() -> this.readUInt16(address));
+    }
+
+    /**
+     * Read int32 asynchronously.
+     * (异步读取int32数据)
+     *
+     * @param address address string
+     * @return future of int32
+     */
+    public CompletableFuture<Integer> readInt32Async(String address) {
+        return this.executeAsync(() -> this.readInt32(address));
+    }
+
+    /**
+     * Read uint32 asynchronously.
+     * (异步读取uint32数据)
+     *
+     * @param address address string
+     * @return future of uint32
+     */
+    public CompletableFuture<Long> readUInt32Async(String address) {
+        return this.executeAsync(() -> this.readUInt32(address));
+    }
+
+    /**
+     * Read float32 asynchronously.
+     * (异步读取float32数据)
+     *
+     * @param address address string
+     * @return future of float32
+     */
+    public CompletableFuture<Float> readFloat32Async(String address) {
+        return this.executeAsync(() -> this.readFloat32(address));
+    }
+
+    /**
+     * Read float64 asynchronously.
+     * (异步读取float64数据)
+     *
+     * @param address address string
+     * @return future of float64
+     */
+    public CompletableFuture<Double> readFloat64Async(String address) {
+        return this.executeAsync(() -> this.readFloat64(address));
+    }
+
+    /**
+     * Read string asynchronously.
+     * (异步读取字符串)
+     *
+     * @param address address string
+     * @return future of string
+     */
+    public CompletableFuture<String> readStringAsync(String address) {
+        return this.executeAsync(() -> this.readString(address));
+    }
+
+    /**
+     * Multi-address writes data asynchronously.
+     * (异步多地址写入数据)
+     *
+     * @param addressWrite address wrapper list
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeMultiDataAsync(MultiAddressWrite addressWrite) {
+        return this.runAsync(() -> this.writeMultiData(addressWrite));
+    }
+
+    /**
+     * Write byte array asynchronously.
+     * (异步写入字节数组)
+     *
+     * @param address address string
+     * @param data    byte array
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeByteAsync(String address, byte[] data) {
+        return this.runAsync(() -> this.writeByte(address, data));
+    }
+
+    /**
+     * Write boolean asynchronously.
+     * (异步写入boolean数据)
+     *
+     * @param address address string
+     * @param data    boolean data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeBooleanAsync(String address, boolean data) {
+        return this.runAsync(() -> this.writeBoolean(address, data));
+    }
+
+    /**
+     * Write int16 asynchronously.
+     * (异步写入int16数据)
+     *
+     * @param address address string
+     * @param data    int16 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeInt16Async(String address, short data) {
+        return this.runAsync(() -> this.writeInt16(address, data));
+    }
+
+    /**
+     * Write int32 asynchronously.
+     * (异步写入int32数据)
+     *
+     * @param address address string
+     * @param data    int32 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeInt32Async(String address, int data) {
+        return this.runAsync(() -> this.writeInt32(address, data));
+    }
+
+    /**
+     * Write float32 asynchronously.
+     * (异步写入float32数据)
+     *
+     * @param address address string
+     * @param data    float32 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeFloat32Async(String address, float data) {
+        return this.runAsync(() -> this.writeFloat32(address, data));
+    }
+
+    /**
+     * Write float64 asynchronously.
+     * (异步写入float64数据)
+     *
+     * @param address address string
+     * @param data    float64 data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeFloat64Async(String address, double data) {
+        return this.runAsync(() -> this.writeFloat64(address, data));
+    }
+
+    /**
+     * Write string asynchronously.
+     * (异步写入字符串)
+     *
+     * @param address address string
+     * @param data    string data
+     * @return future, completed after written
+     */
+    public CompletableFuture<Void> writeStringAsync(String address, String data) {
+        return this.runAsync(() -> this.writeString(address, data));
+    }
+
+    //endregion
+
     //region 控制部分
 
     /**
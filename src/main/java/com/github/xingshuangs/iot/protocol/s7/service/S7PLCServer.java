@@ -26,18 +26,17 @@ package com.github.xingshuangs.iot.protocol.s7.service;
 
 
 import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
-import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
-import com.github.xingshuangs.iot.net.SocketUtils;
-import com.github.xingshuangs.iot.net.server.TcpServerBasic;
+import com.github.xingshuangs.iot.net.IFrameDecoder;
+import com.github.xingshuangs.iot.net.LengthFieldFrameDecoder;
+import com.github.xingshuangs.iot.net.server.NioServerSession;
+import com.github.xingshuangs.iot.net.server.NioTcpServer;
 import com.github.xingshuangs.iot.protocol.s7.enums.*;
 import com.github.xingshuangs.iot.protocol.s7.model.*;
 import com.github.xingshuangs.iot.protocol.s7.utils.AddressUtil;
 import com.github.xingshuangs.iot.utils.BooleanUtil;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.Socket;
+import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -47,13 +46,41 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 /**
- * S7 plc server class.
- * S7的PLC服务端
+ * S7 plc server class, based on the NIO selector, a few IO threads serve many clients.
+ * S7的PLC服务端，基于NIO选择器，少量IO线程服务大量客户端
+ * <p>
+ * The superclass is NioTcpServer instead of TcpServerBasic, subclasses overriding the blocking Socket hooks must move
+ * to checkClientValid(SocketChannel), clientConnected(NioServerSession) and clientDisconnected(NioServerSession).
+ * (父类由TcpServerBasic改为NioTcpServer，重写了阻塞Socket钩子方法的子类需要改为重写上述基于通道和会话的方法)
  *
  * @author xingshuang
  */
 @Slf4j
-public class S7PLCServer extends TcpServerBasic {
+public class S7PLCServer extends NioTcpServer {
+
+    /**
+     * Handshake step, waiting for the connect request.
+     * (握手步骤，等待连接请求)
+     */
+    private static final int STATE_CONNECT = 0;
+
+    /**
+     * Handshake step, waiting for the parameter setting.
+     * (握手步骤，等待参数设置)
+     */
+    private static final int STATE_SETUP = 1;
+
+    /**
+     * Handshake finished, handling the data request.
+     * (握手完成，处理数据请求)
+     */
+    private static final int STATE_DATA = 2;
+
+    /**
+     * TPKT frame decoder.
+     * (TPKT帧解码器)
+     */
+    private static final IFrameDecoder FRAME_DECODER = LengthFieldFrameDecoder.tpkt();
 
     /**
      * Locker.
@@ -116,57 +143,68 @@ public class S7PLCServer extends TcpServerBasic {
     }
 
     @Override
-    protected boolean checkHandshake(Socket socket) {
-        // 校验connect request
-        S7Data s7Data = this.readS7DataFromClient(socket);
-        if (!(s7Data.getCotp() instanceof COTPConnection)
-                || s7Data.getCotp().getPduType() != EPduType.CONNECT_REQUEST) {
-            // 客户端[{}]握手失败，不是连接请求
-            log.error("Client [{}] Handshake failed, not connection request", socket.getRemoteSocketAddress());
-            return false;
-        }
-        S7Data connectConfirm = S7Data.createConnectConfirm(s7Data);
-        this.write(socket, connectConfirm.toByteArray());
+    protected IFrameDecoder getFrameDecoder() {
+        return FRAME_DECODER;
+    }
 
-        // 校验setup
-        s7Data = this.readS7DataFromClient(socket);
-        if (!(s7Data.getCotp() instanceof COTPData)
-                || s7Data.getCotp().getPduType() != EPduType.DT_DATA) {
-            // 客户端[{}]握手失败，不是参数设置
-            log.error("Client [{}] handshake failed, not parameter setting", socket.getRemoteSocketAddress());
-            return false;
+    @Override
+    protected byte[] handleFrame(NioServerSession session, byte[] frame) {
+        S7Data req = S7Data.fromBytes(frame);
+        switch (session.getState()) {
+            case STATE_CONNECT:
+                // 校验connect request
+                if (!(req.getCotp() instanceof COTPConnection)
+                        || req.getCotp().getPduType() != EPduType.CONNECT_REQUEST) {
+                    // 客户端[{}]握手失败，不是连接请求
+                    log.error("Client [{}] Handshake failed, not connection request", session.getRemoteAddress());
+                    session.close();
+                    return null;
+                }
+                session.setState(STATE_SETUP);
+                return S7Data.createConnectConfirm(req).toByteArray();
+            case STATE_SETUP:
+                // 校验setup
+                if (!(req.getCotp() instanceof COTPData)
+                        || req.getCotp().getPduType() != EPduType.DT_DATA) {
+                    // 客户端[{}]握手失败，不是参数设置
+                    log.error("Client [{}] handshake failed, not parameter setting", session.getRemoteAddress());
+                    session.close();
+                    return null;
+                }
+                session.setState(STATE_DATA);
+                log.debug("The client [{}] handshake succeeded", session.getRemoteAddress());
+                return S7Data.createConnectAckDtData(req).toByteArray();
+            default:
+                return this.doClientHandle(session.getRemoteAddress(), req).toByteArray();
         }
-        S7Data connectAckDtData = S7Data.createConnectAckDtData(s7Data);
-        this.write(socket, connectAckDtData.toByteArray());
-        log.debug("The client [{}] handshake succeeded", socket.getRemoteSocketAddress());
-        return true;
     }
 
-    @Override
-    protected void doClientHandle(Socket socket) {
-        S7Data req = this.readS7DataFromClient(socket);
+    /**
+     * Do the request handler after the handshake.
+     * (握手之后的请求处理)
+     *
+     * @param address client address
+     * @param req     request data
+     * @return response
+     */
+    private S7Data doClientHandle(SocketAddress address, S7Data req) {
         if (!(req.getCotp() instanceof COTPData)
                 || req.getCotp().getPduType() != EPduType.DT_DATA
                 || req.getHeader().getMessageType() != EMessageType.JOB) {
-            S7Data response = S7Data.createErrorResponse(req, EErrorClass.ERROR_ON_SUPPLIES, 0x8500);
-            this.write(socket, response.toByteArray());
+            return S7Data.createErrorResponse(req, EErrorClass.ERROR_ON_SUPPLIES, 0x8500);
         }
 
         try {
             switch (req.getParameter().getFunctionCode()) {
                 case READ_VARIABLE:
-                    this.readVariableHandle(socket, req);
-                    return;
+                    return this.readVariableHandle(address, req);
                 case WRITE_VARIABLE:
-                    this.writeVariableHandle(socket, req);
-                    return;
+                    return this.writeVariableHandle(address, req);
                 default:
-                    S7Data response = S7Data.createErrorResponse(req, EErrorClass.ERROR_ON_SUPPLIES, 0x8500);
-                    this.write(socket, response.toByteArray());
+                    return S7Data.createErrorResponse(req, EErrorClass.ERROR_ON_SUPPLIES, 0x8500);
             }
         } catch (Exception e) {
-            S7Data response = S7Data.createErrorResponse(req, EErrorClass.ERROR_ON_SERVICE_PROCESSING, 0x8404);
-            this.write(socket, response.toByteArray());
+            return S7Data.createErrorResponse(req, EErrorClass.ERROR_ON_SERVICE_PROCESSING, 0x8404);
         }
     }
 
@@ -174,10 +212,11 @@ public class S7PLCServer extends TcpServerBasic {
      * Read data handler.
      * (读数据处理)
      *
-     * @param socket socket object
-     * @param req    request data
+     * @param address client address
+     * @param req     request data
+     * @return response
      */
-    private void readVariableHandle(Socket socket, S7Data req) {
+    private S7Data readVariableHandle(SocketAddress address, S7Data req) {
         ReadWriteParameter parameter = (ReadWriteParameter) req.getParameter();
         List<ReturnItem> returnItems = new ArrayList<>();
         try {
@@ -189,7 +228,7 @@ public class S7PLCServer extends TcpServerBasic {
                 if (!this.dataMap.containsKey(area)) {
                     // 客户端[{}]读取[{}]数据，区域[{}]，字节索引[{}]，位索引[{}]，长度[{}]，无该区域地址数据
                     log.error("Client[{}] read [{}] data, area[{}], byte index[{}], bit index[{}], length[{}], no the address data",
-                            socket.getRemoteSocketAddress(), p.getVariableType(), area, p.getByteAddress(), p.getBitAddress(), p.getCount());
+                            address, p.getVariableType(), area, p.getByteAddress(), p.getBitAddress(), p.getCount());
                     returnItems.add(ReturnItem.createDefault(EReturnCode.OBJECT_DOES_NOT_EXIST));
                     return;
                 }
@@ -205,25 +244,25 @@ public class S7PLCServer extends TcpServerBasic {
                 }
                 // 客户端[{}]读取[{}]数据，区域[{}]，字节索引[{}]，位索引[{}]，长度[{}]，区域地址数据{}
                 log.debug("Client[{}] read [{}] data, area[{}], byte index[{}], bit index[{}], length[{}], address data{}",
-                        socket.getRemoteSocketAddress(), p.getVariableType(), area, p.getByteAddress(), p.getBitAddress(), p.getCount(), data);
+                        address, p.getVariableType(), area, p.getByteAddress(), p.getBitAddress(), p.getCount(), data);
                 DataItem dataItem = DataItem.createAckBy(data, p.getVariableType() == EParamVariableType.BYTE ? EDataVariableType.BYTE_WORD_DWORD : EDataVariableType.BIT);
                 returnItems.add(dataItem);
             });
         } finally {
             this.rwLock.readLock().unlock();
         }
-        S7Data ack = S7Data.createReadWriteResponse(req, returnItems);
-        this.write(socket, ack.toByteArray());
+        return S7Data.createReadWriteResponse(req, returnItems);
     }
 
     /**
      * Write data handler.
      * (写入数据处理)
      *
-     * @param socket socket object
-     * @param req    request data
+     * @param address client address
+     * @param req     request data
+     * @return response
      */
-    private void writeVariableHandle(Socket socket, S7Data req) {
+    private S7Data writeVariableHandle(SocketAddress address, S7Data req) {
         ReadWriteParameter parameter = (ReadWriteParameter) req.getParameter();
         ReadWriteDatum datum = (ReadWriteDatum) req.getDatum();
         List<DataItem> dataItems = datum.getReturnItems().stream().map(DataItem.class::cast).collect(Collectors.toList());
@@ -238,7 +277,7 @@ public class S7PLCServer extends TcpServerBasic {
                 if (!this.dataMap.containsKey(area)) {
                     // 客户端[{}]写入[{}]数据，区域[{}]，字节索引[{}]，位索引[{}]，长度[{}]，无该区域地址
                     log.error("Client[{}] write [{}] data, area[{}], byte index[{}], bit index[{}], length[{}], no the address data",
-                            socket.getRemoteSocketAddress(), p.getVariableType(), area, p.getByteAddress(), p.getBitAddress(), p.getCount());
+                            address, p.getVariableType(), area, p.getByteAddress(), p.getBitAddress(), p.getCount());
                     returnItems.add(ReturnItem.createDefault(EReturnCode.OBJECT_DOES_NOT_EXIST));
                     continue;
                 }
@@ -252,57 +291,13 @@ public class S7PLCServer extends TcpServerBasic {
                 }
                 // 客户端[{}]写入[{}]数据，区域[{}]，字节索引[{}]，位索引[{}]，长度[{}]，区域地址数据{}
                 log.debug("Client[{}] write [{}] data, area[{}], byte index[{}], bit index[{}], length[{}], address data{}",
-                        socket.getRemoteSocketAddress(), p.getVariableType(), area, p.getByteAddress(), p.getBitAddress(), p.getCount(), d.getData());
+                        address, p.getVariableType(), area, p.getByteAddress(), p.getBitAddress(), p.getCount(), d.getData());
                 returnItems.add(ReturnItem.createDefault(EReturnCode.SUCCESS));
             }
         } finally {
             this.rwLock.writeLock().unlock();
         }
 
-        S7Data ack = S7Data.createReadWriteResponse(req, returnItems);
-        this.write(socket, ack.toByteArray());
-    }
-
-    /**
-     * Read S7 data from client.
-     * (读取S7协议的数据)
-     *
-     * @param socket socket object
-     * @return S7Data
-     */
-    private S7Data readS7DataFromClient(Socket socket) {
-        byte[] data = this.readClientData(socket);
-        return S7Data.fromBytes(data);
-    }
-
-    /**
-     * Rewrite read client data, sticky packet data processing
-     * (重写读取客户端数据，针对粘包的数据处理)
-     *
-     * @param socket client socket object
-     * @return byte array
-     */
-    @Override
-    protected byte[] readClientData(Socket socket) {
-        try {
-            InputStream in = socket.getInputStream();
-            int firstByte = in.read();
-            if (firstByte == -1) {
-                SocketUtils.close(socket);
-                throw new SocketRuntimeException("The client is disconnected.");
-            }
-            // 先获取TPKT
-            byte[] tpktData = new byte[4];
-            tpktData[0] = (byte) firstByte;
-            this.read(socket, tpktData, 1, 3, 1024, 0, true);
-            TPKT tpkt = TPKT.fromBytes(tpktData);
-            // 根据内部的长度获取剩余部分内容
-            byte[] data = new byte[tpkt.getLength()];
-            System.arraycopy(tpktData, 0, data, 0, tpktData.length);
-            this.read(socket, data, 4, data.length - 4, 1024, 0, true);
-            return data;
-        } catch (IOException e) {
-            throw new SocketRuntimeException(e);
-        }
+        return S7Data.createReadWriteResponse(req, returnItems);
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.service;
+
+
+import com.github.xingshuangs.iot.protocol.s7.model.S7Data;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Parallel reader, the PDU groups of one logical read are split across several connections to the same PLC,
+ * executed in parallel and merged in the order of the request items. Only useful for the PLC accepting several
+ * concurrent connections, every connection is used by the reader exclusively.
+ * (并行读取器，一次逻辑读取的PDU分组被拆分到同一PLC的多个连接上并行执行，再按请求项顺序合并；
+ * 仅适用于支持多个并发连接的PLC，每个连接由读取器独占)
+ *
+ * @author xingshuang
+ */
+public class S7ParallelReader implements Closeable {
+
+    /**
+     * Connections to the same PLC, unmodifiable.
+     * (同一PLC的连接，不可修改)
+     */
+    private final List<S7PLC> connections;
+
+    public S7ParallelReader(List<S7PLC> connections) {
+        if (connections == null || connections.isEmpty()) {
+            // 连接不能为空
+            throw new IllegalArgumentException("connections can not be empty");
+        }
+        this.connections = Collections.unmodifiableList(new ArrayList<>(connections));
+    }
+
+    /**
+     * Create a parallel reader with the connections created by the factory.
+     * (通过工厂创建指定数量的连接并构建并行读取器)
+     *
+     * @param size    number of connections
+     * @param factory connection factory
+     * @return parallel reader
+     */
+    public static S7ParallelReader of(int size, Supplier<S7PLC> factory) {
+        if (size <= 0) {
+            // 连接数必须大于0
+            throw new IllegalArgumentException("size must be greater than 0");
+        }
+        List<S7PLC> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(factory.get());
+        }
+        return new S7ParallelReader(list);
+    }
+
+    /**
+     * Get the connections.
+     * (获取连接)
+     *
+     * @return connections, unmodifiable
+     */
+    public List<S7PLC> getConnections() {
+        return this.connections;
+    }
+
+    /**
+     * Read multiple addresses in parallel.
+     * (并行多地址读取)
+     *
+     * @param addressRead multi-address read
+     * @return byte array list, in the order of the request items
+     */
+    public List<byte[]> readMultiByte(MultiAddressRead addressRead) {
+        return this.readMultiByte(new S7PreparedRead(addressRead));
+    }
+
+    /**
+     * Read the prepared read in parallel, the groups are assigned to the connections in turn.
+     * (并行执行预编译读取，分组轮流分配给各个连接)
+     *
+     * @param preparedRead prepared read
+     * @return byte array list, in the order of the request items
+     */
+    public List<byte[]> readMultiByte(S7PreparedRead preparedRead) {
+        // 先完成握手，确保PDU长度为协商后的值
+        this.connectAll();
+        int pduLength = this.connections.stream().mapToInt(PLCNetwork::getPduLength).min().orElse(0);
+        int addressMergeGap = this.connections.get(0).getAddressMergeGap();
+
+        // 同一个预编译读取的报文会被修改，同一时间只能被一个线程执行
+        preparedRead.getLock().lock();
+        try {
+            S7PreparedRead.Plan plan = preparedRead.getPlan(pduLength, addressMergeGap);
+            plan.patchPduReferences();
+            int groupSize = plan.frames.length;
+            int size = Math.min(this.connections.size(), groupSize);
+            List<CompletableFuture<List<S7Data>>> futures = new ArrayList<>(size);
+            for (int c = 0; c < size; c++) {
+                // 分组按序号轮流分配，第c个连接负责c, c+size, c+2*size...
+                int count = (groupSize - c + size - 1) / size;
+                byte[][] frames = new byte[count][];
+                int[] itemCounts = new int[count];
+                for (int i = 0; i < count; i++) {
+                    frames[i] = plan.frames[c + i * size];
+                    itemCounts[i] = plan.itemCounts[c + i * size];
+                }
+                S7PLC connection = this.connections.get(c);
+                futures.add(connection.executeAsync(() -> connection.readFrames(frames, itemCounts)));
+            }
+            this.join(futures);
+
+            S7Data[] acks = new S7Data[groupSize];
+            for (int c = 0; c < size; c++) {
+                List<S7Data> list = futures.get(c).join();
+                for (int i = 0; i < list.size(); i++) {
+                    acks[c + i * size] = list.get(i);
+                }
+            }
+            return plan.assemble(Arrays.asList(acks));
+        } finally {
+            preparedRead.getLock().unlock();
+        }
+    }
+
+    /**
+     * Connect the disconnected connections in parallel.
+     * (并行连接尚未连接的连接)
+     */
+    private void connectAll() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (S7PLC connection : this.connections) {
+            if (connection.getPduLength() <= 0 || !connection.checkConnected()) {
+                futures.add(connection.runAsync(connection::connect));
+            }
+        }
+        this.join(futures);
+    }
+
+    /**
+     * Wait for all the futures, the first runtime exception is thrown directly.
+     * (等待所有任务完成，直接抛出第一个运行时异常)
+     *
+     * @param futures futures
+     */
+    private void join(List<? extends CompletableFuture<?>> futures) {
+        if (futures.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.connections.forEach(S7PLC::close);
+    }
+}
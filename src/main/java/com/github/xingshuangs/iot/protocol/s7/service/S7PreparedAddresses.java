@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.service;
+
+
+import com.github.xingshuangs.iot.protocol.s7.model.RequestItem;
+import com.github.xingshuangs.iot.protocol.s7.utils.AddressUtil;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Addresses parsed once and reused by the primitive array reads, all the items have the same byte length, the request
+ * frames are encoded once as well.
+ * (一次解析、多次复用的地址集合，用于基本类型数组的读取，所有请求项的字节长度一致，请求报文也只编码一次)
+ *
+ * @author xingshuang
+ */
+@Getter
+public final class S7PreparedAddresses {
+
+    /**
+     * Byte length of each item, 0 means bit.
+     * (每个请求项的字节长度，0表示位)
+     */
+    private final int byteLength;
+
+    /**
+     * Prepared read of the parsed request items.
+     * (解析后请求项的预编译读取)
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final S7PreparedRead preparedRead;
+
+    private S7PreparedAddresses(int byteLength, List<RequestItem> requestItems) {
+        this.byteLength = byteLength;
+        this.preparedRead = new S7PreparedRead(requestItems);
+    }
+
+    /**
+     * Prepare byte addresses, such as DB1.2.
+     * (预解析字节地址，如DB1.2)
+     *
+     * @param byteLength byte length of each address
+     * @param addresses  address strings
+     * @return S7PreparedAddresses
+     */
+    public static S7PreparedAddresses of(int byteLength, String... addresses) {
+        return of(byteLength, Arrays.asList(addresses));
+    }
+
+    /**
+     * Prepare byte addresses, such as DB1.2.
+     * (预解析字节地址，如DB1.2)
+     *
+     * @param byteLength byte length of each address
+     * @param addresses  address strings
+     * @return S7PreparedAddresses
+     */
+    public static S7PreparedAddresses of(int byteLength, List<String> addresses) {
+        if (byteLength <= 0) {
+            throw new IllegalArgumentException("byteLength > 0");
+        }
+        List<RequestItem> items = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            items.add(AddressUtil.parseByte(address, byteLength));
+        }
+        return new S7PreparedAddresses(byteLength, items);
+    }
+
+    /**
+     * Prepare bit addresses, such as DB1.2.0.
+     * (预解析位地址，如DB1.2.0)
+     *
+     * @param addresses address strings
+     * @return S7PreparedAddresses
+     */
+    public static S7PreparedAddresses ofBit(String... addresses) {
+        return ofBit(Arrays.asList(addresses));
+    }
+
+    /**
+     * Prepare bit addresses, such as DB1.2.0.
+     * (预解析位地址，如DB1.2.0)
+     *
+     * @param addresses address strings
+     * @return S7PreparedAddresses
+     */
+    public static S7PreparedAddresses ofBit(List<String> addresses) {
+        List<RequestItem> items = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            items.add(AddressUtil.parseBit(address));
+        }
+        return new S7PreparedAddresses(0, items);
+    }
+
+    /**
+     * Number of addresses.
+     * (地址数量)
+     *
+     * @return size
+     */
+    public int size() {
+        return this.preparedRead.size();
+    }
+
+    /**
+     * Parsed request items, unmodifiable.
+     * (解析后的请求项，不可修改)
+     *
+     * @return request items
+     */
+    public List<RequestItem> getRequestItems() {
+        return this.preparedRead.getRequestItems();
+    }
+}
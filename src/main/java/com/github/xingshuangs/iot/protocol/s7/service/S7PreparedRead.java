@@ -0,0 +1,273 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.service;
+
+
+import com.github.xingshuangs.iot.protocol.s7.algorithm.S7AddressMergeAlg;
+import com.github.xingshuangs.iot.protocol.s7.algorithm.S7ComGroup;
+import com.github.xingshuangs.iot.protocol.s7.algorithm.S7MergeRange;
+import com.github.xingshuangs.iot.protocol.s7.algorithm.S7SequentialGroupAlg;
+import com.github.xingshuangs.iot.protocol.s7.algorithm.S7ComItem;
+import com.github.xingshuangs.iot.protocol.s7.model.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Prepared read, the request items are grouped by the PDU length and encoded into request frames once, every execution
+ * only patches the PDU reference of the frames. It is recompiled automatically when the PDU length or the address
+ * merge gap changes, and one prepared read is executed by one thread at a time.
+ * (预编译读取，请求项按PDU长度分组并一次性编码成请求报文，每次执行只修改报文中的PDU引用编号；
+ * PDU长度或地址合并间隔变化时自动重新编译，同一个预编译读取同一时间只能被一个线程执行)
+ *
+ * @author xingshuang
+ */
+@Getter
+public final class S7PreparedRead {
+
+    /**
+     * Offset of the PDU reference in the request frame, 11 = 4(tpkt) + 3(cotp) + 4(header before the pdu reference).
+     * (请求报文中PDU引用编号的偏移量，11 = 4(tpkt) + 3(cotp) + 4(header中PDU引用编号之前的部分))
+     */
+    public static final int PDU_REFERENCE_OFFSET = 11;
+
+    /**
+     * Raw request items, unmodifiable.
+     * (原始请求项，不可修改)
+     */
+    private final List<RequestItem> requestItems;
+
+    /**
+     * Compiled plan.
+     * (编译后的计划)
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile Plan plan;
+
+    /**
+     * Lock of the compiled plan, the encoded frames are patched before every sending.
+     * (编译计划的锁，每次发送前编码报文都会被修改)
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public S7PreparedRead(MultiAddressRead addressRead) {
+        this(addressRead.getRequestItems());
+    }
+
+    public S7PreparedRead(List<RequestItem> requestItems) {
+        if (requestItems == null || requestItems.isEmpty()) {
+            // 请求项缺失，无法获取数据
+            throw new IllegalArgumentException("The request item is missing and the data cannot be retrieved");
+        }
+        this.requestItems = Collections.unmodifiableList(requestItems.stream().map(RequestItem::copy)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Number of raw request items.
+     * (原始请求项数量)
+     *
+     * @return size
+     */
+    public int size() {
+        return this.requestItems.size();
+    }
+
+    /**
+     * Get the plan compiled for the PDU length and the address merge gap, compile it if absent or outdated.
+     * (获取对应PDU长度和地址合并间隔的编译计划，不存在或过期时重新编译)
+     *
+     * @param pduLength       PDU length
+     * @param addressMergeGap address merge gap, less than 0 means not merged
+     * @return plan
+     */
+    Plan getPlan(int pduLength, int addressMergeGap) {
+        Plan current = this.plan;
+        if (current == null || current.pduLength != pduLength || current.addressMergeGap != addressMergeGap) {
+            current = new Plan(this.requestItems, pduLength, addressMergeGap);
+            this.plan = current;
+        }
+        return current;
+    }
+
+    /**
+     * Compiled plan of the prepared read.
+     * (预编译读取的计划)
+     */
+    static final class Plan {
+
+        /**
+         * PDU length.
+         * (PDU长度)
+         */
+        final int pduLength;
+
+        /**
+         * Address merge gap.
+         * (地址合并间隔)
+         */
+        final int addressMergeGap;
+
+        /**
+         * Raw request items.
+         * (原始请求项)
+         */
+        final List<RequestItem> requestItems;
+
+        /**
+         * Merged ranges, null if not merged.
+         * (合并后的地址范围，未合并时为null)
+         */
+        final List<S7MergeRange> ranges;
+
+        /**
+         * Request items actually read, the ranges if merged, otherwise the raw items.
+         * (实际读取的请求项，合并时为地址范围，否则为原始请求项)
+         */
+        final List<RequestItem> readItems;
+
+        /**
+         * Groups by the PDU length.
+         * (按PDU长度的分组)
+         */
+        final List<S7ComGroup> groups;
+
+        /**
+         * Encoded request frame of each group.
+         * (每个分组编码后的请求报文)
+         */
+        final byte[][] frames;
+
+        /**
+         * Number of request items of each group.
+         * (每个分组的请求项个数)
+         */
+        final int[] itemCounts;
+
+        Plan(List<RequestItem> requestItems, int pduLength, int addressMergeGap) {
+            this.pduLength = pduLength;
+            this.addressMergeGap = addressMergeGap;
+            this.requestItems = requestItems;
+            List<S7MergeRange> merged = addressMergeGap < 0 || requestItems.size() < 2
+                    ? null : S7AddressMergeAlg.merge(requestItems, addressMergeGap);
+            this.ranges = merged == null || merged.size() == requestItems.size() ? null : merged;
+            this.readItems = this.ranges == null ? requestItems
+                    : this.ranges.stream().map(S7MergeRange::getRequestItem).collect(Collectors.toList());
+
+            // 发送： 12=10(header)+2(parameter前),12(parameter后)
+            // 接收： 14=12(header)+2(parameter),5(DataItem)，dataItem可能4或5，统一采用5
+            List<Integer> rawNumbers = this.readItems.stream().map(RequestItem::getCount).collect(Collectors.toList());
+            this.groups = S7SequentialGroupAlg.readRecombination(rawNumbers, pduLength - 14, 5, 12);
+            this.frames = new byte[this.groups.size()][];
+            this.itemCounts = new int[this.groups.size()];
+            for (int g = 0; g < this.groups.size(); g++) {
+                List<RequestItem> newRequestItems = new ArrayList<>();
+                this.groups.get(g).getItems().forEach(i -> {
+                    RequestItem item = this.readItems.get(i.getIndex()).copy();
+                    item.setCount(i.getRipeSize());
+                    item.setByteAddress(item.getByteAddress() + i.getSplitOffset());
+                    newRequestItems.add(item);
+                });
+                this.frames[g] = S7Data.createReadRequest(newRequestItems).toByteArray();
+                this.itemCounts[g] = newRequestItems.size();
+            }
+        }
+
+        /**
+         * Write new PDU references into all the frames.
+         * (向所有报文写入新的PDU引用编号)
+         */
+        void patchPduReferences() {
+            for (byte[] frame : this.frames) {
+                int pduReference = Header.getNewPduNumber();
+                frame[PDU_REFERENCE_OFFSET] = (byte) (pduReference >> 8);
+                frame[PDU_REFERENCE_OFFSET + 1] = (byte) pduReference;
+            }
+        }
+
+        /**
+         * Assemble the responses of the groups into the data of the raw request items.
+         * (将各分组的响应重装成原始请求项的数据)
+         *
+         * @param acks responses in the order of the groups
+         * @return byte array list, in the order of the raw request items
+         */
+        List<byte[]> assemble(List<S7Data> acks) {
+            // 将获取的数据重装到实际读取项中
+            byte[][] readData = new byte[this.readItems.size()][];
+            for (int i = 0; i < readData.length; i++) {
+                readData[i] = new byte[this.readItems.get(i).getCount()];
+            }
+            for (int g = 0; g < this.groups.size(); g++) {
+                List<S7ComItem> comItemList = this.groups.get(g).getItems();
+                List<ReturnItem> returnItems = ((ReadWriteDatum) acks.get(g).getDatum()).getReturnItems();
+                for (int i = 0; i < comItemList.size(); i++) {
+                    S7ComItem comItem = comItemList.get(i);
+                    byte[] src = ((DataItem) returnItems.get(i)).getData();
+                    System.arraycopy(src, 0, readData[comItem.getIndex()], comItem.getSplitOffset(), src.length);
+                }
+            }
+            if (this.ranges == null) {
+                return Arrays.asList(readData);
+            }
+            // 合并读取的结果拆分回原始的请求项
+            byte[][] result = new byte[this.requestItems.size()][];
+            for (int r = 0; r < this.ranges.size(); r++) {
+                S7MergeRange range = this.ranges.get(r);
+                for (Integer index : range.getIndexes()) {
+                    result[index] = S7AddressMergeAlg.extract(range, this.requestItems.get(index), readData[r]);
+                }
+            }
+            return Arrays.asList(result);
+        }
+
+        /**
+         * Assemble the responses of the groups into the buffer directly, only for one raw request item.
+         * (将各分组的响应直接重装到缓存中，只适用于一个原始请求项)
+         *
+         * @param acks responses in the order of the groups
+         * @param dst  destination buffer, its length must be not less than the count of the request item
+         */
+        void assembleInto(List<S7Data> acks, byte[] dst) {
+            if (this.readItems.size() != 1) {
+                // 只有一个请求项时才能直接重装到缓存中
+                throw new IllegalStateException("Only one request item can be assembled into the buffer");
+            }
+            for (int g = 0; g < this.groups.size(); g++) {
+                List<S7ComItem> comItemList = this.groups.get(g).getItems();
+                List<ReturnItem> returnItems = ((ReadWriteDatum) acks.get(g).getDatum()).getReturnItems();
+                for (int i = 0; i < comItemList.size(); i++) {
+                    byte[] src = ((DataItem) returnItems.get(i)).getData();
+                    System.arraycopy(src, 0, dst, comItemList.get(i).getSplitOffset(), src.length);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.service;
+
+
+import com.github.xingshuangs.iot.common.buff.ByteReadBuff;
+import com.github.xingshuangs.iot.common.scan.IScanReader;
+import com.github.xingshuangs.iot.common.scan.ScanTag;
+import com.github.xingshuangs.iot.protocol.s7.enums.EPlcType;
+import com.github.xingshuangs.iot.protocol.s7.model.RequestItem;
+import com.github.xingshuangs.iot.protocol.s7.utils.AddressUtil;
+import com.github.xingshuangs.iot.utils.ByteUtil;
+
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * S7 scan reader, all the tags are read by one multi-address read.
+ * (S7扫描读取器，所有标签通过一次多地址读取完成)
+ *
+ * @author xingshuang
+ */
+public class S7ScanReader implements IScanReader {
+
+    private final S7PLC plc;
+
+    public S7ScanReader(S7PLC plc) {
+        this.plc = plc;
+    }
+
+    @Override
+    public List<Object> read(List<ScanTag> tags) {
+        MultiAddressRead addressRead = new MultiAddressRead();
+        for (ScanTag tag : tags) {
+            addressRead.getRequestItems().add(this.toRequestItem(tag));
+        }
+        List<byte[]> dataList = this.plc.readMultiByte(addressRead);
+        List<Object> res = new ArrayList<>(tags.size());
+        for (int i = 0; i < tags.size(); i++) {
+            res.add(this.toValue(tags.get(i), dataList.get(i)));
+        }
+        return res;
+    }
+
+    private int stringOffset() {
+        return this.plc.getPlcType() == EPlcType.S200_SMART ? 1 : 2;
+    }
+
+    private RequestItem toRequestItem(ScanTag tag) {
+        switch (tag.getDataType()) {
+            case BOOL:
+                return AddressUtil.parseBit(tag.getAddress());
+            case STRING:
+                return AddressUtil.parseByte(tag.getAddress(), this.stringOffset() + tag.getLength());
+            case BYTE:
+            case UINT16:
+            case INT16:
+            case UINT32:
+            case INT32:
+            case INT64:
+            case FLOAT32:
+            case FLOAT64:
+            case TIME:
+            case DATE:
+            case TIME_OF_DAY:
+                return AddressUtil.parseByte(tag.getAddress(), tag.getDataType().getByteLength());
+            default:
+                // 不支持的扫描数据类型
+                throw new IllegalArgumentException("Unsupported scan data type: " + tag.getDataType());
+        }
+    }
+
+    private Object toValue(ScanTag tag, byte[] data) {
+        ByteReadBuff buff = ByteReadBuff.newInstance(data);
+        switch (tag.getDataType()) {
+            case BOOL:
+                return data[0] != 0;
+            case BYTE:
+                return data[0];
+            case UINT16:
+                return buff.getUInt16();
+            case INT16:
+                return buff.getInt16();
+            case UINT32:
+            case TIME:
+                return buff.getUInt32();
+            case INT32:
+                return buff.getInt32();
+            case INT64:
+                return buff.getInt64();
+            case FLOAT32:
+                return buff.getFloat32();
+            case FLOAT64:
+                return buff.getFloat64();
+            case DATE:
+                return LocalDate.of(1990, 1, 1).plusDays(buff.getUInt16());
+            case TIME_OF_DAY:
+                return LocalTime.ofSecondOfDay(buff.getUInt32() / 1000);
+            case STRING:
+                int offset = this.stringOffset();
+                int actLength = ByteUtil.toUInt8(data, offset - 1);
+                return ByteUtil.toStr(data, offset, Math.min(actLength, tag.getLength()), Charset.forName("GB2312"));
+            default:
+                throw new IllegalArgumentException("Unsupported scan data type: " + tag.getDataType());
+        }
+    }
+}
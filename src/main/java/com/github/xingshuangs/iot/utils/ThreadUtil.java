@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.utils;
+
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Thread tool, virtual threads are used when the runtime supports them (Java 21+), otherwise platform threads.
+ * The blocking paths of the clients are guarded by ReentrantLock, so the virtual threads are not pinned.
+ * (线程工具，运行时支持虚拟线程(Java 21+)时使用虚拟线程，否则使用平台线程)
+ *
+ * @author xingshuang
+ */
+public class ThreadUtil {
+
+    /**
+     * Method Thread#ofVirtual(), null if the virtual thread is not supported.
+     * (虚拟线程构建器的创建方法，不支持时为null)
+     */
+    private static final Method OF_VIRTUAL;
+
+    /**
+     * Method Thread.Builder#name(String, long).
+     */
+    private static final Method BUILDER_NAME;
+
+    /**
+     * Method Thread.Builder#factory().
+     */
+    private static final Method BUILDER_FACTORY;
+
+    /**
+     * Method Executors#newThreadPerTaskExecutor(ThreadFactory).
+     */
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method executor = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            name = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+            executor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+        } catch (Exception e) {
+            // 低于Java 21，不支持虚拟线程
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = executor;
+    }
+
+    private ThreadUtil() {
+        // NOOP
+    }
+
+    /**
+     * Whether the virtual thread is supported.
+     * (是否支持虚拟线程)
+     *
+     * @return true: supported, false: not supported
+     */
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Create a thread factory, virtual threads named by the prefix if supported, otherwise the default thread factory.
+     * (创建线程工厂，支持时为以前缀命名的虚拟线程，否则为默认线程工厂)
+     *
+     * @param prefix name prefix of the threads
+     * @return thread factory
+     */
+    public static ThreadFactory newThreadFactory(String prefix) {
+        ThreadFactory factory = newVirtualThreadFactory(prefix);
+        return factory != null ? factory : Executors.defaultThreadFactory();
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for each task if supported, otherwise by the fallback.
+     * (创建执行器，支持时每个任务启动一个新的虚拟线程，否则使用备选执行器)
+     *
+     * @param prefix   name prefix of the threads
+     * @param fallback fallback executor when the virtual thread is not supported
+     * @return executor
+     */
+    public static ExecutorService newPerTaskExecutor(String prefix, Supplier<ExecutorService> fallback) {
+        ThreadFactory factory = newVirtualThreadFactory(prefix);
+        if (factory == null) {
+            return fallback.get();
+        }
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (Exception e) {
+            return fallback.get();
+        }
+    }
+
+    private static ThreadFactory newVirtualThreadFactory(String prefix) {
+        if (OF_VIRTUAL == null) {
+            return null;
+        }
+        try {
+            Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.buff;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class ByteArrayPoolTest {
+
+    @Test
+    public void sizeClass() {
+        ByteArrayPool pool = new ByteArrayPool(4);
+        try (PooledByteArray array = pool.lease(1)) {
+            assertEquals(1, array.getLength());
+            assertEquals(64, array.getData().length);
+        }
+        try (PooledByteArray array = pool.lease(65)) {
+            assertEquals(128, array.getData().length);
+        }
+        try (PooledByteArray array = pool.lease(1024)) {
+            assertEquals(1024, array.getData().length);
+        }
+        PooledByteArray array = pool.lease(70000);
+        assertEquals(70000, array.getData().length);
+        array.release();
+        assertEquals(0, pool.cachedCount(70000));
+    }
+
+    @Test
+    public void reuse() {
+        ByteArrayPool pool = new ByteArrayPool(1);
+        PooledByteArray first = pool.lease(100);
+        byte[] data = first.getData();
+        assertTrue(first.release());
+        assertEquals(1, pool.cachedCount(100));
+
+        PooledByteArray second = pool.lease(120);
+        assertSame(data, second.getData());
+        assertEquals(0, pool.cachedCount(100));
+
+        // 级别已满时直接丢弃
+        PooledByteArray third = pool.lease(100);
+        second.release();
+        third.release();
+        assertEquals(1, pool.cachedCount(100));
+    }
+
+    @Test
+    public void refCnt() {
+        ByteArrayPool pool = new ByteArrayPool(4);
+        PooledByteArray array = pool.lease(10);
+        array.getData()[0] = 0x12;
+        array.retain();
+        assertEquals(2, array.refCnt());
+        assertFalse(array.release());
+        assertEquals(0, pool.cachedCount(10));
+        assertArrayEquals(new byte[]{0x12, 0, 0, 0, 0, 0, 0, 0, 0, 0}, array.toByteArray());
+        assertTrue(array.release());
+        assertEquals(1, pool.cachedCount(10));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void useAfterRelease() {
+        PooledByteArray array = new ByteArrayPool(4).lease(10);
+        array.release();
+        array.getData();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void doubleRelease() {
+        PooledByteArray array = new ByteArrayPool(4).lease(10);
+        array.release();
+        array.release();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.buff;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+
+public class ByteBufferReadBuffTest {
+
+    private final byte[] data = new byte[]{
+            (byte) 0x81, 0x12, 0x34, 0x56, 0x78, (byte) 0x9A, (byte) 0xBC, (byte) 0xDE,
+            (byte) 0xF0, 0x42, 0x04, (byte) 0xA3, (byte) 0xD7, 0x41, 0x03, 0x1F,
+            (byte) 0xCA, (byte) 0xD6, 0x21, 0x39, (byte) 0xB7, 0x32, 0x33, 0x41};
+
+    @Test
+    public void sameAsByteReadBuff() {
+        ByteBuffer direct = ByteBuffer.allocateDirect(this.data.length);
+        direct.put(this.data);
+        direct.flip();
+        for (EByteBuffFormat format : EByteBuffFormat.values()) {
+            for (boolean littleEndian : new boolean[]{false, true}) {
+                ByteReadBuff expect = new ByteReadBuff(this.data, 0, littleEndian, format);
+                ByteBufferReadBuff heap = new ByteBufferReadBuff(ByteBuffer.wrap(this.data), 0, littleEndian, format);
+                ByteBufferReadBuff off = new ByteBufferReadBuff(direct, 0, littleEndian, format);
+                for (ByteBufferReadBuff actual : new ByteBufferReadBuff[]{heap, off}) {
+                    for (int i = 0; i + 8 <= this.data.length; i++) {
+                        assertEquals(expect.getInt16(i), actual.getInt16(i));
+                        assertEquals(expect.getUInt16(i), actual.getUInt16(i));
+                        assertEquals(expect.getInt32(i), actual.getInt32(i));
+                        assertEquals(expect.getUInt32(i), actual.getUInt32(i));
+                        assertEquals(expect.getInt64(i), actual.getInt64(i));
+                        assertEquals(expect.getFloat32(i), actual.getFloat32(i), 0.0);
+                        assertEquals(expect.getFloat64(i), actual.getFloat64(i), 0.0);
+                    }
+                    assertEquals(expect.getString(21, 3), actual.getString(21, 3));
+                    assertEquals(expect.getByteToInt(0, 4, 4), actual.getByteToInt(0, 4, 4));
+                    assertTrue(actual.getBoolean(0, 7));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sequential() {
+        ByteBufferReadBuff buff = ByteBufferReadBuff.wrap(this.data, 1, 12);
+        assertEquals(12, buff.getLength());
+        assertEquals(0x1234, buff.getUInt16());
+        assertEquals(0x56789ABC, buff.getInt32());
+        assertArrayEquals(new byte[]{(byte) 0xDE, (byte) 0xF0}, buff.getBytes(2));
+        assertEquals(4, buff.getRemainSize());
+        buff.getBytes();
+        assertEquals(0, buff.getRemainSize());
+    }
+
+    @Test
+    public void sliceWithoutCopy() {
+        byte[] src = this.data.clone();
+        ByteBufferReadBuff buff = new ByteBufferReadBuff(ByteBuffer.wrap(src));
+        ByteBufferReadBuff slice = buff.slice(1, 4);
+        assertEquals(4, slice.getLength());
+        assertEquals(0x12345678, slice.getInt32(0));
+        src[1] = 0x00;
+        assertEquals(0x00345678, slice.getInt32(0));
+
+        ByteBuffer view = buff.getByteBuffer(2, 2);
+        assertTrue(view.isReadOnly());
+        assertEquals(2, view.remaining());
+        assertEquals(0x34, view.get(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfRange() {
+        ByteBufferReadBuff.wrap(this.data, 0, 4).getInt32(1);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.buff;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+
+public class ByteBufferWriteBuffTest {
+
+    @Test
+    public void sameAsByteWriteBuff() {
+        for (EByteBuffFormat format : EByteBuffFormat.values()) {
+            for (boolean littleEndian : new boolean[]{false, true}) {
+                byte[] expect = ByteWriteBuff.newInstance(29, littleEndian, format)
+                        .putByte(0x81)
+                        .putShort(0x1234)
+                        .putInteger(0x56789ABC)
+                        .putLong(0x0102030405060708L)
+                        .putFloat(33.16f)
+                        .putDouble(156665.35455556)
+                        .putString("AB")
+                        .getData();
+                ByteBufferWriteBuff heap = ByteBufferWriteBuff.newInstance(29, littleEndian, format);
+                ByteBufferWriteBuff direct = ByteBufferWriteBuff.newDirectInstance(29, littleEndian, format);
+                for (ByteBufferWriteBuff actual : new ByteBufferWriteBuff[]{heap, direct}) {
+                    actual.putByte(0x81)
+                            .putShort(0x1234)
+                            .putInteger(0x56789ABC)
+                            .putLong(0x0102030405060708L)
+                            .putFloat(33.16f)
+                            .putDouble(156665.35455556)
+                            .putString("AB");
+                    assertEquals(29, actual.getOffset());
+                    assertArrayEquals(format + "-" + littleEndian, expect, actual.getData());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void byteBufferView() {
+        byte[] backing = new byte[8];
+        ByteBufferWriteBuff buff = new ByteBufferWriteBuff(ByteBuffer.wrap(backing));
+        buff.putShort(0x0102).putBytes(ByteBuffer.wrap(new byte[]{0x03, 0x04}));
+        assertSame(backing, buff.getData());
+        ByteBuffer view = buff.getByteBuffer();
+        assertEquals(4, view.remaining());
+        assertEquals(0x04, view.get(3));
+        assertEquals(0x04, backing[3]);
+
+        buff.putByte((byte) 0x09, 6);
+        assertEquals(4, buff.getOffset());
+        assertEquals(0x09, buff.getByte(6));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void overflow() {
+        ByteBufferWriteBuff.newInstance(3).putInteger(1);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.scan;
+
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+
+public class ScanSchedulerTest {
+
+    private static class FakeReader implements IScanReader {
+
+        private final AtomicInteger readCount = new AtomicInteger();
+
+        private final List<Integer> tagCounts = new CopyOnWriteArrayList<>();
+
+        private volatile double value = 1.0;
+
+        private volatile long delay = 0;
+
+        private volatile List<ScanTag> lastTags;
+
+        @Override
+        public List<Object> read(List<ScanTag> tags) {
+            if (this.delay > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(this.delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            this.readCount.incrementAndGet();
+            this.lastTags = tags;
+            this.tagCounts.add(tags.size());
+            return tags.stream().map(x -> (Object) this.value).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void coalesceAndNotifyOnChange() throws InterruptedException {
+        FakeReader reader = new FakeReader();
+        List<Object> values = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(4);
+        IScanListener listener = (tag, oldValue, newValue) -> {
+            values.add(newValue);
+            latch.countDown();
+        };
+        try (ScanScheduler scheduler = new ScanScheduler()) {
+            scheduler.subscribe(reader, 20, new ScanTag("a", "DB1.0", EDataType.FLOAT64, listener));
+            scheduler.subscribe(reader, 20, new ScanTag("b", "DB1.8", EDataType.FLOAT64, listener));
+            scheduler.start();
+            TimeUnit.MILLISECONDS.sleep(100);
+            // 值未变化，只通知第一次
+            assertEquals(2, values.size());
+            reader.value = 2.0;
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+        }
+        assertEquals(4, values.size());
+        assertTrue(reader.readCount.get() >= 2);
+        assertTrue(reader.tagCounts.stream().allMatch(x -> x == 2));
+    }
+
+    @Test
+    public void deadband() {
+        ScanTag tag = new ScanTag("a", "DB1.0", EDataType.FLOAT32);
+        tag.setDeadband(0.5);
+        assertTrue(tag.isChanged(null, 1.0f));
+        assertFalse(tag.isChanged(1.0f, 1.3f));
+        assertTrue(tag.isChanged(1.0f, 1.6f));
+        ScanTag bytes = new ScanTag("b", "DB1.0", EDataType.BYTE);
+        assertFalse(bytes.isChanged(new byte[]{1, 2}, new byte[]{1, 2}));
+        assertTrue(bytes.isChanged(new byte[]{1, 2}, new byte[]{1, 3}));
+    }
+
+    @Test
+    public void unsubscribe() throws InterruptedException {
+        FakeReader reader = new FakeReader();
+        List<String> names = new ArrayList<>();
+        ScanTag tag = new ScanTag("a", "DB1.0", EDataType.FLOAT64, (t, o, n) -> names.add(t.getName()));
+        try (ScanScheduler scheduler = new ScanScheduler()) {
+            scheduler.start();
+            scheduler.subscribe(reader, 10, tag);
+            TimeUnit.MILLISECONDS.sleep(50);
+            scheduler.unsubscribe(reader, 10, tag);
+            int count = reader.readCount.get();
+            TimeUnit.MILLISECONDS.sleep(50);
+            assertTrue(reader.readCount.get() <= count + 1);
+        }
+        assertEquals(1, names.size());
+    }
+
+    @Test
+    public void unsubscribeByIdentity() throws InterruptedException {
+        FakeReader reader = new FakeReader();
+        IScanListener listener = (t, o, n) -> {
+        };
+        ScanTag first = new ScanTag("a", "DB1.0", EDataType.FLOAT64, listener);
+        ScanTag second = new ScanTag("a", "DB1.0", EDataType.FLOAT64, listener);
+        assertEquals(first, second);
+        try (ScanScheduler scheduler = new ScanScheduler()) {
+            scheduler.subscribe(reader, 10, first);
+            scheduler.subscribe(reader, 10, second);
+            scheduler.unsubscribe(reader, 10, second);
+            scheduler.start();
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertEquals(1, reader.lastTags.size());
+        assertSame(first, reader.lastTags.get(0));
+    }
+
+    @Test
+    public void slowReaderDoesNotStallOthers() throws InterruptedException {
+        FakeReader slow = new FakeReader();
+        slow.delay = 500;
+        FakeReader fast = new FakeReader();
+        IScanListener listener = (t, o, n) -> {
+        };
+        try (ScanScheduler scheduler = new ScanScheduler()) {
+            scheduler.subscribe(slow, 10, new ScanTag("a", "DB1.0", EDataType.FLOAT64, listener));
+            scheduler.subscribe(fast, 10, new ScanTag("b", "DB2.0", EDataType.FLOAT64, listener));
+            scheduler.start();
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+        assertTrue(fast.readCount.get() >= 5);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.serializer;
+
+
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import lombok.Data;
+
+/**
+ * @author xingshuang
+ */
+@Data
+public class ByteArrayPrimitiveBean {
+
+    @ByteArrayVariable(byteOffset = 0, bitOffset = 0, count = 1, type = EDataType.BOOL)
+    boolean boolData;
+
+    @ByteArrayVariable(byteOffset = 0, count = 1, type = EDataType.BYTE)
+    byte byteData;
+
+    @ByteArrayVariable(byteOffset = 3, count = 1, type = EDataType.UINT16)
+    int uint16Data;
+
+    @ByteArrayVariable(byteOffset = 3, count = 1, type = EDataType.INT16)
+    short int16Data;
+
+    @ByteArrayVariable(byteOffset = 5, count = 1, type = EDataType.UINT32)
+    long uint32Data;
+
+    @ByteArrayVariable(byteOffset = 9, count = 1, type = EDataType.INT32)
+    int int32Data;
+
+    @ByteArrayVariable(byteOffset = 29, count = 1, type = EDataType.FLOAT32)
+    float float32Data;
+
+    @ByteArrayVariable(byteOffset = 37, count = 1, type = EDataType.FLOAT64)
+    double float64Data;
+}
@@ -25,6 +25,7 @@
 package com.github.xingshuangs.iot.common.serializer;
 
 import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.exceptions.ByteArrayParseException;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -67,6 +68,16 @@ public class ByteArraySerializerTest {
         assertEquals(156665.35455556, bean.getFloat64Data(), 0.00000000001);
         assertEquals("23A", bean.getStringData());
 
+        ByteArrayPrimitiveBean primitiveBean = serializer.toObject(ByteArrayPrimitiveBean.class, src);
+        assertTrue(primitiveBean.isBoolData());
+        assertEquals((byte) 0x81, primitiveBean.getByteData());
+        assertEquals(25689, primitiveBean.getUint16Data());
+        assertEquals((short) 25689, primitiveBean.getInt16Data());
+        assertEquals(523975585L, primitiveBean.getUint32Data());
+        assertEquals(523975585, primitiveBean.getInt32Data());
+        assertEquals(33.16, primitiveBean.getFloat32Data(), 0.0001);
+        assertEquals(156665.35455556, primitiveBean.getFloat64Data(), 0.00000000001);
+
         ByteArrayListBean listBean = serializer.toObject(ByteArrayListBean.class, src);
         assertArrayEquals(new Boolean[]{true, false, false, false, false, false, false, true}, listBean.getBoolData().toArray(new Boolean[0]));
         assertArrayEquals(new Byte[]{(byte) 0x00, (byte) 0x00, (byte) 0x64, (byte) 0x59}, listBean.getByteData().toArray(new Byte[0]));
@@ -79,6 +90,12 @@ public class ByteArraySerializerTest {
         assertEquals("23A", listBean.getStringData());
     }
 
+    @Test(expected = ByteArrayParseException.class)
+    public void toObjectMismatchedField() {
+        ByteArraySerializer serializer = ByteArraySerializer.newInstance();
+        serializer.toObject(ByteArrayMismatchBean.class, new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFE});
+    }
+
     @Test
     public void toObject1() {
         byte[] src = new byte[]{(byte) 0x81,
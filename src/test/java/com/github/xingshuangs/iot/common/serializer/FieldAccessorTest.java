@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.common.serializer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class FieldAccessorTest {
+
+    @Test
+    public void primitiveField() throws NoSuchFieldException {
+        FieldAccessor accessor = FieldAccessor.of(ByteArrayPrimitiveBean.class.getDeclaredField("float32Data"));
+        assertEquals(float.class, accessor.getPrimitiveType());
+        ByteArrayPrimitiveBean bean = FieldAccessor.newInstance(FieldAccessor.constructor(ByteArrayPrimitiveBean.class));
+        accessor.setDouble(bean, 1.5f);
+        assertEquals(1.5f, bean.getFloat32Data(), 0.0);
+        accessor.set(bean, 2.5f);
+        assertEquals(2.5f, (Float) accessor.get(bean), 0.0);
+    }
+
+    @Test
+    public void wrapperField() throws NoSuchFieldException {
+        FieldAccessor accessor = FieldAccessor.of(ByteArrayBean.class.getDeclaredField("int32Data"));
+        assertEquals(int.class, accessor.getPrimitiveType());
+        ByteArrayBean bean = new ByteArrayBean();
+        accessor.setLong(bean, -12);
+        assertEquals(-12, bean.getInt32Data().intValue());
+        accessor.set(bean, null);
+        assertNull(bean.getInt32Data());
+    }
+
+    @Test
+    public void objectField() throws NoSuchFieldException {
+        FieldAccessor accessor = FieldAccessor.of(ByteArrayBean.class.getDeclaredField("stringData"));
+        assertNull(accessor.getPrimitiveType());
+        ByteArrayBean bean = new ByteArrayBean();
+        accessor.set(bean, "abc");
+        assertEquals("abc", bean.getStringData());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net;
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class LengthFieldFrameDecoderTest {
+
+    @Test
+    public void tpkt() {
+        IFrameDecoder decoder = LengthFieldFrameDecoder.tpkt();
+        byte[] data = new byte[]{(byte) 0x03, (byte) 0x00, (byte) 0x00, (byte) 0x07, (byte) 0x02, (byte) 0xF0, (byte) 0x80, (byte) 0x03};
+        assertEquals(-1, decoder.frameLength(data, 0, 3));
+        assertEquals(-1, decoder.frameLength(data, 0, 6));
+        assertEquals(7, decoder.frameLength(data, 0, 7));
+        assertEquals(7, decoder.frameLength(data, 0, data.length));
+    }
+
+    @Test
+    public void mbap() {
+        IFrameDecoder decoder = LengthFieldFrameDecoder.mbap();
+        byte[] data = new byte[]{(byte) 0xFF, (byte) 0x00, (byte) 0x00, (byte) 0x01, (byte) 0x00, (byte) 0x06, (byte) 0x01, (byte) 0x03,
+                (byte) 0x00, (byte) 0x03, (byte) 0x00, (byte) 0x01, (byte) 0x00, (byte) 0x00, (byte) 0x00};
+        assertEquals(-1, decoder.frameLength(data, 2, 10));
+        assertEquals(12, decoder.frameLength(data, 0, 12));
+        assertEquals(12, decoder.frameLength(data, 0, data.length));
+    }
+
+    @Test
+    public void mc3E() {
+        IFrameDecoder decoder = new LengthFieldFrameDecoder(7, 2, true, 9);
+        byte[] data = new byte[]{(byte) 0xD0, (byte) 0x00, (byte) 0x00, (byte) 0xFF, (byte) 0xFF, (byte) 0x03, (byte) 0x00,
+                (byte) 0x04, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x34, (byte) 0x12};
+        assertEquals(-1, decoder.frameLength(data, 0, 12));
+        assertEquals(13, decoder.frameLength(data, 0, data.length));
+    }
+
+    @Test(expected = SocketRuntimeException.class)
+    public void invalidLength() {
+        IFrameDecoder decoder = LengthFieldFrameDecoder.tpkt();
+        byte[] data = new byte[]{(byte) 0x03, (byte) 0x00, (byte) 0x00, (byte) 0x02};
+        decoder.frameLength(data, 0, data.length);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.client;
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import com.github.xingshuangs.iot.protocol.s7.enums.EPlcType;
+import com.github.xingshuangs.iot.protocol.s7.service.S7PLC;
+import com.github.xingshuangs.iot.protocol.s7.service.S7PLCServer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+
+public class TcpClientPoolTest {
+
+    private static class FakeClient extends TcpClientBasic {
+
+        private volatile boolean connected;
+
+        @Override
+        public boolean checkConnected() {
+            return this.connected;
+        }
+
+        @Override
+        public void connect() {
+            this.connected = true;
+        }
+
+        @Override
+        public void close() {
+            this.connected = false;
+        }
+    }
+
+    private TcpClientPool<FakeClient> createPool(int maxTotal, long idleTimeout) {
+        TcpClientPoolConfig config = new TcpClientPoolConfig();
+        config.setMaxTotal(maxTotal);
+        config.setBorrowTimeout(200);
+        config.setIdleTimeout(idleTimeout);
+        return new TcpClientPool<>(FakeClient::new, config);
+    }
+
+    @Test
+    public void borrowAndGiveBack() {
+        TcpClientPool<FakeClient> pool = this.createPool(2, 60_000);
+        FakeClient client1 = pool.borrow();
+        assertTrue(client1.checkConnected());
+        FakeClient client2 = pool.borrow();
+        assertNotSame(client1, client2);
+        assertEquals(2, pool.getBorrowedCount());
+        pool.giveBack(client1);
+        assertEquals(1, pool.getIdleCount());
+        assertSame(client1, pool.borrow());
+        pool.giveBack(client1);
+        pool.giveBack(client2);
+        assertEquals(0, pool.getBorrowedCount());
+        assertEquals(2, pool.getIdleCount());
+        pool.close();
+        assertFalse(client1.checkConnected());
+        assertFalse(client2.checkConnected());
+    }
+
+    @Test(expected = SocketRuntimeException.class)
+    public void borrowTimeout() {
+        TcpClientPool<FakeClient> pool = this.createPool(2, 60_000);
+        pool.borrow();
+        pool.borrow();
+        pool.borrow();
+    }
+
+    @Test
+    public void disconnectedClientNotReused() {
+        TcpClientPool<FakeClient> pool = this.createPool(2, 60_000);
+        FakeClient client = pool.borrow();
+        pool.giveBack(client);
+        client.close();
+        FakeClient another = pool.borrow();
+        assertNotSame(client, another);
+        assertTrue(another.checkConnected());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void evictIdle() throws InterruptedException {
+        TcpClientPool<FakeClient> pool = this.createPool(2, 50);
+        FakeClient client = pool.borrow();
+        pool.giveBack(client);
+        assertEquals(1, pool.getIdleCount());
+        TimeUnit.MILLISECONDS.sleep(100);
+        pool.evictIdle();
+        assertEquals(0, pool.getIdleCount());
+        assertFalse(client.checkConnected());
+    }
+
+    @Test
+    public void evictIdleInBackground() throws InterruptedException {
+        TcpClientPoolConfig config = new TcpClientPoolConfig();
+        config.setIdleTimeout(50);
+        config.setEvictionInterval(20);
+        TcpClientPool<FakeClient> pool = new TcpClientPool<>(FakeClient::new, config);
+        FakeClient client = pool.borrow();
+        pool.giveBack(client);
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertEquals(0, pool.getIdleCount());
+        assertFalse(client.checkConnected());
+        pool.close();
+    }
+
+    @Test(expected = SocketRuntimeException.class)
+    public void keyedPoolClosed() {
+        TcpClientKeyedPool<String, FakeClient> keyedPool = new TcpClientKeyedPool<>(key -> new FakeClient());
+        keyedPool.getPool("a");
+        keyedPool.close();
+        keyedPool.getPool("a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void giveBackForeignClient() {
+        TcpClientPool<FakeClient> pool = this.createPool(2, 60_000);
+        FakeClient client = new FakeClient();
+        client.connect();
+        pool.giveBack(client);
+    }
+
+    @Test
+    public void keyedPoolGiveBackAfterClose() {
+        TcpClientKeyedPool<String, FakeClient> keyedPool = new TcpClientKeyedPool<>(key -> new FakeClient());
+        FakeClient client = keyedPool.borrow("a");
+        keyedPool.close();
+        keyedPool.giveBack("a", client);
+        assertFalse(client.checkConnected());
+        FakeClient another = new FakeClient();
+        another.connect();
+        keyedPool.giveBack("b", another);
+        assertFalse(another.checkConnected());
+    }
+
+    @Test
+    public void keyedPoolExecute() throws Exception {
+        S7PLCServer server = new S7PLCServer(8889);
+        server.start();
+        TcpClientPoolConfig config = new TcpClientPoolConfig();
+        config.setMaxTotal(1);
+        TcpClientKeyedPool<String, S7PLC> keyedPool = new TcpClientKeyedPool<>(key -> {
+            String[] items = key.split(":");
+            return new S7PLC(EPlcType.S1200, items[0], Integer.parseInt(items[1]),
+                    Integer.parseInt(items[2]), Integer.parseInt(items[3]));
+        }, config);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            keyedPool.execute("127.0.0.1:8889:0:1", x -> {
+                x.writeInt32("DB1.0", 2468);
+                return null;
+            });
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(executor.submit(() -> keyedPool.execute("127.0.0.1:8889:0:1", x -> x.readInt32("DB1.0"))));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(2468, future.get().intValue());
+            }
+            assertEquals(1, keyedPool.getPool("127.0.0.1:8889:0:1").getIdleCount());
+        } finally {
+            executor.shutdownNow();
+            keyedPool.close();
+            server.stop();
+        }
+    }
+}
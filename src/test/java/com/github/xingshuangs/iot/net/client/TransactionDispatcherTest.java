@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.client;
+
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+
+public class TransactionDispatcherTest {
+
+    private final BlockingQueue<byte[]> requests = new LinkedBlockingQueue<>();
+
+    private final BlockingQueue<byte[]> responses = new LinkedBlockingQueue<>();
+
+    private final TransactionDispatcher dispatcher = new TransactionDispatcher(3, this.requests::add, this::take, x -> x[0]);
+
+    private byte[] take() {
+        try {
+            byte[] frame = this.responses.poll(2, TimeUnit.SECONDS);
+            if (frame == null) {
+                throw new SocketRuntimeException("timeout");
+            }
+            return frame;
+        } catch (InterruptedException e) {
+            throw new SocketRuntimeException(e);
+        }
+    }
+
+    @Test
+    public void outOfOrderResponse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                int key = i;
+                futures.add(executor.submit(() -> this.dispatcher.exchange(key, new byte[]{(byte) key}, 3000)));
+            }
+            // 等到3个请求都发出之后再倒序响应
+            List<byte[]> received = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                received.add(this.requests.poll(2, TimeUnit.SECONDS));
+            }
+            assertEquals(3, this.dispatcher.getInFlight());
+            for (int i = received.size() - 1; i >= 0; i--) {
+                this.responses.add(new byte[]{received.get(i)[0], (byte) 0x55});
+            }
+            for (int i = 0; i < 3; i++) {
+                byte[] ack = futures.get(i).get(3, TimeUnit.SECONDS);
+                assertEquals(i, ack[0]);
+                assertEquals((byte) 0x55, ack[1]);
+            }
+            assertEquals(0, this.dispatcher.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void discardUnknownResponse() {
+        this.responses.add(new byte[]{9});
+        this.responses.add(new byte[]{1});
+        assertArrayEquals(new byte[]{1}, this.dispatcher.exchange(1, new byte[]{1}, 3000));
+    }
+
+    @Test(expected = SocketRuntimeException.class)
+    public void readError() {
+        this.dispatcher.exchange(1, new byte[]{1}, 3000);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.net.server;
+
+import com.github.xingshuangs.iot.net.IFrameDecoder;
+import com.github.xingshuangs.iot.net.LengthFieldFrameDecoder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+public class NioTcpServerTest {
+
+    private final NioTcpServer server = new NioTcpServer() {
+        @Override
+        protected IFrameDecoder getFrameDecoder() {
+            return LengthFieldFrameDecoder.tpkt();
+        }
+
+        @Override
+        protected byte[] handleFrame(NioServerSession session, byte[] frame) {
+            // 回显收到的帧，第1个字节带上该会话已处理的帧数
+            session.setState(session.getState() + 1);
+            frame[0] = (byte) session.getState();
+            return frame;
+        }
+    };
+
+    @Before
+    public void init() {
+        this.server.setIoThreads(2);
+        this.server.start(8899);
+    }
+
+    @After
+    public void destroy() {
+        this.server.stop();
+    }
+
+    @Test
+    public void manyClients() throws Exception {
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                sockets.add(new Socket("127.0.0.1", 8899));
+            }
+            for (int round = 1; round <= 2; round++) {
+                for (int i = 0; i < sockets.size(); i++) {
+                    // 每帧分两次发送，验证分包处理
+                    OutputStream out = sockets.get(i).getOutputStream();
+                    out.write(new byte[]{0x03, 0x00, 0x00, 0x06});
+                    out.flush();
+                    out.write(new byte[]{(byte) i, (byte) round});
+                    out.flush();
+                }
+                for (int i = 0; i < sockets.size(); i++) {
+                    byte[] ack = new byte[6];
+                    new DataInputStream(sockets.get(i).getInputStream()).readFully(ack);
+                    assertArrayEquals(new byte[]{(byte) round, 0x00, 0x00, 0x06, (byte) i, (byte) round}, ack);
+                }
+            }
+            assertEquals(200, this.server.getConnectedNumber().get());
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void stickyFrames() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", 8899)) {
+            socket.getOutputStream().write(new byte[]{0x03, 0x00, 0x00, 0x05, 0x0A, 0x03, 0x00, 0x00, 0x04});
+            byte[] ack = new byte[9];
+            new DataInputStream(socket.getInputStream()).readFully(ack);
+            assertArrayEquals(new byte[]{0x01, 0x00, 0x00, 0x05, 0x0A, 0x02, 0x00, 0x00, 0x04}, ack);
+        }
+    }
+
+    @Test
+    public void restart() throws Exception {
+        this.server.stop();
+        assertFalse(this.server.isAlive());
+        this.server.start(8899);
+        assertTrue(this.server.isAlive());
+        try (Socket socket = new Socket("127.0.0.1", 8899)) {
+            socket.getOutputStream().write(new byte[]{0x03, 0x00, 0x00, 0x04});
+            byte[] ack = new byte[4];
+            new DataInputStream(socket.getInputStream()).readFully(ack);
+            assertArrayEquals(new byte[]{0x01, 0x00, 0x00, 0x04}, ack);
+        }
+    }
+}
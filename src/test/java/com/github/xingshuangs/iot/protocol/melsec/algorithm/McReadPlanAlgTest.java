@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.algorithm;
+
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcDeviceCode;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceAddress;
+import com.github.xingshuangs.iot.protocol.melsec.model.McDeviceContent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+public class McReadPlanAlgTest {
+
+    @Test
+    public void sparseToRandom() {
+        List<McDeviceAddress> addresses = Arrays.asList(
+                new McDeviceAddress(EMcDeviceCode.D, 0, 10),
+                new McDeviceAddress(EMcDeviceCode.D, 5, 2),
+                new McDeviceAddress(EMcDeviceCode.D, 100, 1),
+                new McDeviceAddress(EMcDeviceCode.D, 200, 1),
+                new McDeviceAddress(EMcDeviceCode.M, 32, 1));
+        McReadPlan plan = McReadPlanAlg.plan(addresses, EMcSeries.Q_L, EMcFrameType.FRAME_3E);
+        assertEquals(1, plan.getFrames().size());
+        assertEquals(McReadFrame.Type.RANDOM, plan.getFrames().get(0).getType());
+        this.checkAssemble(plan);
+    }
+
+    @Test
+    public void largeToBatch() {
+        List<McDeviceAddress> addresses = Arrays.asList(
+                new McDeviceAddress(EMcDeviceCode.D, 0, 2000),
+                new McDeviceAddress(EMcDeviceCode.D, 1000, 3));
+        McReadPlan plan = McReadPlanAlg.plan(addresses, EMcSeries.Q_L, EMcFrameType.FRAME_3E);
+        assertEquals(3, plan.getFrames().size());
+        plan.getFrames().forEach(x -> assertEquals(McReadFrame.Type.BATCH, x.getType()));
+        this.checkAssemble(plan);
+    }
+
+    @Test
+    public void mixedBatchAndRandom() {
+        List<McDeviceAddress> addresses = new ArrayList<>();
+        addresses.add(new McDeviceAddress(EMcDeviceCode.D, 0, 900));
+        for (int i = 0; i < 10; i++) {
+            addresses.add(new McDeviceAddress(EMcDeviceCode.W, i * 100, 2));
+        }
+        McReadPlan plan = McReadPlanAlg.plan(addresses, EMcSeries.Q_L, EMcFrameType.FRAME_3E);
+        assertEquals(2, plan.getFrames().size());
+        assertEquals(McReadFrame.Type.BATCH, plan.getFrames().get(0).getType());
+        assertEquals(McReadFrame.Type.RANDOM, plan.getFrames().get(1).getType());
+        assertEquals(10, plan.getFrames().get(1).getDwords().size());
+        this.checkAssemble(plan);
+    }
+
+    @Test
+    public void multiBlocks() {
+        List<McDeviceAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            addresses.add(new McDeviceAddress(EMcDeviceCode.D, i * 1000, 400));
+        }
+        addresses.add(new McDeviceAddress(EMcDeviceCode.M, 0, 20));
+        McReadPlan plan = McReadPlanAlg.plan(addresses, EMcSeries.Q_L, EMcFrameType.FRAME_4E);
+        // 4020个字，每帧最多960个字
+        assertEquals(5, plan.getFrames().size());
+        assertTrue(plan.getFrames().stream().anyMatch(x -> x.getType() == McReadFrame.Type.MULTI_BLOCKS));
+        this.checkAssemble(plan);
+    }
+
+    @Test
+    public void frame1E() {
+        List<McDeviceAddress> addresses = Arrays.asList(
+                new McDeviceAddress(EMcDeviceCode.D, 0, 1),
+                new McDeviceAddress(EMcDeviceCode.D, 1, 1),
+                new McDeviceAddress(EMcDeviceCode.D, 8, 1));
+        McReadPlan plan = McReadPlanAlg.plan(addresses, EMcSeries.A, EMcFrameType.FRAME_1E);
+        assertEquals(2, plan.getFrames().size());
+        plan.getFrames().forEach(x -> assertEquals(McReadFrame.Type.BATCH, x.getType()));
+        this.checkAssemble(plan);
+
+        // 间隔合并后9个字，A系列批量读取最多10个字
+        plan = McReadPlanAlg.plan(addresses, EMcSeries.A, EMcFrameType.FRAME_1E, 8);
+        assertEquals(1, plan.getFrames().size());
+        this.checkAssemble(plan);
+    }
+
+    /**
+     * 模拟PLC响应，每个字的值为其软元件编号，检查组装后的数据
+     */
+    private void checkAssemble(McReadPlan plan) {
+        byte[][] frameData = new byte[plan.getFrames().size()][];
+        for (int i = 0; i < frameData.length; i++) {
+            McReadFrame frame = plan.getFrames().get(i);
+            List<Integer> values = new ArrayList<>();
+            frame.getWords().forEach(x -> this.addValues(values, x));
+            if (frame.getType() == McReadFrame.Type.RANDOM) {
+                frame.getDwords().forEach(x -> this.addValues(values, new McDeviceAddress(x.getDeviceCode(), x.getHeadDeviceNumber(), 2)));
+            }
+            frame.getBits().forEach(x -> this.addValues(values, x));
+            frameData[i] = new byte[values.size() * 2];
+            for (int j = 0; j < values.size(); j++) {
+                frameData[i][j * 2] = (byte) values.get(j).intValue();
+                frameData[i][j * 2 + 1] = (byte) (values.get(j) >> 8);
+            }
+        }
+        List<McDeviceContent> contents = plan.assemble(frameData);
+        assertEquals(plan.getAddresses().size(), contents.size());
+        for (McDeviceContent content : contents) {
+            int unit = EMcDeviceCode.checkBitType(content.getDeviceCode()) ? 16 : 1;
+            for (int w = 0; w < content.getDevicePointsCount(); w++) {
+                int expect = (content.getHeadDeviceNumber() + w * unit) & 0xFFFF;
+                int actual = (content.getData()[w * 2] & 0xFF) | ((content.getData()[w * 2 + 1] & 0xFF) << 8);
+                assertEquals(expect, actual);
+            }
+        }
+    }
+
+    private void addValues(List<Integer> values, McDeviceAddress address) {
+        int unit = EMcDeviceCode.checkBitType(address.getDeviceCode()) ? 16 : 1;
+        for (int w = 0; w < address.getDevicePointsCount(); w++) {
+            values.add(address.getHeadDeviceNumber() + w * unit);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.model;
+
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcDeviceCode;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class McAsciiCodecTest {
+
+    private static byte[] ascii(String src) {
+        return src.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void encodeReadInWord() {
+        McHeaderReq header = new McHeader3EReq(McFrame4E3EAccessRoute.createDefault(), 4000);
+        McMessageReq req = McReqBuilder.createReadDeviceBatchInWordReq(EMcSeries.Q_L, header,
+                new McDeviceAddress(EMcDeviceCode.D, 100, 3));
+        assertEquals("500000FF03FF000018001004010000D*0001000003", new String(McAsciiCodec.encode(req), StandardCharsets.US_ASCII));
+
+        McMessageReq reqX = McReqBuilder.createReadDeviceBatchInWordReq(EMcSeries.Q_L, header,
+                new McDeviceAddress(EMcDeviceCode.X, 0x1A0, 1));
+        assertEquals("500000FF03FF000018001004010000X*0001A00001", new String(McAsciiCodec.encode(reqX), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void encodeWriteInBit() {
+        McHeaderReq header = new McHeader4EReq(McFrame4E3EAccessRoute.createDefault(), 4000);
+        ((McHeader4EReq) header).setSerialNumber(0x1234);
+        McDeviceContent content = new McDeviceContent(EMcDeviceCode.M, 100, 3, new byte[]{0x10, 0x10});
+        McMessageReq req = McReqBuilder.createWriteDeviceBatchInBitReq(EMcSeries.Q_L, header, content);
+        assertEquals("540012340000" + "00FF03FF00" + "001B" + "0010" + "14010001" + "M*000100" + "0003" + "101",
+                new String(McAsciiCodec.encode(req), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void decodeReadInWord() {
+        McHeaderReq header = new McHeader3EReq(McFrame4E3EAccessRoute.createDefault(), 4000);
+        McMessageReq req = McReqBuilder.createReadDeviceBatchInWordReq(EMcSeries.Q_L, header,
+                new McDeviceAddress(EMcDeviceCode.D, 100, 2));
+        byte[] data = ascii("D00000FF03FF00000C000012345678");
+        assertEquals(data.length, McAsciiCodec.frameLength(data, 0, data.length, EMcFrameType.FRAME_3E));
+        assertEquals(-1, McAsciiCodec.frameLength(data, 0, data.length - 1, EMcFrameType.FRAME_3E));
+        McMessageAck ack = McMessageAck.fromBytes(McAsciiCodec.decode(data, data.length, req), EMcFrameType.FRAME_3E);
+        assertEquals(0, ack.getHeader().getEndCode());
+        assertArrayEquals(new byte[]{0x34, 0x12, 0x78, 0x56}, ((McAckData) ack.getData()).getData());
+    }
+
+    @Test
+    public void decodeReadInBitAndRandom() {
+        McHeaderReq header = new McHeader4EReq(McFrame4E3EAccessRoute.createDefault(), 4000);
+        McMessageReq req = McReqBuilder.createReadDeviceBatchInBitReq(EMcSeries.Q_L, header,
+                new McDeviceAddress(EMcDeviceCode.M, 100, 3));
+        byte[] data = ascii("D40000050000" + "00FF03FF00" + "0007" + "0000" + "101");
+        assertEquals(5, McAsciiCodec.extractSerialNumber(data));
+        McMessageAck ack = McMessageAck.fromBytes(McAsciiCodec.decode(data, data.length, req), EMcFrameType.FRAME_4E);
+        assertArrayEquals(new byte[]{0x10, 0x10}, ((McAckData) ack.getData()).getData());
+
+        McMessageReq random = McReqBuilder.createReadDeviceRandomInWordReq(EMcSeries.Q_L, header,
+                Collections.singletonList(new McDeviceAddress(EMcDeviceCode.D, 0, 1)),
+                Collections.singletonList(new McDeviceAddress(EMcDeviceCode.D, 10, 1)));
+        data = ascii("D40000050000" + "00FF03FF00" + "0010" + "0000" + "1234" + "12345678");
+        ack = McMessageAck.fromBytes(McAsciiCodec.decode(data, data.length, random), EMcFrameType.FRAME_4E);
+        assertArrayEquals(new byte[]{0x34, 0x12, 0x78, 0x56, 0x34, 0x12}, ((McAckData) ack.getData()).getData());
+    }
+
+    @Test
+    public void decodeError() {
+        McHeaderReq header = new McHeader3EReq(McFrame4E3EAccessRoute.createDefault(), 4000);
+        McMessageReq req = McReqBuilder.createReadDeviceBatchInWordReq(EMcSeries.Q_L, header,
+                new McDeviceAddress(EMcDeviceCode.D, 100, 2));
+        byte[] data = ascii("D00000FF03FF000016C05100FF03FF0004010000");
+        McMessageAck ack = McMessageAck.fromBytes(McAsciiCodec.decode(data, data.length, req), EMcFrameType.FRAME_3E);
+        assertEquals(0xC051, ack.getHeader().getEndCode());
+        McError4E3EData error = (McError4E3EData) ack.getData();
+        assertEquals(0x03FF, ((McFrame4E3EAccessRoute) error.getAccessRoute()).getRequestDestModuleIoNumber());
+        assertEquals(0x0401, error.getCommand().getCode());
+    }
+}
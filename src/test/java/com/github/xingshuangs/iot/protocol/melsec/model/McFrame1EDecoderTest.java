@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.model;
+
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcDeviceCode;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class McFrame1EDecoderTest {
+
+    private final McHeaderReq header = new McHeader1EReq(new McFrame1EAccessRoute(), 2500);
+
+    @Test
+    public void readInWord() {
+        McMessageReq req = McReqBuilder.createReadDeviceBatchInWordReq(EMcSeries.A, this.header,
+                new McDeviceAddress(EMcDeviceCode.D, 50, 3));
+        McFrame1EDecoder decoder = new McFrame1EDecoder();
+        decoder.expect(req.toByteArray());
+        byte[] data = new byte[]{(byte) 0x81, 0x00, 0x01, 0x00, 0x02, 0x00, 0x03, 0x00, (byte) 0x81};
+        assertEquals(-1, decoder.frameLength(data, 0, 1));
+        assertEquals(-1, decoder.frameLength(data, 0, 7));
+        assertEquals(8, decoder.frameLength(data, 0, 8));
+        assertEquals(8, decoder.frameLength(data, 0, data.length));
+    }
+
+    @Test
+    public void readInBit() {
+        McMessageReq req = McReqBuilder.createReadDeviceBatchInBitReq(EMcSeries.A, this.header,
+                new McDeviceAddress(EMcDeviceCode.X, 50, 5));
+        assertEquals(5, McFrame1EDecoder.ackLength(req.toByteArray()));
+        McMessageReq req256 = McReqBuilder.createReadDeviceBatchInWordReq(EMcSeries.A, this.header,
+                new McDeviceAddress(EMcDeviceCode.D, 0, 256));
+        assertEquals(514, McFrame1EDecoder.ackLength(req256.toByteArray()));
+    }
+
+    @Test
+    public void abnormal() {
+        McMessageReq req = McReqBuilder.createReadDeviceBatchInWordReq(EMcSeries.A, this.header,
+                new McDeviceAddress(EMcDeviceCode.D, 50, 3));
+        McFrame1EDecoder decoder = new McFrame1EDecoder();
+        decoder.expect(req.toByteArray());
+        assertEquals(3, decoder.frameLength(new byte[]{(byte) 0x81, 0x5B, 0x10}, 0, 3));
+        assertEquals(2, decoder.frameLength(new byte[]{(byte) 0x81, 0x50}, 0, 2));
+        McMessageAck ack = McMessageAck.fromBytes(new byte[]{(byte) 0x81, 0x50}, EMcFrameType.FRAME_1E);
+        assertEquals(0, ((McError1EData) ack.getData()).getError());
+    }
+}
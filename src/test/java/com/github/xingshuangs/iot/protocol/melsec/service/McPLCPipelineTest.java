@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.service;
+
+import com.github.xingshuangs.iot.net.client.NioEventLoop;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class McPLCPipelineTest {
+
+    @Test
+    public void outOfOrderResponses() throws Exception {
+        this.outOfOrderResponses(false);
+    }
+
+    @Test
+    public void nioOutOfOrderResponses() throws Exception {
+        // 两个响应一次性写出，由4E帧解码器切分
+        this.outOfOrderResponses(true);
+    }
+
+    private void outOfOrderResponses(boolean nio) throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            // 收齐两个请求之后再倒序响应，一问一答模式下第二个请求发不出来
+            CompletableFuture<Void> server = CompletableFuture.runAsync(() -> {
+                try (Socket socket = serverSocket.accept()) {
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    List<byte[]> requests = new ArrayList<>();
+                    for (int i = 0; i < 2; i++) {
+                        byte[] header = new byte[13];
+                        in.readFully(header);
+                        byte[] body = new byte[(header[11] & 0xFF) | ((header[12] & 0xFF) << 8)];
+                        in.readFully(body);
+                        byte[] request = new byte[header.length + body.length];
+                        System.arraycopy(header, 0, request, 0, header.length);
+                        System.arraycopy(body, 0, request, header.length, body.length);
+                        requests.add(request);
+                    }
+                    OutputStream out = socket.getOutputStream();
+                    for (int i = requests.size() - 1; i >= 0; i--) {
+                        out.write(ack(requests.get(i)));
+                    }
+                    out.flush();
+                    // 等待客户端关闭
+                    in.read();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            McPLC mcPLC = new McPLC(EMcSeries.QnA, EMcFrameType.FRAME_4E, "127.0.0.1", serverSocket.getLocalPort());
+            if (nio) {
+                mcPLC.setNioEventLoop(NioEventLoop.getDefault());
+            }
+            mcPLC.setMaxInFlight(2);
+            try {
+                CompletableFuture<Short> d100 = CompletableFuture.supplyAsync(() -> mcPLC.readInt16("D100"));
+                CompletableFuture<Short> d200 = CompletableFuture.supplyAsync(() -> mcPLC.readInt16("D200"));
+                assertEquals(100, d100.get(5, TimeUnit.SECONDS).shortValue());
+                assertEquals(200, d200.get(5, TimeUnit.SECONDS).shortValue());
+            } finally {
+                mcPLC.close();
+            }
+            server.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setMaxInFlightWhenConnected() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            McPLC mcPLC = new McPLC(EMcSeries.QnA, EMcFrameType.FRAME_4E, "127.0.0.1", serverSocket.getLocalPort());
+            try {
+                mcPLC.connect();
+                mcPLC.setMaxInFlight(2);
+            } finally {
+                mcPLC.close();
+            }
+        }
+    }
+
+    @Test
+    public void preparedRandomRead() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            // 两次读取使用同一个预解析地址，每次按字随机读取2个点
+            CompletableFuture<Void> server = CompletableFuture.runAsync(() -> {
+                try (Socket socket = serverSocket.accept()) {
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    OutputStream out = socket.getOutputStream();
+                    for (int i = 0; i < 2; i++) {
+                        byte[] header = new byte[13];
+                        in.readFully(header);
+                        in.readFully(new byte[(header[11] & 0xFF) | ((header[12] & 0xFF) << 8)]);
+                        byte[] res = new byte[19];
+                        res[0] = (byte) 0xD4;
+                        System.arraycopy(header, 2, res, 2, 9);
+                        res[11] = 6;
+                        res[15] = (byte) (10 + i);
+                        res[17] = (byte) 0xFF;
+                        res[18] = (byte) 0xFF;
+                        out.write(res);
+                    }
+                    out.flush();
+                    // 等待客户端关闭
+                    in.read();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            McPLC mcPLC = new McPLC(EMcSeries.QnA, EMcFrameType.FRAME_4E, "127.0.0.1", serverSocket.getLocalPort());
+            McPreparedAddresses addresses = McPreparedAddresses.of("D100", "D200");
+            short[] values = new short[2];
+            try {
+                mcPLC.readInt16(addresses, values);
+                assertArrayEquals(new short[]{10, -1}, values);
+                mcPLC.readInt16(addresses, values);
+                assertArrayEquals(new short[]{11, -1}, values);
+            } finally {
+                mcPLC.close();
+            }
+            server.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 4E批量读取的响应，数据为请求的起始软元件编号
+     */
+    private static byte[] ack(byte[] req) {
+        byte[] res = new byte[17];
+        res[0] = (byte) 0xD4;
+        // 序列号、固定值、访问路径和请求一致
+        System.arraycopy(req, 2, res, 2, 9);
+        res[11] = 4;
+        // 指令(2) + 子指令(2) 之后是软元件编号
+        res[15] = req[19];
+        res[16] = req[20];
+        return res;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.melsec.service;
+
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcDataCode;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcDeviceCode;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcFrameType;
+import com.github.xingshuangs.iot.protocol.melsec.enums.EMcSeries;
+import com.github.xingshuangs.iot.protocol.melsec.model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class McPLCUdpTest {
+
+    private DatagramSocket server;
+
+    private McPLC mcPLC;
+
+    @Before
+    public void init() throws Exception {
+        this.server = new DatagramSocket(0);
+        this.mcPLC = new McPLC(EMcSeries.QnA, EMcFrameType.FRAME_4E, "127.0.0.1", this.server.getLocalPort());
+        this.mcPLC.setUdp(true);
+        this.mcPLC.setReceiveTimeout(3000);
+    }
+
+    @After
+    public void destroy() {
+        this.mcPLC.close();
+        this.server.close();
+    }
+
+    @Test
+    public void burstWithRetransmission() throws Exception {
+        this.mcPLC.getUdpClient().setRetransmitTimeout(200);
+        // 丢弃第一轮的两个请求，重发后倒序响应
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            this.receive();
+            this.receive();
+            DatagramPacket first = this.receive();
+            DatagramPacket second = this.receive();
+            this.send(ack(second), second);
+            this.send(ack(first), first);
+        });
+        List<McMessageReq> reqs = new ArrayList<>();
+        for (int number : new int[]{100, 200}) {
+            McHeaderReq header = McHeaderReq.createByFrameType(EMcFrameType.FRAME_4E, McFrame4E3EAccessRoute.createDefault(), 3000);
+            reqs.add(McReqBuilder.createReadDeviceBatchInWordReq(EMcSeries.QnA, header, new McDeviceAddress(EMcDeviceCode.D, number, 1)));
+        }
+        List<McMessageAck> acks = this.mcPLC.readFromServer(reqs);
+        future.get(5, TimeUnit.SECONDS);
+        assertArrayEquals(new byte[]{100, 0}, ((McAckData) acks.get(0).getData()).getData());
+        assertArrayEquals(new byte[]{(byte) 200, 0}, ((McAckData) acks.get(1).getData()).getData());
+    }
+
+    @Test
+    public void writeWithoutRetransmission() throws Exception {
+        this.mcPLC.getUdpClient().setRetransmitTimeout(100);
+        // 写入请求的响应迟到，期间不能收到重发的写入请求
+        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
+            DatagramPacket packet = this.receive();
+            int count = 1;
+            try {
+                this.server.setSoTimeout(500);
+                this.server.receive(new DatagramPacket(new byte[1024], 1024));
+                count++;
+            } catch (Exception e) {
+                // 超时说明没有重发
+            }
+            byte[] res = new byte[15];
+            res[0] = (byte) 0xD4;
+            System.arraycopy(packet.getData(), 2, res, 2, 9);
+            res[11] = 2;
+            this.send(res, packet);
+            return count;
+        });
+        this.mcPLC.writeInt16("D100", (short) 1);
+        assertEquals(1, future.get(5, TimeUnit.SECONDS).intValue());
+    }
+
+    @Test
+    public void ascii() throws Exception {
+        this.mcPLC.setDataCode(EMcDataCode.ASCII);
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            DatagramPacket packet = this.receive();
+            String req = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.US_ASCII);
+            // 副头部(4) + 序列号(4) + 固定值(4) + 访问路径(10) + 数据长度(4) + 定时器(4) + 指令(8) + 软元件代码(2) + 编号(6)
+            int number = Integer.parseInt(req.substring(40, 46));
+            String ack = "D400" + req.substring(4, 8) + "0000" + "00FF03FF00" + "0008" + "0000" + String.format("%04X", number);
+            this.send(ack.getBytes(StandardCharsets.US_ASCII), packet);
+        });
+        assertEquals(300, this.mcPLC.readInt16("D300"));
+        future.get(5, TimeUnit.SECONDS);
+    }
+
+    private DatagramPacket receive() {
+        try {
+            DatagramPacket packet = new DatagramPacket(new byte[1024], 1024);
+            this.server.receive(packet);
+            return packet;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void send(byte[] data, DatagramPacket req) {
+        try {
+            this.server.send(new DatagramPacket(data, data.length, req.getSocketAddress()));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 4E批量读取1个字的响应，数据为请求的起始软元件编号
+     */
+    private static byte[] ack(DatagramPacket packet) {
+        byte[] req = Arrays.copyOf(packet.getData(), packet.getLength());
+        byte[] res = new byte[17];
+        res[0] = (byte) 0xD4;
+        System.arraycopy(req, 2, res, 2, 9);
+        res[11] = 4;
+        res[15] = req[19];
+        res[16] = req[20];
+        return res;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.algorithm;
+
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.protocol.modbus.enums.EMbFunctionCode;
+import com.github.xingshuangs.iot.protocol.modbus.model.MbReadItem;
+import com.github.xingshuangs.iot.protocol.modbus.service.ModbusMultiAddressRead;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+public class MbBlockMergeAlgTest {
+
+    @Test
+    public void merge() {
+        ModbusMultiAddressRead addressRead = new ModbusMultiAddressRead()
+                .addHoldRegister(10, EDataType.INT16)
+                .addHoldRegister(1, EDataType.FLOAT32)
+                .addHoldRegister(100, EDataType.INT16)
+                .addCoil(6)
+                .addHoldRegister(0, EDataType.INT16)
+                .addCoil(5)
+                .addInputRegister(0, EDataType.INT16);
+        List<MbReadBlock> blocks = MbBlockMergeAlg.merge(addressRead.getItems(), 16);
+        assertEquals(4, blocks.size());
+        assertEquals(EMbFunctionCode.READ_COIL, blocks.get(0).getFunctionCode());
+        assertEquals(5, blocks.get(0).getAddress());
+        assertEquals(2, blocks.get(0).getQuantity());
+        assertEquals(Arrays.asList(5, 3), blocks.get(0).getIndexes());
+        assertEquals(EMbFunctionCode.READ_HOLD_REGISTER, blocks.get(1).getFunctionCode());
+        assertEquals(0, blocks.get(1).getAddress());
+        assertEquals(11, blocks.get(1).getQuantity());
+        assertEquals(Arrays.asList(4, 1, 0), blocks.get(1).getIndexes());
+        assertEquals(100, blocks.get(2).getAddress());
+        assertEquals(EMbFunctionCode.READ_INPUT_REGISTER, blocks.get(3).getFunctionCode());
+    }
+
+    @Test
+    public void mergeLimit() {
+        ModbusMultiAddressRead addressRead = new ModbusMultiAddressRead()
+                .addHoldRegister(0, EDataType.FLOAT64)
+                .addHoldRegister(122, EDataType.FLOAT64)
+                .addHoldRegisterString(200, 250);
+        List<MbReadBlock> blocks = MbBlockMergeAlg.merge(addressRead.getItems(), 200);
+        assertEquals(3, blocks.size());
+        assertEquals(4, blocks.get(0).getQuantity());
+        assertEquals(122, blocks.get(1).getAddress());
+        assertEquals(125, blocks.get(2).getQuantity());
+
+        blocks = MbBlockMergeAlg.merge(addressRead.getItems().subList(0, 2), 0);
+        assertEquals(2, blocks.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addOversizeString() {
+        new ModbusMultiAddressRead().addHoldRegisterString(0, 251);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeOversize() {
+        List<MbReadItem> items = Collections.singletonList(
+                new MbReadItem(EMbFunctionCode.READ_HOLD_REGISTER, 0, EDataType.STRING, 0, 252));
+        MbBlockMergeAlg.merge(items, 0);
+    }
+}
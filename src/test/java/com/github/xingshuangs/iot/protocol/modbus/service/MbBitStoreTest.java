@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.modbus.service;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+public class MbBitStoreTest {
+
+    @Test
+    public void getBytes() {
+        MbBitStore store = new MbBitStore(200);
+        store.set(0, true);
+        store.set(2, true);
+        store.set(9, true);
+        assertArrayEquals(new byte[]{0x05, 0x02}, store.getBytes(0, 10));
+        assertArrayEquals(new byte[]{0x01}, store.getBytes(2, 3));
+        // 跨越两个long
+        store.set(63, true);
+        store.set(64, true);
+        store.set(70, true);
+        assertArrayEquals(new byte[]{(byte) 0x83, 0x00}, store.getBytes(63, 9));
+        assertTrue(store.get(70));
+        assertFalse(store.get(71));
+    }
+
+    @Test
+    public void setBytes() {
+        MbBitStore store = new MbBitStore(200);
+        store.setBytes(60, 12, new byte[]{(byte) 0xA5, 0x0F});
+        assertArrayEquals(new byte[]{(byte) 0xA5, 0x0F}, store.getBytes(60, 12));
+        assertFalse(store.get(72));
+        store.setBytes(61, 2, new byte[]{0x00});
+        assertArrayEquals(new byte[]{(byte) 0xA1}, store.getBytes(60, 8));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfRange() {
+        new MbBitStore(10).getBytes(5, 6);
+    }
+
+    @Test
+    public void registerStore() {
+        MbRegisterStore store = new MbRegisterStore(10);
+        store.setBytes(2, new byte[]{0x01, 0x02, 0x03, 0x04});
+        assertArrayEquals(new byte[]{0x00, 0x00, 0x01, 0x02, 0x03, 0x04}, store.getBytes(1, 3));
+        assertEquals(10, store.size());
+    }
+
+    @Test
+    public void serverAccessors() {
+        ModbusTcpServer server = new ModbusTcpServer(502, 16);
+        List<Boolean> coils = server.getCoils();
+        assertEquals(16, coils.size());
+        coils.set(3, true);
+        assertTrue(server.getCoilStore().get(3));
+        server.setDiscreteInputs(Arrays.asList(true, false, true));
+        assertArrayEquals(new byte[]{0x05}, server.getDiscreteInputStore().getBytes(0, 3));
+
+        server.getHoldRegisters()[1] = 0x11;
+        assertArrayEquals(new byte[]{0x00, 0x11}, server.getHoldRegisterStore().getBytes(0, 1));
+        server.setInputRegisters(new byte[]{0x01, 0x02, 0x03, 0x04});
+        assertEquals(2, server.getInputRegisterStore().size());
+        assertArrayEquals(new byte[]{0x03, 0x04}, server.getInputRegisterStore().getBytes(1, 1));
+    }
+}
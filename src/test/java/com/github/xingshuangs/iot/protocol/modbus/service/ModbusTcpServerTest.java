@@ -25,15 +25,26 @@
 package com.github.xingshuangs.iot.protocol.modbus.service;
 
 import com.github.xingshuangs.iot.common.buff.EByteBuffFormat;
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.common.scan.ScanTag;
 import com.github.xingshuangs.iot.exceptions.ModbusCommException;
+import com.github.xingshuangs.iot.exceptions.SocketRuntimeException;
+import com.github.xingshuangs.iot.net.client.NioEventLoop;
+import com.github.xingshuangs.iot.net.client.NioTcpChannel;
+import com.github.xingshuangs.iot.protocol.modbus.model.MbPreparedRead;
 import com.github.xingshuangs.iot.utils.HexUtil;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
@@ -57,6 +68,28 @@ public class ModbusTcpServerTest {
         this.server.stop();
     }
 
+    @Test
+    public void manyClients() throws Exception {
+        this.modbusTcp.writeHoldRegister(10, 1234);
+        List<ModbusTcp> clients = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                ModbusTcp client = new ModbusTcp("127.0.0.1", 503);
+                clients.add(client);
+                futures.add(executor.submit(() -> client.readUInt16(10)));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(1234, future.get().intValue());
+            }
+            assertEquals(65, this.server.getConnectedNumber().get());
+        } finally {
+            executor.shutdown();
+            clients.forEach(ModbusTcp::close);
+        }
+    }
+
     @Test
     public void readCoil() {
         this.modbusTcp.writeCoil(0, true);
@@ -75,6 +108,141 @@ public class ModbusTcpServerTest {
         assertArrayEquals(expect, booleans.toArray(new Boolean[0]));
     }
 
+    @Test
+    public void preparedRead() {
+        this.modbusTcp.writeHoldRegister(0, Arrays.asList(1, 65535, 300));
+        MbPreparedRead registerRead = MbPreparedRead.holdRegister(1, 0, 3);
+        int[] registers = new int[3];
+        byte[] data = new byte[6];
+        for (int i = 0; i < 3; i++) {
+            this.modbusTcp.readPrepared(registerRead, registers);
+            assertArrayEquals(new int[]{1, 65535, 300}, registers);
+        }
+        this.modbusTcp.readPrepared(registerRead, data);
+        assertArrayEquals(new byte[]{0x00, 0x01, (byte) 0xFF, (byte) 0xFF, 0x01, 0x2C}, data);
+
+        this.modbusTcp.writeCoil(0, Arrays.asList(true, false, true, true, false, false, false, false, true));
+        boolean[] bits = new boolean[9];
+        this.modbusTcp.readPrepared(MbPreparedRead.coil(1, 0, 9), bits);
+        assertArrayEquals(new boolean[]{true, false, true, true, false, false, false, false, true}, bits);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void preparedReadTypeMismatch() {
+        this.modbusTcp.readPrepared(MbPreparedRead.coil(1, 0, 9), new int[9]);
+    }
+
+    @Test
+    public void nioReadWrite() {
+        ModbusTcp nioModbusTcp = new ModbusTcp("127.0.0.1", 503);
+        nioModbusTcp.setNioEventLoop(NioEventLoop.getDefault());
+        try {
+            nioModbusTcp.writeHoldRegister(0, 456);
+            assertEquals(456, nioModbusTcp.readInt16(0));
+            nioModbusTcp.writeCoil(0, Arrays.asList(true, false, true));
+            assertArrayEquals(new Boolean[]{true, false, true}, nioModbusTcp.readCoil(0, 3).toArray(new Boolean[0]));
+        } finally {
+            nioModbusTcp.close();
+        }
+    }
+
+    @Test(expected = SocketRuntimeException.class)
+    public void nioReconnectAfterClose() {
+        ModbusTcp nioModbusTcp = new ModbusTcp("127.0.0.1", 503);
+        nioModbusTcp.setNioEventLoop(NioEventLoop.getDefault());
+        nioModbusTcp.setReceiveTimeout(200);
+        try {
+            nioModbusTcp.writeHoldRegister(0, 789);
+            nioModbusTcp.close();
+            assertFalse(nioModbusTcp.checkConnected());
+            assertEquals(789, nioModbusTcp.readInt16(0));
+            // 没有数据时，未指定超时时间的读取使用接收超时时间
+            NioTcpChannel channel = nioModbusTcp.getAvailableChannel();
+            assertEquals(200, channel.getReceiveTimeout());
+            channel.read(new byte[1]);
+        } finally {
+            nioModbusTcp.close();
+        }
+    }
+
+    @Test
+    public void asyncReadWrite() {
+        this.modbusTcp.writeInt32Async(2, 654321).join();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(this.modbusTcp.readInt32Async(2));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        futures.forEach(x -> assertEquals(654321, x.join().intValue()));
+        CompletableFuture<List<Boolean>> coil = this.modbusTcp.writeCoilAsync(0, true)
+                .thenCompose(x -> this.modbusTcp.readCoilAsync(0, 1));
+        assertTrue(coil.join().get(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setMaxInFlightWhenConnected() {
+        this.modbusTcp.readUInt16(10);
+        this.modbusTcp.setMaxInFlight(8);
+    }
+
+    @Test
+    public void multiplexedRead() throws Exception {
+        ModbusTcp multiplexed = new ModbusTcp("127.0.0.1", 503);
+        multiplexed.setMaxInFlight(8);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            multiplexed.writeInt32(4, 987654);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> multiplexed.readInt32(4)));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(987654, future.get().intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+            multiplexed.close();
+        }
+    }
+
+    @Test
+    public void scanReader() {
+        this.modbusTcp.writeInt16(10, (short) -7);
+        this.modbusTcp.writeFloat32(12, 1.25f);
+        this.modbusTcp.writeHoldRegister(20, 0x0800);
+        this.modbusTcp.writeInt32(300, 99);
+        ModbusScanReader reader = new ModbusScanReader(this.modbusTcp);
+        List<Object> values = reader.read(Arrays.asList(
+                new ScanTag("c", "300", EDataType.INT32),
+                new ScanTag("a", "10", EDataType.INT16),
+                new ScanTag("b", "12", EDataType.FLOAT32),
+                new ScanTag("d", "20.3", EDataType.BOOL)));
+        assertEquals(99, values.get(0));
+        assertEquals((short) -7, values.get(1));
+        assertEquals(1.25f, values.get(2));
+        assertEquals(this.modbusTcp.readBoolean(20, 3), values.get(3));
+        assertEquals(true, values.get(3));
+    }
+
+    @Test
+    public void readMultiAddress() {
+        this.modbusTcp.writeInt16(10, (short) -7);
+        this.modbusTcp.writeFloat32(12, 1.25f);
+        this.modbusTcp.writeInt32(300, 99);
+        this.modbusTcp.writeString(40, "abcd");
+        this.modbusTcp.writeCoil(0, Arrays.asList(false, true, false, true));
+        ModbusMultiAddressRead addressRead = new ModbusMultiAddressRead()
+                .addHoldRegister(300, EDataType.INT32)
+                .addCoil(3)
+                .addHoldRegister(10, EDataType.INT16)
+                .addHoldRegister(12, EDataType.FLOAT32)
+                .addHoldRegisterString(40, 4)
+                .addCoil(1)
+                .addCoil(0);
+        List<Object> values = this.modbusTcp.readMultiAddress(addressRead);
+        assertEquals(Arrays.asList(99, true, (short) -7, 1.25f, "abcd", true, false), values);
+    }
+
     @Test(expected = ModbusCommException.class)
     public void readCoil1() {
         this.modbusTcp.readCoil(1, 2001);
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.algorithm;
+
+import com.github.xingshuangs.iot.protocol.s7.model.RequestItem;
+import com.github.xingshuangs.iot.protocol.s7.utils.AddressUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+public class S7AddressMergeAlgTest {
+
+    @Test
+    public void merge() {
+        List<RequestItem> items = Arrays.asList(
+                AddressUtil.parseByte("DB1.4", 4),
+                AddressUtil.parseByte("DB1.0", 2),
+                AddressUtil.parseByte("DB1.100", 2),
+                AddressUtil.parseBit("DB2.0.3"),
+                AddressUtil.parseByte("DB1.2", 2),
+                AddressUtil.parseBit("DB1.9.1"),
+                AddressUtil.parseByte("M1", 1));
+        List<S7MergeRange> ranges = S7AddressMergeAlg.merge(items, S7AddressMergeAlg.RECOMMENDED_MAX_GAP);
+        assertEquals(4, ranges.size());
+        S7MergeRange db1 = ranges.stream().filter(x -> x.getIndexes().contains(1)).findFirst().get();
+        assertTrue(db1.isMerged());
+        assertEquals(0, db1.getRequestItem().getByteAddress());
+        assertEquals(10, db1.getRequestItem().getCount());
+        assertEquals(Arrays.asList(1, 4, 0, 5), db1.getIndexes());
+        S7MergeRange db2 = ranges.stream().filter(x -> x.getIndexes().contains(3)).findFirst().get();
+        assertFalse(db2.isMerged());
+        assertSame(items.get(3), db2.getRequestItem());
+    }
+
+    @Test
+    public void mergeDisabledByGap() {
+        List<RequestItem> items = Arrays.asList(
+                AddressUtil.parseByte("DB1.0", 2),
+                AddressUtil.parseByte("DB1.4", 2));
+        assertEquals(2, S7AddressMergeAlg.merge(items, 1).size());
+        assertEquals(1, S7AddressMergeAlg.merge(items, 2).size());
+    }
+
+    @Test
+    public void extract() {
+        List<RequestItem> items = Arrays.asList(
+                AddressUtil.parseByte("DB1.0", 2),
+                AddressUtil.parseBit("DB1.3.2"));
+        S7MergeRange range = S7AddressMergeAlg.merge(items, 16).get(0);
+        byte[] data = new byte[]{0x11, 0x22, 0x00, 0x04};
+        assertArrayEquals(new byte[]{0x11, 0x22}, S7AddressMergeAlg.extract(range, items.get(0), data));
+        assertArrayEquals(new byte[]{0x01}, S7AddressMergeAlg.extract(range, items.get(1), data));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.serializer;
+
+import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.protocol.s7.enums.EArea;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class S7BeanPlanTest {
+
+    @Test
+    public void of() {
+        S7BeanPlan plan = S7BeanPlan.of(DemoBean.class);
+        assertSame(plan, S7BeanPlan.of(DemoBean.class));
+        assertEquals(14, plan.getTemplates().size());
+
+        S7ParseData bool = plan.getTemplates().get(0);
+        assertEquals(EDataType.BOOL, bool.getDataType());
+        assertEquals(EArea.DATA_BLOCKS, bool.getRequestItem().getArea());
+        assertEquals(1, bool.getRequestItem().getBitAddress());
+
+        DemoBean bean = plan.newInstance();
+        bool.getAccessor().set(bean, true);
+        assertEquals(true, bool.getAccessor().get(bean));
+    }
+
+    @Test
+    public void copy() {
+        S7ParseData template = S7BeanPlan.of(DemoBean.class).getTemplates().get(0);
+        S7ParseData copy = template.copy();
+        assertNotSame(template.getRequestItem(), copy.getRequestItem());
+        copy.getRequestItem().setByteAddress(100);
+        assertEquals(0, template.getRequestItem().getByteAddress());
+    }
+}
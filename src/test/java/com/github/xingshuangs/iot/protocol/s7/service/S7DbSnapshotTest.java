@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.service;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class S7DbSnapshotTest {
+
+    @Test
+    public void diff() {
+        byte[] previous = new byte[16];
+        byte[] current = new byte[16];
+        current[1] = 1;
+        current[2] = 1;
+        current[5] = 1;
+        current[15] = 1;
+        assertEquals(Arrays.asList(new S7DbSnapshot.Range(1, 2), new S7DbSnapshot.Range(5, 1), new S7DbSnapshot.Range(15, 1)),
+                S7DbSnapshot.diff(previous, current, 0));
+        assertEquals(Arrays.asList(new S7DbSnapshot.Range(1, 5), new S7DbSnapshot.Range(15, 1)),
+                S7DbSnapshot.diff(previous, current, 2));
+        assertEquals(Collections.singletonList(new S7DbSnapshot.Range(1, 15)),
+                S7DbSnapshot.diff(previous, current, 9));
+        assertEquals(Collections.emptyList(), S7DbSnapshot.diff(previous, previous, 0));
+    }
+}
@@ -25,9 +25,15 @@
 package com.github.xingshuangs.iot.protocol.s7.service;
 
 import com.github.xingshuangs.iot.common.enums.EDataType;
+import com.github.xingshuangs.iot.common.scan.ScanTag;
+import com.github.xingshuangs.iot.exceptions.S7CommException;
+import com.github.xingshuangs.iot.protocol.s7.algorithm.S7AddressMergeAlg;
+import com.github.xingshuangs.iot.net.AckCallback;
+import com.github.xingshuangs.iot.net.client.NioEventLoop;
 import com.github.xingshuangs.iot.protocol.s7.enums.EPlcType;
 import com.github.xingshuangs.iot.protocol.s7.serializer.DemoBean;
 import com.github.xingshuangs.iot.protocol.s7.serializer.DemoLargeBean;
+import com.github.xingshuangs.iot.protocol.s7.serializer.DemoMismatchBean;
 import com.github.xingshuangs.iot.protocol.s7.serializer.S7Parameter;
 import com.github.xingshuangs.iot.protocol.s7.serializer.S7Serializer;
 import com.github.xingshuangs.iot.utils.HexUtil;
@@ -40,8 +46,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.Assert.*;
 
@@ -100,6 +109,12 @@ public class S7PLCServerTest {
         assertEquals((short) 33, shorts.get(1).shortValue());
     }
 
+    @Test(expected = S7CommException.class)
+    public void serializerMismatchedField() {
+        this.s7PLC.writeByte("DB1.0", new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFE});
+        S7Serializer.newInstance(this.s7PLC).read(DemoMismatchBean.class);
+    }
+
     @Test
     public void serializerTest() {
         S7Serializer s7Serializer = S7Serializer.newInstance(this.s7PLC);
@@ -208,6 +223,203 @@ public class S7PLCServerTest {
         s7Serializer.write(bean);
     }
 
+    @Test
+    public void pipelinedReadWriteTest() {
+        S7PLC plc = new S7PLC(EPlcType.S1500, "127.0.0.1", 8888);
+        plc.setMaxAmqCaller(3);
+        plc.setMaxAmqCallee(3);
+        try {
+            plc.connect();
+            assertEquals(3, plc.getParallelJobs());
+            byte[] expect = new byte[2000];
+            for (int i = 0; i < expect.length; i++) {
+                expect[i] = (byte) i;
+            }
+            plc.writeByte("DB2.0", expect);
+            MultiAddressRead addressRead = new MultiAddressRead();
+            addressRead.addData("DB2.0", 1000)
+                    .addData("DB2.1000", 600)
+                    .addData("DB2.1600", 400);
+            List<byte[]> actual = plc.readMultiByte(addressRead);
+            assertEquals(3, actual.size());
+            byte[] merge = new byte[2000];
+            System.arraycopy(actual.get(0), 0, merge, 0, 1000);
+            System.arraycopy(actual.get(1), 0, merge, 1000, 600);
+            System.arraycopy(actual.get(2), 0, merge, 1600, 400);
+            assertArrayEquals(expect, merge);
+        } finally {
+            plc.close();
+        }
+    }
+
+    @Test
+    public void nioReadWriteTest() {
+        S7PLC plc = new S7PLC(EPlcType.S1500, "127.0.0.1", 8888);
+        plc.setNioEventLoop(NioEventLoop.getDefault());
+        try {
+            plc.connect();
+            assertTrue(plc.checkConnected());
+            plc.writeInt32("DB1.0", 123456);
+            assertEquals(123456, plc.readInt32("DB1.0"));
+            byte[] expect = new byte[1000];
+            for (int i = 0; i < expect.length; i++) {
+                expect[i] = (byte) i;
+            }
+            plc.writeByte("DB2.0", expect);
+            assertArrayEquals(expect, plc.readByte("DB2.0", 1000));
+        } finally {
+            plc.close();
+        }
+    }
+
+    @Test
+    public void asyncReadWriteTest() {
+        this.s7PLC.writeFloat32Async("DB1.0", 12.5f).join();
+        List<CompletableFuture<Float>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(this.s7PLC.readFloat32Async("DB1.0"));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        futures.forEach(x -> assertEquals(12.5f, x.join(), 0.001));
+
+        MultiAddressRead addressRead = new MultiAddressRead();
+        addressRead.addData("DB1.0", 4).addData("DB1.4", 2);
+        List<byte[]> bytes = this.s7PLC.readMultiByteAsync(addressRead).join();
+        assertEquals(2, bytes.size());
+        assertEquals(4, bytes.get(0).length);
+
+        AckCallback<Float> callback = this.s7PLC.executeAsync(() -> this.s7PLC.readFloat32("DB1.0"), null);
+        callback.waitData();
+        assertTrue(callback.isCompleted());
+        assertEquals(12.5f, callback.getAckData(), 0.001);
+    }
+
+    @Test
+    public void scanReaderTest() {
+        this.s7PLC.writeBoolean("DB1.0.1", true);
+        this.s7PLC.writeInt16("DB1.2", (short) -12);
+        this.s7PLC.writeFloat32("DB1.4", 3.5f);
+        this.s7PLC.writeString("DB1.10", "abc");
+        S7ScanReader reader = new S7ScanReader(this.s7PLC);
+        List<Object> values = reader.read(Arrays.asList(
+                new ScanTag("b", "DB1.0.1", EDataType.BOOL),
+                new ScanTag("i", "DB1.2", EDataType.INT16),
+                new ScanTag("f", "DB1.4", EDataType.FLOAT32),
+                new ScanTag("s", "DB1.10", EDataType.STRING) {{
+                    setLength(3);
+                }}));
+        assertEquals(true, values.get(0));
+        assertEquals((short) -12, values.get(1));
+        assertEquals(3.5f, values.get(2));
+        assertEquals("abc", values.get(3));
+    }
+
+    @Test
+    public void mergedMultiReadTest() {
+        this.s7PLC.setAddressMergeGap(S7AddressMergeAlg.RECOMMENDED_MAX_GAP);
+        try {
+            this.s7PLC.writeByte("DB1.0", new byte[]{0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, (byte) 0x88});
+            MultiAddressRead addressRead = new MultiAddressRead();
+            addressRead.addData("DB1.4", 2).addData("DB1.0", 2).addData("DB1.2", 1);
+            List<byte[]> bytes = this.s7PLC.readMultiByte(addressRead);
+            assertArrayEquals(new byte[]{0x05, 0x06}, bytes.get(0));
+            assertArrayEquals(new byte[]{0x01, 0x02}, bytes.get(1));
+            assertArrayEquals(new byte[]{0x03}, bytes.get(2));
+            List<Boolean> booleans = this.s7PLC.readBoolean("DB1.7.7", "DB1.7.0", "DB1.0.0");
+            assertEquals(Arrays.asList(true, false, true), booleans);
+        } finally {
+            this.s7PLC.setAddressMergeGap(-1);
+        }
+    }
+
+    @Test
+    public void primitiveArrayReadTest() {
+        this.s7PLC.writeFloat32("DB1.0", 1.5f);
+        this.s7PLC.writeFloat32("DB1.4", -2.25f);
+        this.s7PLC.writeInt16("DB1.8", (short) -22);
+        this.s7PLC.writeBoolean("DB1.10.1", true);
+        float[] floats = new float[2];
+        this.s7PLC.readFloat32(new String[]{"DB1.4", "DB1.0"}, floats);
+        assertArrayEquals(new float[]{-2.25f, 1.5f}, floats, 0.0f);
+
+        S7PreparedAddresses prepared = S7PreparedAddresses.of(2, "DB1.8");
+        short[] shorts = new short[1];
+        this.s7PLC.readInt16(prepared, shorts);
+        this.s7PLC.readInt16(prepared, shorts);
+        assertEquals((short) -22, shorts[0]);
+
+        boolean[] booleans = new boolean[2];
+        this.s7PLC.readBoolean(new String[]{"DB1.10.1", "DB1.10.0"}, booleans);
+        assertTrue(booleans[0]);
+        assertFalse(booleans[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void primitiveArrayReadMismatchTest() {
+        this.s7PLC.readFloat32(S7PreparedAddresses.of(2, "DB1.0"), new float[1]);
+    }
+
+    @Test
+    public void preparedReadTest() {
+        this.s7PLC.writeByte("DB1.0", new byte[]{0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08});
+        MultiAddressRead addressRead = new MultiAddressRead();
+        addressRead.addData("DB1.4", 2).addData("DB1.0", 2).addData("DB1.2", 1);
+        S7PreparedRead preparedRead = new S7PreparedRead(addressRead);
+        for (int i = 0; i < 3; i++) {
+            List<byte[]> bytes = this.s7PLC.readMultiByte(preparedRead);
+            assertArrayEquals(new byte[]{0x05, 0x06}, bytes.get(0));
+            assertArrayEquals(new byte[]{0x01, 0x02}, bytes.get(1));
+            assertArrayEquals(new byte[]{0x03}, bytes.get(2));
+        }
+        this.s7PLC.setAddressMergeGap(S7AddressMergeAlg.RECOMMENDED_MAX_GAP);
+        try {
+            List<byte[]> bytes = this.s7PLC.readMultiByte(preparedRead);
+            assertArrayEquals(new byte[]{0x05, 0x06}, bytes.get(0));
+            assertArrayEquals(new byte[]{0x01, 0x02}, bytes.get(1));
+            assertArrayEquals(new byte[]{0x03}, bytes.get(2));
+        } finally {
+            this.s7PLC.setAddressMergeGap(-1);
+        }
+    }
+
+    @Test
+    public void parallelReadTest() {
+        byte[] expect = new byte[600];
+        for (int i = 0; i < expect.length; i++) {
+            expect[i] = (byte) i;
+        }
+        this.s7PLC.writeByte("DB1.0", expect);
+        MultiAddressRead addressRead = new MultiAddressRead();
+        addressRead.addData("DB1.300", 300).addData("DB1.0", 300).addData("DB1.10", 2);
+        // 同一连接出现两次，分组交替分配后在该连接上排队执行
+        S7ParallelReader reader = new S7ParallelReader(Arrays.asList(this.s7PLC, this.s7PLC));
+        List<byte[]> bytes = reader.readMultiByte(addressRead);
+        assertArrayEquals(Arrays.copyOfRange(expect, 300, 600), bytes.get(0));
+        assertArrayEquals(Arrays.copyOfRange(expect, 0, 300), bytes.get(1));
+        assertArrayEquals(Arrays.copyOfRange(expect, 10, 12), bytes.get(2));
+    }
+
+    @Test
+    public void snapshotTest() {
+        byte[] expect = new byte[4000];
+        for (int i = 0; i < expect.length; i++) {
+            expect[i] = (byte) i;
+        }
+        this.s7PLC.writeByte("DB2.0", expect);
+        S7DbSnapshot snapshot = new S7DbSnapshot("DB2.0", expect.length);
+        assertEquals(Collections.singletonList(new S7DbSnapshot.Range(0, 4000)), this.s7PLC.readSnapshot(snapshot));
+        assertArrayEquals(expect, snapshot.getData());
+        assertTrue(this.s7PLC.readSnapshot(snapshot).isEmpty());
+
+        this.s7PLC.writeByte("DB2.10", new byte[]{0x55, 0x55});
+        this.s7PLC.writeByte("DB2.3000", (byte) 0x55);
+        List<S7DbSnapshot.Range> ranges = this.s7PLC.readSnapshot(snapshot);
+        assertEquals(Arrays.asList(new S7DbSnapshot.Range(10, 2), new S7DbSnapshot.Range(3000, 1)), ranges);
+        assertEquals(0x55, snapshot.getData()[3000]);
+        assertEquals(expect[3000], snapshot.getPrevious()[3000]);
+        assertEquals(3, snapshot.getCycle());
+    }
+
     @Test
     public void writeStringTest() {
         this.s7PLC.writeString("DB1.10", "123456");
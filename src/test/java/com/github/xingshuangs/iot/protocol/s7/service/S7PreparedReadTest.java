@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.protocol.s7.service;
+
+import com.github.xingshuangs.iot.protocol.s7.model.S7Data;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class S7PreparedReadTest {
+
+    @Test
+    public void compile() {
+        MultiAddressRead addressRead = new MultiAddressRead();
+        addressRead.addData("DB1.0", 200).addData("DB1.300", 100).addData("DB2.0", 4);
+        S7PreparedRead preparedRead = new S7PreparedRead(addressRead);
+        assertEquals(3, preparedRead.size());
+
+        S7PreparedRead.Plan plan = preparedRead.getPlan(240, -1);
+        assertNull(plan.ranges);
+        assertEquals(plan.groups.size(), plan.frames.length);
+        assertTrue(plan.frames.length > 1);
+        for (byte[] frame : plan.frames) {
+            S7Data data = S7Data.fromBytes(frame);
+            int pduReference = ((frame[S7PreparedRead.PDU_REFERENCE_OFFSET] & 0xFF) << 8)
+                    | (frame[S7PreparedRead.PDU_REFERENCE_OFFSET + 1] & 0xFF);
+            assertEquals(data.getHeader().getPduReference(), pduReference);
+            assertTrue(frame.length - 7 <= 240);
+        }
+        assertSame(plan, preparedRead.getPlan(240, -1));
+        assertNotSame(plan, preparedRead.getPlan(480, -1));
+    }
+
+    @Test
+    public void compileMerged() {
+        MultiAddressRead addressRead = new MultiAddressRead();
+        addressRead.addData("DB1.0", 2).addData("DB1.4", 2).addData("DB1.8", 4);
+        S7PreparedRead.Plan plan = new S7PreparedRead(addressRead).getPlan(240, 16);
+        assertEquals(1, plan.ranges.size());
+        assertEquals(1, plan.readItems.size());
+        assertEquals(12, plan.readItems.get(0).getCount());
+        assertEquals(1, plan.frames.length);
+    }
+}
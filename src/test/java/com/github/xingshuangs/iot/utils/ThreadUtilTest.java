@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2099 Oscura (xingshuang) <xingshuang_cool@163.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.xingshuangs.iot.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.Assert.*;
+
+
+public class ThreadUtilTest {
+
+    @Test
+    public void newThreadFactory() throws Exception {
+        ThreadFactory factory = ThreadUtil.newThreadFactory("test-");
+        ExecutorService executor = Executors.newSingleThreadExecutor(factory);
+        try {
+            Future<String> future = executor.submit(() -> Thread.currentThread().getName());
+            String name = future.get();
+            if (ThreadUtil.isVirtualThreadSupported()) {
+                assertEquals("test-0", name);
+            } else {
+                assertNotNull(name);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void newPerTaskExecutor() throws Exception {
+        ExecutorService executor = ThreadUtil.newPerTaskExecutor("test-", Executors::newCachedThreadPool);
+        try {
+            assertEquals(Integer.valueOf(3), executor.submit(() -> 1 + 2).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}